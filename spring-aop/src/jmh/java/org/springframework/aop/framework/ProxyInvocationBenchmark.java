@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.DynamicMethodMatcherPointcut;
+
+/**
+ * Benchmarks for invocations on frozen JDK and CGLIB proxies, with regular
+ * and precompiled interceptor chains.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ProxyInvocationBenchmark {
+
+	@Benchmark
+	public int invoke(BenchmarkState state) {
+		return state.proxy.compute(state.value);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"false", "true"})
+		public boolean proxyTargetClass;
+
+		@Param({"false", "true"})
+		public boolean precompileChains;
+
+		@Param({"4"})
+		public int interceptorCount;
+
+		public Service proxy;
+
+		public int value = 42;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			ProxyFactory proxyFactory = new ProxyFactory(new SimpleService());
+			proxyFactory.addInterface(Service.class);
+			proxyFactory.setProxyTargetClass(this.proxyTargetClass);
+			MethodInterceptor interceptor = invocation -> invocation.proceed();
+			for (int i = 0; i < this.interceptorCount; i++) {
+				proxyFactory.addAdvice(interceptor);
+			}
+			proxyFactory.addAdvisor(new DefaultPointcutAdvisor(new DynamicMethodMatcherPointcut() {
+				@Override
+				public boolean matches(Method method, Class<?> targetClass, Object... args) {
+					return (args.length == 1 && args[0] instanceof Integer);
+				}
+			}, interceptor));
+			proxyFactory.setPrecompileChains(this.precompileChains);
+			proxyFactory.setFrozen(true);
+			this.proxy = (Service) proxyFactory.getProxy();
+		}
+	}
+
+
+	public interface Service {
+
+		int compute(int value);
+	}
+
+
+	public static class SimpleService implements Service {
+
+		@Override
+		public int compute(int value) {
+			return value + 1;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -119,8 +119,15 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Nullable
 	private transient PointcutExpression pointcutExpression;
 
+	@Nullable
+	private transient PointcutExpressionCache.SharedExpression sharedExpression;
+
+	private transient boolean beanDesignatorUsed;
+
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
+	private transient Map<Class<?>, Map<Method, ShadowMatch>> targetShadowMatchCache = new ConcurrentHashMap<>(32);
+
 
 	/**
 	 * Create a new default AspectJExpressionPointcut.
@@ -188,14 +195,37 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	/**
 	 * Check whether this pointcut is ready to match,
 	 * lazily building the underlying AspectJ pointcut expression.
+	 * <p>The expression is obtained from the shared {@link PointcutExpressionCache}
+	 * if an equivalent pointcut has parsed it already.
 	 */
 	private PointcutExpression obtainPointcutExpression() {
 		if (getExpression() == null) {
 			throw new IllegalStateException("Must set property 'expression' before attempting to match");
 		}
 		if (this.pointcutExpression == null) {
-			this.pointcutClassLoader = determinePointcutClassLoader();
-			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			ClassLoader classLoader = determinePointcutClassLoader();
+			PointcutExpressionCache.ExpressionKey key = null;
+			PointcutExpressionCache.SharedExpression sharedExpression = null;
+			if (PointcutExpressionCache.isCacheSafe(classLoader, this.pointcutDeclarationScope)) {
+				key = new PointcutExpressionCache.ExpressionKey(resolveExpression(), this.pointcutDeclarationScope,
+						this.pointcutParameterNames, this.pointcutParameterTypes, classLoader);
+				sharedExpression = PointcutExpressionCache.getExpression(key);
+			}
+			this.pointcutClassLoader = classLoader;
+			if (sharedExpression != null) {
+				this.sharedExpression = sharedExpression;
+				this.pointcutExpression = sharedExpression.getPointcutExpression();
+			}
+			else {
+				PointcutExpression pointcutExpression = buildPointcutExpression(classLoader);
+				// Expressions using bean() are bound to this pointcut's BeanFactory
+				if (key != null && !this.beanDesignatorUsed) {
+					sharedExpression = PointcutExpressionCache.putExpression(key, pointcutExpression);
+					this.sharedExpression = sharedExpression;
+					pointcutExpression = sharedExpression.getPointcutExpression();
+				}
+				this.pointcutExpression = pointcutExpression;
+			}
 		}
 		return this.pointcutExpression;
 	}
@@ -426,6 +456,18 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	}
 
 	private ShadowMatch getTargetShadowMatch(Method method, Class<?> targetClass) {
+		// Avoid resolving the target method again for known method and target class combinations...
+		Map<Method, ShadowMatch> targetShadowMatches = this.targetShadowMatchCache.get(targetClass);
+		ShadowMatch shadowMatch = (targetShadowMatches != null ? targetShadowMatches.get(method) : null);
+		if (shadowMatch == null) {
+			shadowMatch = getShadowMatch(getTargetMethod(method, targetClass), method);
+			this.targetShadowMatchCache.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>(16))
+					.put(method, shadowMatch);
+		}
+		return shadowMatch;
+	}
+
+	private Method getTargetMethod(Method method, Class<?> targetClass) {
 		Method targetMethod = AopUtils.getMostSpecificMethod(method, targetClass);
 		if (targetMethod.getDeclaringClass().isInterface()) {
 			// Try to build the most specific interface possible for inherited methods to be
@@ -444,17 +486,34 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 				}
 			}
 		}
-		return getShadowMatch(targetMethod, method);
+		return targetMethod;
 	}
 
 	private ShadowMatch getShadowMatch(Method targetMethod, Method originalMethod) {
 		// Avoid lock contention for known Methods through concurrent access...
 		ShadowMatch shadowMatch = this.shadowMatchCache.get(targetMethod);
 		if (shadowMatch == null) {
-			synchronized (this.shadowMatchCache) {
+			PointcutExpressionCache.SharedExpression sharedExpression = this.sharedExpression;
+			if (sharedExpression != null) {
+				shadowMatch = sharedExpression.getShadowMatch(targetMethod);
+				if (shadowMatch != null) {
+					this.shadowMatchCache.put(targetMethod, shadowMatch);
+					return shadowMatch;
+				}
+			}
+			// A shared expression is matched against by all pointcuts with the same
+			// expression, so its AspectJ world needs to be guarded by a common lock
+			Object matchMutex = (sharedExpression != null ? sharedExpression : this.shadowMatchCache);
+			synchronized (matchMutex) {
 				// Not found - now check again with full lock...
 				PointcutExpression fallbackExpression = null;
 				shadowMatch = this.shadowMatchCache.get(targetMethod);
+				if (shadowMatch == null && sharedExpression != null) {
+					shadowMatch = sharedExpression.findShadowMatch(targetMethod);
+					if (shadowMatch != null) {
+						this.shadowMatchCache.put(targetMethod, shadowMatch);
+					}
+				}
 				if (shadowMatch == null) {
 					Method methodToMatch = targetMethod;
 					try {
@@ -511,6 +570,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 								fallbackExpression.matchesMethodExecution(methodToMatch));
 					}
 					this.shadowMatchCache.put(targetMethod, shadowMatch);
+					if (sharedExpression != null) {
+						sharedExpression.putShadowMatch(targetMethod, shadowMatch);
+					}
 				}
 			}
 		}
@@ -577,6 +639,7 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		// Initialize transient fields.
 		// pointcutExpression will be initialized lazily by checkReadyToMatch()
 		this.shadowMatchCache = new ConcurrentHashMap<>(32);
+		this.targetShadowMatchCache = new ConcurrentHashMap<>(32);
 	}
 
 
@@ -599,6 +662,7 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 		@Override
 		public ContextBasedMatcher parse(String expression) {
+			beanDesignatorUsed = true;
 			return new BeanContextMatcher(expression);
 		}
 	}
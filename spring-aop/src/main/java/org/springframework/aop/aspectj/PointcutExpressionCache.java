@@ -0,0 +1,362 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.aspectj.weaver.tools.PointcutExpression;
+import org.aspectj.weaver.tools.ShadowMatch;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Shared cache of parsed AspectJ pointcut expressions and their shadow matches,
+ * allowing {@link AspectJExpressionPointcut} instances for the same expression
+ * to reuse the AspectJ weaver's results, e.g. across application contexts.
+ *
+ * <p>Parsed expressions are interned by expression text, declaration scope,
+ * pointcut parameters and ClassLoader. An expression is only shared if its
+ * ClassLoader and declaration scope are cache-safe with respect to this class
+ * (that is, loaded by the same ClassLoader or one of its parents), and if it
+ * does not use the {@code bean()} pointcut designator which is bound to a
+ * specific BeanFactory. Shadow matches are only shared for methods of
+ * cache-safe classes as well.
+ *
+ * <p>All entries are softly referenced. The number of shadow matches per
+ * expression is limited to {@value #DEFAULT_MAX_SHADOW_MATCHES} by default,
+ * which can be changed through the {@value #MAX_SHADOW_MATCHES_PROPERTY_NAME}
+ * property; further shadow matches are only held by the individual pointcuts.
+ *
+ * @since 5.2
+ * @see #getStatistics()
+ * @see #clear()
+ */
+public abstract class PointcutExpressionCache {
+
+	/**
+	 * System property used to configure the maximum number of shared shadow
+	 * matches per pointcut expression, with {@code 0} turning off the sharing
+	 * of shadow matches. May alternatively be configured via the
+	 * {@link org.springframework.core.SpringProperties} mechanism.
+	 * @see #DEFAULT_MAX_SHADOW_MATCHES
+	 */
+	public static final String MAX_SHADOW_MATCHES_PROPERTY_NAME = "spring.aop.shadowmatch.cache.maxSize";
+
+	/**
+	 * The default maximum number of shared shadow matches per pointcut expression: {@value}.
+	 */
+	public static final int DEFAULT_MAX_SHADOW_MATCHES = 4096;
+
+
+	private static final int maxShadowMatches = retrieveMaxShadowMatches();
+
+	private static final Map<ExpressionKey, SharedExpression> expressions = new ConcurrentReferenceHashMap<>(64);
+
+	private static final LongAdder expressionHitCount = new LongAdder();
+
+	private static final LongAdder expressionMissCount = new LongAdder();
+
+	private static final LongAdder shadowMatchHitCount = new LongAdder();
+
+	private static final LongAdder shadowMatchMissCount = new LongAdder();
+
+
+	/**
+	 * Return the shared expression for the given key, if any.
+	 */
+	@Nullable
+	static SharedExpression getExpression(ExpressionKey key) {
+		SharedExpression expression = expressions.get(key);
+		if (expression != null) {
+			expressionHitCount.increment();
+		}
+		else {
+			expressionMissCount.increment();
+		}
+		return expression;
+	}
+
+	/**
+	 * Register the given parsed expression for the given key.
+	 * @return the shared expression to use, which may have been
+	 * registered concurrently for the same key
+	 */
+	static SharedExpression putExpression(ExpressionKey key, PointcutExpression pointcutExpression) {
+		SharedExpression expression = new SharedExpression(pointcutExpression);
+		SharedExpression existing = expressions.putIfAbsent(key, expression);
+		return (existing != null ? existing : expression);
+	}
+
+	/**
+	 * Determine whether a pointcut expression for the given ClassLoader and
+	 * declaration scope may be shared.
+	 */
+	static boolean isCacheSafe(@Nullable ClassLoader classLoader, @Nullable Class<?> declarationScope) {
+		if (declarationScope != null && !isCacheSafe(declarationScope)) {
+			return false;
+		}
+		ClassLoader current = PointcutExpressionCache.class.getClassLoader();
+		while (current != null) {
+			if (current == classLoader) {
+				return true;
+			}
+			current = current.getParent();
+		}
+		return (classLoader == null);
+	}
+
+	private static boolean isCacheSafe(Class<?> clazz) {
+		return ClassUtils.isCacheSafe(clazz, PointcutExpressionCache.class.getClassLoader());
+	}
+
+	/**
+	 * Return a snapshot of the statistics of the shared cache.
+	 */
+	public static Statistics getStatistics() {
+		int shadowMatchCount = 0;
+		for (SharedExpression expression : expressions.values()) {
+			shadowMatchCount += expression.shadowMatches.size();
+		}
+		return new Statistics(expressions.size(), expressionHitCount.sum(), expressionMissCount.sum(),
+				shadowMatchCount, shadowMatchHitCount.sum(), shadowMatchMissCount.sum());
+	}
+
+	/**
+	 * Clear the shared cache, including its statistics.
+	 * <p>Pointcuts that obtained a shared expression before keep using it.
+	 */
+	public static void clear() {
+		expressions.clear();
+		expressionHitCount.reset();
+		expressionMissCount.reset();
+		shadowMatchHitCount.reset();
+		shadowMatchMissCount.reset();
+	}
+
+	private static int retrieveMaxShadowMatches() {
+		try {
+			String maxSize = SpringProperties.getProperty(MAX_SHADOW_MATCHES_PROPERTY_NAME);
+			if (StringUtils.hasText(maxSize)) {
+				return Integer.parseInt(maxSize.trim());
+			}
+		}
+		catch (Exception ex) {
+			// ignore
+		}
+		return DEFAULT_MAX_SHADOW_MATCHES;
+	}
+
+
+	/**
+	 * Key for a parsed pointcut expression.
+	 */
+	static final class ExpressionKey {
+
+		private final String expression;
+
+		@Nullable
+		private final Class<?> declarationScope;
+
+		private final String[] parameterNames;
+
+		private final Class<?>[] parameterTypes;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		private final int hashCode;
+
+		ExpressionKey(String expression, @Nullable Class<?> declarationScope,
+				String[] parameterNames, Class<?>[] parameterTypes, @Nullable ClassLoader classLoader) {
+
+			this.expression = expression;
+			this.declarationScope = declarationScope;
+			this.parameterNames = parameterNames.clone();
+			this.parameterTypes = parameterTypes.clone();
+			this.classLoader = classLoader;
+			int hashCode = expression.hashCode();
+			hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode(declarationScope);
+			hashCode = 31 * hashCode + Arrays.hashCode(this.parameterNames);
+			hashCode = 31 * hashCode + Arrays.hashCode(this.parameterTypes);
+			hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode(classLoader);
+			this.hashCode = hashCode;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ExpressionKey)) {
+				return false;
+			}
+			ExpressionKey otherKey = (ExpressionKey) other;
+			return (this.expression.equals(otherKey.expression) &&
+					this.declarationScope == otherKey.declarationScope &&
+					Arrays.equals(this.parameterNames, otherKey.parameterNames) &&
+					Arrays.equals(this.parameterTypes, otherKey.parameterTypes) &&
+					this.classLoader == otherKey.classLoader);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public String toString() {
+			return this.expression;
+		}
+	}
+
+
+	/**
+	 * A parsed pointcut expression along with its shared shadow matches.
+	 * <p>The AspectJ world behind the expression is not thread-safe: pointcuts
+	 * sharing the expression synchronize on this instance for any matching.
+	 */
+	static final class SharedExpression {
+
+		private final PointcutExpression pointcutExpression;
+
+		private final Map<Method, ShadowMatch> shadowMatches = new ConcurrentReferenceHashMap<>(256);
+
+		SharedExpression(PointcutExpression pointcutExpression) {
+			this.pointcutExpression = pointcutExpression;
+		}
+
+		PointcutExpression getPointcutExpression() {
+			return this.pointcutExpression;
+		}
+
+		@Nullable
+		ShadowMatch getShadowMatch(Method method) {
+			ShadowMatch shadowMatch = this.shadowMatches.get(method);
+			if (shadowMatch != null) {
+				shadowMatchHitCount.increment();
+			}
+			else {
+				shadowMatchMissCount.increment();
+			}
+			return shadowMatch;
+		}
+
+		/**
+		 * Look up a shadow match without recording a hit or miss, for re-checks
+		 * of a lookup that has already been counted.
+		 */
+		@Nullable
+		ShadowMatch findShadowMatch(Method method) {
+			return this.shadowMatches.get(method);
+		}
+
+		void putShadowMatch(Method method, ShadowMatch shadowMatch) {
+			if (this.shadowMatches.size() < maxShadowMatches && isCacheSafe(method.getDeclaringClass())) {
+				this.shadowMatches.putIfAbsent(method, shadowMatch);
+			}
+		}
+	}
+
+
+	/**
+	 * Statistics of the shared cache at a given point in time.
+	 */
+	public static final class Statistics {
+
+		private final int expressionCount;
+
+		private final long expressionHitCount;
+
+		private final long expressionMissCount;
+
+		private final int shadowMatchCount;
+
+		private final long shadowMatchHitCount;
+
+		private final long shadowMatchMissCount;
+
+		Statistics(int expressionCount, long expressionHitCount, long expressionMissCount,
+				int shadowMatchCount, long shadowMatchHitCount, long shadowMatchMissCount) {
+
+			this.expressionCount = expressionCount;
+			this.expressionHitCount = expressionHitCount;
+			this.expressionMissCount = expressionMissCount;
+			this.shadowMatchCount = shadowMatchCount;
+			this.shadowMatchHitCount = shadowMatchHitCount;
+			this.shadowMatchMissCount = shadowMatchMissCount;
+		}
+
+		/**
+		 * Return the number of shared pointcut expressions.
+		 */
+		public int getExpressionCount() {
+			return this.expressionCount;
+		}
+
+		/**
+		 * Return the number of pointcuts that found a shared expression.
+		 */
+		public long getExpressionHitCount() {
+			return this.expressionHitCount;
+		}
+
+		/**
+		 * Return the number of pointcuts that had to parse their expression.
+		 */
+		public long getExpressionMissCount() {
+			return this.expressionMissCount;
+		}
+
+		/**
+		 * Return the number of shared shadow matches across all expressions.
+		 */
+		public int getShadowMatchCount() {
+			return this.shadowMatchCount;
+		}
+
+		/**
+		 * Return the number of shadow match lookups served by the shared cache.
+		 */
+		public long getShadowMatchHitCount() {
+			return this.shadowMatchHitCount;
+		}
+
+		/**
+		 * Return the number of shadow match lookups not served by the shared cache.
+		 */
+		public long getShadowMatchMissCount() {
+			return this.shadowMatchMissCount;
+		}
+
+		@Override
+		public String toString() {
+			return "PointcutExpressionCache.Statistics: expressions=" + this.expressionCount +
+					", expressionHits=" + this.expressionHitCount + ", expressionMisses=" + this.expressionMissCount +
+					", shadowMatches=" + this.shadowMatchCount + ", shadowMatchHits=" + this.shadowMatchHitCount +
+					", shadowMatchMisses=" + this.shadowMatchMissCount;
+		}
+	}
+
+}
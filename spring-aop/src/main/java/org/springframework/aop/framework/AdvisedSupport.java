@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -83,6 +83,12 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	/** Cache with Method as key and advisor chain List as value. */
 	private transient Map<MethodCacheKey, List<Object>> methodCache;
 
+	/**
+	 * Cache with Method as key and precompiled advisor chain as value,
+	 * used for frozen configurations with {@link #isPrecompileChains()}.
+	 */
+	private transient Map<Method, CompiledInterceptorChain> compiledChainCache;
+
 	/**
 	 * Interfaces to be implemented by the proxy. Held in List to keep the order
 	 * of registration, to create JDK proxy with specified order of interfaces.
@@ -107,6 +113,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	 */
 	public AdvisedSupport() {
 		this.methodCache = new ConcurrentHashMap<>(32);
+		this.compiledChainCache = new ConcurrentHashMap<>(32);
 	}
 
 	/**
@@ -474,9 +481,20 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	 * for the given method, based on this configuration.
 	 * @param method the proxied method
 	 * @param targetClass the target class
-	 * @return a List of MethodInterceptors (may also include InterceptorAndDynamicMethodMatchers)
+	 * @return a List of MethodInterceptors (may also include InterceptorAndDynamicMethodMatchers,
+	 * unless the chain has been precompiled)
+	 * @see #isPrecompileChains()
 	 */
 	public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Method method, @Nullable Class<?> targetClass) {
+		if (isFrozen() && isPrecompileChains()) {
+			CompiledInterceptorChain compiled = this.compiledChainCache.get(method);
+			if (compiled == null) {
+				compiled = CompiledInterceptorChain.compile(
+						this.advisorChainFactory.getInterceptorsAndDynamicInterceptionAdvice(this, method, targetClass));
+				this.compiledChainCache.put(method, compiled);
+			}
+			return compiled;
+		}
 		MethodCacheKey cacheKey = new MethodCacheKey(method);
 		List<Object> cached = this.methodCache.get(cacheKey);
 		if (cached == null) {
@@ -492,6 +510,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	 */
 	protected void adviceChanged() {
 		this.methodCache.clear();
+		this.compiledChainCache.clear();
 	}
 
 	/**
@@ -552,6 +571,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 
 		// Initialize transient fields.
 		this.methodCache = new ConcurrentHashMap<>(32);
+		this.compiledChainCache = new ConcurrentHashMap<>(32);
 	}
 
 
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.aopalliance.intercept.MethodInterceptor;
+
+/**
+ * Internal framework class, holding the precompiled advisor chain of a
+ * method as a fixed array of plain MethodInterceptors.
+ *
+ * <p>Exposed as an unmodifiable List for compatibility with the regular
+ * advisor chain contract, while {@link ReflectiveMethodInvocation} walks
+ * the underlying array directly, without any dynamic method matcher checks.
+ *
+ * @since 5.2
+ * @see AdvisedSupport#getInterceptorsAndDynamicInterceptionAdvice
+ * @see ProxyConfig#setPrecompileChains
+ */
+final class CompiledInterceptorChain extends AbstractList<Object> implements RandomAccess {
+
+	private final MethodInterceptor[] interceptors;
+
+
+	private CompiledInterceptorChain(MethodInterceptor[] interceptors) {
+		this.interceptors = interceptors;
+	}
+
+
+	/**
+	 * Return the interceptors of this chain, in invocation order.
+	 */
+	MethodInterceptor[] getInterceptors() {
+		return this.interceptors;
+	}
+
+	@Override
+	public Object get(int index) {
+		return this.interceptors[index];
+	}
+
+	@Override
+	public int size() {
+		return this.interceptors.length;
+	}
+
+
+	/**
+	 * Compile the given advisor chain, with dynamic method matchers turned
+	 * into interceptors that perform the runtime check themselves.
+	 * @param chain the advisor chain as built by the {@link AdvisorChainFactory}
+	 * @return the compiled chain
+	 */
+	static CompiledInterceptorChain compile(List<Object> chain) {
+		MethodInterceptor[] interceptors = new MethodInterceptor[chain.size()];
+		for (int i = 0; i < interceptors.length; i++) {
+			Object interceptor = chain.get(i);
+			if (interceptor instanceof InterceptorAndDynamicMethodMatcher) {
+				interceptors[i] = new DynamicMatchingInterceptor((InterceptorAndDynamicMethodMatcher) interceptor);
+			}
+			else {
+				interceptors[i] = (MethodInterceptor) interceptor;
+			}
+		}
+		return new CompiledInterceptorChain(interceptors);
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.springframework.aop.MethodMatcher;
+import org.springframework.lang.Nullable;
+
+/**
+ * Internal framework class, evaluating a dynamic MethodMatcher inline
+ * as an element of a precompiled advisor chain: invoking the given
+ * interceptor if the runtime check matches, or proceeding otherwise.
+ *
+ * @since 5.2
+ * @see AdvisedSupport#getInterceptorsAndDynamicInterceptionAdvice
+ * @see ProxyConfig#setPrecompileChains
+ */
+final class DynamicMatchingInterceptor implements MethodInterceptor {
+
+	private final MethodInterceptor interceptor;
+
+	private final MethodMatcher methodMatcher;
+
+
+	DynamicMatchingInterceptor(InterceptorAndDynamicMethodMatcher dm) {
+		this.interceptor = dm.interceptor;
+		this.methodMatcher = dm.methodMatcher;
+	}
+
+
+	@Override
+	@Nullable
+	public Object invoke(MethodInvocation mi) throws Throwable {
+		Method method = mi.getMethod();
+		Class<?> targetClass = (mi instanceof ReflectiveMethodInvocation ?
+				((ReflectiveMethodInvocation) mi).getTargetClassForMatching() : method.getDeclaringClass());
+		if (this.methodMatcher.matches(method, targetClass, mi.getArguments())) {
+			return this.interceptor.invoke(mi);
+		}
+		else {
+			// Dynamic matching failed: skip the interceptor.
+			return mi.proceed();
+		}
+	}
+
+}
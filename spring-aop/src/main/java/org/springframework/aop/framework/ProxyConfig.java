@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,6 +44,8 @@ public class ProxyConfig implements Serializable {
 
 	private boolean frozen = false;
 
+	private boolean precompileChains = false;
+
 
 	/**
 	 * Set whether to proxy the target class directly, instead of just proxying
@@ -146,6 +148,29 @@ public class ProxyConfig implements Serializable {
 		return this.frozen;
 	}
 
+	/**
+	 * Set whether a frozen config should precompile the interceptor chain
+	 * for each advised method. Default is "false".
+	 * <p>Precompiled chains are cached per method as fixed arrays of plain
+	 * interceptors, walked by the method invocation without any type checks:
+	 * dynamic method matchers are turned into regular interceptors that
+	 * perform the runtime check themselves.
+	 * This setting only takes effect if the config is {@link #setFrozen frozen}.
+	 * @since 5.2
+	 */
+	public void setPrecompileChains(boolean precompileChains) {
+		this.precompileChains = precompileChains;
+	}
+
+	/**
+	 * Return whether a frozen config should precompile the interceptor chain
+	 * for each advised method.
+	 * @since 5.2
+	 */
+	public boolean isPrecompileChains() {
+		return this.precompileChains;
+	}
+
 
 	/**
 	 * Copy configuration from the other config object.
@@ -157,6 +182,7 @@ public class ProxyConfig implements Serializable {
 		this.optimize = other.optimize;
 		this.exposeProxy = other.exposeProxy;
 		this.frozen = other.frozen;
+		this.precompileChains = other.precompileChains;
 		this.opaque = other.opaque;
 	}
 
@@ -167,7 +193,8 @@ public class ProxyConfig implements Serializable {
 		sb.append("optimize=").append(this.optimize).append("; ");
 		sb.append("opaque=").append(this.opaque).append("; ");
 		sb.append("exposeProxy=").append(this.exposeProxy).append("; ");
-		sb.append("frozen=").append(this.frozen);
+		sb.append("frozen=").append(this.frozen).append("; ");
+		sb.append("precompileChains=").append(this.precompileChains);
 		return sb.toString();
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -85,6 +85,13 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
 	 */
 	protected final List<?> interceptorsAndDynamicMethodMatchers;
 
+	/**
+	 * Plain MethodInterceptors of a precompiled chain, if any,
+	 * to be invoked without any dynamic checks.
+	 */
+	@Nullable
+	private final MethodInterceptor[] compiledInterceptors;
+
 	/**
 	 * Index from 0 of the current interceptor we're invoking.
 	 * -1 until we invoke: then the current interceptor.
@@ -115,6 +122,8 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
 		this.method = BridgeMethodResolver.findBridgedMethod(method);
 		this.arguments = AopProxyUtils.adaptArgumentsIfNecessary(method, arguments);
 		this.interceptorsAndDynamicMethodMatchers = interceptorsAndDynamicMethodMatchers;
+		this.compiledInterceptors = (interceptorsAndDynamicMethodMatchers instanceof CompiledInterceptorChain ?
+				((CompiledInterceptorChain) interceptorsAndDynamicMethodMatchers).getInterceptors() : null);
 	}
 
 
@@ -154,10 +163,28 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
 		this.arguments = arguments;
 	}
 
+	/**
+	 * Return the target class to evaluate dynamic method matchers against.
+	 * @since 5.2
+	 */
+	Class<?> getTargetClassForMatching() {
+		return (this.targetClass != null ? this.targetClass : this.method.getDeclaringClass());
+	}
+
 
 	@Override
 	@Nullable
 	public Object proceed() throws Throwable {
+		MethodInterceptor[] compiledInterceptors = this.compiledInterceptors;
+		if (compiledInterceptors != null) {
+			// Precompiled chain: plain interceptors only, with any dynamic
+			// method matchers evaluated by the interceptors themselves.
+			if (this.currentInterceptorIndex == compiledInterceptors.length - 1) {
+				return invokeJoinpoint();
+			}
+			return compiledInterceptors[++this.currentInterceptorIndex].invoke(this);
+		}
+
 		//	We start with an index of -1 and increment early.
 		if (this.currentInterceptorIndex == this.interceptorsAndDynamicMethodMatchers.size() - 1) {
 			return invokeJoinpoint();
@@ -170,8 +197,7 @@ public class ReflectiveMethodInvocation implements ProxyMethodInvocation, Clonea
 			// been evaluated and found to match.
 			InterceptorAndDynamicMethodMatcher dm =
 					(InterceptorAndDynamicMethodMatcher) interceptorOrInterceptionAdvice;
-			Class<?> targetClass = (this.targetClass != null ? this.targetClass : this.method.getDeclaringClass());
-			if (dm.methodMatcher.matches(this.method, targetClass, this.arguments)) {
+			if (dm.methodMatcher.matches(this.method, getTargetClassForMatching(), this.arguments)) {
 				return dm.interceptor.invoke(this);
 			}
 			else {
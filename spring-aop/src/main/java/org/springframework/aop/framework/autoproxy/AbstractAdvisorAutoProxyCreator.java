@@ -22,8 +22,11 @@ import org.springframework.aop.Advisor;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -112,6 +115,8 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 	/**
 	 * Search the given candidate Advisors to find all Advisors that
 	 * can apply to the specified bean.
+	 * <p>The time spent matching is recorded as a {@code spring.aop.advisors.match}
+	 * step with the bean factory's {@link ApplicationStartup}.
 	 * @param candidateAdvisors the candidate Advisors
 	 * @param beanClass the target's bean class
 	 * @param beanName the target's bean name
@@ -121,12 +126,25 @@ public abstract class AbstractAdvisorAutoProxyCreator extends AbstractAutoProxyC
 	protected List<Advisor> findAdvisorsThatCanApply(
 			List<Advisor> candidateAdvisors, Class<?> beanClass, String beanName) {
 
+		BeanFactory beanFactory = getBeanFactory();
+		ApplicationStartup applicationStartup = (beanFactory instanceof ConfigurableBeanFactory ?
+				((ConfigurableBeanFactory) beanFactory).getApplicationStartup() : ApplicationStartup.DEFAULT);
+		StartupStep advisorMatching = applicationStartup.start("spring.aop.advisors.match")
+				.tag("beanName", String.valueOf(beanName)).tag("beanType", beanClass::getName)
+				.tag("candidateCount", () -> String.valueOf(candidateAdvisors.size()));
 		ProxyCreationContext.setCurrentProxiedBeanName(beanName);
+		List<Advisor> eligibleAdvisors = null;
 		try {
-			return AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass);
+			eligibleAdvisors = AopUtils.findAdvisorsThatCanApply(candidateAdvisors, beanClass);
+			return eligibleAdvisors;
 		}
 		finally {
 			ProxyCreationContext.setCurrentProxiedBeanName(null);
+			if (eligibleAdvisors != null) {
+				int eligibleCount = eligibleAdvisors.size();
+				advisorMatching.tag("eligibleCount", () -> String.valueOf(eligibleCount));
+			}
+			advisorMatching.end();
 		}
 	}
 
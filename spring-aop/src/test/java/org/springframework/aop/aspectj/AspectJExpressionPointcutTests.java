@@ -38,6 +38,8 @@ import org.springframework.tests.sample.beans.subpkg.DeepBean;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -309,6 +311,39 @@ public class AspectJExpressionPointcutTests {
 		assertEquals("execution(* *(..)) && args(String) && this(Object)",expr.getPointcutExpression());
 	}
 
+	@Test
+	public void testPointcutExpressionSharedBetweenPointcuts() {
+		String expression = "execution(* org.springframework.tests.sample.beans.TestBean.get*())";
+		PointcutExpression expr = ((AspectJExpressionPointcut) getPointcut(expression)).getPointcutExpression();
+		assertSame(expr, ((AspectJExpressionPointcut) getPointcut(expression)).getPointcutExpression());
+		assertNotSame(expr, ((AspectJExpressionPointcut) getPointcut("execution(* *..TestBean.get*())"))
+				.getPointcutExpression());
+	}
+
+	@Test
+	public void testShadowMatchSharedBetweenPointcuts() {
+		String expression = "execution(int org.springframework.tests.sample.beans.TestBean.getAge()) && !this(String)";
+		assertTrue(getPointcut(expression).getMethodMatcher().matches(getAge, TestBean.class));
+		long hitCount = PointcutExpressionCache.getStatistics().getShadowMatchHitCount();
+		assertTrue(getPointcut(expression).getMethodMatcher().matches(getAge, TestBean.class));
+		assertTrue(PointcutExpressionCache.getStatistics().getShadowMatchHitCount() > hitCount);
+	}
+
+	@Test
+	public void testShadowMatchMissCountedOnce() {
+		String expression = "execution(int org.springframework.tests.sample.beans.TestBean.getAge()) && !this(Integer)";
+		long missCount = PointcutExpressionCache.getStatistics().getShadowMatchMissCount();
+		assertTrue(getPointcut(expression).getMethodMatcher().matches(getAge, TestBean.class));
+		assertEquals(missCount + 1, PointcutExpressionCache.getStatistics().getShadowMatchMissCount());
+	}
+
+	@Test
+	public void testPointcutExpressionWithBeanDesignatorNotShared() {
+		String expression = "bean(testBean) && execution(* *(..))";
+		PointcutExpression expr = ((AspectJExpressionPointcut) getPointcut(expression)).getPointcutExpression();
+		assertNotSame(expr, ((AspectJExpressionPointcut) getPointcut(expression)).getPointcutExpression());
+	}
+
 	private Pointcut getPointcut(String expression) {
 		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
 		pointcut.setExpression(expression);
@@ -16,6 +16,7 @@
 
 package org.springframework.aop.framework;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import javax.accessibility.Accessible;
@@ -33,6 +34,7 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.aop.support.DefaultIntroductionAdvisor;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.DelegatingIntroductionInterceptor;
+import org.springframework.aop.support.DynamicMethodMatcherPointcut;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.annotation.Order;
 import org.springframework.tests.TimeStamped;
@@ -41,6 +43,7 @@ import org.springframework.tests.aop.interceptor.NopInterceptor;
 import org.springframework.tests.sample.beans.IOther;
 import org.springframework.tests.sample.beans.ITestBean;
 import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ClassUtils;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -385,6 +388,52 @@ public class ProxyFactoryTests {
 		assertEquals("tb", proxy.getName());
 	}
 
+	@Test
+	public void testPrecompiledChainsWithJdkProxy() {
+		doTestPrecompiledChains(false);
+	}
+
+	@Test
+	public void testPrecompiledChainsWithCglibProxy() {
+		doTestPrecompiledChains(true);
+	}
+
+	private void doTestPrecompiledChains(boolean proxyTargetClass) {
+		TestBean target = new TestBean();
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.setProxyTargetClass(proxyTargetClass);
+		NopInterceptor nop = new NopInterceptor();
+		NopInterceptor dynamicNop = new NopInterceptor();
+		pf.addAdvice(nop);
+		pf.addAdvisor(new DefaultPointcutAdvisor(new DynamicMethodMatcherPointcut() {
+			@Override
+			public boolean matches(Method method, Class<?> targetClass, Object... args) {
+				return (args.length == 1 && Integer.valueOf(42).equals(args[0]));
+			}
+		}, dynamicNop));
+		pf.setPrecompileChains(true);
+		pf.setFrozen(true);
+
+		Method setAge = ClassUtils.getMethod(ITestBean.class, "setAge", int.class);
+		List<Object> chain = pf.getInterceptorsAndDynamicInterceptionAdvice(setAge, TestBean.class);
+		assertSame(chain, pf.getInterceptorsAndDynamicInterceptionAdvice(setAge, TestBean.class));
+		assertThat(chain, instanceOf(CompiledInterceptorChain.class));
+		assertEquals(2, chain.size());
+		for (Object interceptor : chain) {
+			assertThat(interceptor, instanceOf(MethodInterceptor.class));
+		}
+
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		proxy.setAge(41);
+		assertEquals(41, target.getAge());
+		assertEquals(1, nop.getCount());
+		assertEquals(0, dynamicNop.getCount());
+		proxy.setAge(42);
+		assertEquals(42, target.getAge());
+		assertEquals(2, nop.getCount());
+		assertEquals(1, dynamicNop.getCount());
+	}
+
 
 	@SuppressWarnings("serial")
 	private static class TimestampIntroductionInterceptor extends DelegatingIntroductionInterceptor
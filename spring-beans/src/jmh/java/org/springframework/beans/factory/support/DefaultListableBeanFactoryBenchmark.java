@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.core.invoke.GeneratedMethodAccessorFactory;
+
+/**
+ * Benchmarks for {@link DefaultListableBeanFactory#getBean} lookups of
+ * singleton and prototype beans, by name and by type, with reflective
+ * or generated instantiation and property access.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@Benchmark
+	public Object singletonByName(BenchmarkState state) {
+		return state.beanFactory.getBean("service");
+	}
+
+	@Benchmark
+	public Object singletonByType(BenchmarkState state) {
+		return state.beanFactory.getBean(Service.class);
+	}
+
+	@Benchmark
+	public Object prototypeByName(BenchmarkState state) {
+		return state.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public Object prototypeWithPropertiesByName(BenchmarkState state) {
+		return state.beanFactory.getBean("prototypeWithProperties");
+	}
+
+	@Benchmark
+	public Object prototypeWithConstructorByName(BenchmarkState state) {
+		return state.beanFactory.getBean("prototypeWithConstructor");
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		/**
+		 * Number of additional unrelated bean definitions, to account for
+		 * type matching against a realistically populated factory.
+		 */
+		@Param({"10", "1000"})
+		public int beanCount;
+
+		/**
+		 * Whether constructors and property methods are invoked via reflection
+		 * or via generated accessors.
+		 */
+		@Param({"reflective", "generated"})
+		public String accessors;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			if ("generated".equals(this.accessors)) {
+				GeneratedMethodAccessorFactory accessorFactory = new GeneratedMethodAccessorFactory();
+				this.beanFactory.setInstantiationStrategy(new GeneratedInstantiationStrategy(accessorFactory));
+				this.beanFactory.setMethodAccessorFactory(accessorFactory);
+			}
+			for (int i = 0; i < this.beanCount; i++) {
+				this.beanFactory.registerBeanDefinition("bean" + i, new RootBeanDefinition(Object.class));
+			}
+			this.beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Service.class));
+
+			RootBeanDefinition prototype = new RootBeanDefinition(Prototype.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+
+			RootBeanDefinition withProperties = new RootBeanDefinition(Prototype.class);
+			withProperties.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			withProperties.getPropertyValues().add("name", "prototype");
+			withProperties.getPropertyValues().add("age", "42");
+			withProperties.getPropertyValues().add("service", new RuntimeBeanReference("service"));
+			this.beanFactory.registerBeanDefinition("prototypeWithProperties", withProperties);
+
+			RootBeanDefinition withConstructor = new RootBeanDefinition(ConstructorPrototype.class);
+			withConstructor.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			withConstructor.getConstructorArgumentValues().addGenericArgumentValue("prototype");
+			withConstructor.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference("service"));
+			this.beanFactory.registerBeanDefinition("prototypeWithConstructor", withConstructor);
+
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+
+	public static class Service {
+	}
+
+
+	public static class Prototype {
+
+		private String name;
+
+		private int age;
+
+		private Service service;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public Service getService() {
+			return this.service;
+		}
+
+		public void setService(Service service) {
+			this.service = service;
+		}
+	}
+
+
+	public static class ConstructorPrototype {
+
+		private final String name;
+
+		private final Service service;
+
+		public ConstructorPrototype(String name, Service service) {
+			this.name = name;
+			this.service = service;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public Service getService() {
+			return this.service;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import java.security.PrivilegedExceptionAction;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.Property;
 import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.invoke.MethodAccessorFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ReflectionUtils;
 
@@ -75,6 +76,12 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	@Nullable
 	private AccessControlContext acc;
 
+	/**
+	 * The strategy used for invoking the property methods, if not reflective.
+	 */
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 
 	/**
 	 * Create a new empty BeanWrapperImpl. Wrapped instance needs to be set afterwards.
@@ -132,6 +139,7 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 	private BeanWrapperImpl(Object object, String nestedPath, BeanWrapperImpl parent) {
 		super(object, nestedPath, parent);
 		setSecurityContext(parent.acc);
+		setMethodAccessorFactory(parent.methodAccessorFactory);
 	}
 
 
@@ -193,6 +201,26 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 		return this.acc;
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking property read and
+	 * write methods, e.g. a {@link org.springframework.core.invoke.GeneratedMethodAccessorFactory}
+	 * to avoid reflective invocation. Not applied when running with a security manager.
+	 * <p>By default, property methods are invoked via reflection.
+	 * @since 5.2
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
+	/**
+	 * Return the {@link MethodAccessorFactory} to use for invoking property methods, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public MethodAccessorFactory getMethodAccessorFactory() {
+		return this.methodAccessorFactory;
+	}
+
 
 	/**
 	 * Convert the given value for the specified property to the latter's type.
@@ -303,6 +331,9 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 					throw pae.getException();
 				}
 			}
+			else if (methodAccessorFactory != null) {
+				return methodAccessorFactory.getMethodAccessor(readMethod).invoke(getWrappedInstance());
+			}
 			else {
 				ReflectionUtils.makeAccessible(readMethod);
 				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
@@ -327,6 +358,9 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 					throw ex.getException();
 				}
 			}
+			else if (methodAccessorFactory != null) {
+				methodAccessorFactory.getMethodAccessor(writeMethod).invoke(getWrappedInstance(), value);
+			}
 			else {
 				ReflectionUtils.makeAccessible(writeMethod);
 				writeMethod.invoke(getWrappedInstance(), value);
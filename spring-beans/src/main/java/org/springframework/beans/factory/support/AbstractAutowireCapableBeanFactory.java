@@ -76,6 +76,8 @@ import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.PriorityOrdered;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.invoke.MethodAccessorFactory;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -128,6 +130,10 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	@Nullable
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	/** Strategy for invoking bean property methods, if not reflective. */
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 	/** Whether to automatically try to resolve circular references between beans. */
 	private boolean allowCircularReferences = true;
 
@@ -220,6 +226,30 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		return this.parameterNameDiscoverer;
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking bean property
+	 * methods when populating bean instances, e.g. a
+	 * {@link org.springframework.core.invoke.GeneratedMethodAccessorFactory}
+	 * to avoid reflective invocation.
+	 * <p>Default is none, invoking property methods via reflection.
+	 * @since 5.2
+	 * @see BeanWrapperImpl#setMethodAccessorFactory
+	 * @see GeneratedInstantiationStrategy
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
+	/**
+	 * Return the {@link MethodAccessorFactory} to use for invoking bean property
+	 * methods, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	protected MethodAccessorFactory getMethodAccessorFactory() {
+		return this.methodAccessorFactory;
+	}
+
 	/**
 	 * Set whether to allow circular references between beans - and automatically
 	 * try to resolve them.
@@ -284,6 +314,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			AbstractAutowireCapableBeanFactory otherAutowireFactory =
 					(AbstractAutowireCapableBeanFactory) otherFactory;
 			this.instantiationStrategy = otherAutowireFactory.instantiationStrategy;
+			this.methodAccessorFactory = otherAutowireFactory.methodAccessorFactory;
 			this.allowCircularReferences = otherAutowireFactory.allowCircularReferences;
 			this.ignoredDependencyTypes.addAll(otherAutowireFactory.ignoredDependencyTypes);
 			this.ignoredDependencyInterfaces.addAll(otherAutowireFactory.ignoredDependencyInterfaces);
@@ -476,56 +507,66 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	protected Object createBean(String beanName, RootBeanDefinition mbd, @Nullable Object[] args)
 			throws BeanCreationException {
 
-		if (logger.isTraceEnabled()) {
-			logger.trace("Creating instance of bean '" + beanName + "'");
-		}
-		RootBeanDefinition mbdToUse = mbd;
+		StartupStep beanCreation = getApplicationStartup().start("spring.beans.instantiate")
+				.tag("beanName", beanName);
+		try {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Creating instance of bean '" + beanName + "'");
+			}
+			RootBeanDefinition mbdToUse = mbd;
 
-		// Make sure bean class is actually resolved at this point, and
-		// clone the bean definition in case of a dynamically resolved Class
-		// which cannot be stored in the shared merged bean definition.
-		Class<?> resolvedClass = resolveBeanClass(mbd, beanName);
-		if (resolvedClass != null && !mbd.hasBeanClass() && mbd.getBeanClassName() != null) {
-			mbdToUse = new RootBeanDefinition(mbd);
-			mbdToUse.setBeanClass(resolvedClass);
-		}
+			// Make sure bean class is actually resolved at this point, and
+			// clone the bean definition in case of a dynamically resolved Class
+			// which cannot be stored in the shared merged bean definition.
+			Class<?> resolvedClass = resolveBeanClass(mbd, beanName);
+			if (resolvedClass != null && !mbd.hasBeanClass() && mbd.getBeanClassName() != null) {
+				mbdToUse = new RootBeanDefinition(mbd);
+				mbdToUse.setBeanClass(resolvedClass);
+			}
+			if (resolvedClass != null) {
+				beanCreation.tag("beanType", resolvedClass::getName);
+			}
 
-		// Prepare method overrides.
-		try {
-			mbdToUse.prepareMethodOverrides();
-		}
-		catch (BeanDefinitionValidationException ex) {
-			throw new BeanDefinitionStoreException(mbdToUse.getResourceDescription(),
-					beanName, "Validation of method overrides failed", ex);
-		}
+			// Prepare method overrides.
+			try {
+				mbdToUse.prepareMethodOverrides();
+			}
+			catch (BeanDefinitionValidationException ex) {
+				throw new BeanDefinitionStoreException(mbdToUse.getResourceDescription(),
+						beanName, "Validation of method overrides failed", ex);
+			}
 
-		try {
-			// Give BeanPostProcessors a chance to return a proxy instead of the target bean instance.
-			Object bean = resolveBeforeInstantiation(beanName, mbdToUse);
-			if (bean != null) {
-				return bean;
+			try {
+				// Give BeanPostProcessors a chance to return a proxy instead of the target bean instance.
+				Object bean = resolveBeforeInstantiation(beanName, mbdToUse);
+				if (bean != null) {
+					return bean;
+				}
+			}
+			catch (Throwable ex) {
+				throw new BeanCreationException(mbdToUse.getResourceDescription(), beanName,
+						"BeanPostProcessor before instantiation of bean failed", ex);
 			}
-		}
-		catch (Throwable ex) {
-			throw new BeanCreationException(mbdToUse.getResourceDescription(), beanName,
-					"BeanPostProcessor before instantiation of bean failed", ex);
-		}
 
-		try {
-			Object beanInstance = doCreateBean(beanName, mbdToUse, args);
-			if (logger.isTraceEnabled()) {
-				logger.trace("Finished creating instance of bean '" + beanName + "'");
+			try {
+				Object beanInstance = doCreateBean(beanName, mbdToUse, args);
+				if (logger.isTraceEnabled()) {
+					logger.trace("Finished creating instance of bean '" + beanName + "'");
+				}
+				return beanInstance;
+			}
+			catch (BeanCreationException | ImplicitlyAppearedSingletonException ex) {
+				// A previously detected exception with proper bean creation context already,
+				// or illegal singleton state to be communicated up to DefaultSingletonBeanRegistry.
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new BeanCreationException(
+						mbdToUse.getResourceDescription(), beanName, "Unexpected exception during bean creation", ex);
 			}
-			return beanInstance;
-		}
-		catch (BeanCreationException | ImplicitlyAppearedSingletonException ex) {
-			// A previously detected exception with proper bean creation context already,
-			// or illegal singleton state to be communicated up to DefaultSingletonBeanRegistry.
-			throw ex;
 		}
-		catch (Throwable ex) {
-			throw new BeanCreationException(
-					mbdToUse.getResourceDescription(), beanName, "Unexpected exception during bean creation", ex);
+		finally {
+			beanCreation.end();
 		}
 	}
 
@@ -1308,6 +1349,20 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		}
 	}
 
+	/**
+	 * Initialize the given BeanWrapper with the custom editors registered with
+	 * this factory, as well as with the configured {@link MethodAccessorFactory}.
+	 * @param bw the BeanWrapper to initialize
+	 * @see #setMethodAccessorFactory
+	 */
+	@Override
+	protected void initBeanWrapper(BeanWrapper bw) {
+		super.initBeanWrapper(bw);
+		if (this.methodAccessorFactory != null && bw instanceof BeanWrapperImpl) {
+			((BeanWrapperImpl) bw).setMethodAccessorFactory(this.methodAccessorFactory);
+		}
+	}
+
 	/**
 	 * Instantiate the bean using a named factory method. The method may be static, if the
 	 * mbd parameter specifies a class, rather than a factoryBean, or an instance variable
@@ -1772,7 +1827,14 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 
 		Object wrappedBean = bean;
 		if (mbd == null || !mbd.isSynthetic()) {
-			wrappedBean = applyBeanPostProcessorsBeforeInitialization(wrappedBean, beanName);
+			StartupStep postProcessing = getApplicationStartup().start("spring.beans.post-process")
+					.tag("beanName", beanName).tag("phase", "before-initialization");
+			try {
+				wrappedBean = applyBeanPostProcessorsBeforeInitialization(wrappedBean, beanName);
+			}
+			finally {
+				postProcessing.end();
+			}
 		}
 
 		try {
@@ -1784,7 +1846,14 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 					beanName, "Invocation of init method failed", ex);
 		}
 		if (mbd == null || !mbd.isSynthetic()) {
-			wrappedBean = applyBeanPostProcessorsAfterInitialization(wrappedBean, beanName);
+			StartupStep postProcessing = getApplicationStartup().start("spring.beans.post-process")
+					.tag("beanName", beanName).tag("phase", "after-initialization");
+			try {
+				wrappedBean = applyBeanPostProcessorsAfterInitialization(wrappedBean, beanName);
+			}
+			finally {
+				postProcessing.end();
+			}
 		}
 
 		return wrappedBean;
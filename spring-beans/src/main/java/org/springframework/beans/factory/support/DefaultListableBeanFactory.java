@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -39,7 +40,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -47,6 +51,7 @@ import javax.inject.Provider;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -68,8 +73,10 @@ import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
 import org.springframework.core.OrderComparator;
@@ -154,6 +161,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	@Nullable
 	private Comparator<Object> dependencyComparator;
 
+	/** Optional Executor for pre-instantiating singletons concurrently. */
+	@Nullable
+	private Executor preInstantiationExecutor;
+
 	/** Resolver to use for checking if a bean definition is an autowire candidate. */
 	private AutowireCandidateResolver autowireCandidateResolver = new SimpleAutowireCandidateResolver();
 
@@ -285,6 +296,35 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.dependencyComparator;
 	}
 
+	/**
+	 * Specify an {@link Executor} for pre-instantiating singletons concurrently.
+	 * <p>Default is none, creating all non-lazy singletons one after the other in
+	 * the calling thread. If an executor is specified, {@link #preInstantiateSingletons()}
+	 * derives a dependency graph from the registered bean definitions (depends-on
+	 * declarations, bean references in constructor arguments and property values,
+	 * factory beans) and creates each singleton on the given executor once all of
+	 * its declared dependencies are available, so that independent singletons with
+	 * expensive initialization get created concurrently. Dependencies that are not
+	 * declared in bean definitions (e.g. autowired fields) are still resolved at
+	 * creation time, with threads waiting for singletons that other threads are
+	 * currently creating.
+	 * <p>{@link SmartInitializingSingleton} callbacks are invoked in the calling
+	 * thread after all singletons have been created, as usual.
+	 * @since 5.2
+	 */
+	public void setPreInstantiationExecutor(@Nullable Executor preInstantiationExecutor) {
+		this.preInstantiationExecutor = preInstantiationExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} for pre-instantiating singletons concurrently, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public Executor getPreInstantiationExecutor() {
+		return this.preInstantiationExecutor;
+	}
+
 	/**
 	 * Set a custom autowire candidate resolver for this BeanFactory to use
 	 * when deciding whether a bean definition should be considered as a
@@ -322,6 +362,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.preInstantiationExecutor = otherListableFactory.preInstantiationExecutor;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(BeanUtils.instantiateClass(getAutowireCandidateResolver().getClass()));
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well...
@@ -842,31 +883,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						final FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
-											((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						}
-						else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				}
-				else {
-					getBean(beanName);
-				}
+		Executor executor = this.preInstantiationExecutor;
+		if (executor != null) {
+			preInstantiateSingletonsConcurrently(beanNames, executor);
+		}
+		else {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
 			}
 		}
 
@@ -889,6 +912,175 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	private void preInstantiateSingleton(String beanName) {
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+		if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+			if (isFactoryBean(beanName)) {
+				Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+				if (bean instanceof FactoryBean) {
+					final FactoryBean<?> factory = (FactoryBean<?>) bean;
+					boolean isEagerInit;
+					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+						isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
+										((SmartFactoryBean<?>) factory)::isEagerInit,
+								getAccessControlContext());
+					}
+					else {
+						isEagerInit = (factory instanceof SmartFactoryBean &&
+								((SmartFactoryBean<?>) factory).isEagerInit());
+					}
+					if (isEagerInit) {
+						getBean(beanName);
+					}
+				}
+			}
+			else {
+				getBean(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Pre-instantiate the non-lazy singletons among the given bean names on the
+	 * given executor, each one as soon as its declared dependencies are available.
+	 * @see #setPreInstantiationExecutor
+	 */
+	private void preInstantiateSingletonsConcurrently(List<String> beanNames, Executor executor) {
+		Map<String, RootBeanDefinition> candidates = new LinkedHashMap<>();
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				candidates.put(beanName, bd);
+			}
+		}
+
+		Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+		Set<String> inScheduling = new HashSet<>();
+		for (String beanName : candidates.keySet()) {
+			schedulePreInstantiation(beanName, candidates, futures, inScheduling, executor);
+		}
+
+		// Wait for all singletons, then report the first failure in registration order
+		try {
+			CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+		}
+		catch (CompletionException ex) {
+			for (CompletableFuture<Void> future : futures.values()) {
+				try {
+					future.join();
+				}
+				catch (CompletionException failure) {
+					Throwable cause = failure.getCause();
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					throw failure;
+				}
+			}
+		}
+	}
+
+	@Nullable
+	private CompletableFuture<Void> schedulePreInstantiation(String beanName,
+			Map<String, RootBeanDefinition> candidates, Map<String, CompletableFuture<Void>> futures,
+			Set<String> inScheduling, Executor executor) {
+
+		CompletableFuture<Void> future = futures.get(beanName);
+		if (future != null) {
+			return future;
+		}
+		if (!inScheduling.add(beanName)) {
+			// Circular dependency between bean definitions: to be resolved at creation time
+			return null;
+		}
+		List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+		for (String dependency : getDeclaredDependencies(candidates.get(beanName))) {
+			String dependencyName = canonicalName(dependency);
+			if (candidates.containsKey(dependencyName)) {
+				CompletableFuture<Void> dependencyFuture =
+						schedulePreInstantiation(dependencyName, candidates, futures, inScheduling, executor);
+				if (dependencyFuture != null) {
+					dependencies.add(dependencyFuture);
+				}
+			}
+		}
+		future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+				.thenRunAsync(() -> preInstantiateSingletonConcurrently(beanName), executor);
+		futures.put(beanName, future);
+		inScheduling.remove(beanName);
+		return future;
+	}
+
+	private void preInstantiateSingletonConcurrently(String beanName) {
+		long startTime = System.nanoTime();
+		setConcurrentSingletonCreation(true);
+		try {
+			preInstantiateSingleton(beanName);
+		}
+		finally {
+			setConcurrentSingletonCreation(false);
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Pre-instantiated singleton '" + beanName + "' in " +
+					(System.nanoTime() - startTime) / 1000000 + " ms in thread '" + Thread.currentThread().getName() + "'");
+		}
+	}
+
+	/**
+	 * Determine the names of the beans that the given bean definition declares
+	 * dependencies on: through depends-on, a factory bean, or bean references in
+	 * constructor arguments and property values.
+	 */
+	private Set<String> getDeclaredDependencies(BeanDefinition bd) {
+		Set<String> dependencies = new LinkedHashSet<>();
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			dependencies.addAll(Arrays.asList(dependsOn));
+		}
+		if (bd.getFactoryBeanName() != null) {
+			dependencies.add(bd.getFactoryBeanName());
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder :
+				bd.getConstructorArgumentValues().getIndexedArgumentValues().values()) {
+			collectBeanReferences(valueHolder.getValue(), dependencies);
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder :
+				bd.getConstructorArgumentValues().getGenericArgumentValues()) {
+			collectBeanReferences(valueHolder.getValue(), dependencies);
+		}
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+			collectBeanReferences(pv.getValue(), dependencies);
+		}
+		return dependencies;
+	}
+
+	private void collectBeanReferences(@Nullable Object value, Set<String> beanNames) {
+		if (value instanceof BeanReference) {
+			beanNames.add(((BeanReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			beanNames.addAll(getDeclaredDependencies(((BeanDefinitionHolder) value).getBeanDefinition()));
+		}
+		else if (value instanceof BeanDefinition) {
+			beanNames.addAll(getDeclaredDependencies((BeanDefinition) value));
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectBeanReferences(element, beanNames);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectBeanReferences(entry.getKey(), beanNames);
+				collectBeanReferences(entry.getValue(), beanNames);
+			}
+		}
+	}
+
+
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
 	//---------------------------------------------------------------------
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -86,6 +87,16 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> singletonsCurrentlyInCreation =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/** Threads creating singletons: bean name to creating thread, guarded by the singleton lock. */
+	private final Map<String, Thread> singletonCreationThreads = new HashMap<>(16);
+
+	/** Threads waiting for a singleton created by another thread: thread to bean name. */
+	private final Map<Thread, String> singletonWaitingThreads = new HashMap<>(16);
+
+	/** Whether the current thread creates singletons outside of the singleton lock. */
+	private final ThreadLocal<Boolean> concurrentSingletonCreation =
+			new NamedThreadLocal<>("Concurrent singleton creation");
+
 	/** Names of beans currently excluded from in creation checks. */
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
@@ -177,15 +188,26 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		Object singletonObject = this.singletonObjects.get(beanName);
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
 			synchronized (this.singletonObjects) {
-				singletonObject = this.earlySingletonObjects.get(beanName);
-				if (singletonObject == null && allowEarlyReference) {
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					if (singletonFactory != null) {
-						singletonObject = singletonFactory.getObject();
-						this.earlySingletonObjects.put(beanName, singletonObject);
-						this.singletonFactories.remove(beanName);
-					}
+				Thread creationThread = this.singletonCreationThreads.get(beanName);
+				if (creationThread != null && creationThread != Thread.currentThread()) {
+					// Concurrently created by another thread: no early reference to hand out
+					return null;
 				}
+				singletonObject = getEarlySingletonReference(beanName, allowEarlyReference);
+			}
+		}
+		return singletonObject;
+	}
+
+	@Nullable
+	private Object getEarlySingletonReference(String beanName, boolean allowEarlyReference) {
+		Object singletonObject = this.earlySingletonObjects.get(beanName);
+		if (singletonObject == null && allowEarlyReference) {
+			ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+			if (singletonFactory != null) {
+				singletonObject = singletonFactory.getObject();
+				this.earlySingletonObjects.put(beanName, singletonObject);
+				this.singletonFactories.remove(beanName);
 			}
 		}
 		return singletonObject;
@@ -201,8 +223,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		if (Boolean.TRUE.equals(this.concurrentSingletonCreation.get())) {
+			return getSingletonConcurrently(beanName, singletonFactory);
+		}
 		synchronized (this.singletonObjects) {
 			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				singletonObject = awaitSingletonCreation(beanName);
+			}
 			if (singletonObject == null) {
 				if (this.singletonsCurrentlyInDestruction) {
 					throw new BeanCreationNotAllowedException(beanName,
@@ -213,6 +241,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
 				}
 				beforeSingletonCreation(beanName);
+				this.singletonCreationThreads.put(beanName, Thread.currentThread());
 				boolean newSingleton = false;
 				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
 				if (recordSuppressedExceptions) {
@@ -243,6 +272,8 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 						this.suppressedExceptions = null;
 					}
 					afterSingletonCreation(beanName);
+					this.singletonCreationThreads.remove(beanName);
+					this.singletonObjects.notifyAll();
 				}
 				if (newSingleton) {
 					addSingleton(beanName, singletonObject);
@@ -252,6 +283,141 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for threads which
+	 * create singletons concurrently: Only holding the singleton lock for
+	 * registration purposes, invoking the given factory outside of the lock.
+	 */
+	private Object getSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		synchronized (this.singletonObjects) {
+			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				singletonObject = awaitSingletonCreation(beanName);
+			}
+			if (singletonObject != null) {
+				return singletonObject;
+			}
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+						"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			beforeSingletonCreation(beanName);
+			this.singletonCreationThreads.put(beanName, Thread.currentThread());
+		}
+
+		if (logger.isDebugEnabled()) {
+			logger.debug("Creating shared instance of singleton bean '" + beanName + "' in thread '" +
+					Thread.currentThread().getName() + "'");
+		}
+		Object singletonObject = null;
+		boolean newSingleton = false;
+		try {
+			singletonObject = singletonFactory.getObject();
+			newSingleton = true;
+		}
+		catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		}
+		finally {
+			synchronized (this.singletonObjects) {
+				afterSingletonCreation(beanName);
+				this.singletonCreationThreads.remove(beanName);
+				if (newSingleton) {
+					addSingleton(beanName, singletonObject);
+				}
+				this.singletonObjects.notifyAll();
+			}
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Wait for the specified singleton if another thread is currently creating it.
+	 * <p>To be called with the singleton lock held. If the creating thread in turn
+	 * waits for a singleton that the current thread is creating, the circular
+	 * reference gets resolved through an early singleton reference, just like
+	 * for a circular reference within a single thread.
+	 * @param beanName the name of the bean
+	 * @return the singleton object created by the other thread, an early singleton
+	 * reference in case of a circular reference, or {@code null} if the current
+	 * thread is supposed to create the singleton itself
+	 */
+	@Nullable
+	private Object awaitSingletonCreation(String beanName) {
+		Thread currentThread = Thread.currentThread();
+		Thread creationThread = this.singletonCreationThreads.get(beanName);
+		while (creationThread != null && creationThread != currentThread) {
+			if (isWaitingFor(creationThread, currentThread)) {
+				Object earlyReference = getEarlySingletonReference(beanName, true);
+				if (earlyReference == null) {
+					throw new BeanCurrentlyInCreationException(beanName);
+				}
+				return earlyReference;
+			}
+			this.singletonWaitingThreads.put(currentThread, beanName);
+			try {
+				this.singletonObjects.wait();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new BeanCreationException(beanName,
+						"Interrupted while waiting for singleton creation in thread '" + creationThread.getName() + "'");
+			}
+			finally {
+				this.singletonWaitingThreads.remove(currentThread);
+			}
+			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject != null) {
+				return singletonObject;
+			}
+			creationThread = this.singletonCreationThreads.get(beanName);
+		}
+		return null;
+	}
+
+	/**
+	 * Determine whether the given thread (transitively) waits for a singleton
+	 * that the target thread is currently creating.
+	 */
+	private boolean isWaitingFor(Thread thread, Thread targetThread) {
+		Set<Thread> visited = new HashSet<>();
+		Thread current = thread;
+		while (visited.add(current)) {
+			String beanName = this.singletonWaitingThreads.get(current);
+			current = (beanName != null ? this.singletonCreationThreads.get(beanName) : null);
+			if (current == null) {
+				return false;
+			}
+			if (current == targetThread) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Specify whether the current thread creates singletons concurrently with other
+	 * threads, i.e. outside of the singleton lock, waiting for singletons that other
+	 * threads are currently creating instead of serializing on the lock.
+	 * @param concurrent whether to create singletons concurrently
+	 * @since 5.2
+	 * @see DefaultListableBeanFactory#setPreInstantiationExecutor
+	 */
+	protected void setConcurrentSingletonCreation(boolean concurrent) {
+		if (concurrent) {
+			this.concurrentSingletonCreation.set(Boolean.TRUE);
+		}
+		else {
+			this.concurrentSingletonCreation.remove();
+		}
+	}
+
 	/**
 	 * Register an Exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.core.KotlinDetector;
+import org.springframework.core.invoke.GeneratedMethodAccessorFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Instantiation strategy that invokes bean constructors through generated
+ * {@link org.springframework.core.invoke.ConstructorAccessor ConstructorAccessors}
+ * instead of reflection, which pays off for frequently created prototype and
+ * scoped beans. Method Injection is supported as in the superclass.
+ *
+ * <p>Falls back to regular reflective instantiation for Kotlin classes, when
+ * running with a security manager, and for {@code null} arguments that need to
+ * be replaced with primitive default values.
+ *
+ * <p>Typically combined with a property accessor configuration sharing the same
+ * accessor factory:
+ *
+ * <pre class="code">
+ * GeneratedMethodAccessorFactory accessorFactory = new GeneratedMethodAccessorFactory();
+ * beanFactory.setInstantiationStrategy(new GeneratedInstantiationStrategy(accessorFactory));
+ * beanFactory.setMethodAccessorFactory(accessorFactory);</pre>
+ *
+ * @since 5.2
+ * @see AbstractAutowireCapableBeanFactory#setInstantiationStrategy
+ * @see AbstractAutowireCapableBeanFactory#setMethodAccessorFactory
+ */
+public class GeneratedInstantiationStrategy extends CglibSubclassingInstantiationStrategy {
+
+	private final GeneratedMethodAccessorFactory accessorFactory;
+
+
+	/**
+	 * Create a new {@code GeneratedInstantiationStrategy} with its own accessor factory.
+	 */
+	public GeneratedInstantiationStrategy() {
+		this(new GeneratedMethodAccessorFactory());
+	}
+
+	/**
+	 * Create a new {@code GeneratedInstantiationStrategy} for the given accessor factory.
+	 * @param accessorFactory the factory to obtain constructor accessors from
+	 */
+	public GeneratedInstantiationStrategy(GeneratedMethodAccessorFactory accessorFactory) {
+		Assert.notNull(accessorFactory, "GeneratedMethodAccessorFactory must not be null");
+		this.accessorFactory = accessorFactory;
+	}
+
+
+	@Override
+	protected Object instantiateClass(Constructor<?> ctor, Object... args) throws BeanInstantiationException {
+		if (!isAccessorApplicable(ctor, args)) {
+			return super.instantiateClass(ctor, args);
+		}
+		try {
+			return this.accessorFactory.getConstructorAccessor(ctor).newInstance(args);
+		}
+		catch (InstantiationException ex) {
+			throw new BeanInstantiationException(ctor, "Is it an abstract class?", ex);
+		}
+		catch (IllegalAccessException ex) {
+			throw new BeanInstantiationException(ctor, "Is the constructor accessible?", ex);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new BeanInstantiationException(ctor, "Illegal arguments for constructor", ex);
+		}
+		catch (InvocationTargetException ex) {
+			throw new BeanInstantiationException(ctor, "Constructor threw exception", ex.getTargetException());
+		}
+	}
+
+	private boolean isAccessorApplicable(Constructor<?> ctor, Object[] args) {
+		if (System.getSecurityManager() != null ||
+				(KotlinDetector.isKotlinReflectPresent() && KotlinDetector.isKotlinType(ctor.getDeclaringClass()))) {
+			return false;
+		}
+		Class<?>[] parameterTypes = ctor.getParameterTypes();
+		if (args.length != parameterTypes.length) {
+			return false;
+		}
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] == null && parameterTypes[i].isPrimitive()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -84,7 +84,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					}
 				}
 			}
-			return BeanUtils.instantiateClass(constructorToUse);
+			return instantiateClass(constructorToUse);
 		}
 		else {
 			// Must generate CGLIB subclass.
@@ -114,13 +114,29 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					return null;
 				});
 			}
-			return BeanUtils.instantiateClass(ctor, args);
+			return instantiateClass(ctor, args);
 		}
 		else {
 			return instantiateWithMethodInjection(bd, beanName, owner, ctor, args);
 		}
 	}
 
+	/**
+	 * Instantiate a bean through the given constructor, applying the given arguments.
+	 * <p>The default implementation delegates to
+	 * {@link BeanUtils#instantiateClass(Constructor, Object...)}.
+	 * Can be overridden in subclasses for a different invocation mechanism.
+	 * @param ctor the constructor to use
+	 * @param args the constructor arguments to apply
+	 * @return the new instance
+	 * @throws BeanInstantiationException if the bean could not be instantiated
+	 * @since 5.2
+	 * @see GeneratedInstantiationStrategy
+	 */
+	protected Object instantiateClass(Constructor<?> ctor, Object... args) throws BeanInstantiationException {
+		return BeanUtils.instantiateClass(ctor, args);
+	}
+
 	/**
 	 * Subclasses can override this method, which is implemented to throw
 	 * UnsupportedOperationException, if they can instantiate an object with
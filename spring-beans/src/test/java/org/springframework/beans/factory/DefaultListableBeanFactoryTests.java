@@ -37,6 +37,8 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import javax.annotation.Priority;
 import javax.security.auth.Subject;
@@ -2438,6 +2440,109 @@ public class DefaultListableBeanFactoryTests {
 		assertTrue(factory.initialized);
 	}
 
+	@Test
+	public void testConcurrentPreInstantiation() throws Exception {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		lbf.setPreInstantiationExecutor(executor);
+		for (int i = 0; i < 20; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			bd.getPropertyValues().add("spouse", new RuntimeBeanReference("shared"));
+			if (i > 0) {
+				bd.setDependsOn("bean" + (i - 1));
+			}
+			lbf.registerBeanDefinition("bean" + i, bd);
+		}
+		lbf.registerBeanDefinition("shared", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition lazy = new RootBeanDefinition(TestBean.class);
+		lazy.setLazyInit(true);
+		lbf.registerBeanDefinition("lazy", lazy);
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(EagerInitFactory.class));
+		try {
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		Object shared = lbf.getSingleton("shared");
+		assertNotNull(shared);
+		for (int i = 0; i < 20; i++) {
+			TestBean bean = (TestBean) lbf.getSingleton("bean" + i);
+			assertNotNull(bean);
+			assertSame(shared, bean.getSpouse());
+		}
+		assertNull(lbf.getSingleton("lazy"));
+		assertTrue(((EagerInitFactory) lbf.getBean("&test")).initialized);
+	}
+
+	@Test
+	public void testConcurrentPreInstantiationWithCircularReference() throws Exception {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		lbf.setPreInstantiationExecutor(executor);
+		RootBeanDefinition bd1 = new RootBeanDefinition(TestBean.class);
+		bd1.getPropertyValues().add("spouse", new RuntimeBeanReference("bd2"));
+		RootBeanDefinition bd2 = new RootBeanDefinition(TestBean.class);
+		bd2.getPropertyValues().add("spouse", new RuntimeBeanReference("bd1"));
+		lbf.registerBeanDefinition("bd1", bd1);
+		lbf.registerBeanDefinition("bd2", bd2);
+		try {
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		TestBean bean1 = lbf.getBean("bd1", TestBean.class);
+		TestBean bean2 = lbf.getBean("bd2", TestBean.class);
+		assertSame(bean2, bean1.getSpouse());
+		assertSame(bean1, bean2.getSpouse());
+	}
+
+	@Test
+	public void testConcurrentPreInstantiationWithAutowiredCircularReference() throws Exception {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		lbf.setPreInstantiationExecutor(executor);
+		RootBeanDefinition bd1 = new RootBeanDefinition(SlowCircularBean.class);
+		bd1.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_NAME);
+		RootBeanDefinition bd2 = new RootBeanDefinition(SlowCircularBean.class);
+		bd2.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_NAME);
+		lbf.registerBeanDefinition("first", bd1);
+		lbf.registerBeanDefinition("second", bd2);
+		try {
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		SlowCircularBean first = lbf.getBean("first", SlowCircularBean.class);
+		SlowCircularBean second = lbf.getBean("second", SlowCircularBean.class);
+		assertSame(second, first.second);
+		assertSame(first, second.first);
+	}
+
+	@Test
+	public void testConcurrentPreInstantiationWithFailure() throws Exception {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		lbf.setPreInstantiationExecutor(executor);
+		lbf.registerBeanDefinition("ok", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("age", "notANumber");
+		lbf.registerBeanDefinition("broken", bd);
+		try {
+			assertThatExceptionOfType(BeanCreationException.class).isThrownBy(
+					lbf::preInstantiateSingletons)
+				.satisfies(ex -> assertEquals("broken", ex.getBeanName()));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test
 	public void testPrototypeFactoryBeanNotEagerlyCalledInCaseOfBeanClassName() {
 		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
@@ -3384,6 +3489,26 @@ public class DefaultListableBeanFactoryTests {
 	 * Bean with a dependency on a {@link FactoryBean}.
 	 */
 	@SuppressWarnings("unused")
+	public static class SlowCircularBean {
+
+		SlowCircularBean first;
+
+		SlowCircularBean second;
+
+		public SlowCircularBean() throws InterruptedException {
+			Thread.sleep(20);
+		}
+
+		public void setFirst(SlowCircularBean first) {
+			this.first = first;
+		}
+
+		public void setSecond(SlowCircularBean second) {
+			this.second = second;
+		}
+	}
+
+
 	private static class FactoryBeanDependentBean {
 
 		private FactoryBean<?> factoryBean;
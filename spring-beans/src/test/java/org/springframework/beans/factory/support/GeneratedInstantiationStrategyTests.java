@@ -0,0 +1,111 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.core.invoke.GeneratedMethodAccessorFactory;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link GeneratedInstantiationStrategy} in combination with
+ * generated property accessors.
+ */
+public class GeneratedInstantiationStrategyTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@Before
+	public void setup() {
+		GeneratedMethodAccessorFactory accessorFactory = new GeneratedMethodAccessorFactory();
+		this.beanFactory.setInstantiationStrategy(new GeneratedInstantiationStrategy(accessorFactory));
+		this.beanFactory.setMethodAccessorFactory(accessorFactory);
+	}
+
+
+	@Test
+	public void prototypeWithProperties() {
+		this.beanFactory.registerBeanDefinition("spouse", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.getPropertyValues().add("name", "juergen");
+		bd.getPropertyValues().add("age", "42");
+		bd.getPropertyValues().add("spouse", new RuntimeBeanReference("spouse"));
+		this.beanFactory.registerBeanDefinition("tb", bd);
+
+		TestBean tb = (TestBean) this.beanFactory.getBean("tb");
+		assertEquals("juergen", tb.getName());
+		assertEquals(42, tb.getAge());
+		assertSame(this.beanFactory.getBean("spouse"), tb.getSpouse());
+		assertNotSame(tb, this.beanFactory.getBean("tb"));
+	}
+
+	@Test
+	public void prototypeWithConstructorArguments() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "juergen");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, "42");
+		this.beanFactory.registerBeanDefinition("tb", bd);
+
+		TestBean tb = (TestBean) this.beanFactory.getBean("tb");
+		assertEquals("juergen", tb.getName());
+		assertEquals(42, tb.getAge());
+	}
+
+	@Test
+	public void nonPublicClass() {
+		this.beanFactory.registerBeanDefinition("bean", new RootBeanDefinition(PackagePrivateBean.class));
+		assertTrue(this.beanFactory.getBean("bean") instanceof PackagePrivateBean);
+	}
+
+	@Test
+	public void constructorThrowingException() {
+		this.beanFactory.registerBeanDefinition("bean", new RootBeanDefinition(FailingBean.class));
+		try {
+			this.beanFactory.getBean("bean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getMostSpecificCause() instanceof IllegalStateException);
+		}
+	}
+
+
+	static class PackagePrivateBean {
+	}
+
+
+	public static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("Cannot create");
+		}
+	}
+
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Used by {@link CandidateComponentsIndexer} to collect the annotations present
+ * on the compiled types and their methods into an annotation index.
+ *
+ * <p>Each entry lists the runtime-retained annotation types present on a type
+ * or method when searching its full type hierarchy, including meta-annotations
+ * and annotations within repeatable containers, mirroring what
+ * {@code MergedAnnotations} finds with {@code SearchStrategy.EXHAUSTIVE}.
+ * Every type gets an entry; methods only if they carry annotations.
+ *
+ * @since 5.2
+ */
+class AnnotationIndexCollector {
+
+	static final String INDEX_PATH = "META-INF/spring.annotations";
+
+	private static final Set<ElementKind> TYPE_KINDS = Collections.unmodifiableSet(EnumSet.of(
+			ElementKind.CLASS, ElementKind.INTERFACE, ElementKind.ENUM, ElementKind.ANNOTATION_TYPE));
+
+	private static final String[] PLAIN_ANNOTATION_PACKAGES = {"java.lang.", "org.springframework.lang."};
+
+
+	private final ProcessingEnvironment environment;
+
+	private final Elements elements;
+
+	private final Types types;
+
+	private final Map<String, Set<String>> entries = new TreeMap<>();
+
+	private final Set<String> processedTypes = new HashSet<>();
+
+
+	public AnnotationIndexCollector(ProcessingEnvironment environment) {
+		this.environment = environment;
+		this.elements = environment.getElementUtils();
+		this.types = environment.getTypeUtils();
+	}
+
+
+	public void processing(RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getRootElements()) {
+			if (TYPE_KINDS.contains(element.getKind())) {
+				addType((TypeElement) element);
+			}
+		}
+	}
+
+	public void writeIndex() throws IOException {
+		Properties index = new Properties();
+		readPreviousIndex().forEach((key, value) -> {
+			String owner = ((String) key).split("#", 2)[0];
+			if (!this.processedTypes.contains(owner) &&
+					this.elements.getTypeElement(owner.replace('$', '.')) != null) {
+				index.put(key, value);
+			}
+		});
+		this.entries.forEach((key, annotationTypes) -> index.put(key, String.join(",", annotationTypes)));
+		if (!index.isEmpty()) {
+			FileObject resource = this.environment.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "", INDEX_PATH);
+			try (OutputStream out = resource.openOutputStream()) {
+				index.store(out, "");
+			}
+		}
+	}
+
+	private Properties readPreviousIndex() {
+		Properties index = new Properties();
+		try {
+			FileObject resource = this.environment.getFiler().getResource(
+					StandardLocation.CLASS_OUTPUT, "", INDEX_PATH);
+			try (InputStream in = resource.openInputStream()) {
+				index.load(in);
+			}
+		}
+		catch (IOException ex) {
+			// No previous index -> ignore.
+		}
+		return index;
+	}
+
+	private void addType(TypeElement type) {
+		String typeName = getBinaryName(type);
+		this.processedTypes.add(typeName);
+		Set<String> annotationTypes = new LinkedHashSet<>();
+		collectTypeAnnotations(type, annotationTypes, new HashSet<>());
+		this.entries.put(typeName, annotationTypes);
+		for (Element member : type.getEnclosedElements()) {
+			if (member.getKind() == ElementKind.METHOD) {
+				addMethod(type, (ExecutableElement) member);
+			}
+			else if (TYPE_KINDS.contains(member.getKind())) {
+				addType((TypeElement) member);
+			}
+		}
+	}
+
+	private void addMethod(TypeElement type, ExecutableElement method) {
+		Set<String> annotationTypes = new LinkedHashSet<>();
+		collectAnnotations(method, annotationTypes);
+		if (!method.getModifiers().contains(Modifier.PRIVATE)) {
+			collectOverriddenMethodAnnotations(type, method, type, annotationTypes, new HashSet<>());
+		}
+		if (!annotationTypes.isEmpty()) {
+			this.entries.put(getKey(type, method), annotationTypes);
+		}
+	}
+
+	private void collectTypeAnnotations(TypeElement type, Set<String> annotationTypes, Set<String> visited) {
+		String typeName = getBinaryName(type);
+		if (!visited.add(typeName) || isPlainJavaType(typeName)) {
+			return;
+		}
+		collectAnnotations(type, annotationTypes);
+		for (TypeMirror superType : getSuperTypes(type)) {
+			collectTypeAnnotations(asTypeElement(superType), annotationTypes, visited);
+		}
+	}
+
+	private void collectOverriddenMethodAnnotations(TypeElement rootType, ExecutableElement rootMethod,
+			TypeElement type, Set<String> annotationTypes, Set<String> visited) {
+
+		for (TypeMirror superType : getSuperTypes(type)) {
+			TypeElement superTypeElement = asTypeElement(superType);
+			String superTypeName = getBinaryName(superTypeElement);
+			if (!visited.add(superTypeName) || isPlainJavaType(superTypeName)) {
+				continue;
+			}
+			for (Element member : superTypeElement.getEnclosedElements()) {
+				if (member.getKind() == ElementKind.METHOD &&
+						isOverride(rootType, rootMethod, (ExecutableElement) member)) {
+					collectAnnotations(member, annotationTypes);
+				}
+			}
+			collectOverriddenMethodAnnotations(rootType, rootMethod, superTypeElement, annotationTypes, visited);
+		}
+	}
+
+	/**
+	 * Return the resolvable interfaces and superclass of the given type,
+	 * in the order that they are searched at runtime.
+	 */
+	private List<TypeMirror> getSuperTypes(TypeElement type) {
+		List<TypeMirror> superTypes = new ArrayList<>();
+		for (TypeMirror interfaceType : type.getInterfaces()) {
+			if (interfaceType.getKind() == TypeKind.DECLARED) {
+				superTypes.add(interfaceType);
+			}
+		}
+		if (type.getSuperclass().getKind() == TypeKind.DECLARED) {
+			superTypes.add(type.getSuperclass());
+		}
+		return superTypes;
+	}
+
+	private boolean isOverride(TypeElement rootType, ExecutableElement rootMethod, ExecutableElement candidate) {
+		if (candidate.getModifiers().contains(Modifier.PRIVATE) ||
+				!candidate.getSimpleName().contentEquals(rootMethod.getSimpleName()) ||
+				candidate.getParameters().size() != rootMethod.getParameters().size()) {
+			return false;
+		}
+		// Same parameter types, either as declared or as resolved against the root type
+		ExecutableType resolved = (ExecutableType) this.types.asMemberOf((DeclaredType) rootType.asType(), candidate);
+		for (int i = 0; i < rootMethod.getParameters().size(); i++) {
+			TypeMirror rootParameterType = this.types.erasure(rootMethod.getParameters().get(i).asType());
+			if (!this.types.isSameType(rootParameterType,
+					this.types.erasure(candidate.getParameters().get(i).asType())) &&
+					!this.types.isSameType(rootParameterType,
+							this.types.erasure(resolved.getParameterTypes().get(i)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void collectAnnotations(Element element, Set<String> annotationTypes) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			addAnnotation(annotation, annotationTypes);
+		}
+	}
+
+	private void addAnnotation(AnnotationMirror annotation, Set<String> annotationTypes) {
+		TypeElement annotationType = asTypeElement(annotation.getAnnotationType());
+		String annotationTypeName = getBinaryName(annotationType);
+		if (isPlainAnnotationType(annotationTypeName) || !isRuntimeRetained(annotationType)) {
+			return;
+		}
+		if (annotationTypes.add(annotationTypeName)) {
+			collectAnnotations(annotationType, annotationTypes);
+		}
+		for (AnnotationMirror repeated : getRepeatedAnnotations(annotation)) {
+			addAnnotation(repeated, annotationTypes);
+		}
+	}
+
+	/**
+	 * Return the annotations held by the given annotation if it is the container
+	 * of a {@link java.lang.annotation.Repeatable @Repeatable} annotation.
+	 */
+	private Set<AnnotationMirror> getRepeatedAnnotations(AnnotationMirror annotation) {
+		Set<AnnotationMirror> repeated = new LinkedHashSet<>();
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				this.elements.getElementValuesWithDefaults(annotation).entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals("value") &&
+					entry.getValue().getValue() instanceof List) {
+				for (Object element : (List<?>) entry.getValue().getValue()) {
+					Object value = ((AnnotationValue) element).getValue();
+					if (value instanceof AnnotationMirror &&
+							isRepeatableIn((AnnotationMirror) value, annotation.getAnnotationType())) {
+						repeated.add((AnnotationMirror) value);
+					}
+				}
+			}
+		}
+		return repeated;
+	}
+
+	private boolean isRepeatableIn(AnnotationMirror annotation, DeclaredType containerType) {
+		for (AnnotationMirror meta : annotation.getAnnotationType().asElement().getAnnotationMirrors()) {
+			if (getBinaryName(asTypeElement(meta.getAnnotationType())).equals("java.lang.annotation.Repeatable")) {
+				for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+						meta.getElementValues().entrySet()) {
+					Object value = entry.getValue().getValue();
+					if (value instanceof TypeMirror && this.types.isSameType((TypeMirror) value, containerType)) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean isRuntimeRetained(TypeElement annotationType) {
+		Retention retention = annotationType.getAnnotation(Retention.class);
+		return (retention != null && retention.value() == RetentionPolicy.RUNTIME);
+	}
+
+	private String getKey(TypeElement type, ExecutableElement method) {
+		StringBuilder key = new StringBuilder(getBinaryName(type));
+		key.append('#').append(method.getSimpleName()).append('(');
+		List<? extends VariableElement> parameters = method.getParameters();
+		for (int i = 0; i < parameters.size(); i++) {
+			if (i > 0) {
+				key.append(',');
+			}
+			key.append(getTypeName(parameters.get(i).asType()));
+		}
+		return key.append(')').toString();
+	}
+
+	/**
+	 * Return the name of the erasure of the given type, matching
+	 * {@link Class#getTypeName()} at runtime.
+	 */
+	private String getTypeName(TypeMirror type) {
+		TypeMirror erasure = this.types.erasure(type);
+		if (erasure.getKind() == TypeKind.ARRAY) {
+			return getTypeName(((ArrayType) erasure).getComponentType()) + "[]";
+		}
+		if (erasure.getKind() == TypeKind.DECLARED) {
+			return getBinaryName(asTypeElement(erasure));
+		}
+		return erasure.toString();
+	}
+
+	private TypeElement asTypeElement(TypeMirror type) {
+		return (TypeElement) this.types.asElement(type);
+	}
+
+	private String getBinaryName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString();
+	}
+
+	private static boolean isPlainJavaType(String typeName) {
+		return (typeName.startsWith("java.") || typeName.equals("org.springframework.core.Ordered"));
+	}
+
+	private static boolean isPlainAnnotationType(String annotationTypeName) {
+		for (String plainPackage : PLAIN_ANNOTATION_PACKAGES) {
+			if (annotationTypeName.startsWith(plainPackage)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
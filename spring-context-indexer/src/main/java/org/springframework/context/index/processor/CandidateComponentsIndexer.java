@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,12 +39,23 @@ import javax.lang.model.element.TypeElement;
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>If the {@value #ANNOTATION_INDEX_OPTION} option is set to {@code true}, an
+ * index of the annotations present on all compiled types and their methods is
+ * written as well, allowing {@code MergedAnnotations} to answer presence checks
+ * without introspecting the type hierarchy at runtime.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 5.0
  */
 public class CandidateComponentsIndexer implements Processor {
 
+	/**
+	 * Processor option that enables the generation of an annotation index.
+	 * @since 5.2
+	 */
+	public static final String ANNOTATION_INDEX_OPTION = "spring.index.annotations";
+
 	private static final Set<ElementKind> TYPE_KINDS =
 			Collections.unmodifiableSet(EnumSet.of(ElementKind.CLASS, ElementKind.INTERFACE));
 
@@ -56,10 +67,12 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private List<StereotypesProvider> stereotypesProviders;
 
+	private AnnotationIndexCollector annotationIndexCollector;
+
 
 	@Override
 	public Set<String> getSupportedOptions() {
-		return Collections.emptySet();
+		return Collections.singleton(ANNOTATION_INDEX_OPTION);
 	}
 
 	@Override
@@ -78,14 +91,21 @@ public class CandidateComponentsIndexer implements Processor {
 		this.typeHelper = new TypeHelper(env);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+		if (Boolean.parseBoolean(env.getOptions().get(ANNOTATION_INDEX_OPTION))) {
+			this.annotationIndexCollector = new AnnotationIndexCollector(env);
+		}
 	}
 
 	@Override
 	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
 		this.metadataCollector.processing(roundEnv);
 		roundEnv.getRootElements().forEach(this::processElement);
+		if (this.annotationIndexCollector != null) {
+			this.annotationIndexCollector.processing(roundEnv);
+		}
 		if (roundEnv.processingOver()) {
 			writeMetaData();
+			writeAnnotationIndex();
 		}
 		return false;
 	}
@@ -132,6 +152,17 @@ public class CandidateComponentsIndexer implements Processor {
 		}
 	}
 
+	private void writeAnnotationIndex() {
+		if (this.annotationIndexCollector != null) {
+			try {
+				this.annotationIndexCollector.writeIndex();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to write annotation index", ex);
+			}
+		}
+	}
+
 	private static List<TypeElement> staticTypesIn(Iterable<? extends Element> elements) {
 		List<TypeElement> list = new ArrayList<>();
 		for (Element element : elements) {
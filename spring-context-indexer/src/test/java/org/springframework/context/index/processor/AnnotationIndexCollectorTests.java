@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.context.index.sample.annotation.AbstractSampleHandler;
+import org.springframework.context.index.sample.annotation.SampleClassRetained;
+import org.springframework.context.index.sample.annotation.SampleHandler;
+import org.springframework.context.index.sample.annotation.SampleTag;
+import org.springframework.context.index.sample.annotation.SampleTags;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Indexed;
+import org.springframework.util.StringUtils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Tests for the annotation index written by {@link CandidateComponentsIndexer}
+ * through {@link AnnotationIndexCollector}.
+ *
+ * @since 5.2
+ */
+public class AnnotationIndexCollectorTests {
+
+	private TestCompiler compiler;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Before
+	public void createCompiler() throws IOException {
+		this.compiler = new TestCompiler(this.temporaryFolder);
+	}
+
+	@Test
+	public void noIndexWithoutOption() {
+		this.compiler.getTask(SampleHandler.class).call(new CandidateComponentsIndexer());
+		assertThat(new File(this.compiler.getOutputLocation(), AnnotationIndexCollector.INDEX_PATH).exists(),
+				is(false));
+	}
+
+	@Test
+	public void typeAnnotationsFromTypeHierarchy() {
+		Properties index = compile(SampleHandler.class);
+		assertThat(getAnnotationTypes(index, SampleHandler.class.getName()), containsInAnyOrder(
+				Component.class.getName(), Indexed.class.getName(),
+				SampleTags.class.getName(), SampleTag.class.getName()));
+	}
+
+	@Test
+	public void typeAnnotationsIgnoreClassRetention() {
+		Properties index = compile(SampleHandler.class);
+		assertThat(getAnnotationTypes(index, SampleHandler.class.getName())
+				.contains(SampleClassRetained.class.getName()), is(false));
+	}
+
+	@Test
+	public void nestedTypesWithoutAnnotations() {
+		Properties index = compile(SampleHandler.class);
+		assertThat(index.getProperty(SampleHandler.Inner.class.getName()), equalTo(""));
+		assertThat(index.getProperty(SampleHandler.NonStaticInner.class.getName()), equalTo(""));
+	}
+
+	@Test
+	public void methodAnnotationsFromGenericInterface() {
+		Properties index = compile(SampleHandler.class);
+		assertThat(getAnnotationTypes(index, SampleHandler.class.getName() + "#process(java.lang.String)"),
+				containsInAnyOrder(SampleTag.class.getName()));
+	}
+
+	@Test
+	public void methodAnnotationsWithArrayAndNestedParameters() {
+		Properties index = compile(SampleHandler.class);
+		String key = SampleHandler.class.getName() + "#tagged(java.lang.String[],int," +
+				SampleHandler.Inner.class.getName() + ")";
+		assertThat(getAnnotationTypes(index, key), containsInAnyOrder(SampleTag.class.getName()));
+	}
+
+	@Test
+	public void methodsWithoutAnnotationsNotIndexed() {
+		Properties index = compile(SampleHandler.class);
+		assertThat(index.getProperty(SampleHandler.class.getName() + "#describe()"), nullValue());
+		assertThat(index.getProperty(SampleHandler.class.getName() + "#internal()"), nullValue());
+	}
+
+	@Test
+	public void indexMatchesMergedAnnotations() {
+		Properties index = compile(SampleHandler.class, AbstractSampleHandler.class);
+		for (Class<?> type : Arrays.asList(SampleHandler.class, AbstractSampleHandler.class,
+				SampleHandler.Inner.class)) {
+			assertMatches(getAnnotationTypes(index, type.getName()),
+					MergedAnnotations.from(type, SearchStrategy.EXHAUSTIVE));
+			for (Method method : type.getDeclaredMethods()) {
+				if (method.isBridge()) {
+					continue;
+				}
+				String key = type.getName() + "#" + method.getName() + "(" +
+						StringUtils.arrayToCommaDelimitedString(Arrays.stream(method.getParameterTypes())
+								.map(Class::getTypeName).toArray()) + ")";
+				assertMatches(getAnnotationTypes(index, key),
+						MergedAnnotations.from(method, SearchStrategy.EXHAUSTIVE));
+			}
+		}
+	}
+
+	private Properties compile(Class<?>... types) {
+		CandidateComponentsIndexer processor = new CandidateComponentsIndexer();
+		this.compiler.getTask(Collections.singletonList(
+				"-A" + CandidateComponentsIndexer.ANNOTATION_INDEX_OPTION + "=true"), types).call(processor);
+		File indexFile = new File(this.compiler.getOutputLocation(), AnnotationIndexCollector.INDEX_PATH);
+		Properties index = new Properties();
+		try (InputStream in = new FileInputStream(indexFile)) {
+			index.load(in);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to read annotation index from disk", ex);
+		}
+		return index;
+	}
+
+	private static Set<String> getAnnotationTypes(Properties index, String key) {
+		return StringUtils.commaDelimitedListToSet(index.getProperty(key, ""));
+	}
+
+	private static void assertMatches(Set<String> indexed, MergedAnnotations annotations) {
+		for (String annotationType : indexed) {
+			assertThat(annotationType, annotations.isPresent(annotationType), is(true));
+		}
+		annotations.stream().map(annotation -> annotation.getType().getName())
+				.filter(name -> !name.startsWith("java.lang.") && !name.startsWith("org.springframework.lang."))
+				.forEach(name -> assertThat(name, indexed.contains(name), is(true)));
+	}
+
+}
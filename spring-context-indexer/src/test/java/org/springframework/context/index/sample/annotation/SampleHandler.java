@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample.annotation;
+
+/**
+ * Handler inheriting its annotations from its type hierarchy.
+ */
+@SampleClassRetained
+public class SampleHandler extends AbstractSampleHandler<String> {
+
+	@Override
+	public void process(String item) {
+	}
+
+	@Override
+	public String describe() {
+		return "handler";
+	}
+
+	@SampleTag
+	public void tagged(String[] values, int count, Inner inner) {
+	}
+
+	@SuppressWarnings("unused")
+	private void internal() {
+	}
+
+
+	public static class Inner {
+
+		public void run() {
+		}
+	}
+
+
+	public class NonStaticInner {
+	}
+
+}
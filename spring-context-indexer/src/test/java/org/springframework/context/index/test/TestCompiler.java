@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -62,18 +62,22 @@ public class TestCompiler {
 
 
 	public TestCompilationTask getTask(Class<?>... types) {
+		return getTask(Collections.emptyList(), types);
+	}
+
+	public TestCompilationTask getTask(List<String> options, Class<?>... types) {
 		List<String> names = Arrays.stream(types).map(Class::getName).collect(Collectors.toList());
-		return getTask(names.toArray(new String[names.size()]));
+		return getTask(options, getJavaFileObjects(names.toArray(new String[names.size()])));
 	}
 
 	public TestCompilationTask getTask(String... types) {
 		Iterable<? extends JavaFileObject> javaFileObjects = getJavaFileObjects(types);
-		return getTask(javaFileObjects);
+		return getTask(Collections.emptyList(), javaFileObjects);
 	}
 
-	private TestCompilationTask getTask(Iterable<? extends JavaFileObject> javaFileObjects) {
+	private TestCompilationTask getTask(List<String> options, Iterable<? extends JavaFileObject> javaFileObjects) {
 		return new TestCompilationTask(
-				this.compiler.getTask(null, this.fileManager, null, null, null, javaFileObjects));
+				this.compiler.getTask(null, this.fileManager, null, options, null, javaFileObjects));
 	}
 
 	public File getOutputLocation() {
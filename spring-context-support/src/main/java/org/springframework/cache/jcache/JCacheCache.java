@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.cache.jcache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import javax.cache.Cache;
 import javax.cache.processor.EntryProcessor;
@@ -100,6 +104,26 @@ public class JCacheCache extends AbstractValueAdaptingCache {
 		return (set ? null : get(key));
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, Object> storeValues = this.cache.getAll(new LinkedHashSet<>(keys));
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(storeValues.size());
+		for (Object key : keys) {
+			Object storeValue = storeValues.get(key);
+			if (storeValue != null) {
+				result.put(key, toValueWrapper(storeValue));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		Map<Object, Object> storeEntries = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeEntries.put(key, toStoreValue(value)));
+		this.cache.putAll(storeEntries);
+	}
+
 	@Override
 	public void evict(Object key) {
 		this.cache.remove(key);
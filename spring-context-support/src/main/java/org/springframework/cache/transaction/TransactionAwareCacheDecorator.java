@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.cache.transaction;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.cache.Cache;
@@ -25,11 +27,12 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 import org.springframework.util.Assert;
 
 /**
- * Cache decorator which synchronizes its {@link #put}, {@link #evict} and {@link #clear}
- * operations with Spring-managed transactions (through Spring's {@link TransactionSynchronizationManager},
- * performing the actual cache put/evict/clear operation only in the after-commit phase of a
- * successful transaction. If no transaction is active, {@link #put}, {@link #evict} and
- * {@link #clear} operations will be performed immediately, as usual.
+ * Cache decorator which synchronizes its {@link #put}, {@link #putAll}, {@link #evict} and
+ * {@link #clear} operations with Spring-managed transactions (through Spring's
+ * {@link TransactionSynchronizationManager}, performing the actual cache put/evict/clear
+ * operation only in the after-commit phase of a successful transaction. If no transaction
+ * is active, {@link #put}, {@link #putAll}, {@link #evict} and {@link #clear} operations
+ * will be performed immediately, as usual.
  *
  * <p>Use of more aggressive operations such as {@link #putIfAbsent} cannot be deferred
  * to the after-commit phase of a running transaction. Use these with care.
@@ -103,6 +106,26 @@ public class TransactionAwareCacheDecorator implements Cache {
 		}
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		return this.targetCache.getAll(keys);
+	}
+
+	@Override
+	public void putAll(final Map<?, ?> entries) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					TransactionAwareCacheDecorator.this.targetCache.putAll(entries);
+				}
+			});
+		}
+		else {
+			this.targetCache.putAll(entries);
+		}
+	}
+
 	@Override
 	@Nullable
 	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Benchmarks for cache hits on {@code @Cacheable} methods, with and without
+ * SpEL expressions on the operation.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class CacheInterceptorBenchmark {
+
+	@Benchmark
+	public Object defaultKey(BenchmarkState state) {
+		return state.service.defaultKey("key");
+	}
+
+	@Benchmark
+	public Object keyExpression(BenchmarkState state) {
+		return state.service.keyExpression("key");
+	}
+
+	@Benchmark
+	public Object keyAndConditionExpressions(BenchmarkState state) {
+		return state.service.keyAndConditionExpressions("key");
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public AnnotationConfigApplicationContext context;
+
+		public Service service;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.context = new AnnotationConfigApplicationContext(Config.class);
+			this.service = this.context.getBean(Service.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			this.context.close();
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public ConcurrentMapCacheManager cacheManager() {
+			return new ConcurrentMapCacheManager("test");
+		}
+
+		@Bean
+		public Service service() {
+			return new Service();
+		}
+	}
+
+
+	public static class Service {
+
+		@Cacheable("test")
+		public String defaultKey(String key) {
+			return key;
+		}
+
+		@Cacheable(cacheNames = "test", key = "'expr-' + #key")
+		public String keyExpression(String key) {
+			return key;
+		}
+
+		@Cacheable(cacheNames = "test", key = "'cond-' + #key", condition = "#key != null")
+		public String keyAndConditionExpressions(String key) {
+			return key;
+		}
+	}
+
+}
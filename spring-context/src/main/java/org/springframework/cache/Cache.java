@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.lang.Nullable;
@@ -136,6 +139,47 @@ public interface Cache {
 	@Nullable
 	ValueWrapper putIfAbsent(Object key, @Nullable Object value);
 
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>The returned map only contains entries for the keys that this cache
+	 * contains a mapping for, in the iteration order of the given keys. A cached
+	 * {@code null} value is exposed through a {@link ValueWrapper} holding
+	 * {@code null}, just like with {@link #get(Object)}.
+	 * <p>The default implementation calls {@link #get(Object)} for each key.
+	 * Implementations are encouraged to override it with a bulk lookup if the
+	 * underlying store supports one.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map from each key with a mapping in this cache to the wrapped
+	 * value for that key (never {@code null})
+	 * @since 5.2
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper valueWrapper = get(key);
+			if (valueWrapper != null) {
+				result.put(key, valueWrapper);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Associate each of the specified values with its key in this cache.
+	 * <p>If the cache previously contained a mapping for one of the keys, the
+	 * old value is replaced by the specified value.
+	 * <p>The default implementation calls {@link #put(Object, Object)} for each
+	 * entry. Implementations are encouraged to override it with a bulk write if
+	 * the underlying store supports one.
+	 * @param entries the keys and values to be stored
+	 * @since 5.2
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Evict the mapping for this key from this cache if it is present.
 	 * @param key the key whose mapping is to be removed from the cache
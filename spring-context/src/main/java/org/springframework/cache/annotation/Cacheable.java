@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -179,4 +179,28 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the entries of a multi-key lookup individually, resolving each of its
+	 * keys against the cache and only invoking the underlying method for the
+	 * keys that could not be found.
+	 * <p>The annotated method must declare a single {@link java.util.Collection}
+	 * parameter holding the keys to look up and return a {@link java.util.Map}
+	 * from each of these keys to its value. The method is invoked with a collection
+	 * holding the missing keys only, and the entries it returns are cached. Keys
+	 * are computed per element by the {@link #keyGenerator}, so that entries are
+	 * shared with single-key methods using the same cache by default.
+	 * <p>Batch mode leads to the following limitations:
+	 * <ol>
+	 * <li>{@link #key()} and {@link #unless()} are not supported</li>
+	 * <li>{@link #sync()} is not supported</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * <li>The method arguments must be modifiable by the interceptor, which is
+	 * the case for proxy-based caching</li>
+	 * </ol>
+	 * @since 5.2
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean batch() default false;
+
 }
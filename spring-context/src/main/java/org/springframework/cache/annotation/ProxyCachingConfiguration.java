@@ -63,6 +63,9 @@ public class ProxyCachingConfiguration extends AbstractCachingConfiguration {
 		CacheInterceptor interceptor = new CacheInterceptor();
 		interceptor.configure(this.errorHandler, this.keyGenerator, this.cacheResolver, this.cacheManager);
 		interceptor.setCacheOperationSource(cacheOperationSource());
+		if (this.enableCaching != null) {
+			interceptor.setSingleFlight(this.enableCaching.getBoolean("singleFlight"));
+		}
 		return interceptor;
 	}
 
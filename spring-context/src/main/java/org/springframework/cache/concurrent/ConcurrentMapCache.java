@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,9 @@ package org.springframework.cache.concurrent;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -163,6 +166,26 @@ public class ConcurrentMapCache extends AbstractValueAdaptingCache {
 		return toValueWrapper(existing);
 	}
 
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			Object storeValue = this.store.get(key);
+			if (storeValue != null) {
+				result.put(key, toValueWrapper(storeValue));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		// Convert all values upfront so that an invalid value does not lead to a partial write
+		Map<Object, Object> storeEntries = new LinkedHashMap<>(entries.size());
+		entries.forEach((key, value) -> storeEntries.put(key, toStoreValue(value)));
+		this.store.putAll(storeEntries);
+	}
+
 	@Override
 	public void evict(Object key) {
 		this.store.remove(key);
@@ -133,6 +133,13 @@ class AnnotationDrivenCacheBeanDefinitionParser implements BeanDefinitionParser
 		}
 	}
 
+	private static void parseSingleFlight(Element element, BeanDefinition def) {
+		String singleFlight = element.getAttribute("single-flight");
+		if (StringUtils.hasText(singleFlight)) {
+			def.getPropertyValues().add("singleFlight", singleFlight.trim());
+		}
+	}
+
 
 	/**
 	 * Configure the necessary infrastructure to support the Spring's caching annotations.
@@ -156,6 +163,7 @@ class AnnotationDrivenCacheBeanDefinitionParser implements BeanDefinitionParser
 				parseCacheResolution(element, interceptorDef, false);
 				parseErrorHandler(element, interceptorDef);
 				CacheNamespaceHandler.parseKeyGenerator(element, interceptorDef);
+				parseSingleFlight(element, interceptorDef);
 				interceptorDef.getPropertyValues().add("cacheOperationSources", new RuntimeBeanReference(sourceName));
 				String interceptorName = parserContext.getReaderContext().registerWithGeneratedName(interceptorDef);
 
@@ -194,6 +202,7 @@ class AnnotationDrivenCacheBeanDefinitionParser implements BeanDefinitionParser
 				def.setFactoryMethodName("aspectOf");
 				parseCacheResolution(element, def, false);
 				CacheNamespaceHandler.parseKeyGenerator(element, def);
+				parseSingleFlight(element, def);
 				parserContext.registerBeanComponent(new BeanComponentDefinition(def, CacheManagementConfigUtils.CACHE_ASPECT_BEAN_NAME));
 			}
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
 import org.springframework.cache.Cache;
 import org.springframework.lang.Nullable;
 import org.springframework.util.function.SingletonSupplier;
@@ -91,6 +95,40 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#getAll(Collection)} on the specified {@link Cache} and
+	 * invoke the error handler if an exception occurs, passing the collection of
+	 * keys as the key. Return an empty map if the handler does not throw any
+	 * exception, which simulates a cache miss for all keys in case of error.
+	 * @since 5.2
+	 * @see Cache#getAll(Collection)
+	 */
+	protected Map<Object, Cache.ValueWrapper> doGetAll(Cache cache, Collection<?> keys) {
+		try {
+			return cache.getAll(keys);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, keys);
+			return Collections.emptyMap();  // If the exception is handled, return a cache miss
+		}
+	}
+
+	/**
+	 * Execute {@link Cache#putAll(Map)} on the specified {@link Cache} and invoke
+	 * the error handler if an exception occurs, passing the collection of keys as
+	 * the key and the map of entries as the value.
+	 * @since 5.2
+	 * @see Cache#putAll(Map)
+	 */
+	protected void doPutAll(Cache cache, Map<?, ?> entries) {
+		try {
+			cache.putAll(entries);
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCachePutError(ex, cache, entries.keySet(), entries);
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#evict(Object)} on the specified {@link Cache} and
 	 * invoke the error handler if an exception occurs.
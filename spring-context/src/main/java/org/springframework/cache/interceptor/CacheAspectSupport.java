@@ -17,15 +17,26 @@
 package org.springframework.cache.interceptor;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
@@ -44,6 +55,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -89,6 +101,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	private final CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
 
+	private final Map<Object, InFlightInvocation> inFlightInvocations = new ConcurrentHashMap<>(64);
+
 	@Nullable
 	private CacheOperationSource cacheOperationSource;
 
@@ -100,6 +114,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Nullable
 	private BeanFactory beanFactory;
 
+	private boolean singleFlight = false;
+
 	private boolean initialized = false;
 
 
@@ -194,6 +210,35 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		this.cacheResolver = SingletonSupplier.of(new SimpleCacheResolver(cacheManager));
 	}
 
+	/**
+	 * Set whether concurrent cache misses for the same key should be coalesced
+	 * into a single invocation of the underlying method ("single flight").
+	 * <p>If enabled, a {@code @Cacheable} miss is only processed by the first
+	 * caller while an invocation for the same method, caches and key is in
+	 * flight: other callers wait for that invocation and share its result or
+	 * exception, leaving the cache update to it. This applies to any
+	 * {@link Cache} implementation, as opposed to {@code @Cacheable(sync=true)},
+	 * and does not come with the restrictions of the latter. Invocations that
+	 * also involve a {@code @CachePut} operation are never coalesced.
+	 * <p>Default is {@code false}. With annotation-driven caching, this is
+	 * configured through {@code @EnableCaching(singleFlight = true)} or the
+	 * {@code single-flight} attribute of {@code <cache:annotation-driven>}.
+	 * @since 5.2
+	 * @see org.springframework.cache.annotation.EnableCaching#singleFlight()
+	 */
+	public void setSingleFlight(boolean singleFlight) {
+		this.singleFlight = singleFlight;
+	}
+
+	/**
+	 * Return whether concurrent cache misses for the same key are coalesced
+	 * into a single invocation of the underlying method.
+	 * @since 5.2
+	 */
+	public boolean isSingleFlight() {
+		return this.singleFlight;
+	}
+
 	/**
 	 * Set the containing {@link BeanFactory} for {@link CacheManager} and other
 	 * service lookups.
@@ -342,6 +387,13 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			if (cacheOperationSource != null) {
 				Collection<CacheOperation> operations = cacheOperationSource.getCacheOperations(method, targetClass);
 				if (!CollectionUtils.isEmpty(operations)) {
+					if (operations.size() == 1) {
+						CacheOperation operation = operations.iterator().next();
+						if (isExpressionFreeCacheable(operation)) {
+							return executeExpressionFreeCacheable(invoker, method,
+									getOperationContext(operation, method, args, target, targetClass));
+						}
+					}
 					return execute(invoker, method,
 							new CacheOperationContexts(operations, method, args, target, targetClass));
 				}
@@ -369,6 +421,55 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return AopProxyUtils.ultimateTargetClass(target);
 	}
 
+	/**
+	 * Determine whether the given operation is a non-synchronized {@code @Cacheable}
+	 * without any key, condition or unless expression, i.e. whether it can be
+	 * handled without any SpEL evaluation.
+	 */
+	private boolean isExpressionFreeCacheable(CacheOperation operation) {
+		if (!(operation instanceof CacheableOperation)) {
+			return false;
+		}
+		CacheableOperation cacheableOperation = (CacheableOperation) operation;
+		return (!cacheableOperation.isSync() && !cacheableOperation.isBatch() &&
+				!StringUtils.hasText(cacheableOperation.getKey()) &&
+				!StringUtils.hasText(cacheableOperation.getCondition()) &&
+				!StringUtils.hasText(cacheableOperation.getUnless()));
+	}
+
+	/**
+	 * Fast path for a single {@code @Cacheable} operation without expressions:
+	 * the key is computed by the {@link KeyGenerator} and no evaluation context,
+	 * put request or operation context registry is created for the invocation.
+	 */
+	@Nullable
+	private Object executeExpressionFreeCacheable(CacheOperationInvoker invoker, Method method,
+			CacheOperationContext context) {
+
+		Object key = generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT);
+		Cache.ValueWrapper cacheHit = findInCaches(context, key);
+		if (cacheHit != null) {
+			return wrapCacheValue(method, cacheHit.get());
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("No cache entry for key '" + key + "' in cache(s) " + context.getCacheNames());
+		}
+		if (this.singleFlight) {
+			return invokeSingleFlight(invoker, method, context, key,
+					returnValue -> putInCaches(context, key, returnValue));
+		}
+		Object returnValue = invokeOperation(invoker);
+		putInCaches(context, key, returnValue);
+		return returnValue;
+	}
+
+	private void putInCaches(CacheOperationContext context, Object key, @Nullable Object returnValue) {
+		Object cacheValue = unwrapReturnValue(returnValue);
+		for (Cache cache : context.getCaches()) {
+			doPut(cache, key, cacheValue);
+		}
+	}
+
 	@Nullable
 	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
 		// Special handling of synchronized invocation
@@ -392,6 +493,17 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 		}
 
+		// Special handling of batched multi-key lookups
+		if (contexts.isBatch()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				return executeBatch(invoker, context);
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invokeOperation(invoker);
+			}
+		}
 
 		// Process any early evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
@@ -415,6 +527,16 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			cacheValue = cacheHit.get();
 			returnValue = wrapCacheValue(method, cacheValue);
 		}
+		else if (cacheHit == null && this.singleFlight && cachePutRequests.size() == 1 &&
+				contexts.get(CachePutOperation.class).isEmpty()) {
+			// Invoke the method if we don't have a cache hit, unless an invocation is in flight
+			CachePutRequest putRequest = cachePutRequests.get(0);
+			returnValue = invokeSingleFlight(invoker, method, putRequest.context, putRequest.key,
+					result -> putRequest.apply(unwrapReturnValue(result)));
+			cacheValue = unwrapReturnValue(returnValue);
+			// The put request has been applied by the invocation that produced the result, if any
+			cachePutRequests.clear();
+		}
 		else {
 			// Invoke the method if we don't have a cache hit
 			returnValue = invokeOperation(invoker);
@@ -435,6 +557,149 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Invoke the operation for a cache miss on the given key, unless another
+	 * thread is already invoking it for the same method, caches and key: in
+	 * which case the result of that invocation is awaited and shared.
+	 * <p>The invocation stays registered until its result has been written to
+	 * the caches, and the caches are checked again once it is registered, so
+	 * that callers that missed the caches concurrently do not invoke the
+	 * operation once more.
+	 * @param cacheWriter the callback writing the result of an actual
+	 * invocation to the caches
+	 * @return the result of the invocation, or the cached value found when
+	 * checking the caches again
+	 */
+	@Nullable
+	private Object invokeSingleFlight(CacheOperationInvoker invoker, Method method,
+			CacheOperationContext context, Object key, Consumer<Object> cacheWriter) {
+
+		Object flightKey = new SimpleKey(context.metadata.methodKey, context.getCaches(), key);
+		InFlightInvocation invocation = new InFlightInvocation();
+		InFlightInvocation existing = this.inFlightInvocations.putIfAbsent(flightKey, invocation);
+		if (existing != null) {
+			if (existing.isOwnedByCurrentThread()) {
+				// Reentrant invocation for the same key: no result to wait for
+				Object returnValue = invokeOperation(invoker);
+				cacheWriter.accept(returnValue);
+				return returnValue;
+			}
+			if (logger.isTraceEnabled()) {
+				logger.trace("Awaiting in-flight invocation for key '" + key + "' on method " +
+						context.metadata.method);
+			}
+			return existing.getResult();
+		}
+		try {
+			// The caches may have been updated since the miss, by the previous invocation in flight
+			Cache.ValueWrapper cacheHit = findInCaches(context, key);
+			if (cacheHit != null) {
+				Object returnValue = wrapCacheValue(method, cacheHit.get());
+				invocation.complete(returnValue);
+				return returnValue;
+			}
+			Object returnValue = invokeOperation(invoker);
+			invocation.complete(returnValue);
+			cacheWriter.accept(returnValue);
+			return returnValue;
+		}
+		catch (RuntimeException | Error ex) {
+			// No-op if the invocation itself succeeded and only caching its result failed
+			invocation.fail(ex);
+			throw ex;
+		}
+		finally {
+			this.inFlightInvocations.remove(flightKey, invocation);
+		}
+	}
+
+	/**
+	 * Resolve each element of the collection argument of a batched {@code @Cacheable}
+	 * method against the caches, and invoke the method for the missing elements only.
+	 * The argument is temporarily replaced by a collection of the missing elements.
+	 */
+	@Nullable
+	private Object executeBatch(CacheOperationInvoker invoker, CacheOperationContext context) {
+		Object[] args = context.getArgs();
+		Collection<?> elements = (Collection<?>) args[0];
+		if (elements == null) {
+			return invokeOperation(invoker);
+		}
+
+		Map<Object, Object> keys = new LinkedHashMap<>(elements.size());
+		for (Object element : elements) {
+			keys.put(element, generateBatchKey(context, element));
+		}
+		Map<Object, Cache.ValueWrapper> cacheHits = new HashMap<>(keys.size());
+		Set<Object> missingKeys = new LinkedHashSet<>(keys.values());
+		for (Cache cache : context.getCaches()) {
+			Map<Object, Cache.ValueWrapper> cached = doGetAll(cache, new ArrayList<>(missingKeys));
+			cacheHits.putAll(cached);
+			missingKeys.removeAll(cached.keySet());
+			if (missingKeys.isEmpty()) {
+				break;
+			}
+		}
+
+		Map<?, ?> loadedValues = Collections.emptyMap();
+		if (!missingKeys.isEmpty()) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("No cache entries for keys " + missingKeys + " in cache(s) " + context.getCacheNames());
+			}
+			Collection<Object> missingElements = CollectionFactory.createCollection(
+					context.getMethod().getParameterTypes()[0], missingKeys.size());
+			keys.forEach((element, key) -> {
+				if (missingKeys.contains(key)) {
+					missingElements.add(element);
+				}
+			});
+			Object returnValue;
+			args[0] = missingElements;
+			try {
+				returnValue = invokeOperation(invoker);
+			}
+			finally {
+				args[0] = elements;
+			}
+			if (returnValue != null) {
+				loadedValues = (Map<?, ?>) returnValue;
+			}
+			Map<Object, Object> cacheEntries = new LinkedHashMap<>(loadedValues.size());
+			for (Object element : missingElements) {
+				if (loadedValues.containsKey(element)) {
+					cacheEntries.put(keys.get(element), loadedValues.get(element));
+				}
+			}
+			if (!cacheEntries.isEmpty()) {
+				for (Cache cache : context.getCaches()) {
+					doPutAll(cache, cacheEntries);
+				}
+			}
+		}
+
+		Map<Object, Object> result = new LinkedHashMap<>(keys.size());
+		for (Map.Entry<Object, Object> entry : keys.entrySet()) {
+			Object element = entry.getKey();
+			Cache.ValueWrapper cacheHit = cacheHits.get(entry.getValue());
+			if (cacheHit != null) {
+				result.put(element, cacheHit.get());
+			}
+			else if (loadedValues.containsKey(element)) {
+				result.put(element, loadedValues.get(element));
+			}
+		}
+		return result;
+	}
+
+	private Object generateBatchKey(CacheOperationContext context, @Nullable Object element) {
+		Object key = context.generateBatchKey(element);
+		if (key == null) {
+			throw new IllegalArgumentException("Null key returned for element [" + element +
+					"] of batched cache operation " + context.metadata.operation);
+		}
+		return key;
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -590,6 +855,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final boolean sync;
 
+		private final boolean batch;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
@@ -598,6 +865,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
 			}
 			this.sync = determineSyncFlag(method);
+			this.batch = determineBatchFlag(method);
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -609,6 +877,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBatch() {
+			return this.batch;
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -644,6 +916,74 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private boolean determineBatchFlag(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return false;
+			}
+			boolean batchEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBatch()) {
+					batchEnabled = true;
+					break;
+				}
+			}
+			if (batchEnabled) {
+				if (this.contexts.size() > 1 || cacheOperationContexts.size() > 1) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) cannot be combined with other cache operations on '" + method + "'");
+				}
+				CacheOperationContext cacheOperationContext = cacheOperationContexts.iterator().next();
+				CacheableOperation operation = (CacheableOperation) cacheOperationContext.getOperation();
+				if (operation.isSync()) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) cannot be combined with sync attribute on '" + operation + "'");
+				}
+				if (StringUtils.hasText(operation.getKey()) || StringUtils.hasText(operation.getUnless())) {
+					throw new IllegalStateException(
+							"@Cacheable(batch=true) does not support key and unless attributes on '" + operation + "'");
+				}
+				Method targetMethod = cacheOperationContext.getMethod();
+				if (targetMethod.getParameterCount() != 1 ||
+						!Collection.class.isAssignableFrom(targetMethod.getParameterTypes()[0]) ||
+						!Map.class.isAssignableFrom(targetMethod.getReturnType()) ||
+						!targetMethod.getReturnType().isAssignableFrom(LinkedHashMap.class)) {
+					throw new IllegalStateException("@Cacheable(batch=true) requires a single Collection " +
+							"parameter and a Map return type on '" + method + "'");
+				}
+				if (!isInstantiableCollectionType(targetMethod.getParameterTypes()[0])) {
+					throw new IllegalStateException("@Cacheable(batch=true) requires a Collection parameter " +
+							"of type Collection, List, Set, SortedSet or NavigableSet, or of a concrete type " +
+							"with a default constructor on '" + method + "'");
+				}
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Determine whether a collection of the missing elements can be created
+		 * for a parameter of the given type.
+		 * @see CollectionFactory#createCollection(Class, int)
+		 */
+		private boolean isInstantiableCollectionType(Class<?> collectionType) {
+			if (collectionType.isInterface()) {
+				return (Collection.class == collectionType || List.class == collectionType ||
+						Set.class == collectionType || SortedSet.class == collectionType ||
+						NavigableSet.class == collectionType);
+			}
+			if (EnumSet.class.isAssignableFrom(collectionType) || Modifier.isAbstract(collectionType.getModifiers())) {
+				return false;
+			}
+			try {
+				collectionType.getDeclaredConstructor();
+				return true;
+			}
+			catch (NoSuchMethodException ex) {
+				return false;
+			}
+		}
 	}
 
 
@@ -695,7 +1035,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final Collection<? extends Cache> caches;
 
-		private final Collection<String> cacheNames;
+		@Nullable
+		private Collection<String> cacheNames;
 
 		@Nullable
 		private Boolean conditionPassing;
@@ -705,7 +1046,6 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			this.args = extractArgs(metadata.method, args);
 			this.target = target;
 			this.caches = CacheAspectSupport.this.getCaches(this, metadata.cacheResolver);
-			this.cacheNames = createCacheNames(this.caches);
 		}
 
 		@Override
@@ -780,6 +1120,15 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.metadata.keyGenerator.generate(this.target, this.metadata.method, this.args);
 		}
 
+		/**
+		 * Compute the key for the given element of a batched caching operation.
+		 * @since 5.2
+		 */
+		@Nullable
+		protected Object generateBatchKey(@Nullable Object element) {
+			return this.metadata.keyGenerator.generate(this.target, this.metadata.method, new Object[] {element});
+		}
+
 		private EvaluationContext createEvaluationContext(@Nullable Object result) {
 			return evaluator.createEvaluationContext(this.caches, this.metadata.method, this.args,
 					this.target, this.metadata.targetClass, this.metadata.targetMethod, result, beanFactory);
@@ -790,6 +1139,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 
 		protected Collection<String> getCacheNames() {
+			if (this.cacheNames == null) {
+				this.cacheNames = createCacheNames(this.caches);
+			}
 			return this.cacheNames;
 		}
 
@@ -824,6 +1176,57 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	/**
+	 * An invocation of the underlying method for a cache miss, holding the
+	 * result to share with concurrent callers for the same key.
+	 */
+	private static final class InFlightInvocation {
+
+		private final Thread owner = Thread.currentThread();
+
+		private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+		public boolean isOwnedByCurrentThread() {
+			return (this.owner == Thread.currentThread());
+		}
+
+		public void complete(@Nullable Object value) {
+			this.result.complete(value);
+		}
+
+		public void fail(Throwable ex) {
+			this.result.completeExceptionally(ex);
+		}
+
+		/**
+		 * Return the result of the invocation, waiting for it if necessary.
+		 * The exception thrown by the invocation is rethrown as is, if any.
+		 * @throws IllegalStateException if the current thread is interrupted
+		 * while waiting, with its interrupt flag restored
+		 */
+		@Nullable
+		public Object getResult() {
+			try {
+				return this.result.get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while awaiting in-flight invocation", ex);
+			}
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+
 	private static final class CacheOperationCacheKey implements Comparable<CacheOperationCacheKey> {
 
 		private final CacheOperation cacheOperation;
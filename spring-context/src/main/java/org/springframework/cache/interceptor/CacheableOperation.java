@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,8 @@ public class CacheableOperation extends CacheOperation {
 
 	private final boolean sync;
 
+	private final boolean batch;
+
 
 	/**
 	 * Create a new {@link CacheableOperation} instance from the given builder.
@@ -42,6 +44,7 @@ public class CacheableOperation extends CacheOperation {
 		super(b);
 		this.unless = b.unless;
 		this.sync = b.sync;
+		this.batch = b.batch;
 	}
 
 
@@ -54,6 +57,14 @@ public class CacheableOperation extends CacheOperation {
 		return this.sync;
 	}
 
+	/**
+	 * Return whether the entries of a multi-key lookup are cached individually.
+	 * @since 5.2
+	 */
+	public boolean isBatch() {
+		return this.batch;
+	}
+
 
 	/**
 	 * A builder that can be used to create a {@link CacheableOperation}.
@@ -66,6 +77,8 @@ public class CacheableOperation extends CacheOperation {
 
 		private boolean sync;
 
+		private boolean batch;
+
 		public void setUnless(String unless) {
 			this.unless = unless;
 		}
@@ -74,6 +87,14 @@ public class CacheableOperation extends CacheOperation {
 			this.sync = sync;
 		}
 
+		/**
+		 * Set whether the entries of a multi-key lookup are cached individually.
+		 * @since 5.2
+		 */
+		public void setBatch(boolean batch) {
+			this.batch = batch;
+		}
+
 		@Override
 		protected StringBuilder getOperationDescription() {
 			StringBuilder sb = super.getOperationDescription();
@@ -83,6 +104,9 @@ public class CacheableOperation extends CacheOperation {
 			sb.append(" | sync='");
 			sb.append(this.sync);
 			sb.append("'");
+			sb.append(" | batch='");
+			sb.append(this.batch);
+			sb.append("'");
 			return sb;
 		}
 
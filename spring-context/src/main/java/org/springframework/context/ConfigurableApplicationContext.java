@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ProtocolResolver;
+import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.lang.Nullable;
 
 /**
@@ -118,6 +119,24 @@ public interface ConfigurableApplicationContext extends ApplicationContext, Life
 	@Override
 	ConfigurableEnvironment getEnvironment();
 
+	/**
+	 * Set the {@link ApplicationStartup} for this application context.
+	 * <p>This allows the application context to record metrics during startup,
+	 * for example the time spent in bean factory post-processing, in the
+	 * creation of individual beans and in event publication.
+	 * <p>Default is {@link ApplicationStartup#DEFAULT}, not recording anything.
+	 * To be invoked during context configuration, before refresh.
+	 * @param applicationStartup the new application startup
+	 * @since 5.2
+	 */
+	void setApplicationStartup(ApplicationStartup applicationStartup);
+
+	/**
+	 * Return the {@link ApplicationStartup} for this application context.
+	 * @since 5.2
+	 */
+	ApplicationStartup getApplicationStartup();
+
 	/**
 	 * Add a new BeanFactoryPostProcessor that will get applied to the internal
 	 * bean factory of this application context on refresh, before any of the
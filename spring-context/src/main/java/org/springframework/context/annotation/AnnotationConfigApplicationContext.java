@@ -16,6 +16,7 @@
 
 package org.springframework.context.annotation;
 
+import java.io.File;
 import java.util.function.Supplier;
 
 import org.springframework.beans.factory.config.BeanDefinitionCustomizer;
@@ -127,6 +128,21 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 				AnnotationConfigUtils.CONFIGURATION_BEAN_NAME_GENERATOR, beanNameGenerator);
 	}
 
+	/**
+	 * Specify a file to store a snapshot of the bean definitions derived from
+	 * configuration classes in, restoring them from there on subsequent startups
+	 * against the same classpath, profiles and registered classes instead of
+	 * parsing configuration classes and scanning for components again.
+	 * <p>Any call to this method must occur prior to {@link #refresh()}.
+	 * @since 5.2
+	 * @see ConfigurationClassPostProcessor#setBeanDefinitionSnapshotFile
+	 */
+	public void setBeanDefinitionSnapshotFile(File snapshotFile) {
+		Assert.notNull(snapshotFile, "Snapshot file must not be null");
+		getBeanFactory().registerSingleton(
+				AnnotationConfigUtils.CONFIGURATION_BEAN_DEFINITION_SNAPSHOT_FILE, snapshotFile);
+	}
+
 	/**
 	 * Set the {@link ScopeMetadataResolver} to use for detected bean classes.
 	 * <p>The default is an {@link AnnotationScopeMetadataResolver}.
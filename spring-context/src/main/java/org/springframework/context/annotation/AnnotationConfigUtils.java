@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,14 +25,17 @@ import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
 import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.event.DefaultEventListenerFactory;
 import org.springframework.context.event.EventListenerMethodProcessor;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.lang.Nullable;
@@ -76,6 +79,18 @@ public abstract class AnnotationConfigUtils {
 	public static final String CONFIGURATION_BEAN_NAME_GENERATOR =
 			"org.springframework.context.annotation.internalConfigurationBeanNameGenerator";
 
+	/**
+	 * The bean name of the internally managed bean definition snapshot file for use
+	 * when processing {@link Configuration} classes. Set by
+	 * {@link AnnotationConfigApplicationContext} during bootstrap in order to make
+	 * the snapshot location available to the underlying
+	 * {@link ConfigurationClassPostProcessor}.
+	 * @since 5.2
+	 * @see ConfigurationClassPostProcessor#setBeanDefinitionSnapshotFile
+	 */
+	public static final String CONFIGURATION_BEAN_DEFINITION_SNAPSHOT_FILE =
+			"org.springframework.context.annotation.internalConfigurationBeanDefinitionSnapshotFile";
+
 	/**
 	 * The bean name of the internally managed Autowired annotation processor.
 	 */
@@ -275,6 +290,20 @@ public abstract class AnnotationConfigUtils {
 		return ScopedProxyCreator.createScopedProxy(definition, registry, proxyTargetClass);
 	}
 
+	/**
+	 * Determine the {@link ApplicationStartup} to record steps against,
+	 * as configured on the given registry's bean factory or application context.
+	 */
+	static ApplicationStartup getApplicationStartup(BeanDefinitionRegistry registry) {
+		if (registry instanceof ConfigurableBeanFactory) {
+			return ((ConfigurableBeanFactory) registry).getApplicationStartup();
+		}
+		if (registry instanceof ConfigurableApplicationContext) {
+			return ((ConfigurableApplicationContext) registry).getApplicationStartup();
+		}
+		return ApplicationStartup.DEFAULT;
+	}
+
 	@Nullable
 	static AnnotationAttributes attributesFor(AnnotatedTypeMetadata metadata, Class<?> annotationClass) {
 		return attributesFor(metadata, annotationClass.getName());
@@ -0,0 +1,1109 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.ChildBeanDefinition;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.ManagedArray;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Snapshot of the bean definitions that {@link ConfigurationClassPostProcessor}
+ * derives from the configuration classes in a registry, stored in a compact
+ * binary file so that subsequent startups against an unchanged classpath can
+ * register them directly instead of parsing configuration classes, scanning
+ * for components and reading class files again.
+ *
+ * <p>A snapshot is keyed by a hash over the classpath (entry names, sizes and
+ * timestamps), the active and default profiles and the bean definitions that
+ * were present before configuration class processing. Conditions are thereby
+ * only re-evaluated when one of those changes; conditions depending on other
+ * environment properties or system state are frozen as they evaluated when
+ * the snapshot was written.
+ *
+ * <p>Only common bean definition metadata can be captured: bean class names,
+ * factory methods, scopes, flags, qualifiers, attributes, constructor arguments
+ * and property values made up of strings, primitive wrappers, classes, bean
+ * references, typed string values, inner bean definitions and managed
+ * collections thereof. Registries containing anything else (e.g. instance
+ * suppliers or method overrides) are rejected on write, leaving each startup
+ * to regular configuration class processing. Restored definitions come back
+ * as plain {@link RootBeanDefinition} or {@link GenericBeanDefinition} instances,
+ * i.e. without {@link AnnotatedBeanDefinition} metadata.
+ *
+ * <p>Since restoring a snapshot bypasses {@link ConfigurationClassParser}, the
+ * {@link PropertySource @PropertySource} declarations encountered during parsing
+ * are recorded as well, to be added to the environment again on restore.
+ *
+ * @since 5.2
+ * @see ConfigurationClassPostProcessor#setBeanDefinitionSnapshotFile
+ */
+final class BeanDefinitionSnapshot {
+
+	private static final int MAGIC = 0x53424453;
+
+	private static final int VERSION = 2;
+
+	private static final byte ROOT_DEFINITION = 0;
+
+	private static final byte BEAN_METHOD_DEFINITION = 1;
+
+	private static final byte GENERIC_DEFINITION = 2;
+
+	private static final byte NULL_VALUE = 0;
+
+	private static final byte STRING_VALUE = 1;
+
+	private static final byte BOOLEAN_VALUE = 2;
+
+	private static final byte INTEGER_VALUE = 3;
+
+	private static final byte LONG_VALUE = 4;
+
+	private static final byte DOUBLE_VALUE = 5;
+
+	private static final byte CLASS_VALUE = 6;
+
+	private static final byte STRING_ARRAY_VALUE = 7;
+
+	private static final byte BEAN_REFERENCE_VALUE = 8;
+
+	private static final byte BEAN_NAME_REFERENCE_VALUE = 9;
+
+	private static final byte TYPED_STRING_VALUE = 10;
+
+	private static final byte BEAN_DEFINITION_VALUE = 11;
+
+	private static final byte BEAN_DEFINITION_HOLDER_VALUE = 12;
+
+	private static final byte LIST_VALUE = 13;
+
+	private static final byte ARRAY_VALUE = 14;
+
+	private static final byte SET_VALUE = 15;
+
+	private static final byte MAP_VALUE = 16;
+
+	private static final Map<ClassLoader, String> classPathFingerprintCache = new ConcurrentReferenceHashMap<>(4);
+
+
+	private final String key;
+
+	private final Map<String, BeanDefinition> beanDefinitions;
+
+	private final Set<String> removedBeanNames;
+
+	private final Map<String, Map<String, Object>> attributeUpdates;
+
+	private final Map<String, String> aliases;
+
+	private final Map<String, String> importingClasses;
+
+	private final List<AnnotationAttributes> propertySources;
+
+
+	private BeanDefinitionSnapshot(String key, Map<String, BeanDefinition> beanDefinitions,
+			Set<String> removedBeanNames, Map<String, Map<String, Object>> attributeUpdates,
+			Map<String, String> aliases, Map<String, String> importingClasses,
+			List<AnnotationAttributes> propertySources) {
+
+		this.key = key;
+		this.beanDefinitions = beanDefinitions;
+		this.removedBeanNames = removedBeanNames;
+		this.attributeUpdates = attributeUpdates;
+		this.aliases = aliases;
+		this.importingClasses = importingClasses;
+		this.propertySources = propertySources;
+	}
+
+
+	/**
+	 * Return the number of bean definitions held by this snapshot.
+	 */
+	public int getBeanDefinitionCount() {
+		return this.beanDefinitions.size();
+	}
+
+	/**
+	 * Return the metadata of the {@link PropertySource @PropertySource} annotations
+	 * processed when this snapshot was captured, in processing order.
+	 */
+	public List<AnnotationAttributes> getPropertySources() {
+		return this.propertySources;
+	}
+
+	/**
+	 * Apply this snapshot to the given registry, reproducing the changes that
+	 * configuration class processing made when the snapshot was captured.
+	 */
+	public void registerBeanDefinitions(BeanDefinitionRegistry registry) {
+		for (String beanName : this.removedBeanNames) {
+			if (registry.containsBeanDefinition(beanName)) {
+				registry.removeBeanDefinition(beanName);
+			}
+		}
+		this.attributeUpdates.forEach((beanName, attributes) -> {
+			if (registry.containsBeanDefinition(beanName)) {
+				BeanDefinition beanDefinition = registry.getBeanDefinition(beanName);
+				attributes.forEach(beanDefinition::setAttribute);
+			}
+		});
+		this.beanDefinitions.forEach(registry::registerBeanDefinition);
+		this.aliases.forEach((alias, beanName) -> registry.registerAlias(beanName, alias));
+	}
+
+	/**
+	 * Return an {@link ImportRegistry} for the imports recorded in this snapshot,
+	 * lazily reading the metadata of importing classes on demand.
+	 */
+	public ImportRegistry getImportRegistry(MetadataReaderFactory metadataReaderFactory) {
+		return new SnapshotImportRegistry(this.importingClasses, metadataReaderFactory);
+	}
+
+	/**
+	 * Write this snapshot to the given file, replacing any previous content.
+	 * @throws NotSerializableException if a bean definition contains metadata
+	 * which cannot be represented in a snapshot
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(File file) throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream(4096);
+		DataOutputStream out = new DataOutputStream(content);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(this.key);
+		out.writeInt(this.beanDefinitions.size());
+		for (Map.Entry<String, BeanDefinition> entry : this.beanDefinitions.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeBeanDefinition(out, entry.getValue());
+		}
+		writeStrings(out, this.removedBeanNames);
+		out.writeInt(this.attributeUpdates.size());
+		for (Map.Entry<String, Map<String, Object>> entry : this.attributeUpdates.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeAttributes(out, entry.getValue());
+		}
+		writeStringMap(out, this.aliases);
+		writeStringMap(out, this.importingClasses);
+		out.writeInt(this.propertySources.size());
+		for (AnnotationAttributes propertySource : this.propertySources) {
+			writePropertySource(out, propertySource);
+		}
+		out.flush();
+
+		// Write to a temporary file first, not leaving a partial snapshot behind
+		File target = file.getAbsoluteFile();
+		File parent = target.getParentFile();
+		if (parent != null && !parent.exists() && !parent.mkdirs()) {
+			throw new IOException("Could not create directory " + parent);
+		}
+		File tempFile = File.createTempFile(target.getName(), ".tmp", parent);
+		try {
+			try (OutputStream os = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+				content.writeTo(os);
+			}
+			Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BeanDefinitionSnapshot with " + this.beanDefinitions.size() + " bean definitions";
+	}
+
+
+	/**
+	 * Start recording changes to the given registry, based on its current state.
+	 */
+	public static Recorder record(BeanDefinitionRegistry registry) {
+		return new Recorder(registry);
+	}
+
+	/**
+	 * Read a snapshot from the given file, if it exists and matches the given key.
+	 * @param file the snapshot file
+	 * @param key the key of the current setup, as computed by {@link #computeKey}
+	 * @param classLoader the ClassLoader to resolve class values against
+	 * @return the snapshot, or {@code null} if there is no snapshot for the given key
+	 * @throws IOException if the snapshot file is corrupt or refers to classes
+	 * which cannot be resolved
+	 */
+	@Nullable
+	public static BeanDefinitionSnapshot read(File file, String key, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		if (!file.isFile()) {
+			return null;
+		}
+		try (InputStream is = new BufferedInputStream(new FileInputStream(file))) {
+			DataInputStream in = new DataInputStream(is);
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF())) {
+				return null;
+			}
+			int count = in.readInt();
+			Map<String, BeanDefinition> beanDefinitions = new LinkedHashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				String beanName = in.readUTF();
+				beanDefinitions.put(beanName, readBeanDefinition(in, classLoader));
+			}
+			Set<String> removedBeanNames = readStrings(in);
+			count = in.readInt();
+			Map<String, Map<String, Object>> attributeUpdates = new LinkedHashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				String beanName = in.readUTF();
+				attributeUpdates.put(beanName, readAttributes(in, classLoader));
+			}
+			Map<String, String> aliases = readStringMap(in);
+			Map<String, String> importingClasses = readStringMap(in);
+			count = in.readInt();
+			List<AnnotationAttributes> propertySources = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				propertySources.add(readPropertySource(in, classLoader));
+			}
+			return new BeanDefinitionSnapshot(key, beanDefinitions, removedBeanNames,
+					attributeUpdates, aliases, importingClasses, propertySources);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			throw new IOException("Bean definition snapshot refers to unresolvable class", ex);
+		}
+	}
+
+	/**
+	 * Compute the key for a snapshot of the given registry: a hash over the
+	 * classpath of the given ClassLoader (as far as it is introspectable), the
+	 * active and default profiles of the given environment and the names and
+	 * classes of the bean definitions currently present in the registry.
+	 * <p>The classpath fingerprint is computed once per ClassLoader.
+	 */
+	public static String computeKey(
+			BeanDefinitionRegistry registry, Environment environment, @Nullable ClassLoader classLoader) {
+
+		StringBuilder sb = new StringBuilder(4096);
+		sb.append(VERSION).append('\n');
+		for (String beanName : registry.getBeanDefinitionNames()) {
+			sb.append(beanName).append('=').append(registry.getBeanDefinition(beanName).getBeanClassName()).append('\n');
+		}
+		sb.append(Arrays.toString(environment.getActiveProfiles())).append('\n');
+		sb.append(Arrays.toString(environment.getDefaultProfiles())).append('\n');
+		sb.append(classLoader != null ?
+				classPathFingerprintCache.computeIfAbsent(classLoader, BeanDefinitionSnapshot::computeClassPathFingerprint) :
+				computeClassPathFingerprint(null));
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String computeClassPathFingerprint(@Nullable ClassLoader classLoader) {
+		StringBuilder sb = new StringBuilder(4096);
+		for (String entry : getClassPathEntries(classLoader)) {
+			appendFingerprint(sb, Paths.get(entry));
+		}
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Set<String> getClassPathEntries(@Nullable ClassLoader classLoader) {
+		Set<String> entries = new LinkedHashSet<>();
+		ClassLoader current = classLoader;
+		while (current != null) {
+			if (current instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) current).getURLs()) {
+					if ("file".equals(url.getProtocol())) {
+						entries.add(StringUtils.cleanPath(url.getPath()));
+					}
+				}
+			}
+			current = current.getParent();
+		}
+		String classPath = System.getProperty("java.class.path");
+		if (classPath != null) {
+			for (String entry : StringUtils.tokenizeToStringArray(classPath, File.pathSeparator)) {
+				entries.add(StringUtils.cleanPath(new File(entry).getAbsolutePath()));
+			}
+		}
+		return entries;
+	}
+
+	private static void appendFingerprint(StringBuilder sb, Path entry) {
+		sb.append(entry).append('\n');
+		try {
+			// Walk in directory order, reading the attributes of each file only once
+			Files.walkFileTree(entry, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+					new SimpleFileVisitor<Path>() {
+						@Override
+						public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+							return visitFile(dir, attrs);
+						}
+						@Override
+						public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+							sb.append(entry.relativize(file)).append(':').append(attrs.size()).append(':')
+									.append(attrs.lastModifiedTime().toMillis()).append('\n');
+							return FileVisitResult.CONTINUE;
+						}
+						@Override
+						public FileVisitResult visitFileFailed(Path file, IOException ex) {
+							return FileVisitResult.CONTINUE;
+						}
+					});
+		}
+		catch (IOException ex) {
+			sb.append(ex).append('\n');
+		}
+	}
+
+	private static void writePropertySource(DataOutputStream out, AnnotationAttributes propertySource)
+			throws IOException {
+
+		out.writeUTF(propertySource.getString("name"));
+		out.writeUTF(propertySource.getString("encoding"));
+		String[] locations = propertySource.getStringArray("value");
+		out.writeInt(locations.length);
+		for (String location : locations) {
+			out.writeUTF(location);
+		}
+		out.writeBoolean(propertySource.getBoolean("ignoreResourceNotFound"));
+		out.writeUTF(propertySource.getClass("factory").getName());
+	}
+
+	private static AnnotationAttributes readPropertySource(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		AnnotationAttributes propertySource = new AnnotationAttributes(PropertySource.class);
+		propertySource.put("name", in.readUTF());
+		propertySource.put("encoding", in.readUTF());
+		String[] locations = new String[in.readInt()];
+		for (int i = 0; i < locations.length; i++) {
+			locations[i] = in.readUTF();
+		}
+		propertySource.put("value", locations);
+		propertySource.put("ignoreResourceNotFound", in.readBoolean());
+		propertySource.put("factory", ClassUtils.forName(in.readUTF(), classLoader));
+		return propertySource;
+	}
+
+
+	private static boolean isBeanMethodDefinition(BeanDefinition beanDefinition) {
+		return (beanDefinition instanceof RootBeanDefinition && beanDefinition instanceof AnnotatedBeanDefinition &&
+				((AnnotatedBeanDefinition) beanDefinition).getFactoryMethodMetadata() != null);
+	}
+
+	private static boolean isUniqueBeanMethod(AnnotatedBeanDefinition beanDefinition) {
+		String methodName = beanDefinition.getFactoryMethodName();
+		int count = 0;
+		for (MethodMetadata method : beanDefinition.getMetadata().getAnnotatedMethods(Bean.class.getName())) {
+			if (method.getMethodName().equals(methodName)) {
+				count++;
+			}
+		}
+		return (count <= 1);
+	}
+
+	private static void writeBeanDefinition(DataOutputStream out, BeanDefinition beanDefinition) throws IOException {
+		Class<?> type = beanDefinition.getClass();
+		byte kind;
+		if (isBeanMethodDefinition(beanDefinition)) {
+			kind = (beanDefinition.getFactoryMethodName() != null ? BEAN_METHOD_DEFINITION : ROOT_DEFINITION);
+		}
+		else if (type == RootBeanDefinition.class) {
+			kind = ROOT_DEFINITION;
+		}
+		else if (type == GenericBeanDefinition.class || type == ScannedGenericBeanDefinition.class ||
+				type == AnnotatedGenericBeanDefinition.class || type == ChildBeanDefinition.class) {
+			kind = GENERIC_DEFINITION;
+		}
+		else {
+			throw new NotSerializableException("Unsupported bean definition type: " + type.getName());
+		}
+
+		AbstractBeanDefinition bd = (AbstractBeanDefinition) beanDefinition;
+		if (bd.getInstanceSupplier() != null) {
+			throw new NotSerializableException("Bean definition with instance supplier: " + bd);
+		}
+		if (bd.hasMethodOverrides()) {
+			throw new NotSerializableException("Bean definition with method overrides: " + bd);
+		}
+		BeanDefinitionHolder decoratedDefinition = null;
+		if (bd instanceof RootBeanDefinition) {
+			RootBeanDefinition rbd = (RootBeanDefinition) bd;
+			if (rbd.getQualifiedElement() != null || rbd.getTargetType() != null) {
+				throw new NotSerializableException("Bean definition with target type: " + bd);
+			}
+			decoratedDefinition = rbd.getDecoratedDefinition();
+		}
+
+		out.writeByte(kind);
+		writeNullableString(out, (kind == GENERIC_DEFINITION ? bd.getParentName() : null));
+		writeNullableString(out, bd.getBeanClassName());
+		writeNullableString(out, bd.getScope());
+		out.writeBoolean(bd.isAbstract());
+		Boolean lazyInit = bd.getLazyInit();
+		out.writeByte(lazyInit == null ? 0 : (lazyInit ? 2 : 1));
+		out.writeInt(bd.getAutowireMode());
+		out.writeInt(bd.getDependencyCheck());
+		writeValue(out, bd.getDependsOn());
+		out.writeBoolean(bd.isAutowireCandidate());
+		out.writeBoolean(bd.isPrimary());
+		Set<AutowireCandidateQualifier> qualifiers = bd.getQualifiers();
+		out.writeInt(qualifiers.size());
+		for (AutowireCandidateQualifier qualifier : qualifiers) {
+			out.writeUTF(qualifier.getTypeName());
+			Map<String, Object> attributes = new LinkedHashMap<>();
+			for (String name : qualifier.attributeNames()) {
+				attributes.put(name, qualifier.getAttribute(name));
+			}
+			writeAttributes(out, attributes);
+		}
+		out.writeBoolean(bd.isNonPublicAccessAllowed());
+		out.writeBoolean(bd.isLenientConstructorResolution());
+		writeNullableString(out, bd.getFactoryBeanName());
+		writeNullableString(out, bd.getFactoryMethodName());
+		if (kind == BEAN_METHOD_DEFINITION) {
+			out.writeBoolean(isUniqueBeanMethod((AnnotatedBeanDefinition) bd));
+		}
+
+		ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+		Map<Integer, ValueHolder> indexedArgs = cargs.getIndexedArgumentValues();
+		out.writeInt(indexedArgs.size());
+		for (Map.Entry<Integer, ValueHolder> entry : indexedArgs.entrySet()) {
+			out.writeInt(entry.getKey());
+			writeValueHolder(out, entry.getValue());
+		}
+		List<ValueHolder> genericArgs = cargs.getGenericArgumentValues();
+		out.writeInt(genericArgs.size());
+		for (ValueHolder valueHolder : genericArgs) {
+			writeValueHolder(out, valueHolder);
+		}
+		PropertyValue[] pvs = bd.getPropertyValues().getPropertyValues();
+		out.writeInt(pvs.length);
+		for (PropertyValue pv : pvs) {
+			out.writeUTF(pv.getName());
+			writeValue(out, pv.getValue());
+			out.writeBoolean(pv.isOptional());
+		}
+
+		writeNullableString(out, bd.getInitMethodName());
+		out.writeBoolean(bd.isEnforceInitMethod());
+		writeNullableString(out, bd.getDestroyMethodName());
+		out.writeBoolean(bd.isEnforceDestroyMethod());
+		out.writeBoolean(bd.isSynthetic());
+		out.writeInt(bd.getRole());
+		writeNullableString(out, bd.getDescription());
+		writeNullableString(out, bd.getResourceDescription());
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		for (String name : bd.attributeNames()) {
+			attributes.put(name, bd.getAttribute(name));
+		}
+		writeAttributes(out, attributes);
+		if (kind != GENERIC_DEFINITION) {
+			writeValue(out, decoratedDefinition);
+		}
+	}
+
+	private static BeanDefinition readBeanDefinition(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		byte kind = in.readByte();
+		AbstractBeanDefinition bd;
+		if (kind == GENERIC_DEFINITION) {
+			bd = new GenericBeanDefinition();
+			((GenericBeanDefinition) bd).setParentName(readNullableString(in));
+		}
+		else if (kind == BEAN_METHOD_DEFINITION) {
+			bd = new BeanMethodDefinition();
+			readNullableString(in);
+		}
+		else if (kind == ROOT_DEFINITION) {
+			bd = new RootBeanDefinition();
+			readNullableString(in);
+		}
+		else {
+			throw new IOException("Unknown bean definition kind: " + kind);
+		}
+
+		bd.setBeanClassName(readNullableString(in));
+		bd.setScope(readNullableString(in));
+		bd.setAbstract(in.readBoolean());
+		byte lazyInit = in.readByte();
+		if (lazyInit != 0) {
+			bd.setLazyInit(lazyInit == 2);
+		}
+		bd.setAutowireMode(in.readInt());
+		bd.setDependencyCheck(in.readInt());
+		bd.setDependsOn((String[]) readValue(in, classLoader));
+		bd.setAutowireCandidate(in.readBoolean());
+		bd.setPrimary(in.readBoolean());
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(in.readUTF());
+			readAttributes(in, classLoader).forEach(qualifier::setAttribute);
+			bd.addQualifier(qualifier);
+		}
+		bd.setNonPublicAccessAllowed(in.readBoolean());
+		bd.setLenientConstructorResolution(in.readBoolean());
+		bd.setFactoryBeanName(readNullableString(in));
+		String factoryMethodName = readNullableString(in);
+		if (kind == BEAN_METHOD_DEFINITION && in.readBoolean()) {
+			((RootBeanDefinition) bd).setUniqueFactoryMethodName(factoryMethodName);
+		}
+		else {
+			bd.setFactoryMethodName(factoryMethodName);
+		}
+
+		ConstructorArgumentValues cargs = new ConstructorArgumentValues();
+		count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			int index = in.readInt();
+			cargs.addIndexedArgumentValue(index, readValueHolder(in, classLoader));
+		}
+		count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			cargs.addGenericArgumentValue(readValueHolder(in, classLoader));
+		}
+		bd.setConstructorArgumentValues(cargs);
+		MutablePropertyValues pvs = new MutablePropertyValues();
+		count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			PropertyValue pv = new PropertyValue(in.readUTF(), readValue(in, classLoader));
+			pv.setOptional(in.readBoolean());
+			pvs.addPropertyValue(pv);
+		}
+		bd.setPropertyValues(pvs);
+
+		bd.setInitMethodName(readNullableString(in));
+		bd.setEnforceInitMethod(in.readBoolean());
+		bd.setDestroyMethodName(readNullableString(in));
+		bd.setEnforceDestroyMethod(in.readBoolean());
+		bd.setSynthetic(in.readBoolean());
+		bd.setRole(in.readInt());
+		bd.setDescription(readNullableString(in));
+		bd.setResourceDescription(readNullableString(in));
+		readAttributes(in, classLoader).forEach(bd::setAttribute);
+		if (kind != GENERIC_DEFINITION) {
+			((RootBeanDefinition) bd).setDecoratedDefinition((BeanDefinitionHolder) readValue(in, classLoader));
+		}
+		return bd;
+	}
+
+	private static void writeValueHolder(DataOutputStream out, ValueHolder valueHolder) throws IOException {
+		writeValue(out, valueHolder.getValue());
+		writeNullableString(out, valueHolder.getType());
+		writeNullableString(out, valueHolder.getName());
+	}
+
+	private static ValueHolder readValueHolder(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		Object value = readValue(in, classLoader);
+		return new ValueHolder(value, readNullableString(in), readNullableString(in));
+	}
+
+	private static void writeValue(DataOutputStream out, @Nullable Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL_VALUE);
+		}
+		else if (value instanceof String) {
+			out.writeByte(STRING_VALUE);
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN_VALUE);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(INTEGER_VALUE);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(LONG_VALUE);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte(DOUBLE_VALUE);
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof Class) {
+			out.writeByte(CLASS_VALUE);
+			out.writeUTF(((Class<?>) value).getName());
+		}
+		else if (value instanceof String[]) {
+			out.writeByte(STRING_ARRAY_VALUE);
+			String[] array = (String[]) value;
+			out.writeInt(array.length);
+			for (String element : array) {
+				writeValue(out, element);
+			}
+		}
+		else if (value.getClass() == RuntimeBeanReference.class) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			out.writeByte(BEAN_REFERENCE_VALUE);
+			out.writeUTF(reference.getBeanName());
+			out.writeBoolean(reference.isToParent());
+		}
+		else if (value.getClass() == RuntimeBeanNameReference.class) {
+			out.writeByte(BEAN_NAME_REFERENCE_VALUE);
+			out.writeUTF(((RuntimeBeanNameReference) value).getBeanName());
+		}
+		else if (value.getClass() == TypedStringValue.class) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			out.writeByte(TYPED_STRING_VALUE);
+			writeNullableString(out, typedValue.getValue());
+			writeNullableString(out, (typedValue.hasTargetType() ?
+					typedValue.getTargetType().getName() : typedValue.getTargetTypeName()));
+			writeNullableString(out, typedValue.getSpecifiedTypeName());
+			out.writeBoolean(typedValue.isDynamic());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			BeanDefinitionHolder holder = (BeanDefinitionHolder) value;
+			out.writeByte(BEAN_DEFINITION_HOLDER_VALUE);
+			out.writeUTF(holder.getBeanName());
+			writeValue(out, holder.getAliases());
+			writeBeanDefinition(out, holder.getBeanDefinition());
+		}
+		else if (value instanceof BeanDefinition) {
+			out.writeByte(BEAN_DEFINITION_VALUE);
+			writeBeanDefinition(out, (BeanDefinition) value);
+		}
+		else if (value.getClass() == ManagedArray.class) {
+			ManagedArray array = (ManagedArray) value;
+			out.writeByte(ARRAY_VALUE);
+			writeNullableString(out, array.getElementTypeName());
+			out.writeBoolean(array.isMergeEnabled());
+			writeElements(out, array);
+		}
+		else if (value.getClass() == ManagedList.class) {
+			ManagedList<?> list = (ManagedList<?>) value;
+			out.writeByte(LIST_VALUE);
+			writeNullableString(out, list.getElementTypeName());
+			out.writeBoolean(list.isMergeEnabled());
+			writeElements(out, list);
+		}
+		else if (value.getClass() == ManagedSet.class) {
+			ManagedSet<?> set = (ManagedSet<?>) value;
+			out.writeByte(SET_VALUE);
+			writeNullableString(out, set.getElementTypeName());
+			out.writeBoolean(set.isMergeEnabled());
+			writeElements(out, set);
+		}
+		else if (value.getClass() == ManagedMap.class) {
+			ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+			out.writeByte(MAP_VALUE);
+			writeNullableString(out, map.getKeyTypeName());
+			writeNullableString(out, map.getValueTypeName());
+			out.writeBoolean(map.isMergeEnabled());
+			out.writeInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(out, entry.getKey());
+				writeValue(out, entry.getValue());
+			}
+		}
+		else {
+			throw new NotSerializableException("Unsupported bean definition value of type " +
+					value.getClass().getName() + ": " + ObjectUtils.nullSafeToString(value));
+		}
+	}
+
+	private static void writeElements(DataOutputStream out, Iterable<?> elements) throws IOException {
+		int size = 0;
+		for (Object ignored : elements) {
+			size++;
+		}
+		out.writeInt(size);
+		for (Object element : elements) {
+			writeValue(out, element);
+		}
+	}
+
+	@Nullable
+	private static Object readValue(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		byte tag = in.readByte();
+		switch (tag) {
+			case NULL_VALUE:
+				return null;
+			case STRING_VALUE:
+				return in.readUTF();
+			case BOOLEAN_VALUE:
+				return in.readBoolean();
+			case INTEGER_VALUE:
+				return in.readInt();
+			case LONG_VALUE:
+				return in.readLong();
+			case DOUBLE_VALUE:
+				return in.readDouble();
+			case CLASS_VALUE:
+				return ClassUtils.forName(in.readUTF(), classLoader);
+			case STRING_ARRAY_VALUE: {
+				String[] array = new String[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = (String) readValue(in, classLoader);
+				}
+				return array;
+			}
+			case BEAN_REFERENCE_VALUE:
+				return new RuntimeBeanReference(in.readUTF(), in.readBoolean());
+			case BEAN_NAME_REFERENCE_VALUE:
+				return new RuntimeBeanNameReference(in.readUTF());
+			case TYPED_STRING_VALUE: {
+				TypedStringValue typedValue = new TypedStringValue(readNullableString(in));
+				typedValue.setTargetTypeName(readNullableString(in));
+				typedValue.setSpecifiedTypeName(readNullableString(in));
+				if (in.readBoolean()) {
+					typedValue.setDynamic();
+				}
+				return typedValue;
+			}
+			case BEAN_DEFINITION_HOLDER_VALUE: {
+				String beanName = in.readUTF();
+				String[] aliases = (String[]) readValue(in, classLoader);
+				return new BeanDefinitionHolder(readBeanDefinition(in, classLoader), beanName, aliases);
+			}
+			case BEAN_DEFINITION_VALUE:
+				return readBeanDefinition(in, classLoader);
+			case ARRAY_VALUE: {
+				String elementTypeName = readNullableString(in);
+				boolean mergeEnabled = in.readBoolean();
+				int size = in.readInt();
+				ManagedArray array = new ManagedArray(elementTypeName != null ? elementTypeName : "", size);
+				array.setMergeEnabled(mergeEnabled);
+				for (int i = 0; i < size; i++) {
+					array.add(readValue(in, classLoader));
+				}
+				return array;
+			}
+			case LIST_VALUE: {
+				ManagedList<Object> list = new ManagedList<>();
+				String elementTypeName = readNullableString(in);
+				if (elementTypeName != null) {
+					list.setElementTypeName(elementTypeName);
+				}
+				list.setMergeEnabled(in.readBoolean());
+				int size = in.readInt();
+				for (int i = 0; i < size; i++) {
+					list.add(readValue(in, classLoader));
+				}
+				return list;
+			}
+			case SET_VALUE: {
+				ManagedSet<Object> set = new ManagedSet<>();
+				set.setElementTypeName(readNullableString(in));
+				set.setMergeEnabled(in.readBoolean());
+				int size = in.readInt();
+				for (int i = 0; i < size; i++) {
+					set.add(readValue(in, classLoader));
+				}
+				return set;
+			}
+			case MAP_VALUE: {
+				ManagedMap<Object, Object> map = new ManagedMap<>();
+				map.setKeyTypeName(readNullableString(in));
+				map.setValueTypeName(readNullableString(in));
+				map.setMergeEnabled(in.readBoolean());
+				int size = in.readInt();
+				for (int i = 0; i < size; i++) {
+					Object key = readValue(in, classLoader);
+					map.put(key, readValue(in, classLoader));
+				}
+				return map;
+			}
+			default:
+				throw new IOException("Unknown bean definition value tag: " + tag);
+		}
+	}
+
+	private static void writeAttributes(DataOutputStream out, Map<String, Object> attributes) throws IOException {
+		out.writeInt(attributes.size());
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	private static Map<String, Object> readAttributes(DataInputStream in, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		int count = in.readInt();
+		Map<String, Object> attributes = new LinkedHashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			String name = in.readUTF();
+			attributes.put(name, readValue(in, classLoader));
+		}
+		return attributes;
+	}
+
+	private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static void writeStrings(DataOutputStream out, Set<String> values) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static Set<String> readStrings(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		Set<String> values = new LinkedHashSet<>(count);
+		for (int i = 0; i < count; i++) {
+			values.add(in.readUTF());
+		}
+		return values;
+	}
+
+	private static void writeStringMap(DataOutputStream out, Map<String, String> map) throws IOException {
+		out.writeInt(map.size());
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeUTF(entry.getValue());
+		}
+	}
+
+	private static Map<String, String> readStringMap(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		Map<String, String> map = new LinkedHashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			String key = in.readUTF();
+			map.put(key, in.readUTF());
+		}
+		return map;
+	}
+
+
+	/**
+	 * Records the state of a registry before configuration class processing,
+	 * in order to capture the changes made by it afterwards.
+	 */
+	static final class Recorder {
+
+		private final BeanDefinitionRegistry registry;
+
+		private final Map<String, BeanDefinition> existingBeanDefinitions = new HashMap<>();
+
+		private final Map<String, Map<String, Object>> existingAttributes = new HashMap<>();
+
+		private final Set<String> existingAliases = new HashSet<>();
+
+		private Recorder(BeanDefinitionRegistry registry) {
+			this.registry = registry;
+			for (String beanName : registry.getBeanDefinitionNames()) {
+				BeanDefinition beanDefinition = registry.getBeanDefinition(beanName);
+				this.existingBeanDefinitions.put(beanName, beanDefinition);
+				this.existingAttributes.put(beanName, getAttributes(beanDefinition));
+				this.existingAliases.addAll(Arrays.asList(registry.getAliases(beanName)));
+			}
+		}
+
+		/**
+		 * Capture the changes made to the registry since this recorder was created.
+		 * @param key the key to store the snapshot under
+		 * @param importRegistry the import registry populated during processing, if any
+		 * @param propertySources the {@link PropertySource @PropertySource} metadata
+		 * processed, to be replayed against the environment on restore
+		 */
+		public BeanDefinitionSnapshot capture(String key, @Nullable ImportRegistry importRegistry,
+				List<AnnotationAttributes> propertySources) {
+
+			Map<String, BeanDefinition> beanDefinitions = new LinkedHashMap<>();
+			Map<String, Map<String, Object>> attributeUpdates = new LinkedHashMap<>();
+			Map<String, String> aliases = new LinkedHashMap<>();
+			Map<String, String> importingClasses = new LinkedHashMap<>();
+			Set<String> beanNames = new TreeSet<>(Arrays.asList(this.registry.getBeanDefinitionNames()));
+
+			for (String beanName : this.registry.getBeanDefinitionNames()) {
+				BeanDefinition beanDefinition = this.registry.getBeanDefinition(beanName);
+				if (this.existingBeanDefinitions.get(beanName) != beanDefinition) {
+					beanDefinitions.put(beanName, beanDefinition);
+				}
+				else {
+					Map<String, Object> previous = this.existingAttributes.get(beanName);
+					Map<String, Object> updates = new LinkedHashMap<>();
+					getAttributes(beanDefinition).forEach((name, value) -> {
+						if (!ObjectUtils.nullSafeEquals(previous.get(name), value)) {
+							updates.put(name, value);
+						}
+					});
+					if (!updates.isEmpty()) {
+						attributeUpdates.put(beanName, updates);
+					}
+				}
+				for (String alias : this.registry.getAliases(beanName)) {
+					if (!this.existingAliases.contains(alias)) {
+						aliases.put(alias, beanName);
+					}
+				}
+				String beanClassName = beanDefinition.getBeanClassName();
+				if (importRegistry != null && beanClassName != null) {
+					AnnotationMetadata importingClass = importRegistry.getImportingClassFor(beanClassName);
+					if (importingClass != null) {
+						importingClasses.put(beanClassName, importingClass.getClassName());
+					}
+				}
+			}
+
+			Set<String> removedBeanNames = new LinkedHashSet<>(this.existingBeanDefinitions.keySet());
+			removedBeanNames.removeAll(beanNames);
+			return new BeanDefinitionSnapshot(key, beanDefinitions, removedBeanNames,
+					attributeUpdates, aliases, importingClasses, new ArrayList<>(propertySources));
+		}
+
+		private static Map<String, Object> getAttributes(BeanDefinition beanDefinition) {
+			Map<String, Object> attributes = new HashMap<>();
+			for (String name : beanDefinition.attributeNames()) {
+				attributes.put(name, beanDefinition.getAttribute(name));
+			}
+			return attributes;
+		}
+	}
+
+
+	/**
+	 * Restored variant of a {@link Bean @Bean} method definition, only
+	 * considering {@code @Bean}-annotated methods as factory methods.
+	 */
+	@SuppressWarnings("serial")
+	private static class BeanMethodDefinition extends RootBeanDefinition {
+
+		public BeanMethodDefinition() {
+			setLenientConstructorResolution(false);
+		}
+
+		private BeanMethodDefinition(BeanMethodDefinition original) {
+			super(original);
+		}
+
+		@Override
+		public boolean isFactoryMethod(Method candidate) {
+			return (super.isFactoryMethod(candidate) && BeanAnnotationHelper.isBeanAnnotated(candidate));
+		}
+
+		@Override
+		public BeanMethodDefinition cloneBeanDefinition() {
+			return new BeanMethodDefinition(this);
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} for the imports recorded in a snapshot.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClasses;
+
+		private final MetadataReaderFactory metadataReaderFactory;
+
+		public SnapshotImportRegistry(Map<String, String> importingClasses, MetadataReaderFactory metadataReaderFactory) {
+			this.importingClasses = new ConcurrentHashMap<>(importingClasses);
+			this.metadataReaderFactory = metadataReaderFactory;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.importingClasses.get(importedClass);
+			if (importingClass == null) {
+				return null;
+			}
+			try {
+				return this.metadataReaderFactory.getMetadataReader(importingClass).getAnnotationMetadata();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read metadata of importing class [" + importingClass + "]", ex);
+			}
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClasses.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
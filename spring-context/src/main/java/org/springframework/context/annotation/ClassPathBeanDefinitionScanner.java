@@ -31,6 +31,8 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.PatternMatchUtils;
@@ -272,8 +274,12 @@ public class ClassPathBeanDefinitionScanner extends ClassPathScanningCandidateCo
 	protected Set<BeanDefinitionHolder> doScan(String... basePackages) {
 		Assert.notEmpty(basePackages, "At least one base package must be specified");
 		Set<BeanDefinitionHolder> beanDefinitions = new LinkedHashSet<>();
+		ApplicationStartup applicationStartup = AnnotationConfigUtils.getApplicationStartup(this.registry);
 		for (String basePackage : basePackages) {
+			StartupStep componentScan = applicationStartup.start("spring.context.component-scan")
+					.tag("basePackage", basePackage);
 			Set<BeanDefinition> candidates = findCandidateComponents(basePackage);
+			componentScan.tag("candidateCount", () -> String.valueOf(candidates.size())).end();
 			for (BeanDefinition candidate : candidates) {
 				ScopeMetadata scopeMetadata = this.scopeMetadataResolver.resolveScopeMetadata(candidate);
 				candidate.setScope(scopeMetadata.getScopeName());
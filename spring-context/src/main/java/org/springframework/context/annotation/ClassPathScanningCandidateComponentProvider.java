@@ -23,6 +23,8 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -36,6 +38,7 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
@@ -89,6 +92,18 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	/**
+	 * System property that instructs Spring to read candidate class metadata
+	 * in parallel by default: "spring.scan.parallel".
+	 * <p>The default is "false", reading one class file after the other.
+	 * @since 5.2
+	 * @see #setParallelScanning
+	 */
+	public static final String PARALLEL_SCANNING_PROPERTY_NAME = "spring.scan.parallel";
+
+	/** Number of resources below which a parallel read does not get split any further. */
+	private static final int PARALLEL_SCANNING_THRESHOLD = 64;
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -113,6 +128,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	private boolean parallelScanning = SpringProperties.getFlag(PARALLEL_SCANNING_PROPERTY_NAME);
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -302,6 +319,34 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return this.metadataReaderFactory;
 	}
 
+	/**
+	 * Specify whether to read the class files found during classpath scanning
+	 * in parallel, using the {@link ForkJoinPool#commonPool() common fork-join pool}.
+	 * <p>Default is "false", unless the {@link #PARALLEL_SCANNING_PROPERTY_NAME}
+	 * system property is set. Switch this flag to "true" for large classpaths,
+	 * in order to parse class files on multiple cores: Type filters, conditions
+	 * and bean definition creation are still applied in the calling thread,
+	 * in the order of the scanned resources, so the resulting candidate
+	 * components (and their registration order) are the same as for
+	 * sequential scanning.
+	 * <p>Note that a parallel scan holds the metadata of all class files
+	 * within a base package at the same time, and that a custom
+	 * {@link #setMetadataReaderFactory MetadataReaderFactory} needs to
+	 * be thread-safe in that case.
+	 * @since 5.2
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
+	/**
+	 * Return whether class files get read in parallel during classpath scanning.
+	 * @since 5.2
+	 */
+	public boolean isParallelScanning() {
+		return this.parallelScanning;
+	}
+
 
 	/**
 	 * Scan the class path for candidate components.
@@ -419,15 +464,22 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
+			MetadataReader[] metadataReaders = null;
+			if (this.parallelScanning && resources.length > PARALLEL_SCANNING_THRESHOLD) {
+				metadataReaders = new MetadataReader[resources.length];
+				ForkJoinPool.commonPool().invoke(new MetadataReadingTask(resources, metadataReaders, 0, resources.length));
+			}
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
+			for (int i = 0; i < resources.length; i++) {
+				Resource resource = resources[i];
 				if (traceEnabled) {
 					logger.trace("Scanning " + resource);
 				}
-				if (resource.isReadable()) {
+				MetadataReader metadataReader =
+						(metadataReaders != null ? metadataReaders[i] : readMetadata(resource));
+				if (metadataReader != null) {
 					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
 						if (isCandidateComponent(metadataReader)) {
 							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
 							sbd.setResource(resource);
@@ -468,6 +520,22 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	/**
+	 * Read the class metadata for the given resource.
+	 * @param resource the class file resource
+	 * @return the MetadataReader, or {@code null} if the resource is not readable
+	 */
+	@Nullable
+	private MetadataReader readMetadata(Resource resource) {
+		try {
+			return (resource.isReadable() ? getMetadataReaderFactory().getMetadataReader(resource) : null);
+		}
+		catch (Throwable ex) {
+			throw new BeanDefinitionStoreException(
+					"Failed to read candidate component class: " + resource, ex);
+		}
+	}
+
 
 	/**
 	 * Resolve the specified base package into a pattern specification for
@@ -541,4 +609,42 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		}
 	}
 
+
+	/**
+	 * Fork-join task reading the class metadata for a range of resources,
+	 * storing each MetadataReader at the index of its resource.
+	 */
+	@SuppressWarnings("serial")
+	private class MetadataReadingTask extends RecursiveAction {
+
+		private final Resource[] resources;
+
+		private final MetadataReader[] metadataReaders;
+
+		private final int from;
+
+		private final int to;
+
+		MetadataReadingTask(Resource[] resources, MetadataReader[] metadataReaders, int from, int to) {
+			this.resources = resources;
+			this.metadataReaders = metadataReaders;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= PARALLEL_SCANNING_THRESHOLD) {
+				for (int i = this.from; i < this.to; i++) {
+					this.metadataReaders[i] = readMetadata(this.resources[i]);
+				}
+			}
+			else {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new MetadataReadingTask(this.resources, this.metadataReaders, this.from, middle),
+						new MetadataReadingTask(this.resources, this.metadataReaders, middle, this.to));
+			}
+		}
+	}
+
 }
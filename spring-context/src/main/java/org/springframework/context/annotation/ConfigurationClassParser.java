@@ -136,6 +136,8 @@ class ConfigurationClassParser {
 
 	private final List<String> propertySourceNames = new ArrayList<>();
 
+	private final List<AnnotationAttributes> processedPropertySources = new ArrayList<>();
+
 	private final ImportStack importStack = new ImportStack();
 
 	private final DeferredImportSelectorHandler deferredImportSelectorHandler = new DeferredImportSelectorHandler();
@@ -428,10 +430,14 @@ class ConfigurationClassParser {
 
 	/**
 	 * Process the given <code>@PropertySource</code> annotation metadata.
+	 * <p>Also used for replaying the <code>@PropertySource</code> annotations
+	 * recorded in a {@link BeanDefinitionSnapshot}.
 	 * @param propertySource metadata for the <code>@PropertySource</code> annotation found
 	 * @throws IOException if loading a property source failed
+	 * @see #getProcessedPropertySources()
 	 */
-	private void processPropertySource(AnnotationAttributes propertySource) throws IOException {
+	void processPropertySource(AnnotationAttributes propertySource) throws IOException {
+		this.processedPropertySources.add(propertySource);
 		String name = propertySource.getString("name");
 		if (!StringUtils.hasLength(name)) {
 			name = null;
@@ -618,6 +624,15 @@ class ConfigurationClassParser {
 		return false;
 	}
 
+	/**
+	 * Return the metadata of all <code>@PropertySource</code> annotations
+	 * processed so far, in processing order.
+	 * @since 5.2
+	 */
+	List<AnnotationAttributes> getProcessedPropertySources() {
+		return this.processedPropertySources;
+	}
+
 	ImportRegistry getImportRegistry() {
 		return this.importStack;
 	}
@@ -16,8 +16,11 @@
 
 package org.springframework.context.annotation;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -53,10 +56,14 @@ import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.ConfigurationClassEnhancer.EnhancedConfiguration;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.MethodMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
@@ -141,6 +148,9 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	/* Using fully qualified class names as default bean names by default. */
 	private BeanNameGenerator importBeanNameGenerator = IMPORT_BEAN_NAME_GENERATOR;
 
+	@Nullable
+	private File beanDefinitionSnapshotFile;
+
 
 	@Override
 	public int getOrder() {
@@ -199,6 +209,32 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		this.importBeanNameGenerator = beanNameGenerator;
 	}
 
+	/**
+	 * Specify a file to store a snapshot of the bean definitions derived from
+	 * configuration classes in. If the file holds a snapshot for the current
+	 * classpath, active profiles and pre-registered bean definitions, its bean
+	 * definitions get registered directly, skipping configuration class parsing,
+	 * component scanning and class file reading altogether. Otherwise, regular
+	 * processing applies and the resulting bean definitions get written to the
+	 * file, provided that they can be represented in a snapshot.
+	 * <p>Note that conditions get evaluated when a snapshot is written only;
+	 * conditions depending on more than the classpath and the active profiles
+	 * are not a good fit for this mode. Also, {@code ImportBeanDefinitionRegistrar}
+	 * implementations with instance suppliers or other programmatic bean definition
+	 * state prevent a snapshot from being written in the first place.
+	 * <p>{@code @PropertySource} declarations are recorded in the snapshot and
+	 * get added to the {@code Environment} again when restoring it, reading
+	 * the current content of the specified resources.
+	 * <p>Default is none. Any snapshot file specified against the application
+	 * context will be used if none is set here.
+	 * @since 5.2
+	 * @see AnnotationConfigApplicationContext#setBeanDefinitionSnapshotFile
+	 * @see AnnotationConfigUtils#CONFIGURATION_BEAN_DEFINITION_SNAPSHOT_FILE
+	 */
+	public void setBeanDefinitionSnapshotFile(@Nullable File beanDefinitionSnapshotFile) {
+		this.beanDefinitionSnapshotFile = beanDefinitionSnapshotFile;
+	}
+
 	@Override
 	public void setEnvironment(Environment environment) {
 		Assert.notNull(environment, "Environment must not be null");
@@ -239,7 +275,17 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 		this.registriesPostProcessed.add(registryId);
 
-		processConfigBeanDefinitions(registry);
+		File snapshotFile = this.beanDefinitionSnapshotFile;
+		if (snapshotFile == null && registry instanceof SingletonBeanRegistry) {
+			snapshotFile = (File) ((SingletonBeanRegistry) registry).getSingleton(
+					AnnotationConfigUtils.CONFIGURATION_BEAN_DEFINITION_SNAPSHOT_FILE);
+		}
+		if (snapshotFile != null) {
+			processConfigBeanDefinitions(registry, snapshotFile);
+		}
+		else {
+			processConfigBeanDefinitions(registry);
+		}
 	}
 
 	/**
@@ -269,6 +315,16 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	 * {@link Configuration} classes.
 	 */
 	public void processConfigBeanDefinitions(BeanDefinitionRegistry registry) {
+		parseConfigBeanDefinitions(registry);
+	}
+
+	/**
+	 * Build and validate a configuration model as in
+	 * {@link #processConfigBeanDefinitions(BeanDefinitionRegistry)}.
+	 * @return the parser used, or {@code null} if no configuration classes were found
+	 */
+	@Nullable
+	private ConfigurationClassParser parseConfigBeanDefinitions(BeanDefinitionRegistry registry) {
 		List<BeanDefinitionHolder> configCandidates = new ArrayList<>();
 		String[] candidateNames = registry.getBeanDefinitionNames();
 
@@ -286,7 +342,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 		// Return immediately if no @Configuration classes were found
 		if (configCandidates.isEmpty()) {
-			return;
+			return null;
 		}
 
 		// Sort by previously determined @Order value, if applicable
@@ -321,7 +377,9 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 		Set<BeanDefinitionHolder> candidates = new LinkedHashSet<>(configCandidates);
 		Set<ConfigurationClass> alreadyParsed = new HashSet<>(configCandidates.size());
+		ApplicationStartup applicationStartup = AnnotationConfigUtils.getApplicationStartup(registry);
 		do {
+			StartupStep processConfig = applicationStartup.start("spring.context.config-classes.parse");
 			parser.parse(candidates);
 			parser.validate();
 
@@ -336,6 +394,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 			}
 			this.reader.loadBeanDefinitions(configClasses);
 			alreadyParsed.addAll(configClasses);
+			processConfig.tag("classCount", () -> String.valueOf(configClasses.size())).end();
 
 			candidates.clear();
 			if (registry.getBeanDefinitionCount() > candidateNames.length) {
@@ -369,6 +428,73 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 			// for a shared cache since it'll be cleared by the ApplicationContext.
 			((CachingMetadataReaderFactory) this.metadataReaderFactory).clearCache();
 		}
+		return parser;
+	}
+
+	/**
+	 * Restore the bean definitions derived from configuration classes from the
+	 * given snapshot file if it matches the current setup, or build them through
+	 * {@link #processConfigBeanDefinitions(BeanDefinitionRegistry)} and write
+	 * them to the snapshot file otherwise.
+	 */
+	private void processConfigBeanDefinitions(BeanDefinitionRegistry registry, File snapshotFile) {
+		if (this.environment == null) {
+			this.environment = new StandardEnvironment();
+		}
+		String key = BeanDefinitionSnapshot.computeKey(registry, this.environment, this.beanClassLoader);
+		SingletonBeanRegistry sbr = (registry instanceof SingletonBeanRegistry ? (SingletonBeanRegistry) registry : null);
+
+		BeanDefinitionSnapshot snapshot = null;
+		try {
+			snapshot = BeanDefinitionSnapshot.read(snapshotFile, key, this.beanClassLoader);
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring unreadable bean definition snapshot " + snapshotFile, ex);
+			}
+		}
+		if (snapshot != null) {
+			if (!snapshot.getPropertySources().isEmpty() && this.environment instanceof ConfigurableEnvironment) {
+				ConfigurationClassParser parser = new ConfigurationClassParser(
+						this.metadataReaderFactory, this.problemReporter, this.environment,
+						this.resourceLoader, this.componentScanBeanNameGenerator, registry);
+				for (AnnotationAttributes propertySource : snapshot.getPropertySources()) {
+					try {
+						parser.processPropertySource(propertySource);
+					}
+					catch (IOException ex) {
+						throw new BeanDefinitionStoreException(
+								"Failed to restore @PropertySource from snapshot " + snapshotFile, ex);
+					}
+				}
+			}
+			snapshot.registerBeanDefinitions(registry);
+			if (sbr != null && !sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
+				sbr.registerSingleton(IMPORT_REGISTRY_BEAN_NAME, snapshot.getImportRegistry(this.metadataReaderFactory));
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Restored " + snapshot.getBeanDefinitionCount() +
+						" bean definitions from snapshot " + snapshotFile);
+			}
+			return;
+		}
+
+		BeanDefinitionSnapshot.Recorder recorder = BeanDefinitionSnapshot.record(registry);
+		ConfigurationClassParser parser = parseConfigBeanDefinitions(registry);
+		List<AnnotationAttributes> propertySources =
+				(parser != null ? parser.getProcessedPropertySources() : Collections.emptyList());
+		ImportRegistry importRegistry = null;
+		if (sbr != null && sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
+			importRegistry = (ImportRegistry) sbr.getSingleton(IMPORT_REGISTRY_BEAN_NAME);
+		}
+		try {
+			recorder.capture(key, importRegistry, propertySources).writeTo(snapshotFile);
+		}
+		catch (IOException ex) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Could not write bean definition snapshot " + snapshotFile + ": " + ex);
+			}
+		}
 	}
 
 	/**
@@ -378,6 +504,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	 * @see ConfigurationClassEnhancer
 	 */
 	public void enhanceConfigurationClasses(ConfigurableListableBeanFactory beanFactory) {
+		StartupStep enhanceConfigClasses = beanFactory.getApplicationStartup().start("spring.context.config-classes.enhance");
 		Map<String, AbstractBeanDefinition> configBeanDefs = new LinkedHashMap<>();
 		for (String beanName : beanFactory.getBeanDefinitionNames()) {
 			BeanDefinition beanDef = beanFactory.getBeanDefinition(beanName);
@@ -416,6 +543,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 		if (configBeanDefs.isEmpty()) {
 			// nothing to enhance -> return immediately
+			enhanceConfigClasses.end();
 			return;
 		}
 
@@ -435,6 +563,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 				beanDef.setBeanClass(enhancedClass);
 			}
 		}
+		enhanceConfigClasses.tag("classCount", () -> String.valueOf(configBeanDefs.size())).end();
 	}
 
 
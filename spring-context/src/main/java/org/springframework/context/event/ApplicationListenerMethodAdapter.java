@@ -37,6 +37,7 @@ import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.invoke.MethodAccessorFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -83,6 +84,9 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	@Nullable
 	private EventExpressionEvaluator evaluator;
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 
 	public ApplicationListenerMethodAdapter(String beanName, Class<?> targetClass, Method method) {
 		this.beanName = beanName;
@@ -136,6 +140,17 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		this.evaluator = evaluator;
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking the event listener
+	 * method, e.g. a {@link org.springframework.core.invoke.GeneratedMethodAccessorFactory}
+	 * to avoid reflective invocation.
+	 * <p>By default, the event listener method is invoked via reflection.
+	 * @since 5.2
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
 
 	@Override
 	public void onApplicationEvent(ApplicationEvent event) {
@@ -256,8 +271,11 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	@Nullable
 	protected Object doInvoke(Object... args) {
 		Object bean = getTargetBean();
-		ReflectionUtils.makeAccessible(this.method);
 		try {
+			if (this.methodAccessorFactory != null) {
+				return this.methodAccessorFactory.getMethodAccessor(this.method).invoke(bean, args);
+			}
+			ReflectionUtils.makeAccessible(this.method);
 			return this.method.invoke(bean, args);
 		}
 		catch (IllegalArgumentException ex) {
@@ -51,7 +51,7 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 
 		EventExpressionRootObject root = new EventExpressionRootObject(event, args);
 		MethodBasedEvaluationContext evaluationContext = new MethodBasedEvaluationContext(
-				root, targetMethod, args, getParameterNameDiscoverer());
+				root, getContextTemplate(targetMethod), args);
 		if (beanFactory != null) {
 			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
 		}
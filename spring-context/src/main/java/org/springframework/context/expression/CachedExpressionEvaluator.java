@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,16 @@
 
 package org.springframework.context.expression;
 
+import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.SpringProperties;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -35,10 +40,15 @@ import org.springframework.util.ObjectUtils;
  */
 public abstract class CachedExpressionEvaluator {
 
+	private static final String SPEL_COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
+
 	private final SpelExpressionParser parser;
 
 	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	private final Map<Method, MethodEvaluationContextTemplate> contextTemplateCache = new ConcurrentHashMap<>(64);
+
 
 	/**
 	 * Create a new instance with the specified {@link SpelExpressionParser}.
@@ -50,9 +60,15 @@ public abstract class CachedExpressionEvaluator {
 
 	/**
 	 * Create a new instance with a default {@link SpelExpressionParser}.
+	 * <p>As of 5.2, the default parser compiles expressions in
+	 * {@link SpelCompilerMode#MIXED} mode once they have been evaluated often
+	 * enough, unless a compiler mode has been set explicitly through the
+	 * {@code spring.expression.compiler.mode} property.
 	 */
 	protected CachedExpressionEvaluator() {
-		this(new SpelExpressionParser());
+		this(new SpelExpressionParser(new SpelParserConfiguration(
+				SpringProperties.getProperty(SPEL_COMPILER_MODE_PROPERTY_NAME) != null ?
+						null : SpelCompilerMode.MIXED, null)));
 	}
 
 
@@ -71,6 +87,21 @@ public abstract class CachedExpressionEvaluator {
 		return this.parameterNameDiscoverer;
 	}
 
+	/**
+	 * Return the shared {@link MethodEvaluationContextTemplate} for the specified
+	 * method, resolving its parameter names on first access.
+	 * @param method the method to evaluate expressions for
+	 * @since 5.2
+	 */
+	protected MethodEvaluationContextTemplate getContextTemplate(Method method) {
+		MethodEvaluationContextTemplate template = this.contextTemplateCache.get(method);
+		if (template == null) {
+			template = new MethodEvaluationContextTemplate(method, getParameterNameDiscoverer());
+			this.contextTemplateCache.put(method, template);
+		}
+		return template;
+	}
+
 
 	/**
 	 * Return the {@link Expression} for the specified SpEL value
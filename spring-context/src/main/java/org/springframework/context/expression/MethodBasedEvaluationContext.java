@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
 /**
@@ -45,8 +46,12 @@ public class MethodBasedEvaluationContext extends StandardEvaluationContext {
 
 	private final Object[] arguments;
 
+	@Nullable
 	private final ParameterNameDiscoverer parameterNameDiscoverer;
 
+	@Nullable
+	private final MethodEvaluationContextTemplate template;
+
 	private boolean argumentsLoaded = false;
 
 
@@ -57,6 +62,25 @@ public class MethodBasedEvaluationContext extends StandardEvaluationContext {
 		this.method = method;
 		this.arguments = arguments;
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
+		this.template = null;
+	}
+
+	/**
+	 * Create a new context for the method of the given template, resolving
+	 * argument variables through the precomputed bindings of the template.
+	 * @param rootObject the root object
+	 * @param template the template holding the variable bindings of the method
+	 * @param arguments the actual method arguments
+	 * @since 5.2
+	 */
+	public MethodBasedEvaluationContext(Object rootObject, MethodEvaluationContextTemplate template,
+			Object[] arguments) {
+
+		super(rootObject);
+		this.method = template.getMethod();
+		this.arguments = arguments;
+		this.parameterNameDiscoverer = null;
+		this.template = template;
 	}
 
 
@@ -67,6 +91,9 @@ public class MethodBasedEvaluationContext extends StandardEvaluationContext {
 		if (variable != null) {
 			return variable;
 		}
+		if (this.template != null) {
+			return this.template.resolveVariable(name, this.arguments);
+		}
 		if (!this.argumentsLoaded) {
 			lazyLoadArguments();
 			this.argumentsLoaded = true;
@@ -84,7 +111,15 @@ public class MethodBasedEvaluationContext extends StandardEvaluationContext {
 			return;
 		}
 
+		if (this.template != null) {
+			for (String name : this.template.getVariableNames()) {
+				setVariable(name, this.template.resolveVariable(name, this.arguments));
+			}
+			return;
+		}
+
 		// Expose indexed variables as well as parameter names (if discoverable)
+		Assert.state(this.parameterNameDiscoverer != null, "No ParameterNameDiscoverer set");
 		String[] paramNames = this.parameterNameDiscoverer.getParameterNames(this.method);
 		int paramCount = (paramNames != null ? paramNames.length : this.method.getParameterCount());
 		int argsCount = this.arguments.length;
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.expression;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Precomputed variable bindings for {@link MethodBasedEvaluationContext} instances
+ * created for invocations of a given method.
+ *
+ * <p>Parameter names are discovered once, and each supported alias of a method
+ * argument ({@code pX}, {@code aX} and the parameter name) is bound to the index
+ * of the argument. Evaluation contexts created from a template resolve argument
+ * variables by index on lookup, instead of registering every argument under each
+ * of its aliases per invocation.
+ *
+ * @since 5.2
+ * @see MethodBasedEvaluationContext#MethodBasedEvaluationContext(Object, MethodEvaluationContextTemplate, Object[])
+ * @see CachedExpressionEvaluator#getContextTemplate(Method)
+ */
+public final class MethodEvaluationContextTemplate {
+
+	private final Method method;
+
+	private final int parameterCount;
+
+	private final Map<String, Integer> parameterIndexes;
+
+
+	/**
+	 * Create a new template for the given method.
+	 * @param method the method to create evaluation contexts for
+	 * @param parameterNameDiscoverer the discoverer for the parameter names of the method
+	 */
+	public MethodEvaluationContextTemplate(Method method, ParameterNameDiscoverer parameterNameDiscoverer) {
+		Assert.notNull(method, "Method must not be null");
+		Assert.notNull(parameterNameDiscoverer, "ParameterNameDiscoverer must not be null");
+		this.method = method;
+		String[] paramNames = parameterNameDiscoverer.getParameterNames(method);
+		this.parameterCount = (paramNames != null ? paramNames.length : method.getParameterCount());
+		Map<String, Integer> parameterIndexes = new LinkedHashMap<>(this.parameterCount * 4);
+		for (int i = 0; i < this.parameterCount; i++) {
+			// Later parameters win in case of clashing aliases, as with lazily loaded arguments
+			parameterIndexes.put("a" + i, i);
+			parameterIndexes.put("p" + i, i);
+			if (paramNames != null && paramNames[i] != null) {
+				parameterIndexes.put(paramNames[i], i);
+			}
+		}
+		this.parameterIndexes = parameterIndexes;
+	}
+
+
+	/**
+	 * Return the method that this template applies to.
+	 */
+	public Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Return the names of all variables bound to method arguments.
+	 */
+	public Set<String> getVariableNames() {
+		return Collections.unmodifiableSet(this.parameterIndexes.keySet());
+	}
+
+	/**
+	 * Resolve the variable with the given name against the given method arguments.
+	 * <p>Remaining arguments beyond the declared parameters are exposed as a
+	 * vararg array for the last parameter.
+	 * @param name the name of the variable
+	 * @param arguments the actual method arguments
+	 * @return the argument bound to the variable, or {@code null} if the argument is
+	 * {@code null} or if the variable is not bound to an argument
+	 */
+	@Nullable
+	public Object resolveVariable(String name, @Nullable Object[] arguments) {
+		Integer index = this.parameterIndexes.get(name);
+		if (index == null || arguments == null) {
+			return null;
+		}
+		int argsCount = arguments.length;
+		if (argsCount > this.parameterCount && index == this.parameterCount - 1) {
+			return Arrays.copyOfRange(arguments, index, argsCount);
+		}
+		return (argsCount > index ? arguments[index] : null);
+	}
+
+}
@@ -16,7 +16,10 @@
 
 package org.springframework.cache;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
@@ -115,6 +118,27 @@ public abstract class AbstractCacheTests<T extends Cache> {
 		assertNull(cache.get("enescu"));
 	}
 
+	@Test
+	public void testCacheGetAllAndPutAll() throws Exception {
+		T cache = getCache();
+
+		String key1 = createRandomKey();
+		String key2 = createRandomKey();
+		String key3 = createRandomKey();
+		assertEquals(0, cache.getAll(Arrays.asList(key1, key2, key3)).size());
+
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		entries.put(key1, "george");
+		entries.put(key3, null);
+		cache.putAll(entries);
+		assertEquals("george", cache.get(key1).get());
+
+		Map<Object, Cache.ValueWrapper> values = cache.getAll(Arrays.asList(key3, key2, key1));
+		assertEquals(Arrays.asList(key3, key1), Arrays.asList(values.keySet().toArray()));
+		assertNull(values.get(key3).get());
+		assertEquals("george", values.get(key1).get());
+	}
+
 	@Test
 	public void testCacheGetCallable() {
 		doTestCacheGetCallable("test");
@@ -24,6 +24,7 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.support.GenericXmlApplicationContext;
 
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Costin Leau
@@ -65,6 +66,16 @@ public class AnnotationNamespaceDrivenTests extends AbstractCacheAnnotationTests
 		context.close();
 	}
 
+	@Test
+	public void singleFlight() {
+		ConfigurableApplicationContext context = new GenericXmlApplicationContext(
+				"/org/springframework/cache/config/annotationDrivenCacheNamespace-single-flight.xml");
+
+		CacheInterceptor ci = context.getBean(CacheInterceptor.class);
+		assertTrue(ci.isSingleFlight());
+		context.close();
+	}
+
 	@Test
 	public void testCacheErrorHandler() {
 		CacheInterceptor ci = this.ctx.getBean(
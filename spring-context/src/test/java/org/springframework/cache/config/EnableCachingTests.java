@@ -139,6 +139,13 @@ public class EnableCachingTests extends AbstractCacheAnnotationTests {
 		context.close();
 	}
 
+	@Test
+	public void singleFlight() {
+		ConfigurableApplicationContext context = new AnnotationConfigApplicationContext(SingleFlightConfig.class);
+		assertTrue(context.getBean(CacheInterceptor.class).isSingleFlight());
+		context.close();
+	}
+
 
 	@Configuration
 	@EnableCaching
@@ -254,6 +261,17 @@ public class EnableCachingTests extends AbstractCacheAnnotationTests {
 	}
 
 
+	@Configuration
+	@EnableCaching(singleFlight = true)
+	static class SingleFlightConfig {
+
+		@Bean
+		public CacheManager cm() {
+			return new NoOpCacheManager();
+		}
+	}
+
+
 	@Configuration
 	@EnableCaching
 	static class FullCachingConfig extends CachingConfigurerSupport {
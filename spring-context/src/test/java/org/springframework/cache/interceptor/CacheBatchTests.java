@@ -0,0 +1,255 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for batched {@link Cacheable} operations.
+ */
+public class CacheBatchTests {
+
+	private ConfigurableApplicationContext context;
+
+	private Cache cache;
+
+	private BatchService service;
+
+	@Before
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("test");
+		this.service = this.context.getBean(BatchService.class);
+	}
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+
+	@Test
+	public void invokeMethodForMissingKeysOnly() {
+		this.cache.put(2L, "cached-2");
+
+		Map<Long, String> result = this.service.find(Arrays.asList(1L, 2L, 3L));
+		assertEquals(Arrays.asList(1L, 2L, 3L), new ArrayList<>(result.keySet()));
+		assertEquals("value-1", result.get(1L));
+		assertEquals("cached-2", result.get(2L));
+		assertEquals("value-3", result.get(3L));
+		assertEquals(Collections.singletonList(Arrays.asList(1L, 3L)), this.service.getInvocations());
+
+		assertEquals("value-1", this.cache.get(1L).get());
+		assertEquals("value-3", this.cache.get(3L).get());
+	}
+
+	@Test
+	public void skipInvocationForFullHit() {
+		this.service.find(Arrays.asList(1L, 2L));
+		Map<Long, String> result = this.service.find(Arrays.asList(2L, 1L));
+		assertEquals(Arrays.asList(2L, 1L), new ArrayList<>(result.keySet()));
+		assertEquals(1, this.service.getInvocations().size());
+	}
+
+	@Test
+	public void shareEntriesWithSingleKeyMethod() {
+		this.service.find(Collections.singletonList(1L));
+		assertEquals("value-1", this.service.findOne(1L));
+		assertEquals(1, this.service.getInvocations().size());
+	}
+
+	@Test
+	public void keepMissingValuesUncached() {
+		Map<Long, String> result = this.service.find(Arrays.asList(1L, 42L));
+		assertEquals(Collections.singleton(1L), result.keySet());
+		assertNull(this.cache.get(42L));
+
+		this.service.find(Arrays.asList(1L, 42L));
+		assertEquals(Arrays.asList(Arrays.asList(1L, 42L), Collections.singletonList(42L)),
+				this.service.getInvocations());
+	}
+
+	@Test
+	public void restoreArgumentAfterInvocation() {
+		this.cache.put(1L, "cached-1");
+		List<Object> arguments = new ArrayList<>();
+		SimpleListService target = new SimpleListService();
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.addInterface(ListService.class);
+		proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+			try {
+				return invocation.proceed();
+			}
+			finally {
+				arguments.add(invocation.getArguments()[0]);
+			}
+		});
+		proxyFactory.addAdvice(this.context.getBean(CacheInterceptor.class));
+		ListService listService = (ListService) proxyFactory.getProxy();
+
+		List<Long> ids = Arrays.asList(1L, 2L);
+		Map<Long, String> result = listService.find(ids);
+		assertEquals(2, result.size());
+		assertEquals(Collections.singletonList(Collections.singletonList(2L)), target.invocations);
+		assertEquals(1, arguments.size());
+		assertSame(ids, arguments.get(0));
+	}
+
+	@Test
+	public void invalidSignature() {
+		try {
+			this.service.invalid(1L);
+			fail("Should have failed with invalid batch signature");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("batch=true"));
+		}
+	}
+
+	@Test
+	public void invalidCollectionType() {
+		try {
+			this.service.findAsIdCollection(new IdCollection(Collections.singletonList(1L)));
+			fail("Should have failed with non-instantiable collection type");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("default constructor"));
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config extends CachingConfigurerSupport {
+
+		@Bean
+		@Override
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		public BatchService batchService() {
+			return new BatchService();
+		}
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	public static class BatchService {
+
+		private final List<Collection<Long>> invocations = new ArrayList<>();
+
+		public List<Collection<Long>> getInvocations() {
+			return this.invocations;
+		}
+
+		@Cacheable(batch = true)
+		public Map<Long, String> find(Collection<Long> ids) {
+			this.invocations.add(new ArrayList<>(ids));
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				if (id != 42L) {
+					result.put(id, "value-" + id);
+				}
+			}
+			return result;
+		}
+
+		@Cacheable(batch = true)
+		public Map<Long, String> findAsIdCollection(IdCollection ids) {
+			return find(ids);
+		}
+
+		@Cacheable
+		public String findOne(Long id) {
+			this.invocations.add(Collections.singletonList(id));
+			return "value-" + id;
+		}
+
+		@Cacheable(batch = true)
+		public String invalid(Long id) {
+			return "value-" + id;
+		}
+	}
+
+
+	public interface ListService {
+
+		Map<Long, String> find(List<Long> ids);
+	}
+
+
+	@CacheConfig(cacheNames = "test")
+	public static class SimpleListService implements ListService {
+
+		private final List<List<Long>> invocations = new ArrayList<>();
+
+		@Override
+		@Cacheable(batch = true)
+		public Map<Long, String> find(List<Long> ids) {
+			this.invocations.add(new ArrayList<>(ids));
+			Map<Long, String> result = new LinkedHashMap<>();
+			for (Long id : ids) {
+				result.put(id, "value-" + id);
+			}
+			return result;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	public static class IdCollection extends ArrayList<Long> {
+
+		public IdCollection(Collection<Long> ids) {
+			super(ids);
+		}
+	}
+
+}
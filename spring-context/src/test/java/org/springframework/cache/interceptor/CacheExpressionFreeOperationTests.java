@@ -0,0 +1,182 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for single {@link Cacheable} operations without any key, condition
+ * or unless expression, handled without SpEL evaluation by {@link CacheAspectSupport}.
+ */
+public class CacheExpressionFreeOperationTests {
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("first", "second");
+
+	private final CountingKeyGenerator keyGenerator = new CountingKeyGenerator();
+
+	private final SimpleService target = new SimpleService();
+
+	private Service service;
+
+	@Before
+	public void setup() {
+		CacheInterceptor interceptor = new CacheInterceptor();
+		interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+		interceptor.setCacheManager(this.cacheManager);
+		interceptor.setKeyGenerator(this.keyGenerator);
+		interceptor.afterPropertiesSet();
+		interceptor.afterSingletonsInstantiated();
+		ProxyFactory proxyFactory = new ProxyFactory(this.target);
+		proxyFactory.addInterface(Service.class);
+		proxyFactory.addAdvice(interceptor);
+		this.service = (Service) proxyFactory.getProxy();
+	}
+
+
+	@Test
+	public void generateKeyOncePerInvocation() {
+		Object value = this.service.load("key");
+		assertEquals(1, this.keyGenerator.count.get());
+		assertEquals(1, this.target.invocations.get());
+
+		assertSame(value, this.service.load("key"));
+		assertEquals(2, this.keyGenerator.count.get());
+		assertEquals(1, this.target.invocations.get());
+	}
+
+	@Test
+	public void putIntoAllCaches() {
+		Object value = this.service.loadMultiple("key");
+		assertSame(value, getCache("first").get("key").get());
+		assertSame(value, getCache("second").get("key").get());
+		assertEquals(1, this.keyGenerator.count.get());
+	}
+
+	@Test
+	public void useHitFromAnyCache() {
+		getCache("second").put("key", "cached");
+		assertEquals("cached", this.service.loadMultiple("key"));
+		assertEquals(0, this.target.invocations.get());
+		assertNull(getCache("first").get("key"));
+	}
+
+	@Test
+	public void rejectNullKey() {
+		this.keyGenerator.nullKey = true;
+		try {
+			this.service.load("key");
+			fail("Should have failed with null key");
+		}
+		catch (IllegalArgumentException ex) {
+			assertTrue(ex.getMessage().contains("Null key returned for cache operation"));
+		}
+		assertEquals(0, this.target.invocations.get());
+	}
+
+	@Test
+	public void wrapOptionalValue() {
+		Optional<String> value = this.service.loadOptional("key");
+		assertEquals(Optional.of("value-key"), value);
+		assertEquals("value-key", getCache("first").get("key").get());
+
+		assertEquals(Optional.of("value-key"), this.service.loadOptional("key"));
+		assertEquals(1, this.target.invocations.get());
+	}
+
+	@Test
+	public void wrapEmptyOptionalValue() {
+		assertEquals(Optional.empty(), this.service.loadOptional("empty"));
+		Cache.ValueWrapper cached = getCache("first").get("empty");
+		assertNull(cached.get());
+
+		assertEquals(Optional.empty(), this.service.loadOptional("empty"));
+		assertEquals(1, this.target.invocations.get());
+	}
+
+	private Cache getCache(String name) {
+		return this.cacheManager.getCache(name);
+	}
+
+
+	public interface Service {
+
+		Object load(String key);
+
+		Object loadMultiple(String key);
+
+		Optional<String> loadOptional(String key);
+	}
+
+
+	public static class SimpleService implements Service {
+
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		@Override
+		@Cacheable("first")
+		public Object load(String key) {
+			this.invocations.incrementAndGet();
+			return new Object();
+		}
+
+		@Override
+		@Cacheable({"first", "second"})
+		public Object loadMultiple(String key) {
+			this.invocations.incrementAndGet();
+			return new Object();
+		}
+
+		@Override
+		@Cacheable("first")
+		public Optional<String> loadOptional(String key) {
+			this.invocations.incrementAndGet();
+			return (key.equals("empty") ? Optional.empty() : Optional.of("value-" + key));
+		}
+	}
+
+
+	private static class CountingKeyGenerator implements KeyGenerator {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		private boolean nullKey;
+
+		@Override
+		public Object generate(Object target, Method method, Object... params) {
+			this.count.incrementAndGet();
+			return (this.nullKey ? null : params[0]);
+		}
+	}
+
+}
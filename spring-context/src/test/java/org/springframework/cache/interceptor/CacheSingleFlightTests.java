@@ -0,0 +1,378 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the single-flight mode of {@link CacheAspectSupport}.
+ */
+public class CacheSingleFlightTests {
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager() {
+		@Override
+		protected Cache createConcurrentMapCache(String name) {
+			return new TestCache(name);
+		}
+	};
+
+	private final CacheInterceptor interceptor = new CacheInterceptor();
+
+	private final SimpleService target = new SimpleService();
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	private Service service;
+
+	@Before
+	public void setup() {
+		this.cacheManager.setCacheNames(Arrays.asList("test", "other"));
+		this.interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+		this.interceptor.setCacheManager(this.cacheManager);
+		this.interceptor.setSingleFlight(true);
+		this.interceptor.afterPropertiesSet();
+		this.interceptor.afterSingletonsInstantiated();
+		ProxyFactory proxyFactory = new ProxyFactory(this.target);
+		proxyFactory.addInterface(Service.class);
+		proxyFactory.addAdvice(this.interceptor);
+		this.service = (Service) proxyFactory.getProxy();
+	}
+
+	@After
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	public void coalesceConcurrentMisses() throws Exception {
+		Future<Object> first = this.executor.submit(() -> this.service.load("key"));
+		assertTrue(this.target.started.await(10, TimeUnit.SECONDS));
+		Future<Object> second = this.executor.submit(() -> this.service.load("key"));
+		Future<Object> third = this.executor.submit(() -> this.service.load("key"));
+		awaitWaitingThreads(2);
+		this.target.release.countDown();
+
+		Object result = first.get(10, TimeUnit.SECONDS);
+		assertSame(result, second.get(10, TimeUnit.SECONDS));
+		assertSame(result, third.get(10, TimeUnit.SECONDS));
+		assertEquals(1, this.target.invocations.get());
+		assertSame(result, this.cacheManager.getCache("test").get("key").get());
+	}
+
+	@Test
+	public void coalesceConcurrentMissesWithKeyExpression() throws Exception {
+		Future<Object> first = this.executor.submit(() -> this.service.loadKeyed("key"));
+		assertTrue(this.target.started.await(10, TimeUnit.SECONDS));
+		Future<Object> second = this.executor.submit(() -> this.service.loadKeyed("key"));
+		awaitWaitingThreads(1);
+		this.target.release.countDown();
+
+		Object result = first.get(10, TimeUnit.SECONDS);
+		assertSame(result, second.get(10, TimeUnit.SECONDS));
+		assertEquals(1, this.target.invocations.get());
+		assertSame(result, getCache("test").get("keyed-key").get());
+		assertEquals(1, getCache("test").putCount.get());
+	}
+
+	@Test
+	public void shareResultVetoedByUnless() throws Exception {
+		this.target.nullResult = true;
+		Future<Object> first = this.executor.submit(() -> this.service.loadKeyed("key"));
+		assertTrue(this.target.started.await(10, TimeUnit.SECONDS));
+		Future<Object> second = this.executor.submit(() -> this.service.loadKeyed("key"));
+		awaitWaitingThreads(1);
+		this.target.release.countDown();
+
+		assertNull(first.get(10, TimeUnit.SECONDS));
+		assertNull(second.get(10, TimeUnit.SECONDS));
+		assertEquals(1, this.target.invocations.get());
+		assertNull(getCache("test").get("keyed-key"));
+		assertEquals(0, getCache("test").putCount.get());
+	}
+
+	@Test
+	public void coalesceConcurrentMissesWithMultipleCaches() throws Exception {
+		Future<Object> first = this.executor.submit(() -> this.service.loadMultiple("key"));
+		assertTrue(this.target.started.await(10, TimeUnit.SECONDS));
+		Future<Object> second = this.executor.submit(() -> this.service.loadMultiple("key"));
+		awaitWaitingThreads(1);
+		this.target.release.countDown();
+
+		Object result = first.get(10, TimeUnit.SECONDS);
+		assertSame(result, second.get(10, TimeUnit.SECONDS));
+		assertEquals(1, this.target.invocations.get());
+		assertSame(result, getCache("test").get("key").get());
+		assertSame(result, getCache("other").get("key").get());
+		assertEquals(1, getCache("test").putCount.get());
+		assertEquals(1, getCache("other").putCount.get());
+	}
+
+	@Test
+	public void keepInvocationRegisteredUntilCached() throws Exception {
+		this.target.release.countDown();
+		TestCache cache = getCache("test");
+		cache.putRelease = new CountDownLatch(1);
+		Future<Object> first = this.executor.submit(() -> this.service.load("key"));
+		assertTrue(cache.putStarted.await(10, TimeUnit.SECONDS));
+		Object shared = this.service.load("key");
+		assertEquals(1, this.target.invocations.get());
+		cache.putRelease.countDown();
+
+		assertSame(shared, first.get(10, TimeUnit.SECONDS));
+		assertSame(shared, cache.get("key").get());
+		assertEquals(1, cache.putCount.get());
+	}
+
+	@Test
+	public void recheckCachesBeforeInvocation() {
+		this.target.release.countDown();
+		TestCache cache = getCache("test");
+		cache.put("key", "cached");
+		cache.missOnce = true;
+		assertEquals("cached", this.service.load("key"));
+		assertEquals(0, this.target.invocations.get());
+	}
+
+	@Test
+	public void interruptWaitingThread() throws Exception {
+		Future<Object> first = this.executor.submit(() -> this.service.load("key"));
+		assertTrue(this.target.started.await(10, TimeUnit.SECONDS));
+		Future<Boolean> second = this.executor.submit(() -> {
+			try {
+				this.service.load("key");
+				return false;
+			}
+			catch (IllegalStateException ex) {
+				return (ex.getCause() instanceof InterruptedException && Thread.currentThread().isInterrupted());
+			}
+		});
+		awaitWaitingThreads(1);
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (isWaiting(thread)) {
+				thread.interrupt();
+			}
+		}
+		assertTrue(second.get(10, TimeUnit.SECONDS));
+		this.target.release.countDown();
+		assertNotNull(first.get(10, TimeUnit.SECONDS));
+		assertEquals(1, this.target.invocations.get());
+	}
+
+	@Test
+	public void shareFailure() throws Exception {
+		this.target.failure = new IllegalStateException("test");
+		Future<Object> first = this.executor.submit(() -> this.service.load("key"));
+		assertTrue(this.target.started.await(10, TimeUnit.SECONDS));
+		Future<Object> second = this.executor.submit(() -> this.service.load("key"));
+		awaitWaitingThreads(1);
+		this.target.release.countDown();
+
+		assertFailure(first);
+		assertFailure(second);
+		assertEquals(1, this.target.invocations.get());
+		assertNull(this.cacheManager.getCache("test").get("key"));
+	}
+
+	@Test
+	public void reentrantInvocation() {
+		this.target.release.countDown();
+		this.target.service = this.service;
+		assertEquals("nested-key", this.service.loadNested("key"));
+		assertEquals(2, this.target.invocations.get());
+	}
+
+	@Test
+	public void disabledByDefault() {
+		assertFalse(new CacheInterceptor().isSingleFlight());
+	}
+
+	private TestCache getCache(String name) {
+		return (TestCache) this.cacheManager.getCache(name);
+	}
+
+	private void assertFailure(Future<Object> future) throws Exception {
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("Should have failed");
+		}
+		catch (ExecutionException ex) {
+			assertSame(this.target.failure, ex.getCause());
+		}
+	}
+
+	private void awaitWaitingThreads(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (countWaitingThreads() < count) {
+			assertTrue("Timeout waiting for in-flight invocation", System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private int countWaitingThreads() {
+		int count = 0;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (isWaiting(thread)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private boolean isWaiting(Thread thread) {
+		for (StackTraceElement element : thread.getStackTrace()) {
+			if (element.getMethodName().equals("getResult") &&
+					element.getClassName().endsWith("CacheAspectSupport$InFlightInvocation")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	public interface Service {
+
+		Object load(String key);
+
+		Object loadNested(String key);
+
+		Object loadKeyed(String key);
+
+		Object loadMultiple(String key);
+	}
+
+
+	public static class SimpleService implements Service {
+
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		private final CountDownLatch started = new CountDownLatch(1);
+
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		private volatile RuntimeException failure;
+
+		private volatile boolean nullResult;
+
+		private volatile Service service;
+
+		@Override
+		@Cacheable("test")
+		public Object load(String key) {
+			return doLoad();
+		}
+
+		@Override
+		@Cacheable(cacheNames = "test", key = "'nested'")
+		public Object loadNested(String key) {
+			this.invocations.incrementAndGet();
+			return (key.startsWith("nested") ? key : this.service.loadNested("nested-" + key));
+		}
+
+		@Override
+		@Cacheable(cacheNames = "test", key = "'keyed-' + #key", unless = "#result == null")
+		public Object loadKeyed(String key) {
+			return doLoad();
+		}
+
+		@Override
+		@Cacheable(cacheNames = {"test", "other"}, key = "#key")
+		public Object loadMultiple(String key) {
+			return doLoad();
+		}
+
+		private Object doLoad() {
+			this.invocations.incrementAndGet();
+			this.started.countDown();
+			try {
+				this.release.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			if (this.failure != null) {
+				throw this.failure;
+			}
+			return (this.nullResult ? null : new Object());
+		}
+	}
+
+
+	private static class TestCache extends ConcurrentMapCache {
+
+		private final AtomicInteger putCount = new AtomicInteger();
+
+		private final CountDownLatch putStarted = new CountDownLatch(1);
+
+		private volatile CountDownLatch putRelease = new CountDownLatch(0);
+
+		private volatile boolean missOnce;
+
+		public TestCache(String name) {
+			super(name);
+		}
+
+		@Override
+		public ValueWrapper get(Object key) {
+			if (this.missOnce) {
+				this.missOnce = false;
+				return null;
+			}
+			return super.get(key);
+		}
+
+		@Override
+		public void put(Object key, Object value) {
+			this.putCount.incrementAndGet();
+			this.putStarted.countDown();
+			try {
+				this.putRelease.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			super.put(key, value);
+		}
+	}
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for bean definition snapshots written and restored by
+ * {@link ConfigurationClassPostProcessor}.
+ *
+ * @since 5.2
+ */
+public class BeanDefinitionSnapshotTests {
+
+	private File snapshotFile;
+
+
+	@Before
+	public void setup() throws IOException {
+		this.snapshotFile = File.createTempFile("beanDefinitions", ".snapshot");
+		assertTrue(this.snapshotFile.delete());
+	}
+
+	@After
+	public void cleanup() {
+		this.snapshotFile.delete();
+	}
+
+
+	@Test
+	public void snapshotWrittenAndRestored() {
+		AnnotationConfigApplicationContext ctx = createContext(SnapshotConfig.class);
+		assertTrue(this.snapshotFile.isFile());
+		assertTrue(ctx.getBeanDefinition("spouse") instanceof AnnotatedBeanDefinition);
+		assertSnapshotConfigBeans(ctx);
+		ctx.close();
+
+		long lastModified = this.snapshotFile.lastModified();
+		ctx = createContext(SnapshotConfig.class);
+		assertFalse(ctx.getBeanDefinition("spouse") instanceof AnnotatedBeanDefinition);
+		assertEquals(lastModified, this.snapshotFile.lastModified());
+		assertSnapshotConfigBeans(ctx);
+		ctx.close();
+	}
+
+	@Test
+	public void snapshotForDifferentSetupIgnored() {
+		createContext(SnapshotConfig.class).close();
+
+		AnnotationConfigApplicationContext ctx = createContext(ImportingConfig.class);
+		assertFalse(ctx.containsBean("spouse"));
+		assertTrue(ctx.getBeanDefinition("importedBean") instanceof AnnotatedBeanDefinition);
+		ctx.close();
+	}
+
+	@Test
+	public void importAwareConfigurationRestored() {
+		createContext(ImportingConfig.class).close();
+
+		AnnotationConfigApplicationContext ctx = createContext(ImportingConfig.class);
+		assertFalse(ctx.getBeanDefinition("importedBean") instanceof AnnotatedBeanDefinition);
+		AnnotationMetadata importMetadata = ctx.getBean(ImportedConfig.class).importMetadata;
+		assertNotNull(importMetadata);
+		assertEquals(ImportingConfig.class.getName(), importMetadata.getClassName());
+		assertEquals("imported", ctx.getBean("importedBean", TestBean.class).getName());
+		ctx.close();
+	}
+
+	@Test
+	public void propertySourcesRestored() {
+		AnnotationConfigApplicationContext ctx = createContext(PropertySourceConfig.class);
+		assertTrue(this.snapshotFile.isFile());
+		assertPropertySourceConfigBeans(ctx);
+		ctx.close();
+
+		long lastModified = this.snapshotFile.lastModified();
+		ctx = createContext(PropertySourceConfig.class);
+		assertFalse(ctx.getBeanDefinition("placeholderBean") instanceof AnnotatedBeanDefinition);
+		assertEquals(lastModified, this.snapshotFile.lastModified());
+		assertPropertySourceConfigBeans(ctx);
+		ctx.close();
+	}
+
+	@Test
+	public void snapshotNotWrittenForInstanceSupplier() {
+		AnnotationConfigApplicationContext ctx = createContext(SupplierConfig.class);
+		assertEquals("supplied", ctx.getBean("suppliedBean", TestBean.class).getName());
+		assertFalse(this.snapshotFile.exists());
+		ctx.close();
+	}
+
+	private AnnotationConfigApplicationContext createContext(Class<?> configClass) {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.setBeanDefinitionSnapshotFile(this.snapshotFile);
+		ctx.register(configClass);
+		ctx.refresh();
+		return ctx;
+	}
+
+	private void assertSnapshotConfigBeans(AnnotationConfigApplicationContext ctx) {
+		SnapshotConfig config = ctx.getBean(SnapshotConfig.class);
+		TestBean spouse = ctx.getBean("spouse", TestBean.class);
+		assertSame(spouse, config.spouse());
+		assertSame(spouse, ctx.getBean("partner"));
+		assertSame(spouse, ctx.getBean("person", TestBean.class).getSpouse());
+		assertEquals("overloaded", ctx.getBean("overloaded", TestBean.class).getName());
+		assertSame(ctx.getBean("qualified"), ctx.getBean(Holder.class).bean);
+		assertTrue(ctx.getBeanFactory().getBeanDefinition("lazy").isLazyInit());
+	}
+
+	private void assertPropertySourceConfigBeans(AnnotationConfigApplicationContext ctx) {
+		assertEquals("p2TestBean", ctx.getBean("placeholderBean", TestBean.class).getName());
+		assertEquals("p1Value", ctx.getEnvironment().getProperty("from.p1"));
+		assertEquals("p2Value", ctx.getEnvironment().getProperty("from.p2"));
+	}
+
+
+	@Configuration
+	static class SnapshotConfig {
+
+		@Bean(name = {"spouse", "partner"})
+		public TestBean spouse() {
+			return new TestBean("spouse");
+		}
+
+		@Bean
+		public TestBean person() {
+			TestBean person = new TestBean("person", 42);
+			person.setSpouse(spouse());
+			return person;
+		}
+
+		@Bean
+		public TestBean overloaded() {
+			return new TestBean("overloaded");
+		}
+
+		public TestBean overloaded(String name) {
+			return new TestBean(name);
+		}
+
+		@Bean
+		@Qualifier("special")
+		public TestBean qualified() {
+			return new TestBean("qualified");
+		}
+
+		@Bean
+		@Lazy
+		public TestBean lazy() {
+			return new TestBean("lazy");
+		}
+
+		@Bean
+		public Holder holder(@Qualifier("special") TestBean bean) {
+			return new Holder(bean);
+		}
+	}
+
+
+	static class Holder {
+
+		final TestBean bean;
+
+		Holder(TestBean bean) {
+			this.bean = bean;
+		}
+	}
+
+
+	@Configuration
+	@Import(ImportedConfig.class)
+	static class ImportingConfig {
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+
+		@Bean
+		public TestBean importedBean() {
+			return new TestBean("imported");
+		}
+	}
+
+
+	@Configuration
+	@PropertySource("classpath:org/springframework/context/annotation/p1.properties")
+	@PropertySource("classpath:org/springframework/context/annotation/p2.properties")
+	static class PropertySourceConfig {
+
+		@Bean
+		public TestBean placeholderBean(@Value("${testbean.name}") String name) {
+			return new TestBean(name);
+		}
+	}
+
+
+	@Configuration
+	@Import(SupplierRegistrar.class)
+	static class SupplierConfig {
+	}
+
+
+	static class SupplierRegistrar implements ImportBeanDefinitionRegistrar {
+
+		@Override
+		public void registerBeanDefinitions(AnnotationMetadata metadata, BeanDefinitionRegistry registry) {
+			registry.registerBeanDefinition("suppliedBean",
+					new RootBeanDefinition(TestBean.class, () -> new TestBean("supplied")));
+		}
+	}
+
+}
@@ -18,8 +18,10 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import example.profilescan.DevComponent;
 import example.profilescan.ProfileAnnotatedComponent;
@@ -148,6 +150,24 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertEquals(0, candidates.size());
 	}
 
+	@Test
+	public void parallelScanWithSameResultAsSequentialScan() {
+		List<String> sequentialResult = scanAllClassNames(false);
+		List<String> parallelResult = scanAllClassNames(true);
+		assertTrue(sequentialResult.size() > 64);
+		assertEquals(sequentialResult, parallelResult);
+	}
+
+	private List<String> scanAllClassNames(boolean parallelScanning) {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+		provider.setParallelScanning(parallelScanning);
+		provider.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+		return provider.findCandidateComponents(getClass().getPackage().getName()).stream()
+				.map(BeanDefinition::getBeanClassName).collect(Collectors.toList());
+	}
+
 	@Test
 	public void customFiltersFollowedByResetUseIndex() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
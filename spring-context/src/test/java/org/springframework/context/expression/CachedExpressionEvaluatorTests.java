@@ -22,11 +22,16 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.Test;
 
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.expression.Expression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.util.ReflectionUtils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -66,6 +71,30 @@ public class CachedExpressionEvaluatorTests {
 		assertEquals("Cached expression should be based on type", 2, expressionEvaluator.testCache.size());
 	}
 
+	@Test
+	public void shareContextTemplate() {
+		Method method = ReflectionUtils.findMethod(Math.class, "abs", int.class);
+		MethodEvaluationContextTemplate template = expressionEvaluator.getContextTemplate(method);
+		assertSame(method, template.getMethod());
+		assertSame(template, expressionEvaluator.getContextTemplate(method));
+	}
+
+	@Test
+	public void compileHotExpressionWithDefaultParser() {
+		CachedExpressionEvaluator evaluator = new CachedExpressionEvaluator() {};
+		Method method = ReflectionUtils.findMethod(Math.class, "abs", int.class);
+		Expression expression = evaluator.getParser().parseExpression("#p0 > 0");
+		MethodEvaluationContextTemplate template = evaluator.getContextTemplate(method);
+		DirectFieldAccessor accessor = new DirectFieldAccessor(expression);
+
+		assertTrue(expression.getValue(new MethodBasedEvaluationContext(this, template, new Object[] {1}), Boolean.class));
+		assertNull(accessor.getPropertyValue("compiledAst"));
+		for (int i = 0; i < 200; i++) {
+			assertTrue(expression.getValue(new MethodBasedEvaluationContext(this, template, new Object[] {i + 1}), Boolean.class));
+		}
+		assertNotNull(accessor.getPropertyValue("compiledAst"));
+	}
+
 	private void hasParsedExpression(String expression) {
 		verify(expressionEvaluator.getParser(), times(1)).parseExpression(expression);
 	}
@@ -127,6 +127,46 @@ public class MethodBasedEvaluationContextTests {
 		assertArrayEquals(new Object[] {"hello", "hi"}, (Object[]) context.lookupVariable("vararg"));
 	}
 
+	@Test
+	public void templateSimpleArguments() {
+		Method method = ReflectionUtils.findMethod(SampleMethods.class, "hello", String.class, Boolean.class);
+		MethodEvaluationContextTemplate template = new MethodEvaluationContextTemplate(method, this.paramDiscover);
+		MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(this, template, new Object[] {"test", true});
+
+		assertEquals("test", context.lookupVariable("a0"));
+		assertEquals("test", context.lookupVariable("p0"));
+		assertEquals("test", context.lookupVariable("foo"));
+
+		assertEquals(true, context.lookupVariable("a1"));
+		assertEquals(true, context.lookupVariable("p1"));
+		assertEquals(true, context.lookupVariable("flag"));
+
+		assertNull(context.lookupVariable("a2"));
+		assertNull(context.lookupVariable("p2"));
+
+		context.setVariable("foo", "override");
+		assertEquals("override", context.lookupVariable("foo"));
+	}
+
+	@Test
+	public void templateVarArgs() {
+		Method method = ReflectionUtils.findMethod(SampleMethods.class, "hello", Boolean.class, String[].class);
+		MethodEvaluationContextTemplate template = new MethodEvaluationContextTemplate(method, this.paramDiscover);
+
+		MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(this, template, new Object[] {null});
+		assertNull(context.lookupVariable("flag"));
+		assertNull(context.lookupVariable("vararg"));
+
+		context = new MethodBasedEvaluationContext(this, template, new Object[] {null, "hello"});
+		assertEquals("hello", context.lookupVariable("a1"));
+		assertEquals("hello", context.lookupVariable("vararg"));
+
+		context = new MethodBasedEvaluationContext(this, template, new Object[] {true, "hello", "hi"});
+		assertEquals(true, context.lookupVariable("p0"));
+		assertArrayEquals(new Object[] {"hello", "hi"}, (Object[]) context.lookupVariable("a1"));
+		assertArrayEquals(new Object[] {"hello", "hi"}, (Object[]) context.lookupVariable("vararg"));
+	}
+
 	private MethodBasedEvaluationContext createEvaluationContext(Method method, Object... args) {
 		return new MethodBasedEvaluationContext(this, method, args, this.paramDiscover);
 	}
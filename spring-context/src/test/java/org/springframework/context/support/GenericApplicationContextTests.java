@@ -16,18 +16,23 @@
 
 package org.springframework.context.support;
 
+import java.util.List;
+
 import org.junit.Test;
 
+import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.core.metrics.BufferingApplicationStartup;
 import org.springframework.util.ObjectUtils;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -221,6 +226,59 @@ public class GenericApplicationContextTests {
 		assertSame(context.getBean(BeanC.class), context.getBeansOfType(BeanC.class).values().iterator().next());
 	}
 
+	@Test
+	public void refreshWithApplicationStartup() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.registerBean("b", BeanB.class, BeanB::new);
+		context.refresh();
+
+		assertSame(applicationStartup, context.getBeanFactory().getApplicationStartup());
+		List<BufferingApplicationStartup.TimelineEvent> timeline = applicationStartup.getTimeline();
+		BufferingApplicationStartup.TimelineEvent refresh = timeline.get(0);
+		assertEquals("spring.context.refresh", refresh.getName());
+		assertNull(refresh.getParentId());
+		BufferingApplicationStartup.TimelineEvent instantiation = timeline.stream()
+				.filter(event -> event.getName().equals("spring.beans.instantiate"))
+				.filter(event -> event.getTags().stream().anyMatch(tag -> tag.getValue().equals("b")))
+				.findFirst().orElseThrow(IllegalStateException::new);
+		BufferingApplicationStartup.TimelineEvent singletons = timeline.stream()
+				.filter(event -> event.getName().equals("spring.context.singletons.instantiate"))
+				.findFirst().orElseThrow(IllegalStateException::new);
+		assertEquals(Long.valueOf(singletons.getId()), instantiation.getParentId());
+		assertEquals(Long.valueOf(refresh.getId()), singletons.getParentId());
+		assertTrue(timeline.stream().anyMatch(event -> event.getName().equals("spring.context.event.publish")));
+		context.close();
+	}
+
+	@Test
+	public void failedRefreshWithApplicationStartup() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.registerBean("failing", BeanB.class, () -> {
+			throw new IllegalStateException("test");
+		});
+		try {
+			context.refresh();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			// expected
+		}
+
+		List<BufferingApplicationStartup.TimelineEvent> timeline = applicationStartup.getTimeline();
+		assertTrue(timeline.stream().anyMatch(event -> event.getName().equals("spring.context.beans.post-process")));
+		assertTrue(timeline.stream().anyMatch(event -> event.getName().equals("spring.context.singletons.instantiate")));
+		assertTrue(timeline.stream().anyMatch(event -> event.getName().equals("spring.context.refresh")));
+		applicationStartup.start("test").end();
+		BufferingApplicationStartup.TimelineEvent next = applicationStartup.getTimeline().stream()
+				.filter(event -> event.getName().equals("test"))
+				.findFirst().orElseThrow(IllegalStateException::new);
+		assertNull(next.getParentId());
+	}
+
 
 	static class BeanA {
 
@@ -51,7 +51,9 @@ import org.springframework.beans.propertyeditors.StringTrimmerEditor;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.context.support.ResourceBundleMessageSource;
 import org.springframework.context.support.StaticMessageSource;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.GenericConverter;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.format.Formatter;
 import org.springframework.format.number.NumberStyleFormatter;
@@ -404,6 +406,30 @@ public class DataBinderTests {
 		}
 	}
 
+	@Test
+	public void testBindingWithScalarConversions() {
+		CountingConversionService conversionService = new CountingConversionService();
+		int converterLookups = 0;
+		for (int i = 0; i < 2; i++) {
+			TestBean tb = new TestBean();
+			DataBinder binder = new DataBinder(tb);
+			binder.setConversionService(conversionService);
+			MutablePropertyValues pvs = new MutablePropertyValues();
+			pvs.add("age", "42");
+			pvs.add("myFloat", "1.5");
+			binder.bind(pvs);
+			assertEquals(42, tb.getAge());
+			assertEquals(new Float(1.5), tb.getMyFloat());
+			assertFalse(binder.getBindingResult().hasErrors());
+			if (i == 0) {
+				converterLookups = conversionService.converterLookups;
+				assertTrue(converterLookups > 0);
+			}
+		}
+		// Resolved conversions between plain scalar types are reused
+		assertEquals(converterLookups, conversionService.converterLookups);
+	}
+
 	@Test
 	public void testBindingErrorWithFormatter() {
 		TestBean tb = new TestBean();
@@ -2354,4 +2380,17 @@ public class DataBinderTests {
 		}
 	}
 
+
+	private static class CountingConversionService extends DefaultConversionService {
+
+		private int converterLookups;
+
+		@Override
+		@Nullable
+		protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+			this.converterLookups++;
+			return super.getConverter(sourceType, targetType);
+		}
+	}
+
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Benchmarks for {@link ResolvableType} creation and generics resolution.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ResolvableTypeBenchmark {
+
+	@Benchmark
+	public ResolvableType forClass() {
+		return ResolvableType.forClass(StringRepository.class);
+	}
+
+	@Benchmark
+	public Class<?> resolveGenericInterface() {
+		return ResolvableType.forClass(StringRepository.class).as(Repository.class).resolveGeneric(0);
+	}
+
+	@Benchmark
+	public Class<?> resolveMethodReturnType(BenchmarkState state) {
+		return ResolvableType.forMethodReturnType(state.method).resolveGeneric(1, 0);
+	}
+
+	@Benchmark
+	public boolean isAssignableFrom(BenchmarkState state) {
+		return state.listType.isAssignableFrom(state.stringListType);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public Method method;
+
+		public ResolvableType listType;
+
+		public ResolvableType stringListType;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.method = ReflectionUtils.findMethod(StringRepository.class, "findAllGrouped");
+			this.listType = ResolvableType.forClassWithGenerics(List.class, CharSequence.class);
+			this.stringListType = ResolvableType.forClassWithGenerics(List.class, String.class);
+		}
+	}
+
+
+	interface Repository<T> {
+
+		Map<String, List<T>> findAllGrouped();
+	}
+
+
+	interface StringRepository extends Repository<String> {
+
+		@Override
+		Map<String, List<String>> findAllGrouped();
+	}
+
+}
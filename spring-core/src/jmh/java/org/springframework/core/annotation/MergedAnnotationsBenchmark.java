@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Benchmarks for {@link MergedAnnotations} and {@link AnnotationUtils} lookups
+ * across type hierarchies and meta-annotations.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class MergedAnnotationsBenchmark {
+
+	@Benchmark
+	public boolean typeHierarchyPresent() {
+		return MergedAnnotations.from(AnnotatedService.class, SearchStrategy.EXHAUSTIVE)
+				.isPresent(Marker.class);
+	}
+
+	@Benchmark
+	public boolean typeHierarchyAbsent() {
+		return MergedAnnotations.from(AnnotatedService.class, SearchStrategy.EXHAUSTIVE)
+				.isPresent(Deprecated.class);
+	}
+
+	@Benchmark
+	public String typeHierarchyAttribute() {
+		return MergedAnnotations.from(AnnotatedService.class, SearchStrategy.EXHAUSTIVE)
+				.get(Marker.class).getString("value");
+	}
+
+	@Benchmark
+	public Marker methodHierarchyFindAnnotation(BenchmarkState state) {
+		return AnnotationUtils.findAnnotation(state.method, Marker.class);
+	}
+
+	@Benchmark
+	public Marker synthesizedAnnotation() {
+		return AnnotatedElementUtils.findMergedAnnotation(AnnotatedService.class, Marker.class);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public Method method;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.method = ReflectionUtils.findMethod(AnnotatedService.class, "execute");
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	@interface Marker {
+
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Marker("composed")
+	@interface ComposedMarker {
+
+		@AliasFor(annotation = Marker.class, attribute = "value")
+		String name() default "";
+	}
+
+
+	@ComposedMarker(name = "service")
+	interface Service {
+
+		@ComposedMarker(name = "execute")
+		void execute();
+	}
+
+
+	abstract static class AbstractService implements Service {
+	}
+
+
+	static class AnnotatedService extends AbstractService {
+
+		@Override
+		public void execute() {
+		}
+	}
+
+}
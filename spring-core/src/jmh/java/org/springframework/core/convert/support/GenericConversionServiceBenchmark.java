@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * Benchmarks for scalar conversions with {@link GenericConversionService},
+ * comparing the class-based fast path with the {@link TypeDescriptor}-based
+ * generic path.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class GenericConversionServiceBenchmark {
+
+	@Benchmark
+	public Integer stringToInteger(BenchmarkState state) {
+		return state.conversionService.convert("42", Integer.class);
+	}
+
+	@Benchmark
+	public Object stringToIntegerGeneric(BenchmarkState state) {
+		return state.conversionService.convert("42", BenchmarkState.STRING_TYPE, BenchmarkState.INTEGER_TYPE);
+	}
+
+	@Benchmark
+	public Long stringToLong(BenchmarkState state) {
+		return state.conversionService.convert("42", Long.class);
+	}
+
+	@Benchmark
+	public Boolean stringToBoolean(BenchmarkState state) {
+		return state.conversionService.convert("true", Boolean.class);
+	}
+
+	@Benchmark
+	public Mode stringToEnum(BenchmarkState state) {
+		return state.conversionService.convert("Throughput", Mode.class);
+	}
+
+	@Benchmark
+	public Object stringToEnumGeneric(BenchmarkState state) {
+		return state.conversionService.convert("Throughput", BenchmarkState.STRING_TYPE, BenchmarkState.ENUM_TYPE);
+	}
+
+	@Benchmark
+	public UUID stringToUuid(BenchmarkState state) {
+		return state.conversionService.convert(state.uuid, UUID.class);
+	}
+
+	@Benchmark
+	public Object stringToUuidGeneric(BenchmarkState state) {
+		return state.conversionService.convert(state.uuid, BenchmarkState.STRING_TYPE, BenchmarkState.UUID_TYPE);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf(String.class);
+
+		static final TypeDescriptor INTEGER_TYPE = TypeDescriptor.valueOf(Integer.class);
+
+		static final TypeDescriptor ENUM_TYPE = TypeDescriptor.valueOf(Mode.class);
+
+		static final TypeDescriptor UUID_TYPE = TypeDescriptor.valueOf(UUID.class);
+
+		public GenericConversionService conversionService;
+
+		public String uuid;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.conversionService = new DefaultConversionService();
+			this.uuid = UUID.randomUUID().toString();
+		}
+	}
+
+}
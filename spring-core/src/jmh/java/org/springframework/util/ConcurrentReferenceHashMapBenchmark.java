@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmarks for mixed concurrent reads and writes on {@link ConcurrentReferenceHashMap}
+ * and {@link LockFreeReferenceHashMap}: overwrites of existing keys, insertion of new
+ * keys with removal of old ones, and insertion into growing tables.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(32)
+public class ConcurrentReferenceHashMapBenchmark {
+
+	@Benchmark
+	public Object mixedReadWrite(BenchmarkState state) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String key = state.keys[random.nextInt(state.keys.length)];
+		if (random.nextInt(100) < state.writePercentage) {
+			return state.map.put(key, key);
+		}
+		return state.map.get(key);
+	}
+
+	/**
+	 * Insert a new key and remove the key inserted {@code size} operations
+	 * before, cycling through a key space larger than the live entries.
+	 */
+	@Benchmark
+	public Object insertAndRemove(ChurnState state) {
+		int index = state.sequence.getAndIncrement() & state.keyMask;
+		String key = state.keys[index];
+		state.map.put(key, key);
+		return state.map.remove(state.keys[(index - state.size) & state.keyMask]);
+	}
+
+	/**
+	 * Insert new keys into a map that is replaced by an empty one with the
+	 * default capacity every {@code size} insertions, so that its table keeps
+	 * getting resized while other threads are inserting.
+	 */
+	@Benchmark
+	public Object insertWithResize(ChurnState state) {
+		int sequence = state.sequence.getAndIncrement();
+		if (sequence % state.size == 0) {
+			state.map = state.createMap();
+		}
+		String key = state.keys[sequence & state.keyMask];
+		return state.map.put(key, key);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"ConcurrentReferenceHashMap", "LockFreeReferenceHashMap"})
+		public String mapType;
+
+		@Param({"0", "10", "50"})
+		public int writePercentage;
+
+		@Param({"1024"})
+		public int size;
+
+		public ConcurrentMap<String, String> map;
+
+		public String[] keys;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.map = (this.mapType.equals("LockFreeReferenceHashMap") ?
+					new LockFreeReferenceHashMap<>() : new ConcurrentReferenceHashMap<>());
+			this.keys = new String[this.size];
+			for (int i = 0; i < this.size; i++) {
+				this.keys[i] = "key" + i;
+				this.map.put(this.keys[i], this.keys[i]);
+			}
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class ChurnState {
+
+		@Param({"ConcurrentReferenceHashMap", "LockFreeReferenceHashMap"})
+		public String mapType;
+
+		@Param({"1024"})
+		public int size;
+
+		public volatile ConcurrentMap<String, String> map;
+
+		public String[] keys;
+
+		public int keyMask;
+
+		public final AtomicInteger sequence = new AtomicInteger();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			// Key space of 8 times the live entries, rounded up to a power of two
+			int keyCount = Integer.highestOneBit(this.size * 8 - 1) << 1;
+			this.keys = new String[keyCount];
+			for (int i = 0; i < keyCount; i++) {
+				this.keys[i] = "key" + i;
+			}
+			this.keyMask = keyCount - 1;
+			this.map = createMap();
+		}
+
+		ConcurrentMap<String, String> createMap() {
+			return (this.mapType.equals("LockFreeReferenceHashMap") ?
+					new LockFreeReferenceHashMap<>() : new ConcurrentReferenceHashMap<>());
+		}
+	}
+
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of the annotations present on types and methods, as generated at build
+ * time into {@value #INDEX_LOCATION} files by the {@code spring-context-indexer}
+ * annotation processor when its {@code spring.index.annotations} option is set.
+ *
+ * <p>An index entry holds the names of all annotation types that are present
+ * on a type or method with {@link MergedAnnotations.SearchStrategy#EXHAUSTIVE
+ * SearchStrategy.EXHAUSTIVE}: declared on the element itself or anywhere in its
+ * type hierarchy, either directly, as meta-annotations or within a standard
+ * repeatable container. Methods of an indexed type without an entry of their
+ * own do not carry any annotations. Elements not covered by the index are
+ * introspected through reflection as usual.
+ *
+ * <p>Since the index covers all annotated methods of a type, it also allows
+ * for rejecting entire classes as candidates for annotations that may only be
+ * declared on types and methods, without introspecting any of their methods.
+ *
+ * @since 5.2
+ * @see TypeMappedAnnotations
+ */
+final class AnnotationPresenceIndex {
+
+	/**
+	 * The location to look for annotation indexes.
+	 * <p>Can be present in multiple JAR files.
+	 */
+	static final String INDEX_LOCATION = "META-INF/spring.annotations";
+
+	/**
+	 * System property that instructs Spring to ignore the annotation index,
+	 * always introspecting annotations through reflection.
+	 */
+	static final String IGNORE_INDEX_PROPERTY_NAME = "spring.annotations.index.ignore";
+
+
+	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag(IGNORE_INDEX_PROPERTY_NAME);
+
+	private static final Set<ElementType> INDEXED_TARGETS =
+			EnumSet.of(ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE);
+
+	private static final AnnotationPresenceIndex NONE = new AnnotationPresenceIndex(Collections.emptyMap());
+
+	private static final Map<ClassLoader, AnnotationPresenceIndex> cache = new ConcurrentReferenceHashMap<>();
+
+
+	private final Map<String, Set<String>> entries;
+
+	private final Map<String, Set<String>> memberAnnotationTypes;
+
+
+	AnnotationPresenceIndex(Map<String, Set<String>> entries) {
+		this.entries = entries;
+		this.memberAnnotationTypes = collectMemberAnnotationTypes(entries);
+	}
+
+
+	/**
+	 * Return the names of the annotation types present on the given element,
+	 * or {@code null} if the element is not covered by this index.
+	 */
+	@Nullable
+	Set<String> getAnnotationTypes(AnnotatedElement element) {
+		if (this.entries.isEmpty()) {
+			return null;
+		}
+		if (element instanceof Class) {
+			return this.entries.get(((Class<?>) element).getName());
+		}
+		if (element instanceof Method) {
+			Method method = (Method) element;
+			if (method.isBridge() || method.isSynthetic()) {
+				return null;
+			}
+			Set<String> annotationTypes = this.entries.get(getKey(method));
+			if (annotationTypes == null && this.entries.containsKey(method.getDeclaringClass().getName())) {
+				return Collections.emptySet();
+			}
+			return annotationTypes;
+		}
+		return null;
+	}
+
+	/**
+	 * Return the names of the annotation types present on the given type or on
+	 * any of its indexed methods, or {@code null} if the type is not covered by
+	 * this index.
+	 */
+	@Nullable
+	Set<String> getMemberAnnotationTypes(Class<?> type) {
+		return this.memberAnnotationTypes.get(type.getName());
+	}
+
+
+	/**
+	 * Determine whether an annotation of the given type is present on the given
+	 * element according to the applicable index.
+	 * @param element the class or method to check
+	 * @param annotationType the fully qualified annotation type name
+	 * @return {@code true} or {@code false} if the element is covered by the
+	 * index, or {@code null} if it needs to be introspected through reflection
+	 */
+	@Nullable
+	static Boolean isPresent(AnnotatedElement element, String annotationType) {
+		Set<String> annotationTypes = getIndexedAnnotationTypes(element);
+		return (annotationTypes != null ? annotationTypes.contains(annotationType) : null);
+	}
+
+	/**
+	 * Determine whether the given element is known to carry no annotations
+	 * at all according to the applicable index.
+	 */
+	static boolean isKnownEmpty(AnnotatedElement element) {
+		Set<String> annotationTypes = getIndexedAnnotationTypes(element);
+		return (annotationTypes != null && annotationTypes.isEmpty());
+	}
+
+	/**
+	 * Determine whether the given class is a candidate for carrying the given
+	 * annotation according to the applicable indexes.
+	 * <p>Only annotation types that are restricted to types and methods through
+	 * {@link Target @Target} are checked against the index, since annotations on
+	 * fields, constructors and parameters are not indexed.
+	 * @param clazz the class to check
+	 * @param annotationType the searchable annotation type
+	 * @return {@code false} if the class and its entire type hierarchy are indexed
+	 * without any such annotation at type or method level; {@code true} otherwise
+	 */
+	static boolean isCandidateClass(Class<?> clazz, Class<? extends Annotation> annotationType) {
+		if (shouldIgnoreIndex || !isIndexedTarget(annotationType)) {
+			return true;
+		}
+		Boolean present = isPresentInHierarchy(clazz, annotationType.getName(), new HashSet<>());
+		return (present == null || present);
+	}
+
+	private static boolean isIndexedTarget(Class<? extends Annotation> annotationType) {
+		Target target = annotationType.getAnnotation(Target.class);
+		if (target == null) {
+			return false;
+		}
+		for (ElementType elementType : target.value()) {
+			if (!INDEXED_TARGETS.contains(elementType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Nullable
+	private static Boolean isPresentInHierarchy(Class<?> type, String annotationType, Set<Class<?>> visited) {
+		if (!visited.add(type) || AnnotationsScanner.hasPlainJavaAnnotationsOnly(type)) {
+			return Boolean.FALSE;
+		}
+		if (type.getClassLoader() == null) {
+			return null;
+		}
+		Set<String> annotationTypes = forClassLoader(type.getClassLoader()).getMemberAnnotationTypes(type);
+		if (annotationTypes == null) {
+			return null;
+		}
+		if (annotationTypes.contains(annotationType)) {
+			return Boolean.TRUE;
+		}
+		for (Class<?> interfaceType : type.getInterfaces()) {
+			Boolean present = isPresentInHierarchy(interfaceType, annotationType, visited);
+			if (!Boolean.FALSE.equals(present)) {
+				return present;
+			}
+		}
+		Class<?> superclass = type.getSuperclass();
+		return (superclass != null ? isPresentInHierarchy(superclass, annotationType, visited) : Boolean.FALSE);
+	}
+
+	/**
+	 * Return the key of the given method within the index: the name of its
+	 * declaring class, followed by {@code '#'}, the method name and its
+	 * comma-separated parameter type names in parentheses.
+	 */
+	static String getKey(Method method) {
+		StringBuilder key = new StringBuilder(method.getDeclaringClass().getName());
+		key.append('#').append(method.getName()).append('(');
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (i > 0) {
+				key.append(',');
+			}
+			key.append(parameterTypes[i].getTypeName());
+		}
+		return key.append(')').toString();
+	}
+
+	@Nullable
+	private static Set<String> getIndexedAnnotationTypes(AnnotatedElement element) {
+		Class<?> type = (element instanceof Method ? ((Method) element).getDeclaringClass() :
+				element instanceof Class ? (Class<?>) element : null);
+		if (type == null || type.getClassLoader() == null) {
+			return null;
+		}
+		return forClassLoader(type.getClassLoader()).getAnnotationTypes(element);
+	}
+
+	/**
+	 * Return the index for the given ClassLoader, merging all
+	 * {@value #INDEX_LOCATION} files visible to it.
+	 * @throws IllegalStateException if an index file cannot be read
+	 */
+	static AnnotationPresenceIndex forClassLoader(ClassLoader classLoader) {
+		if (shouldIgnoreIndex) {
+			return NONE;
+		}
+		return cache.computeIfAbsent(classLoader, AnnotationPresenceIndex::loadIndex);
+	}
+
+	private static AnnotationPresenceIndex loadIndex(ClassLoader classLoader) {
+		try {
+			Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+			if (!urls.hasMoreElements()) {
+				return NONE;
+			}
+			Map<String, Set<String>> entries = new HashMap<>();
+			// Many entries share the same annotations: keep a single set per combination
+			Map<String, Set<String>> annotationTypeSets = new HashMap<>();
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				PropertiesLoaderUtils.loadProperties(new UrlResource(url)).forEach((key, value) ->
+						entries.put((String) key, annotationTypeSets.computeIfAbsent(
+								(String) value, AnnotationPresenceIndex::parseAnnotationTypes)));
+			}
+			return new AnnotationPresenceIndex(entries);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(
+					"Unable to load annotation indexes from location [" + INDEX_LOCATION + "]", ex);
+		}
+	}
+
+	private static Map<String, Set<String>> collectMemberAnnotationTypes(Map<String, Set<String>> entries) {
+		if (entries.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, Set<String>> result = new HashMap<>();
+		entries.forEach((key, annotationTypes) -> {
+			if (key.indexOf('#') == -1) {
+				result.put(key, annotationTypes);
+			}
+		});
+		entries.forEach((key, annotationTypes) -> {
+			int separatorIndex = key.indexOf('#');
+			if (separatorIndex != -1) {
+				result.computeIfPresent(key.substring(0, separatorIndex), (type, existing) -> {
+					if (existing.containsAll(annotationTypes)) {
+						return existing;
+					}
+					Set<String> merged = new HashSet<>(existing);
+					merged.addAll(annotationTypes);
+					return merged;
+				});
+			}
+		});
+		return result;
+	}
+
+	private static Set<String> parseAnnotationTypes(String value) {
+		String[] annotationTypes = StringUtils.commaDelimitedListToStringArray(value);
+		if (annotationTypes.length == 0) {
+			return Collections.emptySet();
+		}
+		Set<String> result = new HashSet<>(annotationTypes.length * 2);
+		for (String annotationType : annotationTypes) {
+			result.add(annotationType.intern());
+		}
+		return Collections.unmodifiableSet(result);
+	}
+
+	static void clearCache() {
+		cache.clear();
+	}
+
+}
@@ -148,7 +148,8 @@ public abstract class AnnotationUtils {
 	 * @see #isCandidateClass(Class, String)
 	 */
 	public static boolean isCandidateClass(Class<?> clazz, Class<? extends Annotation> annotationType) {
-		return isCandidateClass(clazz, annotationType.getName());
+		return (isCandidateClass(clazz, annotationType.getName()) &&
+				AnnotationPresenceIndex.isCandidateClass(clazz, annotationType));
 	}
 
 	/**
@@ -168,7 +169,6 @@ public abstract class AnnotationUtils {
 		if (AnnotationsScanner.hasPlainJavaAnnotationsOnly(clazz)) {
 			return false;
 		}
-		// TODO: annotation presence registry to be integrated here
 		return true;
 	}
 
@@ -1275,6 +1275,7 @@ public abstract class AnnotationUtils {
 	public static void clearCache() {
 		AnnotationTypeMappings.clearCache();
 		AnnotationsScanner.clearCache();
+		AnnotationPresenceIndex.clearCache();
 	}
 
 
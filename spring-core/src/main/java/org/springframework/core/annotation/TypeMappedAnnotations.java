@@ -97,6 +97,10 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return false;
 		}
+		Boolean indexed = isPresentInIndex(annotationType.getName());
+		if (indexed != null) {
+			return indexed;
+		}
 		return Boolean.TRUE.equals(scan(annotationType,
 				IsPresent.get(this.repeatableContainers, this.annotationFilter, false)));
 	}
@@ -106,6 +110,10 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return false;
 		}
+		Boolean indexed = isPresentInIndex(annotationType);
+		if (indexed != null) {
+			return indexed;
+		}
 		return Boolean.TRUE.equals(scan(annotationType,
 				IsPresent.get(this.repeatableContainers, this.annotationFilter, false)));
 	}
@@ -145,7 +153,8 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 			@Nullable Predicate<? super MergedAnnotation<A>> predicate,
 			@Nullable MergedAnnotationSelector<A> selector) {
 
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) ||
+				Boolean.FALSE.equals(isPresentInIndex(annotationType.getName()))) {
 			return MergedAnnotation.missing();
 		}
 		MergedAnnotation<A> result = scan(annotationType,
@@ -170,7 +179,8 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 			@Nullable Predicate<? super MergedAnnotation<A>> predicate,
 			@Nullable MergedAnnotationSelector<A> selector) {
 
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) ||
+				Boolean.FALSE.equals(isPresentInIndex(annotationType))) {
 			return MergedAnnotation.missing();
 		}
 		MergedAnnotation<A> result = scan(annotationType,
@@ -234,6 +244,19 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return aggregates;
 	}
 
+	/**
+	 * Check the {@link AnnotationPresenceIndex} for the given annotation type.
+	 * @return the indexed presence, or {@code null} if not covered by the index
+	 */
+	@Nullable
+	private Boolean isPresentInIndex(String annotationType) {
+		if (this.element == null ||
+				!isIndexable(this.searchStrategy, this.repeatableContainers, this.annotationFilter)) {
+			return null;
+		}
+		return AnnotationPresenceIndex.isPresent(this.element, annotationType);
+	}
+
 	@Nullable
 	private <C, R> R scan(C criteria, AnnotationsProcessor<C, R> processor) {
 		if (this.annotations != null) {
@@ -253,6 +276,10 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (AnnotationsScanner.isKnownEmpty(element, searchStrategy)) {
 			return NONE;
 		}
+		if (isIndexable(searchStrategy, repeatableContainers, annotationFilter) &&
+				AnnotationPresenceIndex.isKnownEmpty(element)) {
+			return NONE;
+		}
 		return new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter);
 	}
 
@@ -265,6 +292,18 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return new TypeMappedAnnotations(source, annotations, repeatableContainers, annotationFilter);
 	}
 
+	/**
+	 * Determine whether the given search arrangement matches the one that
+	 * the {@link AnnotationPresenceIndex} has been built for.
+	 */
+	private static boolean isIndexable(@Nullable SearchStrategy searchStrategy,
+			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
+
+		return (searchStrategy == SearchStrategy.EXHAUSTIVE &&
+				repeatableContainers == RepeatableContainers.standardRepeatables() &&
+				annotationFilter == AnnotationFilter.PLAIN);
+	}
+
 	private static boolean isMappingForType(AnnotationTypeMapping mapping,
 			AnnotationFilter annotationFilter, @Nullable Object requiredType) {
 
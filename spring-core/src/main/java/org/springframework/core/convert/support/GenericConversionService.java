@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -27,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
 import org.springframework.core.DecoratingProxy;
 import org.springframework.core.ResolvableType;
@@ -78,6 +81,10 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	/** Resolved scalar conversions, keyed by target type and then by source type. */
+	private final Map<Class<?>, Map<Class<?>, ScalarConversion>> scalarConversionCache =
+			new ConcurrentReferenceHashMap<>(64);
+
 
 	// ConverterRegistry implementation
 
@@ -142,6 +149,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 		if (sourceType == null) {
 			return true;
 		}
+		if (getScalarConversion(sourceType, targetType) != null) {
+			return true;
+		}
 		GenericConverter converter = getConverter(sourceType, targetType);
 		return (converter != null);
 	}
@@ -171,6 +181,12 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		if (source != null) {
+			ScalarConversion conversion = getScalarConversion(source.getClass(), targetType);
+			if (conversion != null) {
+				return (T) handleResult(conversion.sourceType, conversion.targetType, conversion.convert(source));
+			}
+		}
 		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
 	}
 
@@ -186,6 +202,12 @@ public class GenericConversionService implements ConfigurableConversionService {
 			throw new IllegalArgumentException("Source to convert from must be an instance of [" +
 					sourceType + "]; instead it was a [" + source.getClass().getName() + "]");
 		}
+		if (source != null) {
+			ScalarConversion conversion = getScalarConversion(sourceType, targetType);
+			if (conversion != null) {
+				return handleResult(sourceType, targetType, conversion.convert(source));
+			}
+		}
 		GenericConverter converter = getConverter(sourceType, targetType);
 		if (converter != null) {
 			Object result = ConversionUtils.invokeConverter(converter, source, sourceType, targetType);
@@ -304,6 +326,63 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.scalarConversionCache.clear();
+	}
+
+	/**
+	 * Return the resolved conversion between the given type descriptors if both
+	 * describe plain scalar types: that is, without any annotations which could
+	 * select an annotation-driven converter.
+	 * @see #getScalarConversion(Class, Class)
+	 */
+	@Nullable
+	private ScalarConversion getScalarConversion(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		if (sourceType.getAnnotations().length > 0 || targetType.getAnnotations().length > 0) {
+			return null;
+		}
+		return getScalarConversion(sourceType.getType(), targetType.getType());
+	}
+
+	/**
+	 * Return the resolved conversion between the given scalar types, looked up
+	 * by source and target class without any {@link TypeDescriptor} allocation.
+	 * @return the conversion, or {@code null} if either type is not a JDK scalar
+	 * type, an enum or {@link UUID}, or if no converter is available
+	 */
+	@Nullable
+	private ScalarConversion getScalarConversion(Class<?> sourceClass, Class<?> targetClass) {
+		Map<Class<?>, ScalarConversion> conversions = this.scalarConversionCache.get(targetClass);
+		if (conversions != null) {
+			ScalarConversion conversion = conversions.get(sourceClass);
+			if (conversion != null) {
+				return (conversion != ScalarConversion.NONE ? conversion : null);
+			}
+		}
+		else if (isScalarType(targetClass)) {
+			conversions = this.scalarConversionCache.computeIfAbsent(
+					targetClass, key -> new ConcurrentReferenceHashMap<>(16, 1));
+		}
+		else {
+			return null;
+		}
+
+		ScalarConversion conversion = ScalarConversion.NONE;
+		if (isScalarType(sourceClass)) {
+			TypeDescriptor sourceType = TypeDescriptor.valueOf(sourceClass);
+			TypeDescriptor targetType = TypeDescriptor.valueOf(targetClass);
+			GenericConverter converter = getConverter(sourceType, targetType);
+			if (converter != null) {
+				conversion = new ScalarConversion(converter, sourceType, targetType);
+			}
+		}
+		conversions.put(sourceClass, conversion);
+		return (conversion != ScalarConversion.NONE ? conversion : null);
+	}
+
+	private static boolean isScalarType(Class<?> clazz) {
+		return (ClassUtils.isPrimitiveOrWrapper(clazz) || clazz == String.class ||
+				Enum.class.isAssignableFrom(clazz) || clazz == UUID.class ||
+				clazz == BigInteger.class || clazz == BigDecimal.class);
 	}
 
 	@Nullable
@@ -494,6 +573,72 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * A resolved conversion between two scalar types, invoking the underlying
+	 * {@link Converter} directly where possible.
+	 */
+	private static final class ScalarConversion {
+
+		static final ScalarConversion NONE = new ScalarConversion(
+				NO_MATCH, TypeDescriptor.valueOf(Object.class), TypeDescriptor.valueOf(Object.class));
+
+		private final GenericConverter converter;
+
+		@Nullable
+		private final Converter<Object, Object> directConverter;
+
+		private final TypeDescriptor sourceType;
+
+		private final TypeDescriptor targetType;
+
+		public ScalarConversion(GenericConverter converter, TypeDescriptor sourceType, TypeDescriptor targetType) {
+			this.converter = converter;
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			if (converter instanceof ConverterAdapter) {
+				this.directConverter = ((ConverterAdapter) converter).converter;
+			}
+			else if (converter instanceof ConverterFactoryAdapter) {
+				this.directConverter = getFactoryConverter((ConverterFactoryAdapter) converter, targetType);
+			}
+			else {
+				this.directConverter = null;
+			}
+		}
+
+		@Nullable
+		@SuppressWarnings("unchecked")
+		private static Converter<Object, Object> getFactoryConverter(
+				ConverterFactoryAdapter adapter, TypeDescriptor targetType) {
+
+			try {
+				return (Converter<Object, Object>) adapter.converterFactory.getConverter(targetType.getObjectType());
+			}
+			catch (RuntimeException ex) {
+				// Report at conversion time, in the same way as the generic path
+				return null;
+			}
+		}
+
+		@Nullable
+		public Object convert(Object source) {
+			if (this.converter == NO_OP_CONVERTER) {
+				return source;
+			}
+			try {
+				return (this.directConverter != null ? this.directConverter.convert(source) :
+						this.converter.convert(source, this.sourceType, this.targetType));
+			}
+			catch (ConversionFailedException ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new ConversionFailedException(this.sourceType, this.targetType, source, ex);
+			}
+		}
+	}
+
+
 	/**
 	 * Manages all converters registered with the service.
 	 */
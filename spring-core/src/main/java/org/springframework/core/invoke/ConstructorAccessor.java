@@ -0,0 +1,48 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.invoke;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Strategy for creating new instances through a specific constructor.
+ *
+ * <p>Implementations follow the contract of {@link java.lang.reflect.Constructor#newInstance}:
+ * an exception thrown by the underlying constructor is wrapped in an
+ * {@link InvocationTargetException}, and arguments that do not match the
+ * constructor signature result in an {@link IllegalArgumentException}.
+ *
+ * @since 5.2
+ * @see GeneratedMethodAccessorFactory#getConstructorAccessor
+ */
+@FunctionalInterface
+public interface ConstructorAccessor {
+
+	/**
+	 * Create a new instance through the underlying constructor.
+	 * @param args the arguments for the constructor invocation
+	 * @return the new instance
+	 * @throws InstantiationException if the declaring class is abstract
+	 * @throws IllegalAccessException if the underlying constructor is inaccessible
+	 * @throws IllegalArgumentException if the arguments do not match the
+	 * constructor signature
+	 * @throws InvocationTargetException if the underlying constructor throws an exception
+	 */
+	Object newInstance(Object... args)
+			throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException;
+
+}
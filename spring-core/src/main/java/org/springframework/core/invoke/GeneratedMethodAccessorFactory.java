@@ -0,0 +1,174 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.invoke;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link MethodAccessorFactory} that generates a small accessor class per method,
+ * invoking the method through plain bytecode instead of {@link Method#invoke}.
+ * Also provides {@link ConstructorAccessor ConstructorAccessors} generated the
+ * same way, as an alternative to {@link Constructor#newInstance}.
+ *
+ * <p>Accessor classes are generated with ASM and defined in a child class loader
+ * of the declaring class loader. Generation is therefore only possible for public
+ * methods and constructors on public classes whose parameter types are public as
+ * well; for anything else, or if generation fails, a reflective accessor is returned.
+ * Generated accessors also delegate to reflection for arguments that would require
+ * a widening conversion, so the reflective contract is preserved.
+ *
+ * <p>Accessors are cached per method and constructor. A single shared instance
+ * of this factory is usually sufficient for an application.
+ *
+ * @since 5.2
+ */
+public class GeneratedMethodAccessorFactory implements MethodAccessorFactory {
+
+	private static final Log logger = LogFactory.getLog(GeneratedMethodAccessorFactory.class);
+
+	private final Map<Method, MethodAccessor> accessorCache = new ConcurrentReferenceHashMap<>(256);
+
+	private final Map<Constructor<?>, ConstructorAccessor> constructorAccessorCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+
+	@Override
+	public MethodAccessor getMethodAccessor(Method method) {
+		MethodAccessor accessor = this.accessorCache.get(method);
+		if (accessor == null) {
+			accessor = createMethodAccessor(method);
+			MethodAccessor existing = this.accessorCache.putIfAbsent(method, accessor);
+			if (existing != null) {
+				accessor = existing;
+			}
+		}
+		return accessor;
+	}
+
+	/**
+	 * Return a {@link ConstructorAccessor} for the given constructor.
+	 * @param constructor the constructor to invoke
+	 * @return the corresponding accessor (never {@code null})
+	 */
+	public ConstructorAccessor getConstructorAccessor(Constructor<?> constructor) {
+		ConstructorAccessor accessor = this.constructorAccessorCache.get(constructor);
+		if (accessor == null) {
+			accessor = createConstructorAccessor(constructor);
+			ConstructorAccessor existing = this.constructorAccessorCache.putIfAbsent(constructor, accessor);
+			if (existing != null) {
+				accessor = existing;
+			}
+		}
+		return accessor;
+	}
+
+	/**
+	 * Create an accessor for the given method, generating an accessor class if
+	 * possible and falling back to a reflective accessor otherwise.
+	 * @param method the method to create an accessor for
+	 * @return the accessor to use
+	 */
+	protected MethodAccessor createMethodAccessor(Method method) {
+		if (MethodAccessorGenerator.isGenerationCandidate(method)) {
+			try {
+				return MethodAccessorGenerator.generate(method);
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to generate accessor for " + method.toGenericString() +
+							" - falling back to reflective invocation", ex);
+				}
+			}
+		}
+		return new ReflectiveMethodAccessor(method);
+	}
+
+	/**
+	 * Create an accessor for the given constructor, generating an accessor class
+	 * if possible and falling back to a reflective accessor otherwise.
+	 * @param constructor the constructor to create an accessor for
+	 * @return the accessor to use
+	 */
+	protected ConstructorAccessor createConstructorAccessor(Constructor<?> constructor) {
+		if (MethodAccessorGenerator.isGenerationCandidate(constructor)) {
+			try {
+				return MethodAccessorGenerator.generate(constructor);
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to generate accessor for " + constructor.toGenericString() +
+							" - falling back to reflective instantiation", ex);
+				}
+			}
+		}
+		return new ReflectiveConstructorAccessor(constructor);
+	}
+
+
+	/**
+	 * Accessor that invokes the method via reflection.
+	 */
+	private static class ReflectiveMethodAccessor implements MethodAccessor {
+
+		private final Method method;
+
+		public ReflectiveMethodAccessor(Method method) {
+			ReflectionUtils.makeAccessible(method);
+			this.method = method;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(@Nullable Object target, Object... args)
+				throws IllegalAccessException, InvocationTargetException {
+
+			return this.method.invoke(target, args);
+		}
+	}
+
+
+	/**
+	 * Accessor that invokes the constructor via reflection.
+	 */
+	private static class ReflectiveConstructorAccessor implements ConstructorAccessor {
+
+		private final Constructor<?> constructor;
+
+		public ReflectiveConstructorAccessor(Constructor<?> constructor) {
+			ReflectionUtils.makeAccessible(constructor);
+			this.constructor = constructor;
+		}
+
+		@Override
+		public Object newInstance(Object... args)
+				throws InstantiationException, IllegalAccessException, InvocationTargetException {
+
+			return this.constructor.newInstance(args);
+		}
+	}
+
+}
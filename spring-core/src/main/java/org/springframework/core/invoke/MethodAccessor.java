@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.invoke;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy for invoking a specific method on a given target instance.
+ *
+ * <p>Implementations follow the contract of {@link java.lang.reflect.Method#invoke}:
+ * an exception thrown by the underlying method is wrapped in an
+ * {@link InvocationTargetException}, and an argument or target that does not
+ * match the method signature results in an {@link IllegalArgumentException}.
+ * Callers can therefore switch between reflective and generated invocation
+ * without changing their exception handling.
+ *
+ * @since 5.2
+ * @see MethodAccessorFactory
+ */
+@FunctionalInterface
+public interface MethodAccessor {
+
+	/**
+	 * Invoke the underlying method on the given target.
+	 * @param target the target instance (ignored for static methods)
+	 * @param args the arguments for the method invocation
+	 * @return the return value of the method ({@code null} for {@code void} methods),
+	 * with primitive values wrapped in their corresponding wrapper type
+	 * @throws IllegalAccessException if the underlying method is inaccessible
+	 * @throws IllegalArgumentException if the target or the arguments do not
+	 * match the method signature
+	 * @throws InvocationTargetException if the underlying method throws an exception
+	 */
+	@Nullable
+	Object invoke(@Nullable Object target, Object... args)
+			throws IllegalAccessException, IllegalArgumentException, InvocationTargetException;
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.invoke;
+
+import java.lang.reflect.Method;
+
+/**
+ * Factory for {@link MethodAccessor} instances.
+ *
+ * <p>Components that repeatedly invoke the same methods, such as handler method
+ * adapters and event listener adapters, can be configured with a factory in
+ * order to replace reflective invocation with a more efficient strategy.
+ *
+ * @since 5.2
+ * @see GeneratedMethodAccessorFactory
+ */
+@FunctionalInterface
+public interface MethodAccessorFactory {
+
+	/**
+	 * Return a {@link MethodAccessor} for the given method.
+	 * <p>Implementations are expected to cache accessors since this
+	 * method may be called for every invocation of the given method.
+	 * @param method the method to invoke
+	 * @return the corresponding accessor (never {@code null})
+	 */
+	MethodAccessor getMethodAccessor(Method method);
+
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.invoke;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Generates {@link MethodAccessor} and {@link ConstructorAccessor} classes
+ * for {@link GeneratedMethodAccessorFactory}.
+ *
+ * <p>For a method {@code String handle(Long id, int count)} declared on
+ * {@code com.example.Controller}, the generated {@code invoke} method is
+ * equivalent to:
+ *
+ * <pre class="code">
+ * if (args == null || args.length != 2 || target == null) {
+ *     return this.method.invoke(target, args);
+ * }
+ * Controller controller;
+ * Long id;
+ * int count;
+ * try {
+ *     controller = (Controller) target;
+ *     id = (Long) args[0];
+ *     count = ((Integer) args[1]).intValue();
+ * }
+ * catch (RuntimeException ex) {
+ *     return this.method.invoke(target, args);
+ * }
+ * try {
+ *     return controller.handle(id, count);
+ * }
+ * catch (Throwable ex) {
+ *     throw new InvocationTargetException(ex);
+ * }
+ * </pre>
+ *
+ * <p>Constructor accessors follow the same structure, with a {@code newInstance}
+ * method creating the instance instead of invoking a method on a target.
+ *
+ * @since 5.2
+ */
+final class MethodAccessorGenerator implements Opcodes {
+
+	private static final String OBJECT_TYPE = "java/lang/Object";
+
+	private static final String INVOCATION_TARGET_EXCEPTION_TYPE = "java/lang/reflect/InvocationTargetException";
+
+	private static final String INVOKE_DESCRIPTOR = "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+	private static final String NEW_INSTANCE_DESCRIPTOR = "([Ljava/lang/Object;)Ljava/lang/Object;";
+
+	// One accessor class loader per declaring class loader, as a child of it
+	private static final Map<ClassLoader, AccessorClassLoader> classLoaders = new ConcurrentReferenceHashMap<>();
+
+	private static final AtomicInteger suffixId = new AtomicInteger();
+
+
+	private MethodAccessorGenerator() {
+	}
+
+
+	/**
+	 * Determine whether an accessor class can be generated for the given method
+	 * or constructor.
+	 * @param executable the method or constructor to check
+	 * @return {@code true} if the executable and its declaring class, as well as
+	 * all parameter types, are public and visible from a non-bootstrap class loader
+	 * (for constructors, the declaring class must not be abstract either)
+	 */
+	static boolean isGenerationCandidate(Executable executable) {
+		Class<?> declaringClass = executable.getDeclaringClass();
+		ClassLoader classLoader = declaringClass.getClassLoader();
+		if (classLoader == null || !Modifier.isPublic(executable.getModifiers()) ||
+				!Modifier.isPublic(declaringClass.getModifiers()) ||
+				!ClassUtils.isVisible(MethodAccessor.class, classLoader)) {
+			return false;
+		}
+		if (executable instanceof Constructor && Modifier.isAbstract(declaringClass.getModifiers())) {
+			return false;
+		}
+		for (Class<?> parameterType : executable.getParameterTypes()) {
+			while (parameterType.isArray()) {
+				parameterType = parameterType.getComponentType();
+			}
+			if (!Modifier.isPublic(parameterType.getModifiers())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Generate, define and instantiate an accessor class for the given method.
+	 * @param method the method to generate an accessor for
+	 * @return the generated accessor
+	 * @throws Exception if the class could not be generated or instantiated
+	 * @see #isGenerationCandidate
+	 */
+	static MethodAccessor generate(Method method) throws Exception {
+		return (MethodAccessor) generate(method, Method.class, "$$MethodAccessor$$");
+	}
+
+	/**
+	 * Generate, define and instantiate an accessor class for the given constructor.
+	 * @param constructor the constructor to generate an accessor for
+	 * @return the generated accessor
+	 * @throws Exception if the class could not be generated or instantiated
+	 * @see #isGenerationCandidate
+	 */
+	static ConstructorAccessor generate(Constructor<?> constructor) throws Exception {
+		return (ConstructorAccessor) generate(constructor, Constructor.class, "$$ConstructorAccessor$$");
+	}
+
+	private static Object generate(Executable executable, Class<?> executableType, String infix) throws Exception {
+		Class<?> declaringClass = executable.getDeclaringClass();
+		AccessorClassLoader classLoader = classLoaders.computeIfAbsent(
+				declaringClass.getClassLoader(), AccessorClassLoader::new);
+		String className = declaringClass.getName() + infix + suffixId.incrementAndGet();
+		byte[] bytes = generateClass(className.replace('.', '/'), executable, classLoader);
+		Class<?> accessorClass = classLoader.defineClass(className, bytes);
+		return accessorClass.getConstructor(executableType).newInstance(executable);
+	}
+
+	private static byte[] generateClass(String className, Executable executable, ClassLoader classLoader) {
+		boolean isConstructor = (executable instanceof Constructor);
+		// Field holding the Method or Constructor for reflective fallback
+		String fieldName = (isConstructor ? "constructor" : "method");
+		String fieldDescriptor = Type.getDescriptor(isConstructor ? Constructor.class : Method.class);
+		String accessorType = Type.getInternalName(isConstructor ? ConstructorAccessor.class : MethodAccessor.class);
+
+		ClassWriter cw = new AccessorClassWriter(classLoader);
+		cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, OBJECT_TYPE, new String[] {accessorType});
+		cw.visitField(ACC_PRIVATE | ACC_FINAL, fieldName, fieldDescriptor, null, null).visitEnd();
+
+		// Constructor storing the Method or Constructor for reflective fallback
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + fieldDescriptor + ")V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, OBJECT_TYPE, "<init>", "()V", false);
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitFieldInsn(PUTFIELD, className, fieldName, fieldDescriptor);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);  // not supplied due to COMPUTE_MAXS
+		mv.visitEnd();
+
+		if (isConstructor) {
+			mv = cw.visitMethod(ACC_PUBLIC | ACC_VARARGS, "newInstance", NEW_INSTANCE_DESCRIPTOR, null,
+					new String[] {"java/lang/InstantiationException", "java/lang/IllegalAccessException",
+							INVOCATION_TARGET_EXCEPTION_TYPE});
+			generateNewInstance(mv, className, fieldName, fieldDescriptor, (Constructor<?>) executable);
+		}
+		else {
+			mv = cw.visitMethod(ACC_PUBLIC | ACC_VARARGS, "invoke", INVOKE_DESCRIPTOR, null,
+					new String[] {"java/lang/IllegalAccessException", INVOCATION_TARGET_EXCEPTION_TYPE});
+			generateInvoke(mv, className, fieldName, fieldDescriptor, (Method) executable);
+		}
+		mv.visitMaxs(0, 0);  // not supplied due to COMPUTE_MAXS
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static void generateInvoke(
+			MethodVisitor mv, String className, String fieldName, String fieldDescriptor, Method method) {
+
+		Class<?> declaringClass = method.getDeclaringClass();
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		boolean isStatic = Modifier.isStatic(method.getModifiers());
+		boolean hasConversion = (!isStatic || parameterTypes.length > 0);
+
+		Label reflectiveInvoke = new Label();
+		Label conversionStart = new Label();
+		Label conversionFailure = new Label();
+		Label invocationStart = new Label();
+		Label invocationEnd = new Label();
+		Label invocationFailure = new Label();
+		if (hasConversion) {
+			mv.visitTryCatchBlock(conversionStart, invocationStart, conversionFailure, "java/lang/RuntimeException");
+		}
+		mv.visitTryCatchBlock(invocationStart, invocationEnd, invocationFailure, "java/lang/Throwable");
+
+		mv.visitCode();
+
+		// Argument count and target checks: leave the error reporting to reflection
+		checkArgumentCount(mv, 2, parameterTypes.length, reflectiveInvoke);
+		if (!isStatic) {
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitJumpInsn(IFNULL, reflectiveInvoke);
+		}
+
+		// Target and argument conversion
+		mv.visitLabel(conversionStart);
+		if (!isStatic) {
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitTypeInsn(CHECKCAST, Type.getInternalName(declaringClass));
+		}
+		loadArguments(mv, 2, parameterTypes);
+
+		// Actual invocation
+		mv.visitLabel(invocationStart);
+		int opcode = (isStatic ? INVOKESTATIC : declaringClass.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL);
+		mv.visitMethodInsn(opcode, Type.getInternalName(declaringClass), method.getName(),
+				Type.getMethodDescriptor(method), declaringClass.isInterface());
+		mv.visitLabel(invocationEnd);
+		box(mv, method.getReturnType());
+		mv.visitInsn(ARETURN);
+
+		// Unexpected target or argument type, e.g. requiring a widening conversion
+		if (hasConversion) {
+			mv.visitLabel(conversionFailure);
+			mv.visitInsn(POP);
+		}
+		mv.visitLabel(reflectiveInvoke);
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, className, fieldName, fieldDescriptor);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Method.class), "invoke", INVOKE_DESCRIPTOR, false);
+		mv.visitInsn(ARETURN);
+
+		// Exception thrown by the method itself
+		mv.visitLabel(invocationFailure);
+		wrapInvocationFailure(mv, 3);
+	}
+
+	private static void generateNewInstance(
+			MethodVisitor mv, String className, String fieldName, String fieldDescriptor, Constructor<?> constructor) {
+
+		String declaringType = Type.getInternalName(constructor.getDeclaringClass());
+		Class<?>[] parameterTypes = constructor.getParameterTypes();
+		boolean hasConversion = (parameterTypes.length > 0);
+
+		Label reflectiveNewInstance = new Label();
+		Label conversionStart = new Label();
+		Label conversionFailure = new Label();
+		Label invocationStart = new Label();
+		Label invocationEnd = new Label();
+		Label invocationFailure = new Label();
+		if (hasConversion) {
+			mv.visitTryCatchBlock(conversionStart, invocationStart, conversionFailure, "java/lang/RuntimeException");
+		}
+		mv.visitTryCatchBlock(invocationStart, invocationEnd, invocationFailure, "java/lang/Throwable");
+
+		mv.visitCode();
+
+		// Argument count check: leave the error reporting to reflection
+		checkArgumentCount(mv, 1, parameterTypes.length, reflectiveNewInstance);
+
+		// Argument conversion into local variables, so that the new instance
+		// does not need to be on the operand stack during conversion
+		mv.visitLabel(conversionStart);
+		loadArguments(mv, 1, parameterTypes);
+		int local = 2;
+		for (Class<?> parameterType : parameterTypes) {
+			local += Type.getType(parameterType).getSize();
+		}
+		for (int i = parameterTypes.length - 1; i >= 0; i--) {
+			Type type = Type.getType(parameterTypes[i]);
+			local -= type.getSize();
+			mv.visitVarInsn(type.getOpcode(ISTORE), local);
+		}
+
+		// Actual instantiation
+		mv.visitLabel(invocationStart);
+		mv.visitTypeInsn(NEW, declaringType);
+		mv.visitInsn(DUP);
+		for (Class<?> parameterType : parameterTypes) {
+			Type type = Type.getType(parameterType);
+			mv.visitVarInsn(type.getOpcode(ILOAD), local);
+			local += type.getSize();
+		}
+		mv.visitMethodInsn(INVOKESPECIAL, declaringType, "<init>", Type.getConstructorDescriptor(constructor), false);
+		mv.visitLabel(invocationEnd);
+		mv.visitInsn(ARETURN);
+
+		// Unexpected argument type, e.g. requiring a widening conversion
+		if (hasConversion) {
+			mv.visitLabel(conversionFailure);
+			mv.visitInsn(POP);
+		}
+		mv.visitLabel(reflectiveNewInstance);
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, className, fieldName, fieldDescriptor);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(Constructor.class), "newInstance",
+				NEW_INSTANCE_DESCRIPTOR, false);
+		mv.visitInsn(ARETURN);
+
+		// Exception thrown by the constructor itself
+		mv.visitLabel(invocationFailure);
+		wrapInvocationFailure(mv, local);
+	}
+
+	private static void checkArgumentCount(MethodVisitor mv, int argsIndex, int count, Label mismatch) {
+		mv.visitVarInsn(ALOAD, argsIndex);
+		mv.visitJumpInsn(IFNULL, mismatch);
+		mv.visitVarInsn(ALOAD, argsIndex);
+		mv.visitInsn(ARRAYLENGTH);
+		pushInt(mv, count);
+		mv.visitJumpInsn(IF_ICMPNE, mismatch);
+	}
+
+	private static void loadArguments(MethodVisitor mv, int argsIndex, Class<?>[] parameterTypes) {
+		for (int i = 0; i < parameterTypes.length; i++) {
+			mv.visitVarInsn(ALOAD, argsIndex);
+			pushInt(mv, i);
+			mv.visitInsn(AALOAD);
+			unboxOrCast(mv, parameterTypes[i]);
+		}
+	}
+
+	private static void wrapInvocationFailure(MethodVisitor mv, int local) {
+		mv.visitVarInsn(ASTORE, local);
+		mv.visitTypeInsn(NEW, INVOCATION_TARGET_EXCEPTION_TYPE);
+		mv.visitInsn(DUP);
+		mv.visitVarInsn(ALOAD, local);
+		mv.visitMethodInsn(INVOKESPECIAL, INVOCATION_TARGET_EXCEPTION_TYPE,
+				"<init>", "(Ljava/lang/Throwable;)V", false);
+		mv.visitInsn(ATHROW);
+	}
+
+	private static void pushInt(MethodVisitor mv, int value) {
+		if (value <= 5) {
+			mv.visitInsn(ICONST_0 + value);
+		}
+		else if (value <= Byte.MAX_VALUE) {
+			mv.visitIntInsn(BIPUSH, value);
+		}
+		else {
+			mv.visitIntInsn(SIPUSH, value);
+		}
+	}
+
+	private static void unboxOrCast(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			String wrapperType = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(type));
+			mv.visitTypeInsn(CHECKCAST, wrapperType);
+			mv.visitMethodInsn(INVOKEVIRTUAL, wrapperType, type.getName() + "Value",
+					"()" + Type.getDescriptor(type), false);
+		}
+		else if (type != Object.class) {
+			mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+		}
+	}
+
+	private static void box(MethodVisitor mv, Class<?> type) {
+		if (type == void.class) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else if (type.isPrimitive()) {
+			String wrapperType = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(type));
+			mv.visitMethodInsn(INVOKESTATIC, wrapperType, "valueOf",
+					"(" + Type.getDescriptor(type) + ")L" + wrapperType + ";", false);
+		}
+	}
+
+
+	/**
+	 * Child class loader defining the generated accessor classes.
+	 */
+	private static class AccessorClassLoader extends URLClassLoader {
+
+		private static final URL[] NO_URLS = new URL[0];
+
+		public AccessorClassLoader(ClassLoader parent) {
+			super(NO_URLS, parent);
+		}
+
+		public Class<?> defineClass(String name, byte[] bytes) {
+			return super.defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+
+	private static class AccessorClassWriter extends ClassWriter {
+
+		private final ClassLoader classLoader;
+
+		public AccessorClassWriter(ClassLoader classLoader) {
+			super(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		protected ClassLoader getClassLoader() {
+			return this.classLoader;
+		}
+	}
+
+}
@@ -0,0 +1,10 @@
+/**
+ * Support for invoking methods through generated accessors
+ * instead of reflective {@link java.lang.reflect.Method#invoke} calls.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.core.invoke;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.support;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.PathMatcher;
+
+/**
+ * Directory listing of a jar file, organized as a trie of path segments,
+ * for answering repeated pattern lookups without re-enumerating the jar's
+ * central directory. Used by {@link PathMatchingResourcePatternResolver}.
+ *
+ * <p>Indexes are shared per {@link ClassLoader} and jar file URL, and get
+ * rebuilt when the size or last-modified timestamp of the jar file changes.
+ *
+ * @since 5.2
+ */
+final class JarEntryIndex {
+
+	private static final Map<ClassLoader, Map<String, JarEntryIndex>> indexCache =
+			new ConcurrentReferenceHashMap<>(8);
+
+
+	private final Node root = new Node();
+
+	private final long stamp;
+
+
+	private JarEntryIndex(JarFile jarFile, long stamp) {
+		this.stamp = stamp;
+		int order = 0;
+		for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+			add(entries.nextElement().getName(), order++);
+		}
+	}
+
+	private void add(String entryPath, int order) {
+		Node node = this.root;
+		int start = 0;
+		int separatorIndex = entryPath.indexOf('/');
+		while (separatorIndex != -1 && separatorIndex < entryPath.length() - 1) {
+			node = node.getOrCreateChild(entryPath.substring(start, separatorIndex));
+			start = separatorIndex + 1;
+			separatorIndex = entryPath.indexOf('/', start);
+		}
+		if (separatorIndex == entryPath.length() - 1) {
+			// Directory entry
+			node.getOrCreateChild(entryPath.substring(start, separatorIndex)).order = order;
+		}
+		else {
+			node.names.add(entryPath.substring(start));
+			node.orders.add(order);
+		}
+	}
+
+	/**
+	 * Find the paths of all entries below the given root entry path that match
+	 * the given pattern, in the order of the entries in the jar file.
+	 * @param rootEntryPath the root entry path (empty or ending with a slash)
+	 * @param subPattern the pattern to match against paths relative to the root
+	 * @param pathMatcher the PathMatcher to use
+	 * @return the matching paths, relative to the root entry path
+	 */
+	List<String> findMatchingPaths(String rootEntryPath, String subPattern, PathMatcher pathMatcher) {
+		Node node = this.root;
+		int start = 0;
+		int separatorIndex = rootEntryPath.indexOf('/');
+		while (separatorIndex != -1) {
+			node = node.children.get(rootEntryPath.substring(start, separatorIndex));
+			if (node == null) {
+				return new ArrayList<>();
+			}
+			start = separatorIndex + 1;
+			separatorIndex = rootEntryPath.indexOf('/', start);
+		}
+		List<MatchingPath> result = new ArrayList<>();
+		if (node != this.root && node.order != -1 && pathMatcher.match(subPattern, "")) {
+			result.add(new MatchingPath("", node.order));
+		}
+		collectMatchingPaths(node, "", subPattern, pathMatcher, result);
+		result.sort((path1, path2) -> Integer.compare(path1.order, path2.order));
+		List<String> paths = new ArrayList<>(result.size());
+		for (MatchingPath path : result) {
+			paths.add(path.path);
+		}
+		return paths;
+	}
+
+	private void collectMatchingPaths(Node node, String relativePath, String subPattern,
+			PathMatcher pathMatcher, List<MatchingPath> result) {
+
+		for (int i = 0; i < node.names.size(); i++) {
+			String path = relativePath + node.names.get(i);
+			if (pathMatcher.match(subPattern, path)) {
+				result.add(new MatchingPath(path, node.orders.get(i)));
+			}
+		}
+		for (Map.Entry<String, Node> child : node.children.entrySet()) {
+			String path = relativePath + child.getKey() + "/";
+			if (pathMatcher.matchStart(subPattern, path)) {
+				Node childNode = child.getValue();
+				if (childNode.order != -1 && pathMatcher.match(subPattern, path)) {
+					result.add(new MatchingPath(path, childNode.order));
+				}
+				collectMatchingPaths(childNode, path, subPattern, pathMatcher, result);
+			}
+		}
+	}
+
+
+	/**
+	 * Return the index for the given jar file, building it if necessary.
+	 * @param classLoader the ClassLoader that the jar file has been found through
+	 * @param jarFileUrl the URL of the jar file, as cache key
+	 * @param jarFile the opened jar file
+	 */
+	static JarEntryIndex forJarFile(@Nullable ClassLoader classLoader, String jarFileUrl, JarFile jarFile) {
+		long stamp = determineStamp(jarFile);
+		Map<String, JarEntryIndex> indexes = indexCache.computeIfAbsent(classLoader,
+				key -> new ConcurrentReferenceHashMap<>(16));
+		JarEntryIndex index = indexes.get(jarFileUrl);
+		if (index == null || index.stamp != stamp) {
+			index = new JarEntryIndex(jarFile, stamp);
+			indexes.put(jarFileUrl, index);
+		}
+		return index;
+	}
+
+	private static long determineStamp(JarFile jarFile) {
+		File file = new File(jarFile.getName());
+		// Nested or otherwise non-local jar files are assumed to be unchanged
+		return (file.isFile() ? file.lastModified() * 31 + file.length() : -1);
+	}
+
+	/**
+	 * Clear all cached jar entry indexes.
+	 */
+	static void clearCache() {
+		indexCache.clear();
+	}
+
+
+	private static final class Node {
+
+		private final Map<String, Node> children = new LinkedHashMap<>(4);
+
+		private final List<String> names = new ArrayList<>(4);
+
+		private final List<Integer> orders = new ArrayList<>(4);
+
+		/** Order of the directory entry for this node, or -1 if none. */
+		private int order = -1;
+
+		Node getOrCreateChild(String name) {
+			return this.children.computeIfAbsent(name, key -> new Node());
+		}
+	}
+
+
+	private static final class MatchingPath {
+
+		private final String path;
+
+		private final int order;
+
+		MatchingPath(String path, int order) {
+			this.path = path;
+			this.order = order;
+		}
+	}
+
+}
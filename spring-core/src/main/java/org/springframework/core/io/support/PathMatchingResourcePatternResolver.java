@@ -576,6 +576,8 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	/**
 	 * Find all resources in jar files that match the given location pattern
 	 * via the Ant-style PathMatcher.
+	 * <p>The directory listing of each jar file gets built once and is shared
+	 * for subsequent lookups: see {@link #clearCache()}.
 	 * @param rootDirResource the root directory as Resource
 	 * @param rootDirURL the pre-resolved root directory URL
 	 * @param subPattern the sub pattern to match (below the root directory)
@@ -644,16 +646,12 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				// The Sun JRE does not return a slash here, but BEA JRockit does.
 				rootEntryPath = rootEntryPath + "/";
 			}
+			// Look up matching entries in the shared directory listing of the jar file,
+			// avoiding a full enumeration of its entries for every pattern
+			JarEntryIndex jarEntryIndex = JarEntryIndex.forJarFile(getClassLoader(), jarFileUrl, jarFile);
 			Set<Resource> result = new LinkedHashSet<>(8);
-			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
-				if (entryPath.startsWith(rootEntryPath)) {
-					String relativePath = entryPath.substring(rootEntryPath.length());
-					if (getPathMatcher().match(subPattern, relativePath)) {
-						result.add(rootDirResource.createRelative(relativePath));
-					}
-				}
+			for (String relativePath : jarEntryIndex.findMatchingPaths(rootEntryPath, subPattern, getPathMatcher())) {
+				result.add(rootDirResource.createRelative(relativePath));
 			}
 			return result;
 		}
@@ -664,6 +662,18 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Clear the shared cache of jar file directory listings that is used for
+	 * resolving patterns within jar files, forcing the listings to be rebuilt
+	 * on the next lookup.
+	 * <p>Listings of local jar files get rebuilt automatically when the jar file
+	 * changes on disk; clearing the cache is only necessary for nested jar files.
+	 * @since 5.2
+	 */
+	public static void clearCache() {
+		JarEntryIndex.clearCache();
+	}
+
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+/**
+ * Instruments the application startup phase using {@link StartupStep steps}.
+ *
+ * <p>The core container and its infrastructure components can use the
+ * {@code ApplicationStartup} to mark steps during the application startup
+ * and collect data about the execution context or their processing time.
+ *
+ * <p>The {@link #DEFAULT default implementation} is a no-op variant with
+ * minimal overhead; {@link BufferingApplicationStartup} records the steps
+ * for later export as a timeline.
+ *
+ * @since 5.2
+ * @see StartupStep
+ * @see BufferingApplicationStartup
+ */
+public interface ApplicationStartup {
+
+	/**
+	 * Default "no op" {@code ApplicationStartup} implementation.
+	 * <p>This variant is designed for minimal overhead and does not record data.
+	 */
+	ApplicationStartup DEFAULT = new DefaultApplicationStartup();
+
+
+	/**
+	 * Create a new step and mark its beginning.
+	 * <p>A step name describes the current action or phase. This technical
+	 * name should be "." namespaced and can be reused to describe other instances of
+	 * the same step during application startup.
+	 * @param name the step name
+	 * @return the started step, to be {@link StartupStep#end() ended} by the caller
+	 */
+	StartupStep start(String name);
+
+}
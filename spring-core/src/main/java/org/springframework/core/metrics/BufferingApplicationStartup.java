@@ -0,0 +1,426 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation that buffers {@link StartupStep steps}
+ * and records their timestamps as well as their processing time.
+ *
+ * <p>Once recording has been finished, the {@link #getTimeline() timeline} of
+ * ended steps can be retrieved or {@link #writeTimeline(Writer) exported} in the
+ * JSON-based Trace Event Format, as understood by timeline viewers such as
+ * {@code chrome://tracing} or Perfetto.
+ *
+ * <p>Steps are nested per thread: a step started while another step of the
+ * same thread is still running is recorded as a child of that step.
+ * The number of buffered steps is bounded by the configured capacity;
+ * steps ended after the buffer is full are dropped and counted.
+ *
+ * @since 5.2
+ */
+public class BufferingApplicationStartup implements ApplicationStartup {
+
+	private final int capacity;
+
+	private final long startTimestamp = System.currentTimeMillis();
+
+	private final long startTime = System.nanoTime();
+
+	private final AtomicLong idSequence = new AtomicLong();
+
+	private final ThreadLocal<BufferedStartupStep> currentStep = new NamedThreadLocal<>("Current startup step");
+
+	private final List<TimelineEvent> events = new ArrayList<>();
+
+	private int droppedSteps;
+
+
+	/**
+	 * Create a new {@code BufferingApplicationStartup} with a limited capacity.
+	 * @param capacity the maximum number of steps to buffer
+	 */
+	public BufferingApplicationStartup(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.capacity = capacity;
+	}
+
+
+	@Override
+	public StartupStep start(String name) {
+		Assert.notNull(name, "Step name must not be null");
+		BufferedStartupStep parent = this.currentStep.get();
+		BufferedStartupStep step = new BufferedStartupStep(
+				this, name, this.idSequence.getAndIncrement(), parent, System.nanoTime());
+		this.currentStep.set(step);
+		return step;
+	}
+
+	private void record(BufferedStartupStep step, long endTime) {
+		// Restore the parent as current step, also for nested steps that were never ended
+		for (BufferedStartupStep current = this.currentStep.get(); current != null; current = current.parent) {
+			if (current == step) {
+				if (step.parent != null) {
+					this.currentStep.set(step.parent);
+				}
+				else {
+					this.currentStep.remove();
+				}
+				break;
+			}
+		}
+		TimelineEvent event = new TimelineEvent(step, step.startTime - this.startTime, endTime - step.startTime);
+		synchronized (this.events) {
+			if (this.events.size() < this.capacity) {
+				this.events.add(event);
+			}
+			else {
+				this.droppedSteps++;
+			}
+		}
+	}
+
+	/**
+	 * Return the wall-clock time at which this recording started,
+	 * in milliseconds since the epoch.
+	 */
+	public long getStartTimestamp() {
+		return this.startTimestamp;
+	}
+
+	/**
+	 * Return the number of steps that got dropped since the buffer was full.
+	 */
+	public int getDroppedStepCount() {
+		synchronized (this.events) {
+			return this.droppedSteps;
+		}
+	}
+
+	/**
+	 * Return a snapshot of the steps ended so far, ordered by their start time.
+	 */
+	public List<TimelineEvent> getTimeline() {
+		List<TimelineEvent> timeline;
+		synchronized (this.events) {
+			timeline = new ArrayList<>(this.events);
+		}
+		timeline.sort(Comparator.comparingLong(TimelineEvent::getStartTime));
+		return timeline;
+	}
+
+	/**
+	 * Write the current {@link #getTimeline() timeline} to the given Writer
+	 * in the JSON-based Trace Event Format, with one "complete" event per step
+	 * carrying the step id, parent id and tags as arguments.
+	 * @param writer the Writer to write to (not closed afterwards)
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTimeline(Writer writer) throws IOException {
+		List<TimelineEvent> timeline = getTimeline();
+		Map<Long, String> threads = new LinkedHashMap<>();
+		writer.write("{\"traceEvents\":[");
+		boolean first = true;
+		for (TimelineEvent event : timeline) {
+			threads.putIfAbsent(event.getThreadId(), event.getThreadName());
+			if (!first) {
+				writer.write(',');
+			}
+			first = false;
+			writer.write("\n{\"name\":");
+			writeJsonString(writer, event.getName());
+			writer.write(",\"cat\":\"spring\",\"ph\":\"X\",\"ts\":");
+			writer.write(formatMicros(event.getStartTime()));
+			writer.write(",\"dur\":");
+			writer.write(formatMicros(event.getDuration()));
+			writer.write(",\"pid\":1,\"tid\":");
+			writer.write(Long.toString(event.getThreadId()));
+			writer.write(",\"args\":{\"id\":");
+			writer.write(Long.toString(event.getId()));
+			if (event.getParentId() != null) {
+				writer.write(",\"parentId\":");
+				writer.write(Long.toString(event.getParentId()));
+			}
+			for (StartupStep.Tag tag : event.getTags()) {
+				writer.write(',');
+				writeJsonString(writer, tag.getKey());
+				writer.write(':');
+				writeJsonString(writer, tag.getValue());
+			}
+			writer.write("}}");
+		}
+		for (Map.Entry<Long, String> thread : threads.entrySet()) {
+			if (!first) {
+				writer.write(',');
+			}
+			first = false;
+			writer.write("\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":");
+			writer.write(Long.toString(thread.getKey()));
+			writer.write(",\"args\":{\"name\":");
+			writeJsonString(writer, thread.getValue());
+			writer.write("}}");
+		}
+		writer.write("\n],\"displayTimeUnit\":\"ms\",\"otherData\":{\"startTimestamp\":");
+		writer.write(Long.toString(this.startTimestamp));
+		writer.write(",\"droppedSteps\":");
+		writer.write(Integer.toString(getDroppedStepCount()));
+		writer.write("}}\n");
+		writer.flush();
+	}
+
+	private static String formatMicros(long nanos) {
+		String fraction = Long.toString(nanos % 1000);
+		return (nanos / 1000) + (fraction.length() == 1 ? ".00" : fraction.length() == 2 ? ".0" : ".") + fraction;
+	}
+
+	private static void writeJsonString(Writer writer, String value) throws IOException {
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				writer.write('\\');
+				writer.write(c);
+			}
+			else if (c < 0x20) {
+				writer.write(String.format("\\u%04x", (int) c));
+			}
+			else {
+				writer.write(c);
+			}
+		}
+		writer.write('"');
+	}
+
+
+	/**
+	 * A recorded {@link StartupStep}, along with its thread and timing information.
+	 */
+	public static final class TimelineEvent {
+
+		private final String name;
+
+		private final long id;
+
+		@Nullable
+		private final Long parentId;
+
+		private final List<StartupStep.Tag> tags;
+
+		private final long threadId;
+
+		private final String threadName;
+
+		private final long startTime;
+
+		private final long duration;
+
+		TimelineEvent(BufferedStartupStep step, long startTime, long duration) {
+			this.name = step.name;
+			this.id = step.id;
+			this.parentId = step.getParentId();
+			this.tags = Collections.unmodifiableList(step.tags);
+			this.threadId = step.threadId;
+			this.threadName = step.threadName;
+			this.startTime = startTime;
+			this.duration = duration;
+		}
+
+		/**
+		 * Return the name of the recorded step.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the id of the recorded step.
+		 */
+		public long getId() {
+			return this.id;
+		}
+
+		/**
+		 * Return the id of the parent step, if any.
+		 */
+		@Nullable
+		public Long getParentId() {
+			return this.parentId;
+		}
+
+		/**
+		 * Return the tags attached to the recorded step.
+		 */
+		public List<StartupStep.Tag> getTags() {
+			return this.tags;
+		}
+
+		/**
+		 * Return the id of the thread that started the step.
+		 */
+		public long getThreadId() {
+			return this.threadId;
+		}
+
+		/**
+		 * Return the name of the thread that started the step.
+		 */
+		public String getThreadName() {
+			return this.threadName;
+		}
+
+		/**
+		 * Return the start time of the step, in nanoseconds
+		 * relative to the start of the recording.
+		 */
+		public long getStartTime() {
+			return this.startTime;
+		}
+
+		/**
+		 * Return the duration of the step, in nanoseconds.
+		 */
+		public long getDuration() {
+			return this.duration;
+		}
+
+		@Override
+		public String toString() {
+			return this.name + " [id=" + this.id + ", parentId=" + this.parentId + ", thread='" +
+					this.threadName + "', startTime=" + this.startTime + "ns, duration=" + this.duration +
+					"ns, tags=" + this.tags + "]";
+		}
+	}
+
+
+	private static class BufferedStartupStep implements StartupStep {
+
+		private final BufferingApplicationStartup startup;
+
+		private final String name;
+
+		private final long id;
+
+		@Nullable
+		private final BufferedStartupStep parent;
+
+		private final long startTime;
+
+		private final long threadId;
+
+		private final String threadName;
+
+		private final List<Tag> tags = new ArrayList<>();
+
+		private boolean ended;
+
+		BufferedStartupStep(BufferingApplicationStartup startup, String name, long id,
+				@Nullable BufferedStartupStep parent, long startTime) {
+
+			this.startup = startup;
+			this.name = name;
+			this.id = id;
+			this.parent = parent;
+			this.startTime = startTime;
+			Thread thread = Thread.currentThread();
+			this.threadId = thread.getId();
+			this.threadName = thread.getName();
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public long getId() {
+			return this.id;
+		}
+
+		@Override
+		@Nullable
+		public Long getParentId() {
+			return (this.parent != null ? this.parent.id : null);
+		}
+
+		@Override
+		public StartupStep tag(String key, String value) {
+			Assert.state(!this.ended, "StartupStep has already ended");
+			this.tags.add(new BufferedTag(key, value));
+			return this;
+		}
+
+		@Override
+		public StartupStep tag(String key, Supplier<String> value) {
+			return tag(key, value.get());
+		}
+
+		@Override
+		public Tags getTags() {
+			return () -> Collections.unmodifiableList(this.tags).iterator();
+		}
+
+		@Override
+		public void end() {
+			Assert.state(!this.ended, "StartupStep has already ended");
+			this.ended = true;
+			this.startup.record(this, System.nanoTime());
+		}
+	}
+
+
+	private static class BufferedTag implements StartupStep.Tag {
+
+		private final String key;
+
+		private final String value;
+
+		BufferedTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+}
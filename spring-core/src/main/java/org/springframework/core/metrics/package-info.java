@@ -0,0 +1,10 @@
+/**
+ * Support package for recording metrics during application startup,
+ * with a no-op default and a buffering implementation exporting a timeline.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.core.metrics;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,14 +17,13 @@
 package org.springframework.core.type.classreading;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Caching implementation of the {@link MetadataReaderFactory} interface,
@@ -40,9 +39,13 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	/** Default maximum number of entries for a local MetadataReader cache: 256. */
 	public static final int DEFAULT_CACHE_LIMIT = 256;
 
-	/** MetadataReader cache: either local or shared at the ResourceLoader level. */
+	/** Local MetadataReader cache, if any. */
 	@Nullable
-	private Map<Resource, MetadataReader> metadataReaderCache;
+	private ConcurrentLruCache<Resource, MetadataReader> localMetadataReaderCache;
+
+	/** MetadataReader cache shared at the ResourceLoader level, if any. */
+	@Nullable
+	private Map<Resource, MetadataReader> sharedMetadataReaderCache;
 
 
 	/**
@@ -74,7 +77,7 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	public CachingMetadataReaderFactory(@Nullable ResourceLoader resourceLoader) {
 		super(resourceLoader);
 		if (resourceLoader instanceof DefaultResourceLoader) {
-			this.metadataReaderCache =
+			this.sharedMetadataReaderCache =
 					((DefaultResourceLoader) resourceLoader).getResourceCache(MetadataReader.class);
 		}
 		else {
@@ -90,14 +93,15 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	 * even if the {@link ResourceLoader} supports a shared resource cache.
 	 */
 	public void setCacheLimit(int cacheLimit) {
+		this.sharedMetadataReaderCache = null;
 		if (cacheLimit <= 0) {
-			this.metadataReaderCache = null;
+			this.localMetadataReaderCache = null;
 		}
-		else if (this.metadataReaderCache instanceof LocalResourceCache) {
-			((LocalResourceCache) this.metadataReaderCache).setCacheLimit(cacheLimit);
+		else if (this.localMetadataReaderCache != null) {
+			this.localMetadataReaderCache.setSizeLimit(cacheLimit);
 		}
 		else {
-			this.metadataReaderCache = new LocalResourceCache(cacheLimit);
+			this.localMetadataReaderCache = new ConcurrentLruCache<>(cacheLimit);
 		}
 	}
 
@@ -105,35 +109,43 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	 * Return the maximum number of entries for the MetadataReader cache.
 	 */
 	public int getCacheLimit() {
-		if (this.metadataReaderCache instanceof LocalResourceCache) {
-			return ((LocalResourceCache) this.metadataReaderCache).getCacheLimit();
+		if (this.localMetadataReaderCache != null) {
+			return this.localMetadataReaderCache.sizeLimit();
 		}
 		else {
-			return (this.metadataReaderCache != null ? Integer.MAX_VALUE : 0);
+			return (this.sharedMetadataReaderCache != null ? Integer.MAX_VALUE : 0);
 		}
 	}
 
+	/**
+	 * Return the local MetadataReader cache, if any, e.g. for
+	 * exposing its hit, miss and eviction counts.
+	 * @since 5.2
+	 * @see #setCacheLimit
+	 */
+	@Nullable
+	public ConcurrentLruCache<Resource, MetadataReader> getLocalCache() {
+		return this.localMetadataReaderCache;
+	}
+
 
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
-		if (this.metadataReaderCache instanceof ConcurrentMap) {
-			// No synchronization necessary...
-			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
+		if (this.sharedMetadataReaderCache != null) {
+			MetadataReader metadataReader = this.sharedMetadataReaderCache.get(resource);
 			if (metadataReader == null) {
 				metadataReader = super.getMetadataReader(resource);
-				this.metadataReaderCache.put(resource, metadataReader);
+				this.sharedMetadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
 		}
-		else if (this.metadataReaderCache != null) {
-			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
-				}
-				return metadataReader;
+		else if (this.localMetadataReaderCache != null) {
+			MetadataReader metadataReader = this.localMetadataReaderCache.getIfPresent(resource);
+			if (metadataReader == null) {
+				// No lock held, allowing for concurrent reading of different classes
+				metadataReader = this.localMetadataReaderCache.put(resource, super.getMetadataReader(resource));
 			}
+			return metadataReader;
 		}
 		else {
 			return super.getMetadataReader(resource);
@@ -144,40 +156,13 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
 	 */
 	public void clearCache() {
-		if (this.metadataReaderCache instanceof LocalResourceCache) {
-			synchronized (this.metadataReaderCache) {
-				this.metadataReaderCache.clear();
-			}
+		if (this.localMetadataReaderCache != null) {
+			this.localMetadataReaderCache.clear();
 		}
-		else if (this.metadataReaderCache != null) {
+		else if (this.sharedMetadataReaderCache != null) {
 			// Shared resource cache -> reset to local cache.
 			setCacheLimit(DEFAULT_CACHE_LIMIT);
 		}
 	}
 
-
-	@SuppressWarnings("serial")
-	private static class LocalResourceCache extends LinkedHashMap<Resource, MetadataReader> {
-
-		private volatile int cacheLimit;
-
-		public LocalResourceCache(int cacheLimit) {
-			super(cacheLimit, 0.75f, true);
-			this.cacheLimit = cacheLimit;
-		}
-
-		public void setCacheLimit(int cacheLimit) {
-			this.cacheLimit = cacheLimit;
-		}
-
-		public int getCacheLimit() {
-			return this.cacheLimit;
-		}
-
-		@Override
-		protected boolean removeEldestEntry(Map.Entry<Resource, MetadataReader> eldest) {
-			return size() > this.cacheLimit;
-		}
-	}
-
 }
@@ -0,0 +1,640 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Extension of {@link CachingMetadataReaderFactory} which additionally persists
+ * the class metadata that it reads in a compact binary cache file, allowing
+ * subsequent runs against the same classes to skip ASM class file parsing.
+ *
+ * <p>Entries are keyed by the URL of the ".class" resource and validated against
+ * its content length and last-modified timestamp, or against a hash of its content
+ * if the resource does not expose a timestamp. Entries for changed classes are
+ * replaced once the class is read again; metadata which cannot be restored from
+ * the cache file (e.g. since an annotation type is not resolvable anymore) is
+ * read from the class file instead.
+ *
+ * <p>Newly read metadata is written to the cache file on {@link #clearCache()},
+ * as called by configuration class processing and component scanning once they
+ * are done with the factory, or explicitly through {@link #writeCacheFile()}.
+ *
+ * @since 5.2
+ */
+public class PersistentMetadataReaderFactory extends CachingMetadataReaderFactory {
+
+	private static final int MAGIC = 0x534d4443;
+
+	private static final int VERSION = 1;
+
+	private static final byte STRING_VALUE = 1;
+
+	private static final byte BOOLEAN_VALUE = 2;
+
+	private static final byte BYTE_VALUE = 3;
+
+	private static final byte CHAR_VALUE = 4;
+
+	private static final byte SHORT_VALUE = 5;
+
+	private static final byte INTEGER_VALUE = 6;
+
+	private static final byte LONG_VALUE = 7;
+
+	private static final byte FLOAT_VALUE = 8;
+
+	private static final byte DOUBLE_VALUE = 9;
+
+	private static final byte ENUM_VALUE = 10;
+
+	private static final byte ANNOTATION_VALUE = 11;
+
+	private static final byte ARRAY_VALUE = 12;
+
+	private static final Log logger = LogFactory.getLog(PersistentMetadataReaderFactory.class);
+
+
+	private final File cacheFile;
+
+	@Nullable
+	private volatile Map<String, CacheEntry> cacheEntries;
+
+	private volatile boolean modified;
+
+	private final Object cacheMonitor = new Object();
+
+
+	/**
+	 * Create a new PersistentMetadataReaderFactory for the default class loader.
+	 * @param cacheFile the file to read and write cached metadata from and to
+	 */
+	public PersistentMetadataReaderFactory(File cacheFile) {
+		super();
+		Assert.notNull(cacheFile, "Cache file must not be null");
+		this.cacheFile = cacheFile;
+	}
+
+	/**
+	 * Create a new PersistentMetadataReaderFactory for the given {@link ClassLoader}.
+	 * @param classLoader the ClassLoader to use
+	 * @param cacheFile the file to read and write cached metadata from and to
+	 */
+	public PersistentMetadataReaderFactory(@Nullable ClassLoader classLoader, File cacheFile) {
+		super(classLoader);
+		Assert.notNull(cacheFile, "Cache file must not be null");
+		this.cacheFile = cacheFile;
+	}
+
+	/**
+	 * Create a new PersistentMetadataReaderFactory for the given {@link ResourceLoader}.
+	 * @param resourceLoader the Spring ResourceLoader to use
+	 * (also determines the ClassLoader to use)
+	 * @param cacheFile the file to read and write cached metadata from and to
+	 */
+	public PersistentMetadataReaderFactory(@Nullable ResourceLoader resourceLoader, File cacheFile) {
+		super(resourceLoader);
+		Assert.notNull(cacheFile, "Cache file must not be null");
+		this.cacheFile = cacheFile;
+	}
+
+
+	/**
+	 * Return the file that cached metadata is read from and written to.
+	 */
+	public final File getCacheFile() {
+		return this.cacheFile;
+	}
+
+	@Override
+	public MetadataReader getMetadataReader(Resource resource) throws IOException {
+		String key = getCacheKey(resource);
+		if (key == null) {
+			return super.getMetadataReader(resource);
+		}
+		long contentLength = resource.contentLength();
+		long lastModified = getLastModified(resource);
+		int hash = (lastModified != 0 ? 0 : getContentHash(resource));
+
+		Map<String, CacheEntry> cacheEntries = getCacheEntries();
+		CacheEntry entry = cacheEntries.get(key);
+		if (entry != null && entry.matches(contentLength, lastModified, hash)) {
+			AnnotationMetadata metadata = entry.getMetadata(getResourceLoader().getClassLoader());
+			if (metadata != null) {
+				return new SimpleMetadataReader(resource, metadata);
+			}
+		}
+
+		MetadataReader metadataReader = super.getMetadataReader(resource);
+		AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+		byte[] content = encode(metadata);
+		if (content != null) {
+			cacheEntries.put(key, new CacheEntry(contentLength, lastModified, hash, content, metadata));
+			this.modified = true;
+		}
+		return metadataReader;
+	}
+
+	/**
+	 * Write the cache file if metadata has been read from class files since
+	 * the cache file has been read or written, replacing any previous content.
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeCacheFile() throws IOException {
+		synchronized (this.cacheMonitor) {
+			Map<String, CacheEntry> cacheEntries = this.cacheEntries;
+			if (cacheEntries == null || !this.modified) {
+				return;
+			}
+			this.modified = false;
+			ByteArrayOutputStream content = new ByteArrayOutputStream(16384);
+			DataOutputStream out = new DataOutputStream(content);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			List<Map.Entry<String, CacheEntry>> entries = new ArrayList<>(cacheEntries.entrySet());
+			out.writeInt(entries.size());
+			for (Map.Entry<String, CacheEntry> entry : entries) {
+				CacheEntry cacheEntry = entry.getValue();
+				out.writeUTF(entry.getKey());
+				out.writeLong(cacheEntry.contentLength);
+				out.writeLong(cacheEntry.lastModified);
+				out.writeInt(cacheEntry.hash);
+				out.writeInt(cacheEntry.content.length);
+				out.write(cacheEntry.content);
+			}
+			out.flush();
+
+			// Write to a temporary file first, not leaving a partial cache file behind
+			File target = this.cacheFile.getAbsoluteFile();
+			File parent = target.getParentFile();
+			if (parent != null && !parent.exists() && !parent.mkdirs()) {
+				throw new IOException("Could not create directory " + parent);
+			}
+			File tempFile = File.createTempFile(target.getName(), ".tmp", parent);
+			try {
+				try (OutputStream os = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+					content.writeTo(os);
+				}
+				Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			finally {
+				Files.deleteIfExists(tempFile.toPath());
+			}
+		}
+	}
+
+	/**
+	 * Write any newly read metadata to the cache file, then clear all cached
+	 * class metadata held in memory. The cache file will be read again on demand.
+	 * @see #writeCacheFile()
+	 */
+	@Override
+	public void clearCache() {
+		try {
+			writeCacheFile();
+		}
+		catch (IOException ex) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Could not write metadata cache file " + this.cacheFile, ex);
+			}
+		}
+		synchronized (this.cacheMonitor) {
+			this.cacheEntries = null;
+			this.modified = false;
+		}
+		super.clearCache();
+	}
+
+
+	private Map<String, CacheEntry> getCacheEntries() {
+		Map<String, CacheEntry> cacheEntries = this.cacheEntries;
+		if (cacheEntries == null) {
+			synchronized (this.cacheMonitor) {
+				cacheEntries = this.cacheEntries;
+				if (cacheEntries == null) {
+					cacheEntries = readCacheFile();
+					this.cacheEntries = cacheEntries;
+				}
+			}
+		}
+		return cacheEntries;
+	}
+
+	private Map<String, CacheEntry> readCacheFile() {
+		Map<String, CacheEntry> cacheEntries = new ConcurrentHashMap<>(256);
+		if (!this.cacheFile.isFile()) {
+			return cacheEntries;
+		}
+		try (InputStream is = new BufferedInputStream(new FileInputStream(this.cacheFile))) {
+			DataInputStream in = new DataInputStream(is);
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return cacheEntries;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = in.readUTF();
+				long contentLength = in.readLong();
+				long lastModified = in.readLong();
+				int hash = in.readInt();
+				byte[] content = new byte[in.readInt()];
+				in.readFully(content);
+				cacheEntries.put(key, new CacheEntry(contentLength, lastModified, hash, content, null));
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring unreadable metadata cache file " + this.cacheFile, ex);
+			}
+			cacheEntries.clear();
+		}
+		return cacheEntries;
+	}
+
+	@Nullable
+	private static String getCacheKey(Resource resource) {
+		try {
+			return resource.getURL().toString();
+		}
+		catch (IOException ex) {
+			// Not backed by a URL, e.g. an in-memory resource -> not persistable
+			return null;
+		}
+	}
+
+	private static long getLastModified(Resource resource) {
+		try {
+			return resource.lastModified();
+		}
+		catch (IOException ex) {
+			return 0;
+		}
+	}
+
+	private static int getContentHash(Resource resource) throws IOException {
+		CRC32 crc = new CRC32();
+		try (InputStream is = resource.getInputStream()) {
+			crc.update(StreamUtils.copyToByteArray(is));
+		}
+		return (int) crc.getValue();
+	}
+
+
+	@Nullable
+	private static byte[] encode(AnnotationMetadata annotationMetadata) {
+		if (!(annotationMetadata instanceof SimpleAnnotationMetadata)) {
+			return null;
+		}
+		SimpleAnnotationMetadata metadata = (SimpleAnnotationMetadata) annotationMetadata;
+		try {
+			ByteArrayOutputStream content = new ByteArrayOutputStream(256);
+			DataOutputStream out = new DataOutputStream(content);
+			out.writeUTF(metadata.getClassName());
+			out.writeInt(metadata.getAccess());
+			writeNullableString(out, metadata.getEnclosingClassName());
+			writeNullableString(out, metadata.getSuperClassName());
+			out.writeBoolean(metadata.isIndependent());
+			writeStrings(out, metadata.getInterfaceNames());
+			writeStrings(out, metadata.getMemberClassNames());
+			writeAnnotations(out, metadata.getAnnotations());
+			MethodMetadata[] annotatedMethods = metadata.getDeclaredAnnotatedMethods();
+			out.writeInt(annotatedMethods.length);
+			for (MethodMetadata annotatedMethod : annotatedMethods) {
+				if (!(annotatedMethod instanceof SimpleMethodMetadata)) {
+					return null;
+				}
+				SimpleMethodMetadata method = (SimpleMethodMetadata) annotatedMethod;
+				out.writeUTF(method.getMethodName());
+				out.writeInt(method.getAccess());
+				out.writeUTF(method.getReturnTypeName());
+				out.writeUTF(((SimpleMethodMetadataReadingVisitor.Source) method.getSource()).getDescriptor());
+				writeAnnotations(out, method.getAnnotations());
+			}
+			out.flush();
+			return content.toByteArray();
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Not caching metadata for class " + metadata.getClassName(), ex);
+			}
+			return null;
+		}
+	}
+
+	private static AnnotationMetadata decode(byte[] content, @Nullable ClassLoader classLoader)
+			throws IOException, ClassNotFoundException {
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+		String className = in.readUTF();
+		int access = in.readInt();
+		String enclosingClassName = readNullableString(in);
+		String superClassName = readNullableString(in);
+		boolean independentInnerClass = in.readBoolean();
+		String[] interfaceNames = readStrings(in);
+		String[] memberClassNames = readStrings(in);
+		MergedAnnotations annotations = readAnnotations(in, classLoader,
+				new SimpleAnnotationMetadataReadingVisitor.Source(className));
+		MethodMetadata[] annotatedMethods = new MethodMetadata[in.readInt()];
+		for (int i = 0; i < annotatedMethods.length; i++) {
+			String methodName = in.readUTF();
+			int methodAccess = in.readInt();
+			String returnTypeName = in.readUTF();
+			Object source = new SimpleMethodMetadataReadingVisitor.Source(className, methodName, in.readUTF());
+			annotatedMethods[i] = new SimpleMethodMetadata(methodName, methodAccess, className,
+					returnTypeName, source, readAnnotations(in, classLoader, source));
+		}
+		return new SimpleAnnotationMetadata(className, access, enclosingClassName, superClassName,
+				independentInnerClass, interfaceNames, memberClassNames, annotatedMethods, annotations);
+	}
+
+	private static void writeAnnotations(DataOutputStream out, MergedAnnotations annotations) throws IOException {
+		List<MergedAnnotation<Annotation>> directAnnotations = annotations.stream()
+				.filter(MergedAnnotation::isDirectlyPresent).collect(Collectors.toList());
+		out.writeInt(directAnnotations.size());
+		for (MergedAnnotation<Annotation> annotation : directAnnotations) {
+			writeAnnotation(out, annotation);
+		}
+	}
+
+	private static MergedAnnotations readAnnotations(DataInputStream in, @Nullable ClassLoader classLoader,
+			Object source) throws IOException, ClassNotFoundException {
+
+		int count = in.readInt();
+		List<MergedAnnotation<?>> annotations = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			annotations.add(readAnnotation(in, classLoader, source));
+		}
+		return MergedAnnotations.of(annotations);
+	}
+
+	private static void writeAnnotation(DataOutputStream out, MergedAnnotation<?> annotation) throws IOException {
+		Class<? extends Annotation> annotationType = annotation.getType();
+		List<Method> attributes = new ArrayList<>();
+		for (Method method : annotationType.getDeclaredMethods()) {
+			if (method.getParameterCount() == 0 && method.getReturnType() != void.class &&
+					!method.isSynthetic() && !Modifier.isStatic(method.getModifiers())) {
+				attributes.add(method);
+			}
+		}
+		out.writeUTF(annotationType.getName());
+		out.writeInt(attributes.size());
+		for (Method attribute : attributes) {
+			// Keep class references as names, just like the ASM-based visitor does
+			Class<?> attributeType = attribute.getReturnType();
+			Class<?> valueType = (attributeType == Class.class ? String.class :
+					attributeType == Class[].class ? String[].class : Object.class);
+			Object value = annotation.getValue(attribute.getName(), valueType).orElseThrow(() ->
+					new NotSerializableException("No value for attribute '" + attribute.getName() + "'"));
+			out.writeUTF(attribute.getName());
+			writeValue(out, value);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MergedAnnotation<?> readAnnotation(DataInputStream in, @Nullable ClassLoader classLoader,
+			Object source) throws IOException, ClassNotFoundException {
+
+		Class<? extends Annotation> annotationType =
+				(Class<? extends Annotation>) ClassUtils.forName(in.readUTF(), classLoader);
+		int count = in.readInt();
+		Map<String, Object> attributes = new LinkedHashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			String name = in.readUTF();
+			attributes.put(name, readValue(in, classLoader, source));
+		}
+		return MergedAnnotation.of(classLoader, source, annotationType, attributes);
+	}
+
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value instanceof String) {
+			out.writeByte(STRING_VALUE);
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN_VALUE);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte(BYTE_VALUE);
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeByte(CHAR_VALUE);
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte(SHORT_VALUE);
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(INTEGER_VALUE);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(LONG_VALUE);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte(FLOAT_VALUE);
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte(DOUBLE_VALUE);
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof Enum) {
+			Enum<?> enumValue = (Enum<?>) value;
+			out.writeByte(ENUM_VALUE);
+			out.writeUTF(enumValue.getDeclaringClass().getName());
+			out.writeUTF(enumValue.name());
+		}
+		else if (value instanceof MergedAnnotation) {
+			out.writeByte(ANNOTATION_VALUE);
+			writeAnnotation(out, (MergedAnnotation<?>) value);
+		}
+		else if (value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			out.writeByte(ARRAY_VALUE);
+			out.writeUTF(value.getClass().getComponentType().getName());
+			out.writeInt(length);
+			for (int i = 0; i < length; i++) {
+				writeValue(out, Array.get(value, i));
+			}
+		}
+		else {
+			throw new NotSerializableException("Unsupported annotation attribute value of type " +
+					value.getClass().getName());
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object readValue(DataInputStream in, @Nullable ClassLoader classLoader, Object source)
+			throws IOException, ClassNotFoundException {
+
+		byte tag = in.readByte();
+		switch (tag) {
+			case STRING_VALUE:
+				return in.readUTF();
+			case BOOLEAN_VALUE:
+				return in.readBoolean();
+			case BYTE_VALUE:
+				return in.readByte();
+			case CHAR_VALUE:
+				return in.readChar();
+			case SHORT_VALUE:
+				return in.readShort();
+			case INTEGER_VALUE:
+				return in.readInt();
+			case LONG_VALUE:
+				return in.readLong();
+			case FLOAT_VALUE:
+				return in.readFloat();
+			case DOUBLE_VALUE:
+				return in.readDouble();
+			case ENUM_VALUE:
+				Class<? extends Enum> enumType = (Class<? extends Enum>) ClassUtils.forName(in.readUTF(), classLoader);
+				return Enum.valueOf(enumType, in.readUTF());
+			case ANNOTATION_VALUE:
+				return readAnnotation(in, classLoader, source);
+			case ARRAY_VALUE:
+				Class<?> componentType = ClassUtils.forName(in.readUTF(), classLoader);
+				Object array = Array.newInstance(componentType, in.readInt());
+				for (int i = 0; i < Array.getLength(array); i++) {
+					Array.set(array, i, readValue(in, classLoader, source));
+				}
+				return array;
+			default:
+				throw new IOException("Unexpected annotation attribute value tag " + tag);
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+		out.writeInt(values.length);
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String[] readStrings(DataInputStream in) throws IOException {
+		String[] values = new String[in.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = in.readUTF();
+		}
+		return values;
+	}
+
+
+	/**
+	 * Cached metadata for a class file, decoded on first access.
+	 */
+	private static final class CacheEntry {
+
+		final long contentLength;
+
+		final long lastModified;
+
+		final int hash;
+
+		final byte[] content;
+
+		@Nullable
+		private volatile AnnotationMetadata metadata;
+
+		CacheEntry(long contentLength, long lastModified, int hash, byte[] content,
+				@Nullable AnnotationMetadata metadata) {
+
+			this.contentLength = contentLength;
+			this.lastModified = lastModified;
+			this.hash = hash;
+			this.content = content;
+			this.metadata = metadata;
+		}
+
+		boolean matches(long contentLength, long lastModified, int hash) {
+			return (this.contentLength == contentLength && this.lastModified == lastModified &&
+					this.hash == hash);
+		}
+
+		@Nullable
+		AnnotationMetadata getMetadata(@Nullable ClassLoader classLoader) {
+			AnnotationMetadata metadata = this.metadata;
+			if (metadata == null) {
+				try {
+					metadata = decode(this.content, classLoader);
+					this.metadata = metadata;
+				}
+				catch (IOException | ClassNotFoundException | LinkageError | RuntimeException ex) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Could not restore cached class metadata - reading class file instead", ex);
+					}
+				}
+			}
+			return metadata;
+		}
+	}
+
+}
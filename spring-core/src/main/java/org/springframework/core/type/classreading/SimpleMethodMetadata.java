@@ -37,16 +37,19 @@ final class SimpleMethodMetadata implements MethodMetadata {
 
 	private final String returnTypeName;
 
+	private final Object source;
+
 	private final MergedAnnotations annotations;
 
 
 	public SimpleMethodMetadata(String methodName, int access, String declaringClassName,
-			String returnTypeName, MergedAnnotations annotations) {
+			String returnTypeName, Object source, MergedAnnotations annotations) {
 
 		this.methodName = methodName;
 		this.access = access;
 		this.declaringClassName = declaringClassName;
 		this.returnTypeName = returnTypeName;
+		this.source = source;
 		this.annotations = annotations;
 	}
 
@@ -95,4 +98,12 @@ final class SimpleMethodMetadata implements MethodMetadata {
 		return this.annotations;
 	}
 
+	int getAccess() {
+		return this.access;
+	}
+
+	Object getSource() {
+		return this.source;
+	}
+
 }
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Simple bounded cache for concurrent use, evicting entries in approximate
+ * least-recently-used order once its size limit is exceeded, and keeping
+ * track of its hits, misses and evictions.
+ *
+ * <p>Cache hits do not require any locking: they merely mark the entry as
+ * recently used. Entries are kept in insertion order for eviction, giving
+ * recently used entries a second chance before they get evicted (also known
+ * as the "clock" algorithm). Only the registration of new entries in the
+ * eviction queue and the eviction itself are serialized.
+ *
+ * <p>Values may either be provided through {@link #put} or be generated on
+ * demand through a generator function specified at construction time, in
+ * which case {@link #get} computes missing values. Neither keys nor values
+ * may be {@code null}.
+ *
+ * @since 5.2
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private final ConcurrentHashMap<K, Entry<K, V>> cache;
+
+	private final ConcurrentLinkedQueue<Entry<K, V>> evictionQueue = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger evictionQueueSize = new AtomicInteger();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	@Nullable
+	private final Function<K, V> generator;
+
+	private volatile int sizeLimit;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	/**
+	 * Create a new cache instance with the given size limit, with values
+	 * to be provided through {@link #put}.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 */
+	public ConcurrentLruCache(int sizeLimit) {
+		this(sizeLimit, null);
+	}
+
+	/**
+	 * Create a new cache instance with the given size limit and generator function.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * @param generator a function to generate a new value for a given key
+	 * on {@link #get}, or {@code null} for values to be provided through {@link #put}
+	 */
+	public ConcurrentLruCache(int sizeLimit, @Nullable Function<K, V> generator) {
+		Assert.isTrue(sizeLimit > 0, "Cache size limit must be positive");
+		this.cache = new ConcurrentHashMap<>(Math.min(sizeLimit, 1024));
+		this.generator = generator;
+		this.sizeLimit = sizeLimit;
+	}
+
+
+	/**
+	 * Retrieve an entry from the cache, generating its value if necessary.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached or newly generated value
+	 * @throws IllegalStateException if no generator function has been specified
+	 */
+	public V get(K key) {
+		V value = getIfPresent(key);
+		if (value == null) {
+			Assert.state(this.generator != null, "No generator function specified");
+			value = put(key, this.generator.apply(key));
+		}
+		return value;
+	}
+
+	/**
+	 * Retrieve an entry from the cache without generating its value.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached value, or {@code null} if none
+	 */
+	@Nullable
+	public V getIfPresent(K key) {
+		Entry<K, V> entry = this.cache.get(key);
+		V value = (entry != null ? entry.value : null);
+		if (value == null) {
+			this.missCount.increment();
+			return null;
+		}
+		if (!entry.accessed) {
+			entry.accessed = true;
+		}
+		this.hitCount.increment();
+		return value;
+	}
+
+	/**
+	 * Add an entry to the cache, evicting other entries if its size limit
+	 * is exceeded. An existing entry for the same key is retained.
+	 * @param key the key of the entry
+	 * @param value the value to cache
+	 * @return the cached value: the given value or the value of an
+	 * existing entry for the same key
+	 */
+	public V put(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		Entry<K, V> entry = new Entry<>(key, value);
+		Entry<K, V> existing;
+		while ((existing = this.cache.putIfAbsent(key, entry)) != null) {
+			V existingValue = existing.value;
+			if (existingValue != null) {
+				return existingValue;
+			}
+			// Existing entry concurrently removed: replace it
+			this.cache.remove(key, existing);
+		}
+		int queueSize;
+		this.evictionLock.lock();
+		try {
+			if (this.cache.get(key) != entry) {
+				// Concurrently removed or cleared: nothing left to evict
+				entry.removed = true;
+				return value;
+			}
+			this.evictionQueue.add(entry);
+			queueSize = this.evictionQueueSize.incrementAndGet();
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+		if (queueSize > this.sizeLimit) {
+			evictEntries();
+		}
+		return value;
+	}
+
+	/**
+	 * Determine whether the given key is present in this cache.
+	 * @param key the key to check for
+	 * @return {@code true} if the key is present, {@code false} if there was no matching key
+	 */
+	public boolean contains(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Immediately remove the given key and any associated value.
+	 * @param key the key to evict the entry for
+	 * @return the removed value, or {@code null} if there was no matching key
+	 */
+	@Nullable
+	public V remove(K key) {
+		Entry<K, V> entry = this.cache.remove(key);
+		if (entry == null) {
+			return null;
+		}
+		// The entry stays in the eviction queue until the next eviction pass:
+		// release its value right away.
+		V value = entry.value;
+		entry.removed = true;
+		entry.value = null;
+		return value;
+	}
+
+	/**
+	 * Immediately remove all entries from this cache.
+	 * <p>Entries added concurrently may or may not be retained.
+	 * Statistics are retained.
+	 */
+	public void clear() {
+		this.evictionLock.lock();
+		try {
+			this.cache.values().forEach(entry -> {
+				entry.removed = true;
+				entry.value = null;
+			});
+			this.cache.clear();
+			this.evictionQueue.clear();
+			this.evictionQueueSize.set(0);
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Change the maximum number of entries in this cache, evicting
+	 * entries if necessary.
+	 * @param sizeLimit the new size limit
+	 */
+	public void setSizeLimit(int sizeLimit) {
+		Assert.isTrue(sizeLimit > 0, "Cache size limit must be positive");
+		this.sizeLimit = sizeLimit;
+		evictEntries();
+	}
+
+	/**
+	 * Return the maximum number of entries in this cache.
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+	/**
+	 * Return the current number of entries in this cache.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the number of lookups that found a cached value.
+	 */
+	public long hitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups that did not find a cached value.
+	 */
+	public long missCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries evicted because of the size limit.
+	 */
+	public long evictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	private void evictEntries() {
+		this.evictionLock.lock();
+		try {
+			// Every entry gets a second chance at most once per pass through the queue
+			int remainingPolls = 2 * this.evictionQueueSize.get() + 1;
+			while (this.evictionQueueSize.get() > this.sizeLimit && remainingPolls-- > 0) {
+				Entry<K, V> entry = this.evictionQueue.poll();
+				if (entry == null) {
+					break;
+				}
+				if (entry.removed) {
+					this.evictionQueueSize.decrementAndGet();
+				}
+				else if (this.cache.size() <= this.sizeLimit) {
+					// Not over the limit: just dropping removed entries from the queue
+					this.evictionQueue.add(entry);
+				}
+				else if (entry.accessed) {
+					entry.accessed = false;
+					this.evictionQueue.add(entry);
+				}
+				else {
+					this.evictionQueueSize.decrementAndGet();
+					entry.removed = true;
+					if (this.cache.remove(entry.key, entry)) {
+						this.evictionCount.increment();
+					}
+					entry.value = null;
+				}
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrentLruCache [size=" + size() + ", sizeLimit=" + this.sizeLimit +
+				", hits=" + hitCount() + ", misses=" + missCount() + ", evictions=" + evictionCount() + "]";
+	}
+
+
+	private static final class Entry<K, V> {
+
+		final K key;
+
+		@Nullable
+		volatile V value;
+
+		volatile boolean accessed;
+
+		volatile boolean removed;
+
+		Entry(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+}
@@ -0,0 +1,888 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
+
+/**
+ * A {@link ConcurrentMap} variant of {@link ConcurrentReferenceHashMap} that uses
+ * the same {@link ReferenceType#SOFT soft} or {@linkplain ReferenceType#WEAK weak}
+ * references for its entries, but never locks for reads and applies updates
+ * through compare-and-set operations on the affected hash bin instead of
+ * locking a segment.
+ *
+ * <p>Hash bins hold immutable chains of entry references: an update either
+ * prepends a new reference or replaces the chain with a copy, while values of
+ * existing entries are updated in place. Only resizing the table is serialized
+ * between threads; concurrent updates to bins that have already been transferred
+ * are redirected to the new table. As with {@link ConcurrentReferenceHashMap},
+ * {@code null} keys and {@code null} values are supported, and garbage collected
+ * entries are purged on subsequent updates or on
+ * {@link #purgeUnreferencedEntries()}.
+ *
+ * <p><b>NOTE:</b> The use of references means that there is no guarantee that items
+ * placed into the map will be subsequently available. The garbage collector may discard
+ * references at any time, so it may appear that an unknown thread is silently removing
+ * entries.
+ *
+ * @since 5.2
+ * @param <K> the key type
+ * @param <V> the value type
+ * @see ConcurrentReferenceHashMap
+ */
+public class LockFreeReferenceHashMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	private static final ReferenceType DEFAULT_REFERENCE_TYPE = ReferenceType.SOFT;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+
+	private final float loadFactor;
+
+	private final ReferenceType referenceType;
+
+	private final ReferenceQueue<Entry<K, V>> queue = new ReferenceQueue<>();
+
+	/**
+	 * The total number of references contained in the table. This includes
+	 * references that have been garbage collected but not purged.
+	 */
+	private final LongAdder count = new LongAdder();
+
+	private final ReentrantLock resizeLock = new ReentrantLock();
+
+	private volatile AtomicReferenceArray<Object> table;
+
+	/**
+	 * Late binding entry set.
+	 */
+	@Nullable
+	private volatile Set<Map.Entry<K, V>> entrySet;
+
+
+	/**
+	 * Create a new {@code LockFreeReferenceHashMap} instance.
+	 */
+	public LockFreeReferenceHashMap() {
+		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_REFERENCE_TYPE);
+	}
+
+	/**
+	 * Create a new {@code LockFreeReferenceHashMap} instance.
+	 * @param initialCapacity the initial capacity of the map
+	 */
+	public LockFreeReferenceHashMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, DEFAULT_REFERENCE_TYPE);
+	}
+
+	/**
+	 * Create a new {@code LockFreeReferenceHashMap} instance.
+	 * @param initialCapacity the initial capacity of the map
+	 * @param referenceType the reference type used for entries (soft or weak)
+	 */
+	public LockFreeReferenceHashMap(int initialCapacity, ReferenceType referenceType) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, referenceType);
+	}
+
+	/**
+	 * Create a new {@code LockFreeReferenceHashMap} instance.
+	 * @param initialCapacity the initial capacity of the map
+	 * @param loadFactor the load factor. When the average number of references per
+	 * bin exceeds this value, resize will be attempted.
+	 * @param referenceType the reference type used for entries (soft or weak)
+	 */
+	public LockFreeReferenceHashMap(int initialCapacity, float loadFactor, ReferenceType referenceType) {
+		Assert.isTrue(initialCapacity >= 0, "Initial capacity must not be negative");
+		Assert.isTrue(loadFactor > 0f, "Load factor must be positive");
+		Assert.notNull(referenceType, "Reference type must not be null");
+		this.loadFactor = loadFactor;
+		this.referenceType = referenceType;
+		int capacity = 1;
+		while (capacity < initialCapacity && capacity < MAXIMUM_CAPACITY) {
+			capacity <<= 1;
+		}
+		this.table = new AtomicReferenceArray<>(capacity);
+	}
+
+
+	/**
+	 * Get the hash for a given object, applying the same additional hash function
+	 * as {@link ConcurrentReferenceHashMap#getHash} to reduce collisions.
+	 * @param o the object to hash (may be null)
+	 * @return the resulting hash code
+	 */
+	protected int getHash(@Nullable Object o) {
+		int hash = (o != null ? o.hashCode() : 0);
+		hash += (hash << 15) ^ 0xffffcd7d;
+		hash ^= (hash >>> 10);
+		hash += (hash << 3);
+		hash ^= (hash >>> 6);
+		hash += (hash << 2) + (hash << 14);
+		hash ^= (hash >>> 16);
+		return hash;
+	}
+
+	@Override
+	@Nullable
+	public V get(@Nullable Object key) {
+		Entry<K, V> entry = findEntry(key, getHash(key));
+		return (entry != null ? entry.getValue() : null);
+	}
+
+	@Override
+	@Nullable
+	public V getOrDefault(@Nullable Object key, @Nullable V defaultValue) {
+		Entry<K, V> entry = findEntry(key, getHash(key));
+		return (entry != null ? entry.getValue() : defaultValue);
+	}
+
+	@Override
+	public boolean containsKey(@Nullable Object key) {
+		return (findEntry(key, getHash(key)) != null);
+	}
+
+	@Override
+	@Nullable
+	public V put(@Nullable K key, @Nullable V value) {
+		return put(key, value, true);
+	}
+
+	@Override
+	@Nullable
+	public V putIfAbsent(@Nullable K key, @Nullable V value) {
+		return put(key, value, false);
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private V put(@Nullable K key, @Nullable V value, boolean overwriteExisting) {
+		purgeUnreferencedEntries();
+		int hash = getHash(key);
+		AtomicReferenceArray<Object> tab = this.table;
+		while (true) {
+			int index = getIndex(hash, tab);
+			Object head = tab.get(index);
+			if (head instanceof ForwardingNode) {
+				tab = ((ForwardingNode) head).nextTable;
+				continue;
+			}
+			Entry<K, V> entry = findInChain(head, key, hash);
+			if (entry != null) {
+				Object previous = (overwriteExisting ? entry.updateValue(value) : entry.value);
+				if (!(previous instanceof Removed)) {
+					return (V) previous;
+				}
+				// Entry concurrently removed: retry
+				continue;
+			}
+			Reference<K, V> ref = createReference(new Entry<>(key, value), hash, (Reference<K, V>) head);
+			if (tab.compareAndSet(index, head, ref)) {
+				this.count.increment();
+				resizeIfNecessary(tab);
+				return null;
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public V remove(@Nullable Object key) {
+		purgeUnreferencedEntries();
+		int hash = getHash(key);
+		while (true) {
+			Entry<K, V> entry = findEntry(key, hash);
+			if (entry == null) {
+				return null;
+			}
+			Boolean removed = entry.markRemoved(false, null);
+			if (removed != null) {
+				unlink(entry, hash);
+				return entry.getValue();
+			}
+		}
+	}
+
+	@Override
+	public boolean remove(@Nullable Object key, @Nullable Object value) {
+		purgeUnreferencedEntries();
+		int hash = getHash(key);
+		while (true) {
+			Entry<K, V> entry = findEntry(key, hash);
+			if (entry == null) {
+				return false;
+			}
+			Boolean removed = entry.markRemoved(true, value);
+			if (removed != null) {
+				if (removed) {
+					unlink(entry, hash);
+				}
+				return removed;
+			}
+		}
+	}
+
+	@Override
+	public boolean replace(@Nullable K key, @Nullable V oldValue, @Nullable V newValue) {
+		int hash = getHash(key);
+		while (true) {
+			Entry<K, V> entry = findEntry(key, hash);
+			if (entry == null) {
+				return false;
+			}
+			Boolean replaced = entry.replaceValue(oldValue, newValue);
+			if (replaced != null) {
+				return replaced;
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V replace(@Nullable K key, @Nullable V value) {
+		int hash = getHash(key);
+		while (true) {
+			Entry<K, V> entry = findEntry(key, hash);
+			if (entry == null) {
+				return null;
+			}
+			Object previous = entry.updateValue(value);
+			if (!(previous instanceof Removed)) {
+				return (V) previous;
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		this.resizeLock.lock();
+		try {
+			AtomicReferenceArray<Object> tab = this.table;
+			for (int i = 0; i < tab.length(); i++) {
+				while (true) {
+					Object head = tab.get(i);
+					if (head == null) {
+						break;
+					}
+					if (tab.compareAndSet(i, head, null)) {
+						int removed = 0;
+						for (Reference<K, V> ref = castReference(head); ref != null; ref = ref.getNext()) {
+							removed++;
+						}
+						this.count.add(-removed);
+						break;
+					}
+				}
+			}
+		}
+		finally {
+			this.resizeLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove any entries that have been garbage collected and are no longer referenced.
+	 * Under normal circumstances garbage collected entries are automatically purged as
+	 * items are added or removed from the Map. This method can be used to force a purge,
+	 * and is useful when the Map is read frequently but updated less often.
+	 */
+	@SuppressWarnings("unchecked")
+	public void purgeUnreferencedEntries() {
+		Reference<K, V> ref = (Reference<K, V>) this.queue.poll();
+		while (ref != null) {
+			int hash = ref.getHash();
+			AtomicReferenceArray<Object> tab = this.table;
+			while (true) {
+				int index = getIndex(hash, tab);
+				Object head = tab.get(index);
+				if (head instanceof ForwardingNode) {
+					tab = ((ForwardingNode) head).nextTable;
+				}
+				else if (replaceChain(tab, index, head, null)) {
+					break;
+				}
+			}
+			ref = (Reference<K, V>) this.queue.poll();
+		}
+	}
+
+	@Override
+	public int size() {
+		long size = this.count.sum();
+		return (size < 0 ? 0 : size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (this.count.sum() <= 0);
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> entrySet = this.entrySet;
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+			this.entrySet = entrySet;
+		}
+		return entrySet;
+	}
+
+	@Nullable
+	private Entry<K, V> findEntry(@Nullable Object key, int hash) {
+		AtomicReferenceArray<Object> tab = this.table;
+		while (true) {
+			Object head = tab.get(getIndex(hash, tab));
+			if (head instanceof ForwardingNode) {
+				tab = ((ForwardingNode) head).nextTable;
+			}
+			else {
+				return findInChain(head, key, hash);
+			}
+		}
+	}
+
+	@Nullable
+	private Entry<K, V> findInChain(@Nullable Object head, @Nullable Object key, int hash) {
+		for (Reference<K, V> ref = castReference(head); ref != null; ref = ref.getNext()) {
+			if (ref.getHash() == hash) {
+				Entry<K, V> entry = ref.get();
+				if (entry != null && !entry.isRemoved() && ObjectUtils.nullSafeEquals(entry.getKey(), key)) {
+					return entry;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Unlink the given entry, which has been marked as removed, from its chain.
+	 */
+	private void unlink(Entry<K, V> entry, int hash) {
+		AtomicReferenceArray<Object> tab = this.table;
+		while (true) {
+			int index = getIndex(hash, tab);
+			Object head = tab.get(index);
+			if (head instanceof ForwardingNode) {
+				tab = ((ForwardingNode) head).nextTable;
+			}
+			else if (replaceChain(tab, index, head, entry)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Replace the given chain with a copy that leaves out the given entry as well as
+	 * any garbage collected references, unless there is nothing to leave out.
+	 * @return {@code true} if the chain did not need to be replaced or has been
+	 * replaced, {@code false} if it has been concurrently modified
+	 */
+	private boolean replaceChain(AtomicReferenceArray<Object> tab, int index,
+			@Nullable Object head, @Nullable Entry<K, V> entryToRemove) {
+
+		Reference<K, V> lastToRemove = null;
+		for (Reference<K, V> ref = castReference(head); ref != null; ref = ref.getNext()) {
+			Entry<K, V> entry = ref.get();
+			if (entry == null || entry == entryToRemove) {
+				lastToRemove = ref;
+			}
+		}
+		if (lastToRemove == null) {
+			return true;
+		}
+		// References after the last one to remove can be shared with the copy
+		List<Entry<K, V>> entriesToKeep = new ArrayList<>();
+		List<Integer> hashesToKeep = new ArrayList<>();
+		int removed = 1;
+		for (Reference<K, V> ref = castReference(head); ref != lastToRemove; ref = ref.getNext()) {
+			Assert.state(ref != null, "Inconsistent chain");
+			Entry<K, V> entry = ref.get();
+			if (entry != null && entry != entryToRemove) {
+				entriesToKeep.add(entry);
+				hashesToKeep.add(ref.getHash());
+			}
+			else {
+				removed++;
+			}
+		}
+		Reference<K, V> copy = lastToRemove.getNext();
+		for (int i = entriesToKeep.size() - 1; i >= 0; i--) {
+			copy = createReference(entriesToKeep.get(i), hashesToKeep.get(i), copy);
+		}
+		if (tab.compareAndSet(index, head, copy)) {
+			this.count.add(-removed);
+			return true;
+		}
+		return false;
+	}
+
+	private void resizeIfNecessary(AtomicReferenceArray<Object> tab) {
+		int length = tab.length();
+		if (length >= MAXIMUM_CAPACITY || this.count.sum() < (long) (length * this.loadFactor) ||
+				!this.resizeLock.tryLock()) {
+			return;
+		}
+		try {
+			if (this.table != tab) {
+				return;
+			}
+			AtomicReferenceArray<Object> nextTab = new AtomicReferenceArray<>(length << 1);
+			ForwardingNode forwardingNode = new ForwardingNode(nextTab);
+			for (int i = 0; i < length; i++) {
+				while (true) {
+					Object head = tab.get(i);
+					Reference<K, V> low = null;
+					Reference<K, V> high = null;
+					int removed = 0;
+					for (Reference<K, V> ref = castReference(head); ref != null; ref = ref.getNext()) {
+						Entry<K, V> entry = ref.get();
+						if (entry == null) {
+							removed++;
+						}
+						else if ((ref.getHash() & length) == 0) {
+							low = createReference(entry, ref.getHash(), low);
+						}
+						else {
+							high = createReference(entry, ref.getHash(), high);
+						}
+					}
+					nextTab.set(i, low);
+					nextTab.set(i + length, high);
+					// Concurrent updates to this bin either precede the transfer or follow the forwarding node
+					if (tab.compareAndSet(i, head, forwardingNode)) {
+						this.count.add(-removed);
+						break;
+					}
+				}
+			}
+			this.table = nextTab;
+		}
+		finally {
+			this.resizeLock.unlock();
+		}
+	}
+
+	private Reference<K, V> createReference(Entry<K, V> entry, int hash, @Nullable Reference<K, V> next) {
+		if (this.referenceType == ReferenceType.WEAK) {
+			return new WeakEntryReference<>(entry, hash, next, this.queue);
+		}
+		return new SoftEntryReference<>(entry, hash, next, this.queue);
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private Reference<K, V> castReference(@Nullable Object head) {
+		return (Reference<K, V>) head;
+	}
+
+	private static int getIndex(int hash, AtomicReferenceArray<Object> tab) {
+		return (hash & (tab.length() - 1));
+	}
+
+
+	/**
+	 * A single map entry, with its value updated in place.
+	 * @param <K> the key type
+	 * @param <V> the value type
+	 */
+	protected static final class Entry<K, V> implements Map.Entry<K, V> {
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicReferenceFieldUpdater<Entry, Object> valueUpdater =
+				AtomicReferenceFieldUpdater.newUpdater(Entry.class, Object.class, "value");
+
+		@Nullable
+		private final K key;
+
+		/** The value, or a {@link Removed} marker holding the last value. */
+		@Nullable
+		private volatile Object value;
+
+		Entry(@Nullable K key, @Nullable V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		@Nullable
+		public K getKey() {
+			return this.key;
+		}
+
+		@Override
+		@Nullable
+		@SuppressWarnings("unchecked")
+		public V getValue() {
+			Object value = this.value;
+			return (V) (value instanceof Removed ? ((Removed) value).value : value);
+		}
+
+		@Override
+		@Nullable
+		@SuppressWarnings("unchecked")
+		public V setValue(@Nullable V value) {
+			Object previous = updateValue(value);
+			return (V) (previous instanceof Removed ? ((Removed) previous).value : previous);
+		}
+
+		boolean isRemoved() {
+			return (this.value instanceof Removed);
+		}
+
+		/**
+		 * Set the given value unless the entry has been removed.
+		 * @return the previous value, or a {@link Removed} marker
+		 */
+		@Nullable
+		Object updateValue(@Nullable Object newValue) {
+			while (true) {
+				Object current = this.value;
+				if (current instanceof Removed || valueUpdater.compareAndSet(this, current, newValue)) {
+					return current;
+				}
+			}
+		}
+
+		/**
+		 * Replace the given value with a new value.
+		 * @return whether the value has been replaced, or {@code null} if the entry has been removed
+		 */
+		@Nullable
+		Boolean replaceValue(@Nullable Object expectedValue, @Nullable Object newValue) {
+			while (true) {
+				Object current = this.value;
+				if (current instanceof Removed) {
+					return null;
+				}
+				if (!ObjectUtils.nullSafeEquals(current, expectedValue)) {
+					return false;
+				}
+				if (valueUpdater.compareAndSet(this, current, newValue)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Mark this entry as removed, optionally only if it has the given value.
+		 * @return whether the entry has been marked as removed, or {@code null}
+		 * if it had been removed before
+		 */
+		@Nullable
+		Boolean markRemoved(boolean matchValue, @Nullable Object expectedValue) {
+			while (true) {
+				Object current = this.value;
+				if (current instanceof Removed) {
+					return null;
+				}
+				if (matchValue && !ObjectUtils.nullSafeEquals(current, expectedValue)) {
+					return false;
+				}
+				if (valueUpdater.compareAndSet(this, current, new Removed(current))) {
+					return true;
+				}
+			}
+		}
+
+		@Override
+		public String toString() {
+			return (this.key + "=" + getValue());
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public final boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry otherEntry = (Map.Entry) other;
+			return (ObjectUtils.nullSafeEquals(getKey(), otherEntry.getKey()) &&
+					ObjectUtils.nullSafeEquals(getValue(), otherEntry.getValue()));
+		}
+
+		@Override
+		public final int hashCode() {
+			return (ObjectUtils.nullSafeHashCode(this.key) ^ ObjectUtils.nullSafeHashCode(getValue()));
+		}
+	}
+
+
+	/**
+	 * Marker for the value of a removed entry.
+	 */
+	private static final class Removed {
+
+		@Nullable
+		final Object value;
+
+		Removed(@Nullable Object value) {
+			this.value = value;
+		}
+	}
+
+
+	/**
+	 * Marker for a bin that has been transferred to the next table during a resize.
+	 */
+	private static final class ForwardingNode {
+
+		final AtomicReferenceArray<Object> nextTable;
+
+		ForwardingNode(AtomicReferenceArray<Object> nextTable) {
+			this.nextTable = nextTable;
+		}
+	}
+
+
+	/**
+	 * Internal entry-set implementation.
+	 */
+	private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public boolean contains(@Nullable Object o) {
+			if (o instanceof Map.Entry<?, ?>) {
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				Entry<K, V> otherEntry = findEntry(entry.getKey(), getHash(entry.getKey()));
+				if (otherEntry != null) {
+					return ObjectUtils.nullSafeEquals(otherEntry.getValue(), entry.getValue());
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (o instanceof Map.Entry<?, ?>) {
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				return LockFreeReferenceHashMap.this.remove(entry.getKey(), entry.getValue());
+			}
+			return false;
+		}
+
+		@Override
+		public int size() {
+			return LockFreeReferenceHashMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			LockFreeReferenceHashMap.this.clear();
+		}
+	}
+
+
+	/**
+	 * Internal entry iterator implementation, following forwarding nodes
+	 * into the next table for bins that have been transferred.
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+		private final AtomicReferenceArray<Object> table = LockFreeReferenceHashMap.this.table;
+
+		private final Deque<Reference<K, V>> pendingChains = new ArrayDeque<>();
+
+		private int index;
+
+		@Nullable
+		private Reference<K, V> reference;
+
+		@Nullable
+		private Entry<K, V> next;
+
+		@Nullable
+		private Entry<K, V> last;
+
+		@Override
+		public boolean hasNext() {
+			getNextIfNecessary();
+			return (this.next != null);
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			getNextIfNecessary();
+			if (this.next == null) {
+				throw new NoSuchElementException();
+			}
+			this.last = this.next;
+			this.next = null;
+			return this.last;
+		}
+
+		private void getNextIfNecessary() {
+			while (this.next == null) {
+				moveToNextReference();
+				if (this.reference == null) {
+					return;
+				}
+				Entry<K, V> entry = this.reference.get();
+				if (entry != null && !entry.isRemoved()) {
+					this.next = entry;
+				}
+			}
+		}
+
+		private void moveToNextReference() {
+			if (this.reference != null) {
+				this.reference = this.reference.getNext();
+			}
+			while (this.reference == null) {
+				if (!this.pendingChains.isEmpty()) {
+					this.reference = this.pendingChains.pop();
+				}
+				else if (this.index < this.table.length()) {
+					addChains(this.table, this.index++);
+				}
+				else {
+					return;
+				}
+			}
+		}
+
+		private void addChains(AtomicReferenceArray<Object> tab, int index) {
+			Object head = tab.get(index);
+			if (head instanceof ForwardingNode) {
+				AtomicReferenceArray<Object> nextTable = ((ForwardingNode) head).nextTable;
+				addChains(nextTable, index);
+				addChains(nextTable, index + tab.length());
+			}
+			else if (head != null) {
+				this.pendingChains.push(castReference(head));
+			}
+		}
+
+		@Override
+		public void remove() {
+			Assert.state(this.last != null, "No element to remove");
+			LockFreeReferenceHashMap.this.remove(this.last.getKey(), this.last.getValue());
+		}
+	}
+
+
+	/**
+	 * A reference to an {@link Entry} contained in the map, linking to the next
+	 * reference in its chain.
+	 * @param <K> the key type
+	 * @param <V> the value type
+	 */
+	private interface Reference<K, V> {
+
+		@Nullable
+		Entry<K, V> get();
+
+		int getHash();
+
+		@Nullable
+		Reference<K, V> getNext();
+	}
+
+
+	/**
+	 * Internal {@link Reference} implementation for {@link SoftReference SoftReferences}.
+	 */
+	private static final class SoftEntryReference<K, V> extends SoftReference<Entry<K, V>> implements Reference<K, V> {
+
+		private final int hash;
+
+		@Nullable
+		private final Reference<K, V> nextReference;
+
+		public SoftEntryReference(Entry<K, V> entry, int hash, @Nullable Reference<K, V> next,
+				ReferenceQueue<Entry<K, V>> queue) {
+
+			super(entry, queue);
+			this.hash = hash;
+			this.nextReference = next;
+		}
+
+		@Override
+		public int getHash() {
+			return this.hash;
+		}
+
+		@Override
+		@Nullable
+		public Reference<K, V> getNext() {
+			return this.nextReference;
+		}
+	}
+
+
+	/**
+	 * Internal {@link Reference} implementation for {@link WeakReference WeakReferences}.
+	 */
+	private static final class WeakEntryReference<K, V> extends WeakReference<Entry<K, V>> implements Reference<K, V> {
+
+		private final int hash;
+
+		@Nullable
+		private final Reference<K, V> nextReference;
+
+		public WeakEntryReference(Entry<K, V> entry, int hash, @Nullable Reference<K, V> next,
+				ReferenceQueue<Entry<K, V>> queue) {
+
+			super(entry, queue);
+			this.hash = hash;
+			this.nextReference = next;
+		}
+
+		@Override
+		public int getHash() {
+			return this.hash;
+		}
+
+		@Override
+		@Nullable
+		public Reference<K, V> getNext() {
+			return this.nextReference;
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.springframework.stereotype.Component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AnnotationPresenceIndex}.
+ *
+ * @since 5.2
+ */
+public class AnnotationPresenceIndexTests {
+
+	@Test
+	public void getKeyForMethod() throws Exception {
+		Method method = Indexed.class.getDeclaredMethod("annotated", String[].class, int.class, Nested.class);
+		assertThat(AnnotationPresenceIndex.getKey(method)).isEqualTo(Indexed.class.getName() +
+				"#annotated(java.lang.String[],int," + Nested.class.getName() + ")");
+	}
+
+	@Test
+	public void getAnnotationTypesForIndexedClass() {
+		AnnotationPresenceIndex index = createIndex();
+		assertThat(index.getAnnotationTypes(Indexed.class)).containsExactly(Order.class.getName());
+		assertThat(index.getAnnotationTypes(Nested.class)).isEmpty();
+		assertThat(index.getAnnotationTypes(AnnotationPresenceIndexTests.class)).isNull();
+	}
+
+	@Test
+	public void getAnnotationTypesForIndexedMethod() throws Exception {
+		AnnotationPresenceIndex index = createIndex();
+		Method method = Indexed.class.getDeclaredMethod("annotated", String[].class, int.class, Nested.class);
+		assertThat(index.getAnnotationTypes(method)).containsExactly(Order.class.getName());
+	}
+
+	@Test
+	public void getAnnotationTypesForMethodOfIndexedClass() throws Exception {
+		AnnotationPresenceIndex index = createIndex();
+		assertThat(index.getAnnotationTypes(Indexed.class.getDeclaredMethod("plain"))).isEmpty();
+	}
+
+	@Test
+	public void getAnnotationTypesForMethodOfUnknownClass() throws Exception {
+		AnnotationPresenceIndex index = createIndex();
+		Method method = AnnotationPresenceIndexTests.class.getDeclaredMethod("createIndex");
+		assertThat(index.getAnnotationTypes(method)).isNull();
+	}
+
+	@Test
+	public void getMemberAnnotationTypes() {
+		Map<String, Set<String>> entries = new HashMap<>();
+		entries.put(Indexed.class.getName(), Collections.singleton(Order.class.getName()));
+		entries.put(Indexed.class.getName() + "#plain()", Collections.singleton(Component.class.getName()));
+		entries.put(Nested.class.getName(), Collections.emptySet());
+		entries.put(AnnotationPresenceIndexTests.class.getName() + "#createIndex()",
+				Collections.singleton(Component.class.getName()));
+		AnnotationPresenceIndex index = new AnnotationPresenceIndex(entries);
+		assertThat(index.getMemberAnnotationTypes(Indexed.class)).containsExactlyInAnyOrder(
+				Order.class.getName(), Component.class.getName());
+		assertThat(index.getMemberAnnotationTypes(Nested.class)).isEmpty();
+		assertThat(index.getMemberAnnotationTypes(AnnotationPresenceIndexTests.class)).isNull();
+	}
+
+	@Test
+	public void noIndexAvailable() {
+		assertThat(AnnotationPresenceIndex.isPresent(Indexed.class, Order.class.getName())).isNull();
+		assertThat(AnnotationPresenceIndex.isKnownEmpty(Nested.class)).isFalse();
+		assertThat(AnnotationPresenceIndex.isCandidateClass(Nested.class, Order.class)).isTrue();
+	}
+
+	private AnnotationPresenceIndex createIndex() {
+		Set<String> order = Collections.singleton(Order.class.getName());
+		Map<String, Set<String>> entries = new HashMap<>();
+		entries.put(Indexed.class.getName(), order);
+		entries.put(Nested.class.getName(), Collections.emptySet());
+		entries.put(Indexed.class.getName() + "#annotated(java.lang.String[],int," + Nested.class.getName() + ")", order);
+		return new AnnotationPresenceIndex(entries);
+	}
+
+
+	@Order(1)
+	static class Indexed {
+
+		@Order(2)
+		public void annotated(String[] values, int count, Nested nested) {
+		}
+
+		public void plain() {
+		}
+	}
+
+
+	static class Nested {
+	}
+
+}
@@ -20,6 +20,7 @@ import java.awt.Color;
 import java.awt.SystemColor;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -31,6 +32,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import org.junit.Test;
 
@@ -560,6 +562,92 @@ public class GenericConversionServiceTests {
 		assertEquals(MyEnum.A, conversionService.convert("base1", MyEnum.class));
 	}
 
+	@Test
+	public void scalarConversionsMatchTypeDescriptorBasedConversions() {
+		GenericConversionService conversionService = new DefaultConversionService();
+		UUID uuid = UUID.randomUUID();
+		Object[][] conversions = {{"42", Integer.class}, {"42", int.class}, {"42", Long.class}, {"true", Boolean.class},
+				{"B", MyEnum.class}, {MyEnum.C, String.class}, {EnumWithSubclass.FIRST, String.class},
+				{uuid.toString(), UUID.class}, {uuid, String.class}, {"1.5", BigDecimal.class}, {42, Long.class},
+				{"x", Character.class}, {"text", String.class}};
+		for (int i = 0; i < 2; i++) {
+			for (Object[] conversion : conversions) {
+				Object source = conversion[0];
+				Class<?> targetType = (Class<?>) conversion[1];
+				assertEquals(conversionService.convert(source, TypeDescriptor.valueOf(targetType)),
+						conversionService.convert(source, targetType));
+			}
+		}
+		assertEquals(MyEnum.B, conversionService.convert("B", MyEnum.class));
+		assertEquals(uuid, conversionService.convert(uuid.toString(), UUID.class));
+		assertSame("text", conversionService.convert("text", String.class));
+	}
+
+	@Test
+	public void scalarConversionsForPlainTypeDescriptors() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		TypeDescriptor stringType = TypeDescriptor.valueOf(String.class);
+		TypeDescriptor intType = TypeDescriptor.valueOf(int.class);
+		assertTrue(conversionService.canConvert(stringType, intType));
+		assertEquals(42, conversionService.convert("42", stringType, intType));
+		assertFalse(conversionService.canConvert(stringType, TypeDescriptor.valueOf(Boolean.class)));
+		try {
+			conversionService.convert(null, stringType, intType);
+			fail("Should have thrown ConversionFailedException");
+		}
+		catch (ConversionFailedException ex) {
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void scalarConversionFailures() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		conversionService.addConverter(String.class, Boolean.class, source -> null);
+		for (int i = 0; i < 2; i++) {
+			try {
+				conversionService.convert("x", Integer.class);
+				fail("Should have thrown ConversionFailedException");
+			}
+			catch (ConversionFailedException ex) {
+				assertTrue(ex.getCause() instanceof NumberFormatException);
+			}
+			assertNull(conversionService.convert("x", Boolean.class));
+			try {
+				conversionService.convert("x", boolean.class);
+				fail("Should have thrown ConversionFailedException");
+			}
+			catch (ConversionFailedException ex) {
+				assertTrue(ex.getCause() instanceof IllegalArgumentException);
+			}
+			try {
+				conversionService.convert("x", Color.class);
+				fail("Should have thrown ConverterNotFoundException");
+			}
+			catch (ConverterNotFoundException ex) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void scalarConversionAfterConverterChanges() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		assertEquals(Integer.valueOf(1), conversionService.convert("1", Integer.class));
+		conversionService.addConverter(String.class, Integer.class, source -> 99);
+		assertEquals(Integer.valueOf(99), conversionService.convert("1", Integer.class));
+		conversionService.removeConvertible(String.class, Integer.class);
+		assertEquals(Integer.valueOf(1), conversionService.convert("1", Integer.class));
+		conversionService.removeConvertible(String.class, Number.class);
+		try {
+			conversionService.convert("1", Integer.class);
+			fail("Should have thrown ConverterNotFoundException");
+		}
+		catch (ConverterNotFoundException ex) {
+			// expected
+		}
+	}
+
 	@Test
 	public void convertNullAnnotatedStringToString() throws Exception {
 		String source = null;
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.invoke;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link GeneratedMethodAccessorFactory}.
+ */
+public class GeneratedMethodAccessorFactoryTests {
+
+	private final GeneratedMethodAccessorFactory factory = new GeneratedMethodAccessorFactory();
+
+
+	@Test
+	public void instanceMethod() throws Exception {
+		MethodAccessor accessor = getAccessor(Handler.class, "handle", String.class, int.class);
+		assertGenerated(accessor);
+		assertEquals("foo-3", accessor.invoke(new Handler(), "foo", 3));
+		assertEquals("null-5", accessor.invoke(new Handler(), null, 5));
+	}
+
+	@Test
+	public void primitiveReturnValue() throws Exception {
+		MethodAccessor accessor = getAccessor(Handler.class, "sum", long.class, double.class);
+		assertGenerated(accessor);
+		assertEquals(4.5d, accessor.invoke(new Handler(), 2L, 2.5d));
+	}
+
+	@Test
+	public void voidMethod() throws Exception {
+		MethodAccessor accessor = getAccessor(Handler.class, "record", String[].class);
+		Handler handler = new Handler();
+		assertNull(accessor.invoke(handler, (Object) new String[] {"a", "b"}));
+		assertEquals("a,b", handler.recorded);
+	}
+
+	@Test
+	public void staticMethod() throws Exception {
+		MethodAccessor accessor = getAccessor(Handler.class, "create");
+		assertGenerated(accessor);
+		assertEquals("created", accessor.invoke(null));
+	}
+
+	@Test
+	public void interfaceMethod() throws Exception {
+		MethodAccessor accessor = getAccessor(Callable.class, "call");
+		assertEquals("called", accessor.invoke((Callable<String>) () -> "called"));
+	}
+
+	@Test
+	public void wideningConversion() throws Exception {
+		MethodAccessor accessor = getAccessor(Handler.class, "sum", long.class, double.class);
+		assertEquals(5.0d, accessor.invoke(new Handler(), 2, 3));
+	}
+
+	@Test
+	public void exceptionThrownByMethod() throws Exception {
+		MethodAccessor accessor = getAccessor(Handler.class, "fail");
+		try {
+			accessor.invoke(new Handler());
+			fail("Expected InvocationTargetException");
+		}
+		catch (InvocationTargetException ex) {
+			assertTrue(ex.getTargetException() instanceof IOException);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void argumentTypeMismatch() throws Exception {
+		getAccessor(Handler.class, "handle", String.class, int.class).invoke(new Handler(), 1, "foo");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrongNumberOfArguments() throws Exception {
+		getAccessor(Handler.class, "handle", String.class, int.class).invoke(new Handler(), "foo");
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullTarget() throws Exception {
+		getAccessor(Handler.class, "handle", String.class, int.class).invoke(null, "foo", 1);
+	}
+
+	@Test
+	public void nonPublicClass() throws Exception {
+		MethodAccessor accessor = getAccessor(HiddenHandler.class, "handle");
+		assertFalse(isGenerated(accessor));
+		assertEquals("hidden", accessor.invoke(new HiddenHandler()));
+	}
+
+	@Test
+	public void accessorIsCached() throws Exception {
+		Method method = Handler.class.getMethod("create");
+		assertSame(this.factory.getMethodAccessor(method), this.factory.getMethodAccessor(method));
+	}
+
+
+	@Test
+	public void defaultConstructor() throws Exception {
+		ConstructorAccessor accessor = this.factory.getConstructorAccessor(Handler.class.getConstructor());
+		assertGenerated(accessor);
+		assertTrue(accessor.newInstance() instanceof Handler);
+	}
+
+	@Test
+	public void constructorWithArguments() throws Exception {
+		ConstructorAccessor accessor = this.factory.getConstructorAccessor(
+				Bean.class.getConstructor(String.class, long.class, int[].class));
+		assertGenerated(accessor);
+		Bean bean = (Bean) accessor.newInstance("foo", 42L, new int[] {1, 2});
+		assertEquals("foo", bean.name);
+		assertEquals(42L, bean.id);
+		assertEquals(2, bean.values.length);
+
+		bean = (Bean) accessor.newInstance("bar", 7, null);
+		assertEquals(7L, bean.id);
+	}
+
+	@Test
+	public void exceptionThrownByConstructor() throws Exception {
+		ConstructorAccessor accessor = this.factory.getConstructorAccessor(
+				Bean.class.getConstructor(String.class, long.class, int[].class));
+		try {
+			accessor.newInstance(null, 1L, null);
+			fail("Expected InvocationTargetException");
+		}
+		catch (InvocationTargetException ex) {
+			assertTrue(ex.getTargetException() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructorArgumentTypeMismatch() throws Exception {
+		this.factory.getConstructorAccessor(Bean.class.getConstructor(String.class, long.class, int[].class))
+				.newInstance("foo", "bar", null);
+	}
+
+	@Test(expected = InstantiationException.class)
+	public void abstractClassConstructor() throws Exception {
+		this.factory.getConstructorAccessor(AbstractBean.class.getConstructor()).newInstance();
+	}
+
+
+	private MethodAccessor getAccessor(Class<?> clazz, String name, Class<?>... parameterTypes) throws Exception {
+		return this.factory.getMethodAccessor(clazz.getMethod(name, parameterTypes));
+	}
+
+	private void assertGenerated(Object accessor) {
+		assertTrue("Expected generated accessor but was " + accessor.getClass(), isGenerated(accessor));
+	}
+
+	private boolean isGenerated(Object accessor) {
+		return accessor.getClass().getName().contains("Accessor$$");
+	}
+
+
+	public static class Handler {
+
+		String recorded;
+
+		public String handle(String name, int count) {
+			return name + "-" + count;
+		}
+
+		public double sum(long a, double b) {
+			return a + b;
+		}
+
+		public void record(String[] values) {
+			this.recorded = String.join(",", values);
+		}
+
+		public void fail() throws IOException {
+			throw new IOException("failed");
+		}
+
+		public static String create() {
+			return "created";
+		}
+	}
+
+
+	public static class Bean {
+
+		final String name;
+
+		final long id;
+
+		final int[] values;
+
+		public Bean(String name, long id, int[] values) {
+			if (name == null) {
+				throw new IllegalArgumentException("name is required");
+			}
+			this.name = name;
+			this.id = id;
+			this.values = values;
+		}
+	}
+
+
+	public abstract static class AbstractBean {
+	}
+
+
+	static class HiddenHandler {
+
+		public String handle() {
+			return "hidden";
+		}
+	}
+
+}
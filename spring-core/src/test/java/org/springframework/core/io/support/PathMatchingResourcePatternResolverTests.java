@@ -16,14 +16,24 @@
 
 package org.springframework.core.io.support;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
 
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.core.io.Resource;
 import org.springframework.util.StringUtils;
@@ -57,6 +67,9 @@ public class PathMatchingResourcePatternResolverTests {
 
 	private PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
 
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 
 	@Test(expected = FileNotFoundException.class)
 	public void invalidPrefixWithPatternElementInIt() throws IOException {
@@ -120,6 +133,36 @@ public class PathMatchingResourcePatternResolverTests {
 		assertTrue("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar", found);
 	}
 
+	@Test
+	public void classpathStarWithPatternInJarRetainsEntryOrder() throws IOException {
+		File jarFile = this.temporaryFolder.newFile("test.jar");
+		try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile))) {
+			for (String entry : new String[] {"example/", "example/sub/", "example/sub/a.txt",
+					"example/b.txt", "example/c.xml", "other/d.txt"}) {
+				jar.putNextEntry(new JarEntry(entry));
+				jar.closeEntry();
+			}
+		}
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jarFile.toURI().toURL()}, null)) {
+			PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+			for (int i = 0; i < 2; i++) {
+				assertEquals(Arrays.asList("a.txt", "b.txt"),
+						getFilenames(resolver.getResources("classpath*:example/**/*.txt")));
+				assertEquals(Arrays.asList("b.txt", "c.xml"),
+						getFilenames(resolver.getResources("classpath*:example/*.*")));
+				assertEquals(Collections.singletonList("a.txt"),
+						getFilenames(resolver.getResources("classpath*:example/sub/*.txt")));
+				assertEquals(Collections.emptyList(),
+						getFilenames(resolver.getResources("classpath*:example/none/*.txt")));
+				PathMatchingResourcePatternResolver.clearCache();
+			}
+		}
+	}
+
+	private List<String> getFilenames(Resource[] resources) {
+		return Arrays.stream(resources).map(Resource::getFilename).collect(Collectors.toList());
+	}
+
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link BufferingApplicationStartup}.
+ */
+public class BufferingApplicationStartupTests {
+
+	@Test
+	public void defaultApplicationStartupIsNoOp() {
+		StartupStep step = ApplicationStartup.DEFAULT.start("test.step");
+		assertSame(step, step.tag("key", () -> {
+			throw new IllegalStateException("Should not be evaluated");
+		}));
+		assertFalse(step.getTags().iterator().hasNext());
+		step.end();
+	}
+
+	@Test
+	public void nestedStepsRecordParent() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+		StartupStep outer = applicationStartup.start("test.outer");
+		StartupStep inner = applicationStartup.start("test.inner").tag("name", "value");
+		inner.end();
+		StartupStep sibling = applicationStartup.start("test.sibling");
+		sibling.end();
+		outer.end();
+		StartupStep next = applicationStartup.start("test.next");
+		next.end();
+
+		List<BufferingApplicationStartup.TimelineEvent> timeline = applicationStartup.getTimeline();
+		assertEquals(4, timeline.size());
+		assertEquals("test.outer", timeline.get(0).getName());
+		assertNull(timeline.get(0).getParentId());
+		assertEquals("test.inner", timeline.get(1).getName());
+		assertEquals(Long.valueOf(outer.getId()), timeline.get(1).getParentId());
+		assertEquals("name", timeline.get(1).getTags().get(0).getKey());
+		assertEquals("value", timeline.get(1).getTags().get(0).getValue());
+		assertEquals(Long.valueOf(outer.getId()), timeline.get(2).getParentId());
+		assertNull(timeline.get(3).getParentId());
+		assertTrue(timeline.get(0).getDuration() >= timeline.get(1).getDuration());
+		assertEquals(Thread.currentThread().getName(), timeline.get(0).getThreadName());
+	}
+
+	@Test
+	public void unendedNestedStepIsDiscardedWhenParentEnds() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+		StartupStep outer = applicationStartup.start("test.outer");
+		applicationStartup.start("test.failed");
+		outer.end();
+		StartupStep next = applicationStartup.start("test.next");
+		next.end();
+
+		List<BufferingApplicationStartup.TimelineEvent> timeline = applicationStartup.getTimeline();
+		assertEquals(2, timeline.size());
+		assertNull(timeline.get(1).getParentId());
+	}
+
+	@Test
+	public void stepsBeyondCapacityAreDropped() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(2);
+		for (int i = 0; i < 5; i++) {
+			applicationStartup.start("test.step").end();
+		}
+		assertEquals(2, applicationStartup.getTimeline().size());
+		assertEquals(3, applicationStartup.getDroppedStepCount());
+	}
+
+	@Test
+	public void endedStepCannotBeChanged() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(2);
+		StartupStep step = applicationStartup.start("test.step");
+		step.end();
+		assertThatIllegalStateException().isThrownBy(() -> step.tag("name", "value"));
+		assertThatIllegalStateException().isThrownBy(step::end);
+	}
+
+	@Test
+	public void writeTimeline() throws Exception {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+		StartupStep outer = applicationStartup.start("test.outer");
+		applicationStartup.start("test.inner").tag("name", "a \"quoted\"\nvalue").end();
+		outer.end();
+
+		StringWriter writer = new StringWriter();
+		applicationStartup.writeTimeline(writer);
+		String json = writer.toString();
+		assertTrue(json.startsWith("{\"traceEvents\":["));
+		assertTrue(json.contains("{\"name\":\"test.outer\",\"cat\":\"spring\",\"ph\":\"X\",\"ts\":"));
+		assertTrue(json.contains("\"args\":{\"id\":" + outer.getId() + "}}"));
+		assertTrue(json.contains("\"parentId\":" + outer.getId() + ",\"name\":\"a \\\"quoted\\\"\\u000avalue\"}}"));
+		assertTrue(json.contains("{\"name\":\"thread_name\",\"ph\":\"M\""));
+		assertTrue(json.contains("\"otherData\":{\"startTimestamp\":" + applicationStartup.getStartTimestamp() +
+				",\"droppedSteps\":0}}"));
+	}
+
+}
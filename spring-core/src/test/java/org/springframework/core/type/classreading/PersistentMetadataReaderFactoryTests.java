@@ -0,0 +1,249 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AbstractAnnotationMetadataTests;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link PersistentMetadataReaderFactory}, running the common
+ * {@link AnnotationMetadata} tests against metadata restored from a cache file.
+ *
+ * @since 5.2
+ */
+public class PersistentMetadataReaderFactoryTests extends AbstractAnnotationMetadataTests {
+
+	private File cacheFile;
+
+
+	@Before
+	public void setup() throws IOException {
+		this.cacheFile = File.createTempFile("metadata", ".cache");
+		assertThat(this.cacheFile.delete()).isTrue();
+	}
+
+	@After
+	public void cleanup() {
+		this.cacheFile.delete();
+	}
+
+
+	@Override
+	protected AnnotationMetadata get(Class<?> source) {
+		try {
+			PersistentMetadataReaderFactory factory = createFactory();
+			factory.getMetadataReader(source.getName());
+			factory.clearCache();
+			return createFactory().getMetadataReader(source.getName()).getAnnotationMetadata();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@Test
+	public void attributeValuesRestoredFromCacheFile() throws Exception {
+		AnnotationMetadata original = new SimpleMetadataReaderFactory(getClass().getClassLoader())
+				.getMetadataReader(WithAllAttributeTypes.class.getName()).getAnnotationMetadata();
+		AnnotationMetadata restored = get(WithAllAttributeTypes.class);
+		assertThat(this.cacheFile.isFile()).isTrue();
+
+		String annotationName = AllAttributeTypes.class.getName();
+		assertSameAttributes(restored.getAnnotationAttributes(annotationName),
+				original.getAnnotationAttributes(annotationName));
+		assertSameAttributes(restored.getAnnotationAttributes(annotationName, true),
+				original.getAnnotationAttributes(annotationName, true));
+		assertThat(restored.getAnnotations().get(AllAttributeTypes.class).getSource())
+				.isEqualTo(original.getAnnotations().get(AllAttributeTypes.class).getSource());
+
+		MethodMetadata method = restored.getAnnotatedMethods(annotationName).iterator().next();
+		assertThat(method.getMethodName()).isEqualTo("annotated");
+		assertThat(method.getReturnTypeName()).isEqualTo(String.class.getName());
+		assertThat(method.isStatic()).isTrue();
+		assertThat(method.getAnnotations().get(AllAttributeTypes.class).getString("name")).isEqualTo("method");
+		assertThat(method.getAnnotations().get(AllAttributeTypes.class).getSource().toString())
+				.isEqualTo(WithAllAttributeTypes.class.getName() + ".annotated()");
+	}
+
+	@Test
+	public void cachedMetadataUsedForUnchangedClassFile() throws Exception {
+		Resource resource = copyClassFile(WithAllAttributeTypes.class);
+		PersistentMetadataReaderFactory factory = createFactory();
+		factory.getMetadataReader(resource);
+		factory.clearCache();
+
+		// Same length and timestamp, but not a parseable class file anymore
+		File file = resource.getFile();
+		long lastModified = file.lastModified();
+		byte[] content = new byte[(int) file.length()];
+		Arrays.fill(content, (byte) 1);
+		Files.write(file.toPath(), content);
+		assertThat(file.setLastModified(lastModified)).isTrue();
+
+		AnnotationMetadata metadata = createFactory().getMetadataReader(resource).getAnnotationMetadata();
+		assertThat(metadata.getClassName()).isEqualTo(WithAllAttributeTypes.class.getName());
+		assertThat(metadata.isAnnotated(AllAttributeTypes.class.getName())).isTrue();
+	}
+
+	@Test
+	public void cachedMetadataIgnoredForChangedClassFile() throws Exception {
+		Resource resource = copyClassFile(WithAllAttributeTypes.class);
+		PersistentMetadataReaderFactory factory = createFactory();
+		factory.getMetadataReader(resource);
+		factory.clearCache();
+
+		File file = resource.getFile();
+		byte[] content = new byte[(int) file.length()];
+		Arrays.fill(content, (byte) 1);
+		Files.write(file.toPath(), content);
+		assertThat(file.setLastModified(file.lastModified() - 10000)).isTrue();
+
+		assertThatExceptionOfType(IOException.class).isThrownBy(() -> createFactory().getMetadataReader(resource));
+	}
+
+	@Test
+	public void cacheFileNotWrittenWithoutNewMetadata() throws Exception {
+		PersistentMetadataReaderFactory factory = createFactory();
+		factory.getMetadataReader(WithAllAttributeTypes.class.getName());
+		factory.clearCache();
+		long lastModified = this.cacheFile.lastModified();
+		assertThat(this.cacheFile.setLastModified(lastModified - 10000)).isTrue();
+
+		factory = createFactory();
+		factory.getMetadataReader(WithAllAttributeTypes.class.getName());
+		factory.clearCache();
+		assertThat(this.cacheFile.lastModified()).isEqualTo(lastModified - 10000);
+	}
+
+	@Test
+	public void corruptCacheFileIgnored() throws Exception {
+		Files.write(this.cacheFile.toPath(), new byte[] {1, 2, 3});
+		PersistentMetadataReaderFactory factory = createFactory();
+		AnnotationMetadata metadata =
+				factory.getMetadataReader(WithAllAttributeTypes.class.getName()).getAnnotationMetadata();
+		assertThat(metadata.isAnnotated(AllAttributeTypes.class.getName())).isTrue();
+		factory.clearCache();
+		assertThat(this.cacheFile.length()).isGreaterThan(3);
+	}
+
+	private PersistentMetadataReaderFactory createFactory() {
+		return new PersistentMetadataReaderFactory(getClass().getClassLoader(), this.cacheFile);
+	}
+
+	private Resource copyClassFile(Class<?> clazz) throws IOException {
+		File target = new File(this.cacheFile.getParentFile(), this.cacheFile.getName() + ".class");
+		target.deleteOnExit();
+		try (InputStream is = clazz.getResourceAsStream(ClassUtils.getClassFileName(clazz))) {
+			Files.copy(is, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		return new FileSystemResource(target);
+	}
+
+	private void assertSameAttributes(AnnotationAttributes actual, AnnotationAttributes expected) {
+		assertThat(actual.keySet()).isEqualTo(expected.keySet());
+		expected.forEach((name, value) -> assertThat(actual.get(name)).isEqualTo(value));
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface AllAttributeTypes {
+
+		String name() default "";
+
+		boolean flag() default false;
+
+		byte byteValue() default 1;
+
+		char charValue() default 'c';
+
+		short shortValue() default 2;
+
+		int intValue() default 3;
+
+		long longValue() default 4L;
+
+		float floatValue() default 5.0f;
+
+		double doubleValue() default 6.0d;
+
+		int[] intValues() default {};
+
+		String[] names() default {};
+
+		Class<?> type() default Object.class;
+
+		Class<?>[] types() default {};
+
+		ElementType element() default ElementType.TYPE;
+
+		ElementType[] elements() default {};
+
+		Nested nested() default @Nested;
+
+		Nested[] nestedArray() default {};
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface Nested {
+
+		String value() default "default";
+
+		Class<?> type() default Void.class;
+	}
+
+
+	@AllAttributeTypes(name = "type", flag = true, byteValue = 11, charValue = 'x', shortValue = 12,
+			intValue = 13, longValue = 14L, floatValue = 15.0f, doubleValue = 16.0d, intValues = {1, 2},
+			names = {"a", "b"}, type = String.class, types = {Integer.class, Long.class},
+			element = ElementType.METHOD, elements = {ElementType.FIELD, ElementType.PARAMETER},
+			nested = @Nested(value = "nested", type = Integer.class),
+			nestedArray = {@Nested("first"), @Nested(value = "second", type = Long.class)})
+	public static class WithAllAttributeTypes {
+
+		@AllAttributeTypes(name = "method")
+		public static String annotated() {
+			return "";
+		}
+
+		public void notAnnotated() {
+		}
+	}
+
+}
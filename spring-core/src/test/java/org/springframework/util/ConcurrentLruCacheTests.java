@@ -0,0 +1,203 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link ConcurrentLruCache}.
+ *
+ * @since 5.2
+ */
+public class ConcurrentLruCacheTests {
+
+	private final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, key -> key + "value");
+
+
+	@Test
+	public void getAndSize() {
+		assertThat(this.cache.sizeLimit()).isEqualTo(2);
+		assertThat(this.cache.size()).isEqualTo(0);
+		assertThat(this.cache.get("k1")).isEqualTo("k1value");
+		assertThat(this.cache.size()).isEqualTo(1);
+		assertThat(this.cache.contains("k1")).isTrue();
+		assertThat(this.cache.get("k2")).isEqualTo("k2value");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k2")).isTrue();
+		assertThat(this.cache.get("k3")).isEqualTo("k3value");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k1")).isFalse();
+		assertThat(this.cache.contains("k2")).isTrue();
+		assertThat(this.cache.contains("k3")).isTrue();
+	}
+
+	@Test
+	public void recentlyUsedEntryRetained() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k1");
+		this.cache.get("k3");
+		assertThat(this.cache.contains("k1")).isTrue();
+		assertThat(this.cache.contains("k2")).isFalse();
+		assertThat(this.cache.contains("k3")).isTrue();
+	}
+
+	@Test
+	public void statistics() {
+		this.cache.get("k1");
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k3");
+		assertThat(this.cache.getIfPresent("k4")).isNull();
+		assertThat(this.cache.hitCount()).isEqualTo(1);
+		assertThat(this.cache.missCount()).isEqualTo(4);
+		assertThat(this.cache.evictionCount()).isEqualTo(1);
+		assertThat(this.cache.toString()).contains("hits=1", "misses=4", "evictions=1");
+	}
+
+	@Test
+	public void putAndRemove() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2);
+		assertThat(cache.getIfPresent("k1")).isNull();
+		assertThat(cache.put("k1", "v1")).isEqualTo("v1");
+		assertThat(cache.put("k1", "v2")).isEqualTo("v1");
+		assertThat(cache.getIfPresent("k1")).isEqualTo("v1");
+		assertThat(cache.remove("k1")).isEqualTo("v1");
+		assertThat(cache.remove("k1")).isNull();
+		assertThat(cache.put("k1", "v2")).isEqualTo("v2");
+		cache.put("k2", "v2");
+		cache.put("k3", "v3");
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.evictionCount()).isEqualTo(1);
+		assertThatIllegalStateException().isThrownBy(() -> cache.get("k4"));
+	}
+
+	@Test
+	public void removedEntriesDoNotCountTowardsLimit() {
+		for (int i = 0; i < 100; i++) {
+			this.cache.get("k" + i);
+			this.cache.remove("k" + i);
+		}
+		this.cache.get("a");
+		this.cache.get("b");
+		assertThat(this.cache.contains("a")).isTrue();
+		assertThat(this.cache.contains("b")).isTrue();
+		assertThat(this.cache.evictionCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void clear() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.clear();
+		assertThat(this.cache.size()).isEqualTo(0);
+		assertThat(this.cache.contains("k1")).isFalse();
+		this.cache.get("k3");
+		this.cache.get("k4");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.evictionCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void setSizeLimit() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.setSizeLimit(1);
+		assertThat(this.cache.size()).isEqualTo(1);
+		assertThat(this.cache.contains("k2")).isTrue();
+		this.cache.setSizeLimit(3);
+		this.cache.get("k3");
+		this.cache.get("k4");
+		assertThat(this.cache.size()).isEqualTo(3);
+		assertThatIllegalArgumentException().isThrownBy(() -> this.cache.setSizeLimit(0));
+	}
+
+	@Test
+	public void concurrentAccessRespectsSizeLimit() throws Exception {
+		ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(64, key -> key);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				int seed = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 10000; i++) {
+						int key = (i * 31 + seed) % 256;
+						assertThat(cache.get(key)).isEqualTo(key);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(cache.size()).isLessThanOrEqualTo(64);
+		assertThat(cache.hitCount() + cache.missCount()).isEqualTo(40000);
+	}
+
+	@Test
+	public void concurrentClearKeepsEntriesEvictable() throws Exception {
+		ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(16, key -> key);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 3; t++) {
+				int seed = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 20000; i++) {
+						int key = (i * 31 + seed) % 512;
+						assertThat(cache.get(key)).isEqualTo(key);
+						if (i % 7 == 0) {
+							cache.remove(key);
+						}
+					}
+				}));
+			}
+			futures.add(executor.submit(() -> {
+				for (int i = 0; i < 2000; i++) {
+					cache.clear();
+				}
+			}));
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		// Entries lost from the eviction queue would never be evicted
+		for (int key = 1000; key < 1100; key++) {
+			cache.get(key);
+		}
+		assertThat(cache.size()).isLessThanOrEqualTo(16);
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LockFreeReferenceHashMap}.
+ *
+ * @since 5.2
+ */
+public class LockFreeReferenceHashMapTests {
+
+	private final LockFreeReferenceHashMap<Integer, String> map = new LockFreeReferenceHashMap<>();
+
+
+	@Test
+	public void putAndGet() {
+		assertThat(this.map.put(123, "123")).isNull();
+		assertThat(this.map.put(123, "123b")).isEqualTo("123");
+		assertThat(this.map.get(123)).isEqualTo("123b");
+		assertThat(this.map.get(456)).isNull();
+		assertThat(this.map.getOrDefault(456, "default")).isEqualTo("default");
+		assertThat(this.map.containsKey(123)).isTrue();
+		assertThat(this.map.containsKey(456)).isFalse();
+		assertThat(this.map.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void nullKeysAndValues() {
+		this.map.put(null, "nullKey");
+		this.map.put(123, null);
+		assertThat(this.map.get(null)).isEqualTo("nullKey");
+		assertThat(this.map.containsKey(123)).isTrue();
+		assertThat(this.map.get(123)).isNull();
+		assertThat(this.map.getOrDefault(123, "default")).isNull();
+		assertThat(this.map.remove(null)).isEqualTo("nullKey");
+		assertThat(this.map.containsKey(null)).isFalse();
+	}
+
+	@Test
+	public void putIfAbsent() {
+		assertThat(this.map.putIfAbsent(123, "123")).isNull();
+		assertThat(this.map.putIfAbsent(123, "123b")).isEqualTo("123");
+		assertThat(this.map.get(123)).isEqualTo("123");
+	}
+
+	@Test
+	public void remove() {
+		this.map.put(123, "123");
+		assertThat(this.map.remove(123)).isEqualTo("123");
+		assertThat(this.map.remove(123)).isNull();
+		assertThat(this.map.containsKey(123)).isFalse();
+		assertThat(this.map.size()).isEqualTo(0);
+		this.map.put(123, "123");
+		assertThat(this.map.remove(123, "456")).isFalse();
+		assertThat(this.map.remove(123, "123")).isTrue();
+		assertThat(this.map.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void replace() {
+		assertThat(this.map.replace(123, "456")).isNull();
+		assertThat(this.map.containsKey(123)).isFalse();
+		this.map.put(123, "123");
+		assertThat(this.map.replace(123, "456")).isEqualTo("123");
+		assertThat(this.map.replace(123, "123", "789")).isFalse();
+		assertThat(this.map.replace(123, "456", "789")).isTrue();
+		assertThat(this.map.get(123)).isEqualTo("789");
+	}
+
+	@Test
+	public void resize() {
+		LockFreeReferenceHashMap<Integer, String> map = new LockFreeReferenceHashMap<>(1, ReferenceType.WEAK);
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			String value = String.valueOf(i);
+			values.add(value);
+			map.put(i, value);
+		}
+		assertThat(map.size()).isEqualTo(1000);
+		for (int i = 0; i < 1000; i++) {
+			assertThat(map.get(i)).isEqualTo(values.get(i));
+		}
+	}
+
+	@Test
+	public void entrySetAndIterator() {
+		Map<Integer, String> expected = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			expected.put(i, String.valueOf(i));
+			this.map.put(i, String.valueOf(i));
+		}
+		assertThat(this.map.entrySet().size()).isEqualTo(100);
+		assertThat(this.map).isEqualTo(expected);
+		Set<Integer> keys = new HashSet<>();
+		Iterator<Map.Entry<Integer, String>> iterator = this.map.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Integer, String> entry = iterator.next();
+			keys.add(entry.getKey());
+			if (entry.getKey() % 2 == 0) {
+				iterator.remove();
+			}
+		}
+		assertThat(keys.size()).isEqualTo(100);
+		assertThat(this.map.size()).isEqualTo(50);
+		assertThat(this.map.containsKey(2)).isFalse();
+		assertThat(this.map.containsKey(3)).isTrue();
+	}
+
+	@Test
+	public void entrySetValue() {
+		this.map.put(123, "123");
+		Map.Entry<Integer, String> entry = this.map.entrySet().iterator().next();
+		assertThat(entry.setValue("456")).isEqualTo("123");
+		assertThat(this.map.get(123)).isEqualTo("456");
+	}
+
+	@Test
+	public void clear() {
+		for (int i = 0; i < 100; i++) {
+			this.map.put(i, String.valueOf(i));
+		}
+		this.map.clear();
+		assertThat(this.map.size()).isEqualTo(0);
+		assertThat(this.map.containsKey(1)).isFalse();
+		assertThat(this.map.entrySet().iterator().hasNext()).isFalse();
+	}
+
+	@Test
+	public void concurrentReadsAndWrites() throws Exception {
+		LockFreeReferenceHashMap<Integer, Integer> map = new LockFreeReferenceHashMap<>(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int offset = t * 10000;
+				futures.add(executor.submit(() -> {
+					for (int i = offset; i < offset + 10000; i++) {
+						map.put(i, i);
+						assertThat(map.get(i)).isEqualTo(i);
+						if (i % 4 == 0) {
+							assertThat(map.remove(i)).isEqualTo(i);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(map.size()).isEqualTo(60000);
+		for (int i = 0; i < 80000; i++) {
+			assertThat(map.get(i)).isEqualTo(i % 4 == 0 ? null : i);
+		}
+	}
+
+}
@@ -269,6 +269,16 @@ public class MimeTypeTests {
 		MimeTypeUtils.parseMimeType("audio/*;attr=\"");
 	}
 
+	@Test
+	public void parseMimeTypeCached() {
+		String s = "application/vnd.cached+xml";
+		long hitCount = MimeTypeUtils.getMimeTypeCache().hitCount();
+		MimeType mimeType = MimeTypeUtils.parseMimeType(s);
+		assertSame(mimeType, MimeTypeUtils.parseMimeType(s));
+		assertTrue(MimeTypeUtils.getMimeTypeCache().contains(s));
+		assertTrue(MimeTypeUtils.getMimeTypeCache().hitCount() > hitCount);
+	}
+
 	@Test
 	public void parseMimeTypes() {
 		String s = "text/plain, text/html, text/x-dvi, text/x-c";
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Benchmarks for the evaluation of representative SpEL expressions,
+ * in interpreted as well as in compiled mode, including collection
+ * projections and selections, Elvis and safe navigation operators
+ * and varargs method invocations.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class SpelEvaluationBenchmark {
+
+	@Benchmark
+	public Object propertyAccess(BenchmarkState state) {
+		return state.propertyAccess.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object methodInvocation(BenchmarkState state) {
+		return state.methodInvocation.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object booleanCondition(BenchmarkState state) {
+		return state.booleanCondition.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object projection(BenchmarkState state) {
+		return state.projection.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object selection(BenchmarkState state) {
+		return state.selection.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object elvis(BenchmarkState state) {
+		return state.elvis.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object safeNavigation(BenchmarkState state) {
+		return state.safeNavigation.getValue(state.context);
+	}
+
+	@Benchmark
+	public Object varargsMethodInvocation(BenchmarkState state) {
+		return state.varargsMethodInvocation.getValue(state.context);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"OFF", "IMMEDIATE"})
+		public SpelCompilerMode compilerMode;
+
+		public EvaluationContext context;
+
+		public Expression propertyAccess;
+
+		public Expression methodInvocation;
+
+		public Expression booleanCondition;
+
+		public Expression projection;
+
+		public Expression selection;
+
+		public Expression elvis;
+
+		public Expression safeNavigation;
+
+		public Expression varargsMethodInvocation;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			SpelExpressionParser parser = new SpelExpressionParser(
+					new SpelParserConfiguration(this.compilerMode, getClass().getClassLoader()));
+			Person person = new Person("Jane", 42,
+					Arrays.asList(new Person("John", 17), new Person("Joe", 23), new Person("Jill", 31)));
+			this.context = new StandardEvaluationContext(person);
+			this.propertyAccess = parser.parseExpression("name");
+			this.methodInvocation = parser.parseExpression("name.toUpperCase()");
+			this.booleanCondition = parser.parseExpression("age > 18 and name != null");
+			this.projection = parser.parseExpression("friends.![name]");
+			this.selection = parser.parseExpression("friends.?[age > 18]");
+			this.elvis = parser.parseExpression("nickname ?: name");
+			this.safeNavigation = parser.parseExpression("friends?.get(0)?.name");
+			this.varargsMethodInvocation = parser.parseExpression("T(String).join('-', name, nickname, 'x')");
+		}
+	}
+
+
+	public static class Person {
+
+		private final String name;
+
+		private final int age;
+
+		private final List<Person> friends;
+
+		public Person(String name, int age) {
+			this(name, age, Collections.emptyList());
+		}
+
+		public Person(String name, int age, List<Person> friends) {
+			this.name = name;
+			this.age = age;
+			this.friends = friends;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public String getNickname() {
+			return null;
+		}
+
+		public List<Person> getFriends() {
+			return this.friends;
+		}
+	}
+
+}
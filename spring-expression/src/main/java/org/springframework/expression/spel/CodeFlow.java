@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -85,9 +85,17 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 are the target and the evaluation context).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
+
+	/**
+	 * Local variables holding the current target for nested expression evaluation,
+	 * e.g. the current element of a collection projection or selection. If empty,
+	 * the target is the object passed to the compiled expression method.
+	 */
+	private final Deque<Integer> targetVariables = new ArrayDeque<>();
 
 
 	/**
@@ -109,7 +117,29 @@ public class CodeFlow implements Opcodes {
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer targetVariable = this.targetVariables.peek();
+		mv.visitVarInsn(ALOAD, (targetVariable != null ? targetVariable : 1));
+	}
+
+	/**
+	 * Enter a new target scope, in which {@link #loadTarget} loads the given local
+	 * variable rather than the object passed to the compiled expression method.
+	 * For example, a collection projection evaluates its projection expression
+	 * against each element in turn.
+	 * @param variableId the local variable holding the target in this scope
+	 * @since 5.2
+	 * @see #nextFreeVariableId()
+	 */
+	public void enterTargetScope(int variableId) {
+		this.targetVariables.push(variableId);
+	}
+
+	/**
+	 * Exit a target scope, returning to the target of the previous (outer) scope.
+	 * @since 5.2
+	 */
+	public void exitTargetScope() {
+		this.targetVariables.pop();
 	}
 
 	/**
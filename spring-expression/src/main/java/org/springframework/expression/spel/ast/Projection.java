@@ -22,8 +22,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -65,6 +68,9 @@ public class Projection extends SpelNodeImpl {
 		boolean operandIsArray = ObjectUtils.isArray(operand);
 		// TypeDescriptor operandTypeDescriptor = op.getTypeDescriptor();
 
+		// Only projections of Iterables are compilable, as a List of the projected values
+		this.exitTypeDescriptor = (operand instanceof Iterable ? "Ljava/util/List" : null);
+
 		// When the input is a map, we push a special context object on the stack
 		// before calling the specified operation. This special context object
 		// has two fields 'key' and 'value' that refer to the map entries key
@@ -139,6 +145,74 @@ public class Projection extends SpelNodeImpl {
 		return "![" + getChild(0).toStringAST() + "]";
 	}
 
+	/**
+	 * A projection is compilable if it has been evaluated against an Iterable
+	 * and the projection expression is compilable.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl expression = this.children[0];
+		return (this.exitTypeDescriptor != null && expression.isCompilable() &&
+				expression.exitTypeDescriptor != null);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		String lastDesc = cf.lastDescriptor();
+		if (lastDesc == null) {
+			cf.loadTarget(mv);
+		}
+		else {
+			CodeFlow.insertBoxIfNecessary(mv, lastDesc);
+		}
+		Label endOfProjection = new Label();
+		if (this.nullSafe) {
+			Label continueLabel = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, continueLabel);
+			mv.visitTypeInsn(CHECKCAST, "java/util/List");
+			mv.visitJumpInsn(GOTO, endOfProjection);
+			mv.visitLabel(continueLabel);
+		}
+
+		int iteratorVariable = cf.nextFreeVariableId();
+		int elementVariable = cf.nextFreeVariableId();
+		int resultVariable = cf.nextFreeVariableId();
+		mv.visitTypeInsn(CHECKCAST, "java/lang/Iterable");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		mv.visitVarInsn(ASTORE, iteratorVariable);
+		mv.visitTypeInsn(NEW, "java/util/ArrayList");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+		mv.visitVarInsn(ASTORE, resultVariable);
+
+		Label loopStart = new Label();
+		Label loopEnd = new Label();
+		mv.visitLabel(loopStart);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, loopEnd);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ASTORE, elementVariable);
+		mv.visitVarInsn(ALOAD, resultVariable);
+		// Evaluate the projection expression against the current element
+		cf.enterCompilationScope();
+		cf.enterTargetScope(elementVariable);
+		this.children[0].generateCode(mv, cf);
+		CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+		cf.exitTargetScope();
+		cf.exitCompilationScope();
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+		mv.visitInsn(POP);
+		mv.visitJumpInsn(GOTO, loopStart);
+		mv.visitLabel(loopEnd);
+		mv.visitVarInsn(ALOAD, resultVariable);
+
+		mv.visitLabel(endOfProjection);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 	private Class<?> determineCommonType(@Nullable Class<?> oldType, Class<?> newType) {
 		if (oldType == null) {
 			return newType;
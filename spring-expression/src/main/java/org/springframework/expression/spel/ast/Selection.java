@@ -23,9 +23,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.SpelMessage;
@@ -87,6 +90,10 @@ public class Selection extends SpelNodeImpl {
 		Object operand = op.getValue();
 		SpelNodeImpl selectionCriteria = this.children[0];
 
+		// Only selections from Iterables are compilable, as a List or as a single element
+		this.exitTypeDescriptor = (!(operand instanceof Iterable) ? null :
+				this.variant == ALL ? "Ljava/util/List" : "Ljava/lang/Object");
+
 		if (operand instanceof Map) {
 			Map<?, ?> mapdata = (Map<?, ?>) operand;
 			// TODO don't lose generic info for the new map
@@ -208,6 +215,92 @@ public class Selection extends SpelNodeImpl {
 		return prefix() + getChild(0).toStringAST() + "]";
 	}
 
+	/**
+	 * A selection is compilable if it has been evaluated against an Iterable
+	 * and the selection criteria are compilable to a boolean result.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl selectionCriteria = this.children[0];
+		String criteriaDesc = selectionCriteria.exitTypeDescriptor;
+		return (this.exitTypeDescriptor != null && selectionCriteria.isCompilable() &&
+				("Z".equals(criteriaDesc) || "Ljava/lang/Boolean".equals(criteriaDesc)));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		String lastDesc = cf.lastDescriptor();
+		if (lastDesc == null) {
+			cf.loadTarget(mv);
+		}
+		else {
+			CodeFlow.insertBoxIfNecessary(mv, lastDesc);
+		}
+		Label endOfSelection = new Label();
+		if (this.nullSafe) {
+			Label continueLabel = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, continueLabel);
+			CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
+			mv.visitJumpInsn(GOTO, endOfSelection);
+			mv.visitLabel(continueLabel);
+		}
+
+		int iteratorVariable = cf.nextFreeVariableId();
+		int elementVariable = cf.nextFreeVariableId();
+		int resultVariable = cf.nextFreeVariableId();
+		mv.visitTypeInsn(CHECKCAST, "java/lang/Iterable");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		mv.visitVarInsn(ASTORE, iteratorVariable);
+		if (this.variant == ALL) {
+			mv.visitTypeInsn(NEW, "java/util/ArrayList");
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+		}
+		else {
+			mv.visitInsn(ACONST_NULL);
+		}
+		mv.visitVarInsn(ASTORE, resultVariable);
+
+		Label loopStart = new Label();
+		Label loopEnd = new Label();
+		mv.visitLabel(loopStart);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, loopEnd);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ASTORE, elementVariable);
+		// Evaluate the selection criteria against the current element
+		cf.enterCompilationScope();
+		cf.enterTargetScope(elementVariable);
+		this.children[0].generateCode(mv, cf);
+		cf.unboxBooleanIfNecessary(mv);
+		cf.exitTargetScope();
+		cf.exitCompilationScope();
+		mv.visitJumpInsn(IFEQ, loopStart);
+		mv.visitVarInsn(ALOAD, elementVariable);
+		if (this.variant == ALL) {
+			mv.visitVarInsn(ALOAD, resultVariable);
+			mv.visitInsn(SWAP);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+			mv.visitInsn(POP);
+			mv.visitJumpInsn(GOTO, loopStart);
+		}
+		else if (this.variant == LAST) {
+			mv.visitVarInsn(ASTORE, resultVariable);
+			mv.visitJumpInsn(GOTO, loopStart);
+		}
+		else {
+			mv.visitJumpInsn(GOTO, endOfSelection);
+		}
+		mv.visitLabel(loopEnd);
+		mv.visitVarInsn(ALOAD, resultVariable);
+
+		mv.visitLabel(endOfSelection);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 	private String prefix() {
 		switch (this.variant) {
 			case ALL:   return "?[";
@@ -66,15 +66,22 @@ public class VariableReference extends SpelNodeImpl {
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws SpelEvaluationException {
 		if (this.name.equals(THIS)) {
-			return state.getActiveContextObject();
+			TypedValue result = state.getActiveContextObject();
+			setExitTypeDescriptor(result.getValue());
+			return result;
 		}
 		if (this.name.equals(ROOT)) {
 			TypedValue result = state.getRootContextObject();
-			this.exitTypeDescriptor = CodeFlow.toDescriptorFromObject(result.getValue());
+			setExitTypeDescriptor(result.getValue());
 			return result;
 		}
 		TypedValue result = state.lookupVariable(this.name);
-		Object value = result.getValue();
+		setExitTypeDescriptor(result.getValue());
+		// a null value will mean either the value was null or the variable was not found
+		return result;
+	}
+
+	private void setExitTypeDescriptor(@Nullable Object value) {
 		if (value == null || !Modifier.isPublic(value.getClass().getModifiers())) {
 			// If the type is not public then when generateCode produces a checkcast to it
 			// then an IllegalAccessError will occur.
@@ -85,8 +92,6 @@ public class VariableReference extends SpelNodeImpl {
 		else {
 			this.exitTypeDescriptor = CodeFlow.toDescriptorFromObject(value);
 		}
-		// a null value will mean either the value was null or the variable was not found
-		return result;
 	}
 
 	@Override
@@ -111,7 +116,17 @@ public class VariableReference extends SpelNodeImpl {
 
 	@Override
 	public void generateCode(MethodVisitor mv, CodeFlow cf) {
-		if (this.name.equals(ROOT)) {
+		if (this.name.equals(THIS)) {
+			// The active context object is either on the stack already or the current target
+			String lastDesc = cf.lastDescriptor();
+			if (lastDesc == null) {
+				cf.loadTarget(mv);
+			}
+			else if (CodeFlow.isPrimitive(lastDesc)) {
+				CodeFlow.insertBoxIfNecessary(mv, lastDesc.charAt(0));
+			}
+		}
+		else if (this.name.equals(ROOT)) {
 			mv.visitVarInsn(ALOAD,1);
 		}
 		else {
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -1028,7 +1029,7 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 
 		expression = parser.parseExpression("#negate(#ints.?[#this<2][0])");
 		assertEquals("-1", expression.getValue(context, Integer.class).toString());
-		// Selection isn't compilable.
+		// Selection over an array isn't compilable.
 		assertFalse(((SpelNodeImpl)((SpelExpression) expression).getAST()).isCompilable());
 	}
 
@@ -5109,6 +5110,94 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertIsCompiled(exp);
 	}
 
+	@Test
+	public void projection() throws Exception {
+		List<String> names = Arrays.asList("a", "bb", "ccc");
+		expression = parser.parseExpression("![length()]");
+		assertEquals(Arrays.asList(1, 2, 3), expression.getValue(names));
+		assertCanCompile(expression);
+		assertEquals(Arrays.asList(1, 2, 3), expression.getValue(names));
+		assertEquals(Collections.emptyList(), expression.getValue(Collections.emptyList()));
+
+		expression = parser.parseExpression("![#this.toUpperCase()].size()");
+		assertEquals(3, expression.getValue(names));
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue(names));
+
+		expression = parser.parseExpression("![#root.size() + length()]");
+		assertEquals(Arrays.asList(4, 5, 6), expression.getValue(names));
+		assertCanCompile(expression);
+		assertEquals(Arrays.asList(4, 5, 6), expression.getValue(names));
+
+		List<List<Integer>> nested = Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3));
+		expression = parser.parseExpression("![#this.![#this * 10]]");
+		assertEquals(Arrays.asList(Arrays.asList(10, 20), Arrays.asList(30)), expression.getValue(nested));
+		assertCanCompile(expression);
+		assertEquals(Arrays.asList(Arrays.asList(10, 20), Arrays.asList(30)), expression.getValue(nested));
+
+		// Projections of arrays and maps are not compiled
+		expression = parser.parseExpression("![length()]");
+		expression.getValue(new String[] {"a", "bb"});
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void selection() throws Exception {
+		List<Integer> numbers = Arrays.asList(1, 2, 3, 4);
+		expression = parser.parseExpression("?[#this > 2]");
+		assertEquals(Arrays.asList(3, 4), expression.getValue(numbers));
+		assertCanCompile(expression);
+		assertEquals(Arrays.asList(3, 4), expression.getValue(numbers));
+
+		expression = parser.parseExpression("^[#this > 2]");
+		assertEquals(3, expression.getValue(numbers));
+		assertCanCompile(expression);
+		assertEquals(3, expression.getValue(numbers));
+		assertNull(expression.getValue(Arrays.asList(1, 2)));
+
+		expression = parser.parseExpression("$[#this > 2]");
+		assertEquals(4, expression.getValue(numbers));
+		assertCanCompile(expression);
+		assertEquals(4, expression.getValue(numbers));
+		assertNull(expression.getValue(Arrays.asList(1, 2)));
+
+		expression = parser.parseExpression("?[#this > 2].![#this * 10]");
+		assertEquals(Arrays.asList(30, 40), expression.getValue(numbers));
+		assertCanCompile(expression);
+		assertEquals(Arrays.asList(30, 40), expression.getValue(numbers));
+
+		List<String> names = Arrays.asList("a", "bb", "ccc");
+		expression = parser.parseExpression("?[startsWith('b') or length() == 3]");
+		assertEquals(Arrays.asList("bb", "ccc"), expression.getValue(names));
+		assertCanCompile(expression);
+		assertEquals(Arrays.asList("bb", "ccc"), expression.getValue(names));
+
+		// Selections from maps are not compiled
+		expression = parser.parseExpression("?[value > 1]");
+		expression.getValue(Collections.singletonMap("a", 2));
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void nullSafeProjectionAndSelection() throws Exception {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.setVariable("names", Arrays.asList("a", "bb"));
+		expression = parser.parseExpression("#names?.![length()]");
+		assertEquals(Arrays.asList(1, 2), expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(Arrays.asList(1, 2), expression.getValue(context));
+		context.setVariable("names", null);
+		assertNull(expression.getValue(context));
+
+		context.setVariable("names", Arrays.asList("a", "bb"));
+		expression = parser.parseExpression("#names?.?[length() > 1]");
+		assertEquals(Collections.singletonList("bb"), expression.getValue(context));
+		assertCanCompile(expression);
+		assertEquals(Collections.singletonList("bb"), expression.getValue(context));
+		context.setVariable("names", null);
+		assertNull(expression.getValue(context));
+	}
+
 	@Test
 	public void repeatedCompilation() throws Exception {
 		// Verifying that after a number of compilations, the classloaders
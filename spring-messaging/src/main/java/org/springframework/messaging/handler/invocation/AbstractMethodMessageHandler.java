@@ -38,6 +38,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.invoke.MethodAccessorFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandler;
@@ -104,6 +105,9 @@ public abstract class AbstractMethodMessageHandler<T>
 	private final HandlerMethodReturnValueHandlerComposite returnValueHandlers =
 			new HandlerMethodReturnValueHandlerComposite();
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 	@Nullable
 	private ApplicationContext applicationContext;
 
@@ -219,6 +223,27 @@ public abstract class AbstractMethodMessageHandler<T>
 		return this.returnValueHandlers.getReturnValueHandlers();
 	}
 
+	/**
+	 * Configure the {@link MethodAccessorFactory} to use for invoking handler
+	 * methods and exception handler methods, e.g. a
+	 * {@link org.springframework.core.invoke.GeneratedMethodAccessorFactory}
+	 * to avoid reflective invocation.
+	 * <p>By default, handler methods are invoked via reflection.
+	 * @since 5.2
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
+	/**
+	 * Return the configured {@link MethodAccessorFactory}, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public MethodAccessorFactory getMethodAccessorFactory() {
+		return this.methodAccessorFactory;
+	}
+
 	@Override
 	public void setApplicationContext(@Nullable ApplicationContext applicationContext) {
 		this.applicationContext = applicationContext;
@@ -561,6 +586,7 @@ public abstract class AbstractMethodMessageHandler<T>
 			invocable.setLogger(this.handlerMethodLogger);
 		}
 		invocable.setMessageMethodArgumentResolvers(this.argumentResolvers);
+		invocable.setMethodAccessorFactory(this.methodAccessorFactory);
 		try {
 			Object returnValue = invocable.invoke(message);
 			MethodParameter returnType = handlerMethod.getReturnType();
@@ -594,6 +620,7 @@ public abstract class AbstractMethodMessageHandler<T>
 			return;
 		}
 		invocable.setMessageMethodArgumentResolvers(this.argumentResolvers);
+		invocable.setMethodAccessorFactory(this.methodAccessorFactory);
 		if (logger.isDebugEnabled()) {
 			logger.debug("Invoking " + invocable.getShortLogMessage());
 		}
@@ -25,6 +25,7 @@ import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.invoke.MethodAccessorFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.HandlerMethod;
@@ -49,6 +50,9 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 
 	/**
 	 * Create an instance from a {@code HandlerMethod}.
@@ -94,6 +98,17 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking the handler method,
+	 * e.g. a {@link org.springframework.core.invoke.GeneratedMethodAccessorFactory}
+	 * to avoid reflective invocation.
+	 * <p>By default, the handler method is invoked via reflection.
+	 * @since 5.2
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
 
 	/**
 	 * Invoke the method after resolving its argument values in the context of the given message.
@@ -166,8 +181,11 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 */
 	@Nullable
 	protected Object doInvoke(Object... args) throws Exception {
-		ReflectionUtils.makeAccessible(getBridgedMethod());
 		try {
+			if (this.methodAccessorFactory != null) {
+				return this.methodAccessorFactory.getMethodAccessor(getBridgedMethod()).invoke(getBean(), args);
+			}
+			ReflectionUtils.makeAccessible(getBridgedMethod());
 			return getBridgedMethod().invoke(getBean(), args);
 		}
 		catch (IllegalArgumentException ex) {
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmarks for {@link Jackson2JsonEncoder} and {@link Jackson2JsonDecoder},
+ * for single values as well as for streams of values.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonCodecBenchmark {
+
+	@Benchmark
+	public void encodeValue(BenchmarkState state, Blackhole blackhole) {
+		DataBuffer buffer = state.encoder.encodeValue(state.pojo, state.bufferFactory,
+				state.pojoType, MediaType.APPLICATION_JSON, Collections.emptyMap());
+		blackhole.consume(buffer.readableByteCount());
+		DataBufferUtils.release(buffer);
+	}
+
+	@Benchmark
+	public void encodeStream(BenchmarkState state, Blackhole blackhole) {
+		state.encoder.encode(Flux.fromIterable(state.pojos), state.bufferFactory,
+				state.pojoType, MediaType.APPLICATION_STREAM_JSON, Collections.emptyMap())
+				.doOnNext(buffer -> {
+					blackhole.consume(buffer.readableByteCount());
+					DataBufferUtils.release(buffer);
+				})
+				.blockLast();
+	}
+
+	@Benchmark
+	public Object decodeValue(BenchmarkState state) {
+		DataBuffer buffer = state.bufferFactory.wrap(state.json);
+		return state.decoder.decode(buffer, state.pojoType, MediaType.APPLICATION_JSON, Collections.emptyMap());
+	}
+
+	@Benchmark
+	public List<Object> decodeArray(BenchmarkState state) {
+		DataBuffer buffer = state.bufferFactory.wrap(state.jsonArray);
+		return state.decoder.decode(Flux.just(buffer), state.pojoType,
+				MediaType.APPLICATION_JSON, Collections.emptyMap()).collectList().block();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"10", "100"})
+		public int elementCount;
+
+		public Jackson2JsonEncoder encoder;
+
+		public Jackson2JsonDecoder decoder;
+
+		public DataBufferFactory bufferFactory;
+
+		public ResolvableType pojoType;
+
+		public Pojo pojo;
+
+		public List<Pojo> pojos;
+
+		public byte[] json;
+
+		public byte[] jsonArray;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.encoder = new Jackson2JsonEncoder();
+			this.decoder = new Jackson2JsonDecoder();
+			this.bufferFactory = new DefaultDataBufferFactory();
+			this.pojoType = ResolvableType.forClass(Pojo.class);
+			this.pojo = new Pojo("foo", "bar", 42);
+			this.pojos = new ArrayList<>(this.elementCount);
+			StringBuilder array = new StringBuilder("[");
+			for (int i = 0; i < this.elementCount; i++) {
+				this.pojos.add(new Pojo("foo" + i, "bar" + i, i));
+				array.append(i > 0 ? "," : "").append(json("foo" + i, "bar" + i, i));
+			}
+			this.json = json("foo", "bar", 42).getBytes(StandardCharsets.UTF_8);
+			this.jsonArray = array.append("]").toString().getBytes(StandardCharsets.UTF_8);
+		}
+
+		private static String json(String foo, String bar, int count) {
+			return "{\"foo\":\"" + foo + "\",\"bar\":\"" + bar + "\",\"count\":" + count + "}";
+		}
+	}
+
+
+	public static class Pojo {
+
+		private String foo;
+
+		private String bar;
+
+		private int count;
+
+		public Pojo() {
+		}
+
+		public Pojo(String foo, String bar, int count) {
+			this.foo = foo;
+			this.bar = bar;
+			this.count = count;
+		}
+
+		public String getFoo() {
+			return this.foo;
+		}
+
+		public void setFoo(String foo) {
+			this.foo = foo;
+		}
+
+		public String getBar() {
+			return this.bar;
+		}
+
+		public void setBar(String bar) {
+			this.bar = bar;
+		}
+
+		public int getCount() {
+			return this.count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+	}
+
+}
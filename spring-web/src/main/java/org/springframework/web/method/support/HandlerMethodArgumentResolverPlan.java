@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method.support;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * The {@link HandlerMethodArgumentResolver} selected for each parameter of a
+ * {@link HandlerMethod}, determined once so that an {@link InvocableHandlerMethod}
+ * can resolve its arguments without looking up a resolver per parameter
+ * and per invocation.
+ *
+ * <p>A plan applies to invocable handler methods that share the
+ * {@link HandlerMethod#getMethodParameters() method parameters} of the handler
+ * method it was created for, e.g. those created for the same handler method
+ * per request, and that use the same {@link HandlerMethodArgumentResolverComposite}.
+ *
+ * @since 5.2
+ * @see InvocableHandlerMethod#setArgumentResolverPlan
+ */
+public final class HandlerMethodArgumentResolverPlan {
+
+	private final MethodParameter[] parameters;
+
+	private final HandlerMethodArgumentResolverComposite resolvers;
+
+	private final HandlerMethodArgumentResolver[] argumentResolvers;
+
+
+	/**
+	 * Create a plan for the given handler method.
+	 * @param handlerMethod the handler method to select argument resolvers for
+	 * @param resolvers the argument resolvers to select from
+	 */
+	public HandlerMethodArgumentResolverPlan(
+			HandlerMethod handlerMethod, HandlerMethodArgumentResolverComposite resolvers) {
+
+		Assert.notNull(handlerMethod, "HandlerMethod is required");
+		Assert.notNull(resolvers, "HandlerMethodArgumentResolverComposite is required");
+		this.parameters = handlerMethod.getMethodParameters();
+		this.resolvers = resolvers;
+		this.argumentResolvers = new HandlerMethodArgumentResolver[this.parameters.length];
+		for (int i = 0; i < this.parameters.length; i++) {
+			this.argumentResolvers[i] = resolvers.getArgumentResolver(this.parameters[i]);
+		}
+	}
+
+
+	/**
+	 * Whether this plan applies to the given method parameters and resolvers.
+	 * @param parameters the method parameters of the handler method to invoke
+	 * @param resolvers the argument resolvers of the handler method to invoke
+	 */
+	public boolean isApplicableTo(MethodParameter[] parameters, HandlerMethodArgumentResolverComposite resolvers) {
+		return (this.parameters == parameters && this.resolvers == resolvers);
+	}
+
+	/**
+	 * Return the argument resolver for the parameter at the given index.
+	 * @param parameterIndex the index of the method parameter
+	 * @return the selected resolver, or {@code null} if no resolver supports the parameter
+	 */
+	@Nullable
+	public HandlerMethodArgumentResolver getArgumentResolver(int parameterIndex) {
+		return this.argumentResolvers[parameterIndex];
+	}
+
+}
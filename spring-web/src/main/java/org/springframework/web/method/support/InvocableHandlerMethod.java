@@ -23,6 +23,7 @@ import java.util.Arrays;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.invoke.MethodAccessorFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
@@ -51,8 +52,14 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private HandlerMethodArgumentResolverComposite resolvers = new HandlerMethodArgumentResolverComposite();
 
+	@Nullable
+	private HandlerMethodArgumentResolverPlan argumentResolverPlan;
+
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 
 	/**
 	 * Create an instance from a {@code HandlerMethod}.
@@ -98,6 +105,17 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		this.resolvers = argumentResolvers;
 	}
 
+	/**
+	 * Set a {@link HandlerMethodArgumentResolverPlan} with the argument resolvers
+	 * selected for the parameters of this handler method ahead of time. The plan
+	 * is used if it applies to this handler method and its configured
+	 * {@link #setHandlerMethodArgumentResolvers resolvers}, and ignored otherwise.
+	 * @since 5.2
+	 */
+	public void setArgumentResolverPlan(@Nullable HandlerMethodArgumentResolverPlan argumentResolverPlan) {
+		this.argumentResolverPlan = argumentResolverPlan;
+	}
+
 	/**
 	 * Set the ParameterNameDiscoverer for resolving parameter names when needed
 	 * (e.g. default request attribute name).
@@ -107,6 +125,17 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking the handler method,
+	 * e.g. a {@link org.springframework.core.invoke.GeneratedMethodAccessorFactory}
+	 * to avoid reflective invocation.
+	 * <p>By default, the handler method is invoked via reflection.
+	 * @since 5.2
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
 
 	/**
 	 * Invoke the method after resolving its argument values in the context of the given request.
@@ -152,6 +181,11 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			return EMPTY_ARGS;
 		}
 
+		HandlerMethodArgumentResolverPlan plan = this.argumentResolverPlan;
+		if (plan != null && !plan.isApplicableTo(parameters, this.resolvers)) {
+			plan = null;
+		}
+
 		Object[] args = new Object[parameters.length];
 		for (int i = 0; i < parameters.length; i++) {
 			MethodParameter parameter = parameters[i];
@@ -160,11 +194,20 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			if (args[i] != null) {
 				continue;
 			}
-			if (!this.resolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = null;
+			if (plan != null) {
+				resolver = plan.getArgumentResolver(i);
+				if (resolver == null) {
+					throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
+				}
+			}
+			else if (!this.resolvers.supportsParameter(parameter)) {
 				throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
 			}
 			try {
-				args[i] = this.resolvers.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
+				args[i] = (resolver != null ?
+						resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory) :
+						this.resolvers.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory));
 			}
 			catch (Exception ex) {
 				// Leave stack trace for later, exception may actually be resolved and handled...
@@ -185,8 +228,11 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 */
 	@Nullable
 	protected Object doInvoke(Object... args) throws Exception {
-		ReflectionUtils.makeAccessible(getBridgedMethod());
 		try {
+			if (this.methodAccessorFactory != null) {
+				return this.methodAccessorFactory.getMethodAccessor(getBridgedMethod()).invoke(getBean(), args);
+			}
+			ReflectionUtils.makeAccessible(getBridgedMethod());
 			return getBridgedMethod().invoke(getBean(), args);
 		}
 		catch (IllegalArgumentException ex) {
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+
+/**
+ * A combined index over a set of {@link PathPattern PathPatterns}, used to
+ * narrow down the values (e.g. handler mappings or routes) that need to be
+ * matched against a given path, such that lookups scale with the depth of the
+ * path rather than with the number of registered patterns.
+ *
+ * <p>The parsed element chains of all patterns are merged into a shared tree
+ * keyed by their leading literal segments, i.e. the segments before the first
+ * one that contains a wildcard or a URI variable. For example a value registered
+ * with {@code "/api/orders/{id}"} is stored under {@code "api" -> "orders"}.
+ * A lookup walks the segments of the path down the tree and returns all values
+ * found along the way: a superset of the values with a pattern matching the path,
+ * which then still need to be matched individually. Values without patterns, or
+ * with a pattern that starts with a non-literal segment, are always returned.
+ * Literal segments of case-insensitive patterns are matched case-insensitively.
+ *
+ * <p>Candidates are returned in the order in which their values were first
+ * added and without duplicates, so that processing them in order gives the same
+ * result as processing all values in order.
+ *
+ * <p>This class is not thread-safe. Callers are expected to guard concurrent
+ * modifications and lookups, or to publish a fully populated index safely.
+ *
+ * @since 5.2
+ * @param <T> the type of value associated with patterns
+ */
+public class PathPatternIndex<T> {
+
+	private final Node<T> root = new Node<>();
+
+	private final Map<T, Entry<T>> entries = new HashMap<>();
+
+	private long registrationCounter;
+
+
+	/**
+	 * Add a value for the given patterns, or update the patterns of a value
+	 * that was added before while preserving its original order.
+	 * @param value the value to add
+	 * @param patterns all patterns that the value can match, or an empty
+	 * collection if the value is to be considered for any path
+	 */
+	public void add(T value, Collection<PathPattern> patterns) {
+		Entry<T> existing = this.entries.remove(value);
+		if (existing != null) {
+			detach(existing);
+		}
+		long order = (existing != null ? existing.order : this.registrationCounter++);
+		Entry<T> entry = new Entry<>(value, order);
+		if (patterns.isEmpty()) {
+			attach(entry, this.root);
+		}
+		else {
+			for (PathPattern pattern : patterns) {
+				attach(entry, getOrCreateNode(pattern));
+			}
+		}
+		this.entries.put(value, entry);
+	}
+
+	private Node<T> getOrCreateNode(PathPattern pattern) {
+		Node<T> node = this.root;
+		PathElement element = pattern.getHeadSection();
+		while (element != null) {
+			if (element instanceof SeparatorPathElement) {
+				element = element.next;
+				continue;
+			}
+			if (!(element instanceof LiteralPathElement) || !isSegmentEnd(element.next)) {
+				break;
+			}
+			LiteralPathElement literal = (LiteralPathElement) element;
+			node = node.getOrCreateChild(new String(literal.getChars()), literal.isCaseSensitive());
+			element = element.next;
+		}
+		return node;
+	}
+
+	private static boolean isSegmentEnd(@Nullable PathElement next) {
+		// "/**" and "/{*path}" start with a separator and also match an empty remainder
+		return (next == null || next instanceof SeparatorPathElement ||
+				next instanceof WildcardTheRestPathElement || next instanceof CaptureTheRestPathElement);
+	}
+
+	/**
+	 * Remove the given value, if present.
+	 * @param value the value to remove
+	 */
+	public void remove(T value) {
+		Entry<T> entry = this.entries.remove(value);
+		if (entry != null) {
+			detach(entry);
+		}
+	}
+
+	/**
+	 * Return the number of values in this index.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Return the values with patterns that can possibly match the given path,
+	 * in the order in which they were added.
+	 * @param path the path to look up
+	 * @return the candidate values (never {@code null})
+	 */
+	public List<T> getCandidates(PathContainer path) {
+		List<Node<T>> visited = new ArrayList<>();
+		List<Node<T>> current = Collections.singletonList(this.root);
+		for (PathContainer.Element element : path.elements()) {
+			if (!(element instanceof PathContainer.PathSegment)) {
+				continue;
+			}
+			String segment = ((PathContainer.PathSegment) element).valueToMatch();
+			if (segment.isEmpty()) {
+				continue;
+			}
+			visited.addAll(current);
+			List<Node<T>> next = null;
+			for (Node<T> node : current) {
+				next = node.addChildren(segment, next);
+			}
+			if (next == null) {
+				current = Collections.emptyList();
+				break;
+			}
+			current = next;
+		}
+		visited.addAll(current);
+		return collect(visited);
+	}
+
+	private List<T> collect(List<Node<T>> nodes) {
+		List<Entry<T>> found = new ArrayList<>();
+		for (Node<T> node : nodes) {
+			found.addAll(node.entries);
+		}
+		if (found.size() > 1) {
+			found.sort((entry1, entry2) -> Long.compare(entry1.order, entry2.order));
+		}
+		List<T> result = new ArrayList<>(found.size());
+		Entry<T> previous = null;
+		for (Entry<T> entry : found) {
+			if (entry != previous) {
+				result.add(entry.value);
+			}
+			previous = entry;
+		}
+		return result;
+	}
+
+	private void attach(Entry<T> entry, Node<T> node) {
+		if (entry.nodes.add(node)) {
+			node.entries.add(entry);
+		}
+	}
+
+	private void detach(Entry<T> entry) {
+		for (Node<T> node : entry.nodes) {
+			node.entries.remove(entry);
+		}
+	}
+
+
+	private static final class Node<T> {
+
+		@Nullable
+		private Map<String, Node<T>> children;
+
+		@Nullable
+		private Map<String, Node<T>> childrenIgnoringCase;
+
+		private final List<Entry<T>> entries = new ArrayList<>(1);
+
+		Node<T> getOrCreateChild(String segment, boolean caseSensitive) {
+			if (caseSensitive) {
+				if (this.children == null) {
+					this.children = new HashMap<>(4);
+				}
+				return this.children.computeIfAbsent(segment, key -> new Node<>());
+			}
+			else {
+				if (this.childrenIgnoringCase == null) {
+					this.childrenIgnoringCase = new HashMap<>(4);
+				}
+				return this.childrenIgnoringCase.computeIfAbsent(segment, key -> new Node<>());
+			}
+		}
+
+		@Nullable
+		List<Node<T>> addChildren(String segment, @Nullable List<Node<T>> result) {
+			Node<T> child = (this.children != null ? this.children.get(segment) : null);
+			if (child != null) {
+				result = (result != null ? result : new ArrayList<>(1));
+				result.add(child);
+			}
+			child = (this.childrenIgnoringCase != null ? this.childrenIgnoringCase.get(toLowerCase(segment)) : null);
+			if (child != null) {
+				result = (result != null ? result : new ArrayList<>(1));
+				result.add(child);
+			}
+			return result;
+		}
+
+		private static String toLowerCase(String segment) {
+			// Same per-character conversion as in LiteralPathElement
+			char[] chars = segment.toCharArray();
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = Character.toLowerCase(chars[i]);
+			}
+			return new String(chars);
+		}
+	}
+
+
+	private static final class Entry<T> {
+
+		private final T value;
+
+		private final long order;
+
+		private final Set<Node<T>> nodes = new LinkedHashSet<>(2);
+
+		Entry(T value, long order) {
+			this.value = value;
+			this.order = order;
+		}
+	}
+
+}
@@ -22,6 +22,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import org.springframework.core.MethodParameter;
+import org.springframework.core.invoke.GeneratedMethodAccessorFactory;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
 import org.springframework.web.bind.support.WebDataBinderFactory;
@@ -194,6 +195,82 @@ public class InvocableHandlerMethodTests {
 		}
 	}
 
+	@Test
+	public void resolveArgWithPlan() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(99));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+		InvocableHandlerMethod handlerMethod = getInvocable(Integer.class, String.class);
+		HandlerMethodArgumentResolverPlan plan = new HandlerMethodArgumentResolverPlan(handlerMethod, this.composite);
+		assertSame(getStubResolver(0), plan.getArgumentResolver(0));
+		assertSame(getStubResolver(1), plan.getArgumentResolver(1));
+
+		InvocableHandlerMethod copy = new InvocableHandlerMethod(handlerMethod);
+		copy.setHandlerMethodArgumentResolvers(this.composite);
+		copy.setArgumentResolverPlan(plan);
+		assertTrue(plan.isApplicableTo(copy.getMethodParameters(), this.composite));
+
+		assertEquals("99-value", copy.invokeForRequest(this.request, null));
+		assertEquals("2-value", copy.invokeForRequest(this.request, null, 2));
+		assertEquals(2, getStubResolver(0).getResolvedParameters().size());
+		assertEquals(2, getStubResolver(1).getResolvedParameters().size());
+	}
+
+	@Test
+	public void cannotResolveArgWithPlan() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver("value"));
+		InvocableHandlerMethod handlerMethod = getInvocable(Integer.class, String.class);
+		handlerMethod.setArgumentResolverPlan(new HandlerMethodArgumentResolverPlan(handlerMethod, this.composite));
+		try {
+			handlerMethod.invokeForRequest(this.request, null);
+			fail("Expected exception");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("Could not resolve parameter [0]"));
+		}
+	}
+
+	@Test
+	public void planNotApplicableToOtherResolvers() throws Exception {
+		HandlerMethodArgumentResolverComposite otherComposite = new HandlerMethodArgumentResolverComposite();
+		otherComposite.addResolver(new StubArgumentResolver(1));
+		otherComposite.addResolver(new StubArgumentResolver("other"));
+		this.composite.addResolver(new StubArgumentResolver(99));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+		InvocableHandlerMethod handlerMethod = getInvocable(Integer.class, String.class);
+		handlerMethod.setArgumentResolverPlan(new HandlerMethodArgumentResolverPlan(handlerMethod, otherComposite));
+
+		assertEquals("99-value", handlerMethod.invokeForRequest(this.request, null));
+	}
+
+	@Test
+	public void invokeWithMethodAccessorFactory() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(99));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+		Method method = ResolvableMethod.on(PublicHandler.class).argTypes(Integer.class, String.class).resolveMethod();
+		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(new PublicHandler(), method);
+		handlerMethod.setHandlerMethodArgumentResolvers(this.composite);
+		handlerMethod.setMethodAccessorFactory(new GeneratedMethodAccessorFactory());
+
+		assertEquals("99-value", handlerMethod.invokeForRequest(this.request, null));
+	}
+
+	@Test
+	public void invocationTargetExceptionWithMethodAccessorFactory() throws Exception {
+		Method method = ResolvableMethod.on(PublicHandler.class).argTypes(Throwable.class).resolveMethod();
+		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(new PublicHandler(), method);
+		handlerMethod.setHandlerMethodArgumentResolvers(this.composite);
+		handlerMethod.setMethodAccessorFactory(new GeneratedMethodAccessorFactory());
+
+		Throwable expected = new Exception("error");
+		try {
+			handlerMethod.invokeForRequest(this.request, null, expected);
+			fail("Expected exception");
+		}
+		catch (Exception actual) {
+			assertSame(expected, actual);
+		}
+	}
+
 	private InvocableHandlerMethod getInvocable(Class<?>... argTypes) {
 		Method method = ResolvableMethod.on(Handler.class).argTypes(argTypes).resolveMethod();
 		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(new Handler(), method);
@@ -223,6 +300,19 @@ public class InvocableHandlerMethodTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	public static class PublicHandler {
+
+		public String handle(Integer intArg, String stringArg) {
+			return intArg + "-" + stringArg;
+		}
+
+		public void handleWithException(Throwable ex) throws Throwable {
+			throw ex;
+		}
+	}
+
+
 	private static class ExceptionRaisingArgumentResolver implements HandlerMethodArgumentResolver {
 
 		@Override
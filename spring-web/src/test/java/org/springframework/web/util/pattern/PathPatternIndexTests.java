@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.http.server.PathContainer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for {@link PathPatternIndex}.
+ */
+public class PathPatternIndexTests {
+
+	private final PathPatternParser parser = new PathPatternParser();
+
+	private final PathPatternIndex<String> index = new PathPatternIndex<>();
+
+
+	@Test
+	public void literalPatterns() {
+		add("a", "/foo");
+		add("b", "/foo/bar");
+		add("c", "/bar");
+
+		assertCandidates("/foo", "a");
+		assertCandidates("/foo/bar", "a", "b");
+		assertCandidates("/foo/bar/baz", "a", "b");
+		assertCandidates("/bar", "c");
+		assertCandidates("/baz");
+		assertCandidates("/");
+	}
+
+	@Test
+	public void wildcardAndVariablePatterns() {
+		add("a", "/api/orders/{id}");
+		add("b", "/api/*/items");
+		add("c", "/api/order*");
+		add("d", "/{version}/orders");
+		add("e", "/static/**");
+
+		assertCandidates("/api/orders/1", "a", "b", "c", "d");
+		assertCandidates("/api/customers/items", "b", "c", "d");
+		assertCandidates("/static/css/app.css", "d", "e");
+		assertCandidates("/other", "d");
+	}
+
+	@Test
+	public void candidatesInRegistrationOrder() {
+		add("a", "/foo/bar");
+		add("b", "/**");
+		add("c", "/foo", "/foo/bar");
+		add("d", "/foo/{bar}");
+
+		assertCandidates("/foo/bar", "a", "b", "c", "d");
+		assertCandidates("/foo/baz", "b", "c", "d");
+	}
+
+	@Test
+	public void valueWithoutPatterns() {
+		this.index.add("a", Collections.emptySet());
+		add("b", "/foo");
+
+		assertCandidates("/foo", "a", "b");
+		assertCandidates("/bar", "a");
+	}
+
+	@Test
+	public void caseInsensitivePatterns() {
+		PathPatternParser caseInsensitiveParser = new PathPatternParser();
+		caseInsensitiveParser.setCaseSensitive(false);
+		this.index.add("a", Collections.singleton(caseInsensitiveParser.parse("/Foo/Bar")));
+		add("b", "/Foo/bar");
+
+		assertCandidates("/foo/BAR", "a");
+		assertCandidates("/Foo/bar", "a", "b");
+	}
+
+	@Test
+	public void pathWithEmptySegmentsAndMatrixVariables() {
+		add("a", "/foo/bar");
+
+		assertCandidates("/foo//bar/", "a");
+		assertCandidates("/foo;a=b/bar;c=d", "a");
+	}
+
+	@Test
+	public void updateAndRemove() {
+		add("a", "/foo");
+		add("b", "/bar");
+		add("a", "/bar");
+
+		assertEquals(2, this.index.size());
+		assertCandidates("/foo");
+		assertCandidates("/bar", "a", "b");
+
+		this.index.remove("a");
+		assertEquals(1, this.index.size());
+		assertCandidates("/bar", "b");
+	}
+
+
+	private void add(String value, String... patterns) {
+		List<PathPattern> parsed = new ArrayList<>();
+		for (String pattern : patterns) {
+			parsed.add(this.parser.parse(pattern));
+		}
+		this.index.add(value, parsed);
+	}
+
+	private void assertCandidates(String path, String... expected) {
+		assertEquals(Arrays.asList(expected), this.index.getCandidates(PathContainer.parsePath(path)));
+	}
+
+}
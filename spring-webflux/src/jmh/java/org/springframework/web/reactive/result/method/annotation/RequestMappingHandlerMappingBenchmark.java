@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.result.method.annotation;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+
+/**
+ * Benchmarks for the handler method lookup performed by the WebFlux
+ * {@link RequestMappingHandlerMapping}, for literal as well as for URI template
+ * patterns against a varying number of registered mappings.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RequestMappingHandlerMappingBenchmark {
+
+	@Benchmark
+	public Object literalPathMatch(BenchmarkState state) {
+		return state.handlerMapping.getHandler(
+				MockServerWebExchange.from(MockServerHttpRequest.get(state.literalPath))).block();
+	}
+
+	@Benchmark
+	public Object patternMatch(BenchmarkState state) {
+		return state.handlerMapping.getHandler(
+				MockServerWebExchange.from(MockServerHttpRequest.get(state.patternPath))).block();
+	}
+
+	@Benchmark
+	public Object noMatch(BenchmarkState state) {
+		return state.handlerMapping.getHandler(
+				MockServerWebExchange.from(MockServerHttpRequest.get("/api/unknown/42"))).block();
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"10", "100", "1000"})
+		public int resourceCount;
+
+		public RequestMappingHandlerMapping handlerMapping;
+
+		public String literalPath;
+
+		public String patternPath;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.handlerMapping = new RequestMappingHandlerMapping();
+			Controller controller = new Controller();
+			Method list = ReflectionUtils.findMethod(Controller.class, "list");
+			Method get = ReflectionUtils.findMethod(Controller.class, "get", String.class);
+			Method update = ReflectionUtils.findMethod(Controller.class, "update", String.class);
+			for (int i = 0; i < this.resourceCount; i++) {
+				String path = "/api/resources" + i;
+				this.handlerMapping.registerMapping(
+						RequestMappingInfo.paths(path).methods(RequestMethod.GET).build(), controller, list);
+				this.handlerMapping.registerMapping(
+						RequestMappingInfo.paths(path + "/{id}").methods(RequestMethod.GET).build(), controller, get);
+				this.handlerMapping.registerMapping(
+						RequestMappingInfo.paths(path + "/{id}").methods(RequestMethod.PUT).build(), controller, update);
+			}
+			int last = this.resourceCount - 1;
+			this.literalPath = "/api/resources" + last;
+			this.patternPath = "/api/resources" + last + "/42";
+		}
+	}
+
+
+	public static class Controller {
+
+		public void list() {
+		}
+
+		public void get(String id) {
+		}
+
+		public void update(String id) {
+		}
+	}
+
+}
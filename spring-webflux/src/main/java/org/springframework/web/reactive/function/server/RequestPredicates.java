@@ -26,6 +26,7 @@ import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -321,6 +322,38 @@ public abstract class RequestPredicates {
 
 	}
 
+	/**
+	 * Return the path patterns of which at least one has to match the path of
+	 * a request for the given predicate to {@linkplain RequestPredicate#test test}
+	 * positively, or {@code null} if the predicate is not restricted to any patterns.
+	 * @param predicate the predicate to introspect
+	 * @param nested whether the predicate is used to {@linkplain RequestPredicate#nest nest}
+	 * requests, in which case only the leading path pattern applies to the request path
+	 */
+	@Nullable
+	static Set<PathPattern> requiredPathPatterns(RequestPredicate predicate, boolean nested) {
+		if (predicate instanceof PathPatternPredicate) {
+			return Collections.singleton(((PathPatternPredicate) predicate).pattern);
+		}
+		else if (predicate instanceof AndRequestPredicate) {
+			AndRequestPredicate and = (AndRequestPredicate) predicate;
+			Set<PathPattern> patterns = requiredPathPatterns(and.left, nested);
+			return (patterns != null || nested ? patterns : requiredPathPatterns(and.right, false));
+		}
+		else if (predicate instanceof OrRequestPredicate) {
+			OrRequestPredicate or = (OrRequestPredicate) predicate;
+			Set<PathPattern> leftPatterns = requiredPathPatterns(or.left, nested);
+			Set<PathPattern> rightPatterns = requiredPathPatterns(or.right, nested);
+			if (leftPatterns == null || rightPatterns == null) {
+				return null;
+			}
+			Set<PathPattern> patterns = new LinkedHashSet<>(leftPatterns);
+			patterns.addAll(rightPatterns);
+			return patterns;
+		}
+		return null;
+	}
+
 
 	/**
 	 * Receives notifications from the logical structure of request predicates.
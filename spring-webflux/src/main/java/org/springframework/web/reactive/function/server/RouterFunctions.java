@@ -16,8 +16,11 @@
 
 package org.springframework.web.reactive.function.server;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -31,11 +34,14 @@ import reactor.core.publisher.Mono;
 import org.springframework.core.io.Resource;
 import org.springframework.http.codec.HttpMessageWriter;
 import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.result.view.ViewResolver;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebHandler;
 import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternIndex;
 
 /**
  * <strong>Central entry point to Spring's functional web framework.</strong>
@@ -858,6 +864,68 @@ public abstract class RouterFunctions {
 	}
 
 
+	/**
+	 * A composed routing function that invokes a list of functions (of the same response
+	 * type {@code T}) in order until one of them has a result, like a chain of
+	 * {@link SameComposedRouterFunction SameComposedRouterFunctions}, but skips the
+	 * functions that are restricted to path patterns which cannot match the request path.
+	 * @param <T> the server response type
+	 * @since 5.2
+	 * @see PathPatternIndex
+	 */
+	static final class IndexedRouterFunction<T extends ServerResponse> extends AbstractRouterFunction<T> {
+
+		private final List<RouterFunction<T>> routerFunctions;
+
+		private final PathPatternIndex<Integer> index = new PathPatternIndex<>();
+
+		public IndexedRouterFunction(List<RouterFunction<T>> routerFunctions) {
+			Assert.notEmpty(routerFunctions, "RouterFunctions must not be empty");
+			this.routerFunctions = new ArrayList<>(routerFunctions);
+			for (int i = 0; i < this.routerFunctions.size(); i++) {
+				Set<PathPattern> patterns = requiredPathPatterns(this.routerFunctions.get(i));
+				this.index.add(i, (patterns != null ? patterns : Collections.emptySet()));
+			}
+		}
+
+		@Nullable
+		private static Set<PathPattern> requiredPathPatterns(RouterFunction<?> routerFunction) {
+			if (routerFunction instanceof DefaultRouterFunction) {
+				return RequestPredicates.requiredPathPatterns(
+						((DefaultRouterFunction<?>) routerFunction).predicate, false);
+			}
+			else if (routerFunction instanceof DefaultNestedRouterFunction) {
+				return RequestPredicates.requiredPathPatterns(
+						((DefaultNestedRouterFunction<?>) routerFunction).predicate, true);
+			}
+			else if (routerFunction instanceof FilteredRouterFunction) {
+				return requiredPathPatterns(((FilteredRouterFunction<?, ?>) routerFunction).routerFunction);
+			}
+			return null;
+		}
+
+		@Override
+		public Mono<HandlerFunction<T>> route(ServerRequest request) {
+			List<Integer> candidates = this.index.getCandidates(request.pathContainer());
+			return route(request, candidates, 0);
+		}
+
+		private Mono<HandlerFunction<T>> route(ServerRequest request, List<Integer> candidates, int position) {
+			if (position == candidates.size()) {
+				return Mono.empty();
+			}
+			RouterFunction<T> routerFunction = this.routerFunctions.get(candidates.get(position));
+			return routerFunction.route(request)
+					.switchIfEmpty(Mono.defer(() -> route(request, candidates, position + 1)));
+		}
+
+		@Override
+		public void accept(Visitor visitor) {
+			this.routerFunctions.forEach(routerFunction -> routerFunction.accept(visitor));
+		}
+	}
+
+
 	/**
 	 * Filter the specified {@linkplain HandlerFunction handler functions} with the given
 	 * {@linkplain HandlerFilterFunction filter function}.
@@ -37,6 +37,7 @@ import reactor.core.publisher.Mono;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -47,6 +48,8 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.AbstractHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternIndex;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -311,7 +314,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	protected HandlerMethod lookupHandlerMethod(ServerWebExchange exchange) throws Exception {
 		List<Match> matches = new ArrayList<>();
-		addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, exchange);
+		PathContainer lookupPath = exchange.getRequest().getPath().pathWithinApplication();
+		addMatchingMappings(this.mappingRegistry.getCandidateMappings(lookupPath), matches, exchange);
 
 		if (!matches.isEmpty()) {
 			Comparator<Match> comparator = new MatchComparator(getMappingComparator(exchange));
@@ -413,6 +417,22 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	protected abstract T getMappingForMethod(Method method, Class<?> handlerType);
 
+	/**
+	 * Return the URL patterns of the supplied mapping, which are used to index
+	 * mappings so that a lookup only checks mappings with patterns that can
+	 * possibly match the {@link RequestPath#pathWithinApplication() path} of
+	 * the request, rather than all registered mappings.
+	 * <p>Implementations must return all patterns that the mapping can match
+	 * against, or an empty set if the mapping is to be checked for any path.
+	 * The default implementation returns an empty set.
+	 * @param mapping the mapping to get the patterns for
+	 * @return the patterns of the mapping (never {@code null})
+	 * @since 5.2
+	 */
+	protected Set<PathPattern> getMappingPathPatterns(T mapping) {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -446,6 +466,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
+		private final PathPatternIndex<T> pathPatternIndex = new PathPatternIndex<>();
+
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
 		/**
@@ -456,6 +478,16 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.mappingLookup;
 		}
 
+		/**
+		 * Return the mappings with path patterns that can possibly match the
+		 * given lookup path, in registration order. Not thread-safe.
+		 * @since 5.2
+		 * @see #acquireReadLock()
+		 */
+		public List<T> getCandidateMappings(PathContainer lookupPath) {
+			return this.pathPatternIndex.getCandidates(lookupPath);
+		}
+
 		/**
 		 * Return CORS configuration. Thread-safe for concurrent use.
 		 */
@@ -485,6 +517,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				HandlerMethod handlerMethod = createHandlerMethod(handler, method);
 				validateMethodMapping(handlerMethod, mapping);
 				this.mappingLookup.put(mapping, handlerMethod);
+				this.pathPatternIndex.add(mapping, getMappingPathPatterns(mapping));
 
 				CorsConfiguration corsConfig = initCorsConfiguration(handler, method, mapping);
 				if (corsConfig != null) {
@@ -518,6 +551,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				}
 
 				this.mappingLookup.remove(definition.getMapping());
+				this.pathPatternIndex.remove(definition.getMapping());
 				this.corsLookup.remove(definition.getHandlerMethod());
 			}
 			finally {
@@ -33,6 +33,7 @@ import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ReactiveAdapter;
 import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.invoke.MethodAccessorFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.lang.Nullable;
@@ -66,6 +67,9 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private ReactiveAdapterRegistry reactiveAdapterRegistry = ReactiveAdapterRegistry.getSharedInstance();
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 
 	/**
 	 * Create an instance from a {@code HandlerMethod}.
@@ -122,6 +126,17 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		this.reactiveAdapterRegistry = registry;
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking the handler method,
+	 * e.g. a {@link org.springframework.core.invoke.GeneratedMethodAccessorFactory}
+	 * to avoid reflective invocation.
+	 * <p>By default, the handler method is invoked via reflection.
+	 * @since 5.2
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
 
 	/**
 	 * Invoke the method for the given exchange.
@@ -137,12 +152,16 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		return getMethodArgumentValues(exchange, bindingContext, providedArgs).flatMap(args -> {
 			Object value;
 			try {
-				ReflectionUtils.makeAccessible(getBridgedMethod());
 				Method method = getBridgedMethod();
 				if (KotlinDetector.isKotlinReflectPresent() && KotlinDetector.isKotlinType(method.getDeclaringClass())) {
+					ReflectionUtils.makeAccessible(method);
 					value = CoroutinesUtils.invokeHandlerMethod(method, getBean(), args);
 				}
+				else if (this.methodAccessorFactory != null) {
+					value = this.methodAccessorFactory.getMethodAccessor(method).invoke(getBean(), args);
+				}
 				else {
+					ReflectionUtils.makeAccessible(method);
 					value = method.invoke(getBean(), args);
 				}
 			}
@@ -68,6 +68,14 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	}
 
 
+	/**
+	 * Get the URL paths associated with this {@link RequestMappingInfo}.
+	 */
+	@Override
+	protected Set<PathPattern> getMappingPathPatterns(RequestMappingInfo info) {
+		return info.getPatternsCondition().getPatterns();
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
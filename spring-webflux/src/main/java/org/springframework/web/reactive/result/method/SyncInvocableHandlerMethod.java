@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import reactor.core.publisher.MonoProcessor;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.invoke.MethodAccessorFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.BindingContext;
@@ -89,6 +90,17 @@ public class SyncInvocableHandlerMethod extends HandlerMethod {
 		return this.delegate.getParameterNameDiscoverer();
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking the handler method,
+	 * e.g. a {@link org.springframework.core.invoke.GeneratedMethodAccessorFactory}
+	 * to avoid reflective invocation.
+	 * <p>By default, the handler method is invoked via reflection.
+	 * @since 5.2
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.delegate.setMethodAccessorFactory(methodAccessorFactory);
+	}
+
 
 	/**
 	 * Invoke the method for the given exchange.
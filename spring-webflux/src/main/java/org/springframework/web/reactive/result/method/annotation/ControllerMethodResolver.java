@@ -37,6 +37,7 @@ import org.springframework.core.MethodIntrospector;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.invoke.MethodAccessorFactory;
 import org.springframework.http.codec.HttpMessageReader;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -96,6 +97,9 @@ class ControllerMethodResolver {
 
 	private final ReactiveAdapterRegistry reactiveAdapterRegistry;
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 
 	private final Map<Class<?>, Set<Method>> initBinderMethodCache = new ConcurrentHashMap<>(64);
 
@@ -131,6 +135,14 @@ class ControllerMethodResolver {
 		initControllerAdviceCaches(context);
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to apply to all controller methods
+	 * returned from this resolver.
+	 */
+	void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
 	private List<SyncHandlerMethodArgumentResolver> initBinderResolvers(
 			ArgumentResolverConfigurer customResolvers, ReactiveAdapterRegistry adapterRegistry,
 			ConfigurableApplicationContext context) {
@@ -266,6 +278,7 @@ class ControllerMethodResolver {
 		InvocableHandlerMethod invocable = new InvocableHandlerMethod(handlerMethod);
 		invocable.setArgumentResolvers(this.requestMappingResolvers);
 		invocable.setReactiveAdapterRegistry(this.reactiveAdapterRegistry);
+		invocable.setMethodAccessorFactory(this.methodAccessorFactory);
 		return invocable;
 	}
 
@@ -299,6 +312,7 @@ class ControllerMethodResolver {
 	private SyncInvocableHandlerMethod getInitBinderMethod(Object bean, Method method) {
 		SyncInvocableHandlerMethod invocable = new SyncInvocableHandlerMethod(bean, method);
 		invocable.setArgumentResolvers(this.initBinderResolvers);
+		invocable.setMethodAccessorFactory(this.methodAccessorFactory);
 		return invocable;
 	}
 
@@ -332,6 +346,7 @@ class ControllerMethodResolver {
 	private InvocableHandlerMethod createAttributeMethod(Object bean, Method method) {
 		InvocableHandlerMethod invocable = new InvocableHandlerMethod(bean, method);
 		invocable.setArgumentResolvers(this.modelAttributeResolvers);
+		invocable.setMethodAccessorFactory(this.methodAccessorFactory);
 		return invocable;
 	}
 
@@ -369,6 +384,7 @@ class ControllerMethodResolver {
 
 		InvocableHandlerMethod invocable = new InvocableHandlerMethod(targetBean, targetMethod);
 		invocable.setArgumentResolvers(this.exceptionHandlerResolvers);
+		invocable.setMethodAccessorFactory(this.methodAccessorFactory);
 		return invocable;
 	}
 
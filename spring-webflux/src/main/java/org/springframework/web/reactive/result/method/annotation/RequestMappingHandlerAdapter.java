@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.invoke.MethodAccessorFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.codec.HttpMessageReader;
 import org.springframework.http.codec.ServerCodecConfigurer;
@@ -68,6 +69,9 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 	@Nullable
 	private ReactiveAdapterRegistry reactiveAdapterRegistry;
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 	@Nullable
 	private ConfigurableApplicationContext applicationContext;
 
@@ -142,6 +146,26 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 		return this.reactiveAdapterRegistry;
 	}
 
+	/**
+	 * Configure the {@link MethodAccessorFactory} to use for invoking controller
+	 * methods, e.g. a {@link org.springframework.core.invoke.GeneratedMethodAccessorFactory}
+	 * to avoid reflective invocation.
+	 * <p>By default, controller methods are invoked via reflection.
+	 * @since 5.2
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
+	/**
+	 * Return the configured {@link MethodAccessorFactory}, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public MethodAccessorFactory getMethodAccessorFactory() {
+		return this.methodAccessorFactory;
+	}
+
 	/**
 	 * A {@link ConfigurableApplicationContext} is expected for resolving
 	 * expressions in method argument default values as well as for
@@ -172,6 +196,7 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 
 		this.methodResolver = new ControllerMethodResolver(this.argumentResolverConfigurer,
 				this.reactiveAdapterRegistry, this.applicationContext, this.messageReaders);
+		this.methodResolver.setMethodAccessorFactory(this.methodAccessorFactory);
 
 		this.modelInitializer = new ModelInitializer(this.methodResolver, this.reactiveAdapterRegistry);
 	}
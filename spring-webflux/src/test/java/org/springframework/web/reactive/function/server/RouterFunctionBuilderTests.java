@@ -104,6 +104,36 @@ public class RouterFunctionBuilderTests {
 
 	}
 
+	@Test
+	public void routesOnlyCandidatesForPath() {
+		RouterFunction<ServerResponse> route = RouterFunctions.route()
+				.route(RequestPredicates.path("/skipped").and(request -> {
+					throw new AssertionError("Should not be tested for " + request.path());
+				}), request -> ServerResponse.ok().build())
+				.GET("/foo/bar", request -> ServerResponse.ok().build())
+				.GET("/foo/{id}", request -> ServerResponse.accepted().build())
+				.add(RouterFunctions.route(RequestPredicates.all(), request -> ServerResponse.noContent().build()))
+				.build();
+
+		assertEquals(Integer.valueOf(200), routeStatus(route, "http://localhost/foo/bar"));
+		assertEquals(Integer.valueOf(202), routeStatus(route, "http://localhost/foo/baz"));
+		assertEquals(Integer.valueOf(204), routeStatus(route, "http://localhost/foo"));
+		assertEquals(Integer.valueOf(204), routeStatus(route, "http://localhost/bar"));
+	}
+
+	private static Integer routeStatus(RouterFunction<ServerResponse> route, String uri) {
+		MockServerRequest request = MockServerRequest.builder()
+				.method(HttpMethod.GET)
+				.uri(URI.create(uri))
+				.build();
+
+		return route.route(request)
+				.flatMap(handlerFunction -> handlerFunction.handle(request))
+				.map(ServerResponse::statusCode)
+				.map(HttpStatus::value)
+				.block();
+	}
+
 	@Test
 	public void resources() {
 		Resource resource = new ClassPathResource("/org/springframework/web/reactive/function/server/");
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+/**
+ * Benchmarks for the handler method lookup performed by
+ * {@link RequestMappingHandlerMapping}, for direct path matches as well as for
+ * URI template matches against a varying number of registered mappings.
+ *
+ * @since 5.2
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RequestMappingHandlerMappingBenchmark {
+
+	@Benchmark
+	public HandlerExecutionChain directPathMatch(BenchmarkState state) throws Exception {
+		return state.handlerMapping.getHandler(state.directPathRequest);
+	}
+
+	@Benchmark
+	public HandlerExecutionChain patternMatch(BenchmarkState state) throws Exception {
+		return state.handlerMapping.getHandler(state.patternRequest);
+	}
+
+	@Benchmark
+	public HandlerExecutionChain noMatch(BenchmarkState state) throws Exception {
+		return state.handlerMapping.getHandler(state.noMatchRequest);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"10", "100", "1000"})
+		public int resourceCount;
+
+		public RequestMappingHandlerMapping handlerMapping;
+
+		public MockHttpServletRequest directPathRequest;
+
+		public MockHttpServletRequest patternRequest;
+
+		public MockHttpServletRequest noMatchRequest;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.handlerMapping = new RequestMappingHandlerMapping();
+			Controller controller = new Controller();
+			Method list = ReflectionUtils.findMethod(Controller.class, "list");
+			Method get = ReflectionUtils.findMethod(Controller.class, "get", String.class);
+			Method update = ReflectionUtils.findMethod(Controller.class, "update", String.class);
+			for (int i = 0; i < this.resourceCount; i++) {
+				String path = "/api/resources" + i;
+				this.handlerMapping.registerMapping(
+						RequestMappingInfo.paths(path).methods(RequestMethod.GET).build(), controller, list);
+				this.handlerMapping.registerMapping(
+						RequestMappingInfo.paths(path + "/{id}").methods(RequestMethod.GET).build(), controller, get);
+				this.handlerMapping.registerMapping(
+						RequestMappingInfo.paths(path + "/{id}").methods(RequestMethod.PUT).build(), controller, update);
+			}
+			int last = this.resourceCount - 1;
+			this.directPathRequest = new MockHttpServletRequest("GET", "/api/resources" + last);
+			this.patternRequest = new MockHttpServletRequest("GET", "/api/resources" + last + "/42");
+			this.noMatchRequest = new MockHttpServletRequest("GET", "/api/unknown/42");
+		}
+	}
+
+
+	public static class Controller {
+
+		public void list() {
+		}
+
+		public void get(String id) {
+		}
+
+		public void update(String id) {
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -51,6 +51,9 @@ public class PathMatchConfigurer {
 	@Nullable
 	private Boolean registeredSuffixPatternMatch;
 
+	@Nullable
+	private Boolean pathPatternIndex;
+
 	@Nullable
 	private UrlPathHelper urlPathHelper;
 
@@ -96,6 +99,22 @@ public class PathMatchConfigurer {
 		return this;
 	}
 
+	/**
+	 * Whether to index the URL patterns of request mappings by their leading
+	 * literal path segments, so that a request without a direct URL match is
+	 * only checked against mappings that can possibly match its path. This is
+	 * recommended for applications with a large number of mappings with URI
+	 * variables or wildcards, as long as the default {@code AntPathMatcher}
+	 * (or another matcher that matches literal path segments exactly) is used.
+	 * <p>By default this is set to "false".
+	 * @since 5.2
+	 * @see org.springframework.web.servlet.handler.AbstractHandlerMethodMapping#setUsePathPatternIndex
+	 */
+	public PathMatchConfigurer setUsePathPatternIndex(Boolean pathPatternIndex) {
+		this.pathPatternIndex = pathPatternIndex;
+		return this;
+	}
+
 	/**
 	 * Set the UrlPathHelper to use for resolution of lookup paths.
 	 * <p>Use this to override the default UrlPathHelper with a custom subclass,
@@ -152,6 +171,11 @@ public class PathMatchConfigurer {
 		return this.registeredSuffixPatternMatch;
 	}
 
+	@Nullable
+	public Boolean isUsePathPatternIndex() {
+		return this.pathPatternIndex;
+	}
+
 	@Nullable
 	public UrlPathHelper getUrlPathHelper() {
 		return this.urlPathHelper;
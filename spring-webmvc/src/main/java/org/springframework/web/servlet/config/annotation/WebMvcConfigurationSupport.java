@@ -297,6 +297,10 @@ public class WebMvcConfigurationSupport implements ApplicationContextAware, Serv
 		if (useTrailingSlashMatch != null) {
 			mapping.setUseTrailingSlashMatch(useTrailingSlashMatch);
 		}
+		Boolean usePathPatternIndex = configurer.isUsePathPatternIndex();
+		if (usePathPatternIndex != null) {
+			mapping.setUsePathPatternIndex(usePathPatternIndex);
+		}
 
 		UrlPathHelper pathHelper = configurer.getUrlPathHelper();
 		if (pathHelper != null) {
@@ -144,6 +144,60 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return this.namingStrategy;
 	}
 
+	/**
+	 * Whether to index the URL patterns of registered mappings by their leading
+	 * literal path segments, so that a lookup path without a direct URL match is
+	 * only checked against mappings with patterns that can possibly match it,
+	 * rather than against all registered mappings.
+	 * <p>This is recommended for applications with a large number of mappings
+	 * with URI variables or wildcards. It requires {@link #getMappingPathPatterns}
+	 * to return all patterns a mapping can match, and a
+	 * {@link #getPathMatcher() PathMatcher} that matches literal path segments
+	 * exactly, as the default case-sensitive
+	 * {@link org.springframework.util.AntPathMatcher AntPathMatcher} does.
+	 * <p>By default this is set to "false".
+	 * @since 5.2
+	 */
+	public void setUsePathPatternIndex(boolean usePathPatternIndex) {
+		this.mappingRegistry.setPathPatternIndexEnabled(usePathPatternIndex);
+	}
+
+	/**
+	 * Whether the URL patterns of registered mappings are indexed.
+	 * @since 5.2
+	 * @see #setUsePathPatternIndex
+	 */
+	public boolean usePathPatternIndex() {
+		return this.mappingRegistry.isPathPatternIndexEnabled();
+	}
+
+	/**
+	 * Whether to look up handler methods in an immutable snapshot of the
+	 * registered mappings, rather than under the shared read lock of the
+	 * mapping registry. A new snapshot is created on the first lookup after
+	 * mappings have been registered or unregistered.
+	 * <p>This avoids contention on the read lock for concurrent requests, which
+	 * can become noticeable on machines with many cores, at the expense of
+	 * copying all mappings after each change. It is therefore recommended for
+	 * applications that do not frequently change their mappings at runtime.
+	 * A lookup that runs concurrently with such a change may see the mappings
+	 * from before the change.
+	 * <p>By default this is set to "false".
+	 * @since 5.2
+	 */
+	public void setUseRegistrySnapshot(boolean useRegistrySnapshot) {
+		this.mappingRegistry.setSnapshotEnabled(useRegistrySnapshot);
+	}
+
+	/**
+	 * Whether handler methods are looked up in a snapshot of the registered mappings.
+	 * @since 5.2
+	 * @see #setUseRegistrySnapshot
+	 */
+	public boolean useRegistrySnapshot() {
+		return this.mappingRegistry.isSnapshotEnabled();
+	}
+
 	/**
 	 * Return a (read-only) map with all mappings and HandlerMethod's.
 	 */
@@ -390,8 +444,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		// <1> 获得请求的路径
 		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
 		request.setAttribute(LOOKUP_PATH, lookupPath);
-		// <2> 获得写锁
-		this.mappingRegistry.acquireReadLock();
+		// <2> 获得读锁（快照模式下无需加锁）
+		boolean readLock = !this.mappingRegistry.isSnapshotEnabled();
+		if (readLock) {
+			this.mappingRegistry.acquireReadLock();
+		}
 		try {
 			// <3> 获得 HandlerMethod 对象
 			HandlerMethod handlerMethod = lookupHandlerMethod(lookupPath, request);
@@ -399,8 +456,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return (handlerMethod != null ? handlerMethod.createWithResolvedBean() : null);
 		}
 		finally {
-			// <5> 释放写锁
-			this.mappingRegistry.releaseReadLock();
+			// <5> 释放读锁
+			if (readLock) {
+				this.mappingRegistry.releaseReadLock();
+			}
 		}
 	}
 
@@ -421,8 +480,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			// No choice but to go through all (indexed) candidate mappings...
+			addMatchingMappings(this.mappingRegistry.getCandidateMappings(lookupPath), matches, request);
 		}
 
 		if (!matches.isEmpty()) {
@@ -458,7 +517,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		for (T mapping : mappings) {
 			T match = getMatchingMapping(mapping, request);
 			if (match != null) {
-				matches.add(new Match(match, this.mappingRegistry.getMappings().get(mapping)));
+				HandlerMethod handlerMethod = this.mappingRegistry.getMappings().get(mapping);
+				// May have been unregistered concurrently when looking up in registry snapshots
+				if (handlerMethod != null) {
+					matches.add(new Match(match, handlerMethod));
+				}
 			}
 		}
 	}
@@ -592,26 +655,157 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
+
+		@Nullable
+		private MappingPathIndex<T> pathPatternIndex;
 		/**
 		 * 读写锁
 		 */
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
 		/**
-		 * Return all mappings and handler methods. Not thread-safe.
+		 * 是否启用快照模式
+		 */
+		private volatile boolean snapshotEnabled;
+
+		/**
+		 * 当前快照，注册或取消注册后置空，在下一次查找时重新创建
+		 */
+		@Nullable
+		private volatile RegistrySnapshot<T> snapshot;
+
+		/**
+		 * Return all mappings and handler methods. Not thread-safe, unless
+		 * snapshots are enabled.
 		 * @see #acquireReadLock()
+		 * @see #setSnapshotEnabled
 		 */
 		public Map<T, HandlerMethod> getMappings() {
-			return this.mappingLookup;
+			RegistrySnapshot<T> snapshot = getSnapshot();
+			return (snapshot != null ? snapshot.mappingLookup : this.mappingLookup);
 		}
 
 		/**
-		 * Return matches for the given URL path. Not thread-safe.
+		 * Return matches for the given URL path. Not thread-safe, unless
+		 * snapshots are enabled.
 		 * @see #acquireReadLock()
+		 * @see #setSnapshotEnabled
 		 */
 		@Nullable
 		public List<T> getMappingsByUrl(String urlPath) {
-			return this.urlLookup.get(urlPath);
+			RegistrySnapshot<T> snapshot = getSnapshot();
+			return (snapshot != null ? snapshot.urlLookup.get(urlPath) : this.urlLookup.get(urlPath));
+		}
+
+		/**
+		 * Return the mappings to check for the given lookup path: the candidates
+		 * from the path pattern index, if enabled, or all mappings otherwise.
+		 * Not thread-safe, unless snapshots are enabled.
+		 * @since 5.2
+		 * @see #acquireReadLock()
+		 * @see #setSnapshotEnabled
+		 */
+		public Collection<T> getCandidateMappings(String lookupPath) {
+			RegistrySnapshot<T> snapshot = getSnapshot();
+			if (snapshot != null) {
+				return (snapshot.pathPatternIndex != null ?
+						snapshot.pathPatternIndex.getCandidates(lookupPath) : snapshot.mappingLookup.keySet());
+			}
+			return (this.pathPatternIndex != null ?
+					this.pathPatternIndex.getCandidates(lookupPath) : this.mappingLookup.keySet());
+		}
+
+		/**
+		 * Enable or disable indexing of mapping path patterns, (re-)building the
+		 * index for already registered mappings as necessary.
+		 * @since 5.2
+		 */
+		public void setPathPatternIndexEnabled(boolean enabled) {
+			this.readWriteLock.writeLock().lock();
+			try {
+				if (!enabled) {
+					this.pathPatternIndex = null;
+				}
+				else if (this.pathPatternIndex == null) {
+					MappingPathIndex<T> index = new MappingPathIndex<>();
+					for (T mapping : this.mappingLookup.keySet()) {
+						index.add(mapping, getMappingPathPatterns(mapping));
+					}
+					this.pathPatternIndex = index;
+				}
+				this.snapshot = null;
+			}
+			finally {
+				this.readWriteLock.writeLock().unlock();
+			}
+		}
+
+		/**
+		 * Whether mapping path patterns are indexed.
+		 * @since 5.2
+		 */
+		public boolean isPathPatternIndexEnabled() {
+			return (this.pathPatternIndex != null);
+		}
+
+		/**
+		 * Enable or disable lookups in immutable snapshots of the registered
+		 * mappings. When enabled, {@link #getMappings()}, {@link #getMappingsByUrl}
+		 * and {@link #getCandidateMappings} read the current snapshot without
+		 * locking, while {@link #register} and {@link #unregister} discard it.
+		 * @since 5.2
+		 */
+		public void setSnapshotEnabled(boolean enabled) {
+			this.readWriteLock.writeLock().lock();
+			try {
+				this.snapshotEnabled = enabled;
+				this.snapshot = null;
+			}
+			finally {
+				this.readWriteLock.writeLock().unlock();
+			}
+		}
+
+		/**
+		 * Whether lookups are performed in snapshots of the registered mappings.
+		 * @since 5.2
+		 */
+		public boolean isSnapshotEnabled() {
+			return this.snapshotEnabled;
+		}
+
+		/**
+		 * Return the current snapshot, creating it if necessary, or {@code null}
+		 * if snapshots are not enabled.
+		 */
+		@Nullable
+		private RegistrySnapshot<T> getSnapshot() {
+			if (!this.snapshotEnabled) {
+				return null;
+			}
+			RegistrySnapshot<T> snapshot = this.snapshot;
+			if (snapshot == null) {
+				// The read lock keeps writers from discarding the snapshot before it is published
+				this.readWriteLock.readLock().lock();
+				try {
+					snapshot = this.snapshot;
+					if (snapshot == null) {
+						MappingPathIndex<T> index = null;
+						if (this.pathPatternIndex != null) {
+							index = new MappingPathIndex<>();
+							for (T mapping : this.mappingLookup.keySet()) {
+								index.add(mapping, getMappingPathPatterns(mapping));
+							}
+						}
+						snapshot = new RegistrySnapshot<>(this.mappingLookup, this.urlLookup, index);
+						this.snapshot = snapshot;
+					}
+				}
+				finally {
+					this.readWriteLock.readLock().unlock();
+				}
+			}
+			return snapshot;
 		}
 
 		/**
@@ -662,6 +856,9 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				validateMethodMapping(handlerMethod, mapping);
 				// <2.3> 添加 mapping + HandlerMethod 到 mappingLookup 中
 				this.mappingLookup.put(mapping, handlerMethod);
+				if (this.pathPatternIndex != null) {
+					this.pathPatternIndex.add(mapping, getMappingPathPatterns(mapping));
+				}
 
 				// <3.1> 获得 mapping 对应的普通 URL 数组
 				//例如，@RequestMapping("/user/login") 注解对应的路径，就是直接路径。
@@ -688,9 +885,11 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				}
 				// <6> 创建 MappingRegistration 对象，并 mapping + MappingRegistration 添加到 registry 中
 				this.registry.put(mapping, new MappingRegistration<>(mapping, handlerMethod, directUrls, name));
+				// <7> 丢弃快照
+				this.snapshot = null;
 			}
 			finally {
-				// <7> 释放写锁
+				// <8> 释放写锁
 				this.readWriteLock.writeLock().unlock();
 			}
 		}
@@ -756,6 +955,9 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				}
 				//从mappingLookup中移除
 				this.mappingLookup.remove(definition.getMapping());
+				if (this.pathPatternIndex != null) {
+					this.pathPatternIndex.remove(definition.getMapping());
+				}
 
 				//从urlLookup中移除
 				for (String url : definition.getDirectUrls()) {
@@ -771,6 +973,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				removeMappingName(definition);
 				//从corsLookup中移除
 				this.corsLookup.remove(definition.getHandlerMethod());
+				//丢弃快照
+				this.snapshot = null;
 			}
 			finally {
 				this.readWriteLock.writeLock().unlock();
@@ -861,6 +1065,31 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	}
 
 
+	/**
+	 * An immutable copy of the lookup structures of the {@link MappingRegistry},
+	 * used for lookups without locking.
+	 */
+	private static final class RegistrySnapshot<T> {
+
+		private final Map<T, HandlerMethod> mappingLookup;
+
+		private final Map<String, List<T>> urlLookup;
+
+		@Nullable
+		private final MappingPathIndex<T> pathPatternIndex;
+
+		public RegistrySnapshot(Map<T, HandlerMethod> mappingLookup, MultiValueMap<String, T> urlLookup,
+				@Nullable MappingPathIndex<T> pathPatternIndex) {
+
+			this.mappingLookup = Collections.unmodifiableMap(new LinkedHashMap<>(mappingLookup));
+			Map<String, List<T>> urls = new HashMap<>(urlLookup.size());
+			urlLookup.forEach((url, mappings) -> urls.put(url, Collections.unmodifiableList(new ArrayList<>(mappings))));
+			this.urlLookup = urls;
+			this.pathPatternIndex = pathPatternIndex;
+		}
+	}
+
+
 	/**
 	 * A thin wrapper around a matched HandlerMethod and its mapping, for the purpose of
 	 * comparing the best match with a comparator in the context of the current request.
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * A prefix tree over the path segments of URL patterns, used to narrow down
+ * the mappings that need to be checked for a given lookup path.
+ *
+ * <p>Each mapping is stored under the leading literal segments of each of its
+ * patterns, i.e. the segments before the first one with a wildcard or URI
+ * variable. For example {@code "/api/orders/{id}/items"} is stored under
+ * {@code "api" -> "orders"}. A lookup walks the segments of the lookup path
+ * down the tree and returns all mappings found along the way, which is a
+ * superset of the mappings that can match the path. Mappings without patterns
+ * or with a pattern that starts with a non-literal segment are always returned.
+ *
+ * <p>The last matched literal segment is also tried against the lookup path
+ * segment with any file extension removed, in order to account for suffix
+ * pattern matching, e.g. {@code "/users"} matching {@code "/users.json"}.
+ *
+ * <p>Candidates are returned in registration order without duplicates, so that
+ * the subsequent sorting of matches is the same as for a full scan over all
+ * mappings. This class is not thread-safe; access is guarded by the
+ * {@link AbstractHandlerMethodMapping.MappingRegistry}.
+ *
+ * @since 5.2
+ * @param <T> the mapping type
+ */
+final class MappingPathIndex<T> {
+
+	private static final String PATH_SEPARATOR = "/";
+
+
+	private final Node<T> root = new Node<>();
+
+	private final Map<T, Entry<T>> entries = new HashMap<>();
+
+	private long registrationCounter;
+
+
+	/**
+	 * Add the given mapping, or update the index for a mapping that was added
+	 * before while preserving its original registration order.
+	 * @param mapping the mapping to add
+	 * @param patterns all URL patterns of the mapping
+	 */
+	public void add(T mapping, Collection<String> patterns) {
+		Entry<T> existing = this.entries.remove(mapping);
+		if (existing != null) {
+			detach(existing);
+		}
+		long order = (existing != null ? existing.order : this.registrationCounter++);
+		Entry<T> entry = new Entry<>(mapping, order);
+		if (patterns.isEmpty()) {
+			attach(entry, this.root);
+		}
+		else {
+			for (String pattern : patterns) {
+				Node<T> node = this.root;
+				for (String segment : tokenize(pattern)) {
+					if (!isLiteral(segment)) {
+						break;
+					}
+					node = node.getOrCreateChild(segment);
+				}
+				attach(entry, node);
+			}
+		}
+		this.entries.put(mapping, entry);
+	}
+
+	/**
+	 * Remove the given mapping from the index, if present.
+	 * @param mapping the mapping to remove
+	 */
+	public void remove(T mapping) {
+		Entry<T> entry = this.entries.remove(mapping);
+		if (entry != null) {
+			detach(entry);
+		}
+	}
+
+	/**
+	 * Return the number of indexed mappings.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Return the mappings that can possibly match the given lookup path,
+	 * in registration order.
+	 * @param lookupPath the lookup path within the current mapping
+	 * @return the candidate mappings (never {@code null})
+	 */
+	public List<T> getCandidates(String lookupPath) {
+		List<Node<T>> visited = new ArrayList<>();
+		List<Node<T>> current = Collections.singletonList(this.root);
+		for (String segment : tokenize(lookupPath)) {
+			visited.addAll(current);
+			List<Node<T>> next = null;
+			for (Node<T> node : current) {
+				next = addChildren(node, segment, next);
+			}
+			if (next == null) {
+				current = Collections.emptyList();
+				break;
+			}
+			current = next;
+		}
+		visited.addAll(current);
+		return collect(visited);
+	}
+
+	@Nullable
+	private List<Node<T>> addChildren(Node<T> node, String segment, @Nullable List<Node<T>> result) {
+		if (node.children == null) {
+			return result;
+		}
+		Node<T> child = node.children.get(segment);
+		if (child != null) {
+			result = (result != null ? result : new ArrayList<>(1));
+			result.add(child);
+		}
+		int index = segment.indexOf('.');
+		while (index != -1) {
+			child = node.children.get(segment.substring(0, index));
+			if (child != null) {
+				result = (result != null ? result : new ArrayList<>(1));
+				result.add(child);
+			}
+			index = segment.indexOf('.', index + 1);
+		}
+		return result;
+	}
+
+	private List<T> collect(List<Node<T>> nodes) {
+		List<Entry<T>> found = new ArrayList<>();
+		for (Node<T> node : nodes) {
+			found.addAll(node.entries);
+		}
+		if (found.size() > 1) {
+			found.sort((entry1, entry2) -> Long.compare(entry1.order, entry2.order));
+		}
+		List<T> result = new ArrayList<>(found.size());
+		Entry<T> previous = null;
+		for (Entry<T> entry : found) {
+			if (entry != previous) {
+				result.add(entry.mapping);
+			}
+			previous = entry;
+		}
+		return result;
+	}
+
+	private void attach(Entry<T> entry, Node<T> node) {
+		if (entry.nodes.add(node)) {
+			node.entries.add(entry);
+		}
+	}
+
+	private void detach(Entry<T> entry) {
+		for (Node<T> node : entry.nodes) {
+			node.entries.remove(entry);
+		}
+	}
+
+	private static String[] tokenize(String path) {
+		return StringUtils.tokenizeToStringArray(path, PATH_SEPARATOR, false, true);
+	}
+
+	private static boolean isLiteral(String segment) {
+		return (segment.indexOf('*') == -1 && segment.indexOf('?') == -1 && segment.indexOf('{') == -1);
+	}
+
+
+	private static final class Node<T> {
+
+		@Nullable
+		private Map<String, Node<T>> children;
+
+		private final List<Entry<T>> entries = new ArrayList<>(1);
+
+		Node<T> getOrCreateChild(String segment) {
+			if (this.children == null) {
+				this.children = new HashMap<>(4);
+			}
+			return this.children.computeIfAbsent(segment, key -> new Node<>());
+		}
+	}
+
+
+	private static final class Entry<T> {
+
+		private final T mapping;
+
+		private final long order;
+
+		private final Set<Node<T>> nodes = new LinkedHashSet<>(2);
+
+		Entry(T mapping, long order) {
+			this.mapping = mapping;
+			this.order = order;
+		}
+	}
+
+}
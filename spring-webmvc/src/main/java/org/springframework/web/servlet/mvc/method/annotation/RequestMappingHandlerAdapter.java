@@ -38,6 +38,7 @@ import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.invoke.MethodAccessorFactory;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
@@ -85,6 +86,7 @@ import org.springframework.web.method.annotation.SessionAttributesHandler;
 import org.springframework.web.method.annotation.SessionStatusMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodArgumentResolverComposite;
+import org.springframework.web.method.support.HandlerMethodArgumentResolverPlan;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
 import org.springframework.web.method.support.InvocableHandlerMethod;
@@ -177,6 +179,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 	@Nullable
 	private ConfigurableBeanFactory beanFactory;
 
@@ -191,6 +196,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache = new LinkedHashMap<>();
 
+	private final Map<HandlerMethod, HandlerMethodArgumentResolverPlan> argumentResolverPlanCache =
+			new ConcurrentHashMap<>(64);
+
 
 	public RequestMappingHandlerAdapter() {
 		this.messageConverters = new ArrayList<>(4);
@@ -533,6 +541,18 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking {@code @RequestMapping},
+	 * {@code @ModelAttribute} and {@code @InitBinder} methods, e.g. a
+	 * {@link org.springframework.core.invoke.GeneratedMethodAccessorFactory}
+	 * to avoid reflective invocation.
+	 * <p>By default, these methods are invoked via reflection.
+	 * @since 5.2
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
 	/**
 	 * A {@link ConfigurableBeanFactory} is expected for resolving expressions
 	 * in method argument default values.
@@ -854,12 +874,14 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
 			if (this.argumentResolvers != null) {
 				invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
+				invocableMethod.setArgumentResolverPlan(getArgumentResolverPlan(handlerMethod, this.argumentResolvers));
 			}
 			if (this.returnValueHandlers != null) {
 				invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
 			}
 			invocableMethod.setDataBinderFactory(binderFactory);
 			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+			invocableMethod.setMethodAccessorFactory(this.methodAccessorFactory);
 
 			ModelAndViewContainer mavContainer = new ModelAndViewContainer();
 			mavContainer.addAllAttributes(RequestContextUtils.getInputFlashMap(request));
@@ -898,6 +920,24 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		}
 	}
 
+	/**
+	 * Return the argument resolvers selected for the parameters of the given
+	 * handler method, cached per handler method as registered with the
+	 * handler mapping, i.e. before its bean was resolved for the request.
+	 */
+	private HandlerMethodArgumentResolverPlan getArgumentResolverPlan(
+			HandlerMethod handlerMethod, HandlerMethodArgumentResolverComposite resolvers) {
+
+		HandlerMethod resolvedFrom = handlerMethod.getResolvedFromHandlerMethod();
+		HandlerMethod key = (resolvedFrom != null ? resolvedFrom : handlerMethod);
+		HandlerMethodArgumentResolverPlan plan = this.argumentResolverPlanCache.get(key);
+		if (plan == null || !plan.isApplicableTo(handlerMethod.getMethodParameters(), resolvers)) {
+			plan = new HandlerMethodArgumentResolverPlan(handlerMethod, resolvers);
+			this.argumentResolverPlanCache.put(key, plan);
+		}
+		return plan;
+	}
+
 	/**
 	 * Create a {@link ServletInvocableHandlerMethod} from the given {@link HandlerMethod} definition.
 	 * @param handlerMethod the {@link HandlerMethod} definition
@@ -939,6 +979,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			attrMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
 		}
 		attrMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+		attrMethod.setMethodAccessorFactory(this.methodAccessorFactory);
 		attrMethod.setDataBinderFactory(factory);
 		return attrMethod;
 	}
@@ -974,6 +1015,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		}
 		binderMethod.setDataBinderFactory(new DefaultDataBinderFactory(this.webBindingInitializer));
 		binderMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+		binderMethod.setMethodAccessorFactory(this.methodAccessorFactory);
 		return binderMethod;
 	}
 
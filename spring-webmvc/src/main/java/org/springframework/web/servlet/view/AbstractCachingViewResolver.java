@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,13 @@
 
 package org.springframework.web.servlet.view;
 
-import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.web.context.support.WebApplicationObjectSupport;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.ViewResolver;
@@ -65,24 +64,14 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	/** Whether we should refrain from resolving views again if unresolved once. */
 	private boolean cacheUnresolved = true;
 
-	/** Fast access cache for Views, returning already cached instances without a global lock. */
-	private final Map<Object, View> viewAccessCache = new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
+	/**
+	 * Cache from view key to View instance, returning already cached instances without a global lock.
+	 * Sized from {@link #getCacheLimit()} when Views get created.
+	 */
+	private final ConcurrentLruCache<Object, View> viewCache = new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT);
 
-	/** Map from view key to View instance, synchronized for View creation. */
-	@SuppressWarnings("serial")
-	private final Map<Object, View> viewCreationCache =
-			new LinkedHashMap<Object, View>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<Object, View> eldest) {
-					if (size() > getCacheLimit()) {
-						viewAccessCache.remove(eldest.getKey());
-						return true;
-					}
-					else {
-						return false;
-					}
-				}
-			};
+	/** Lock for View creation. */
+	private final Object viewCreationMonitor = new Object();
 
 
 	/**
@@ -141,6 +130,17 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		return this.cacheUnresolved;
 	}
 
+	/**
+	 * Return the view cache, e.g. for exposing its hit, miss and eviction counts.
+	 * <p>Note that view names cached as unresolved are held with an internal
+	 * marker View.
+	 * @since 5.2
+	 * @see #setCacheLimit
+	 */
+	public ConcurrentLruCache<Object, View> getViewCache() {
+		return this.viewCache;
+	}
+
 
 	@Override
 	@Nullable
@@ -150,10 +150,10 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		}
 		else {
 			Object cacheKey = getCacheKey(viewName, locale);
-			View view = this.viewAccessCache.get(cacheKey);
+			View view = this.viewCache.getIfPresent(cacheKey);
 			if (view == null) {
-				synchronized (this.viewCreationCache) {
-					view = this.viewCreationCache.get(cacheKey);
+				synchronized (this.viewCreationMonitor) {
+					view = this.viewCache.getIfPresent(cacheKey);
 					if (view == null) {
 						// Ask the subclass to create the View object.
 						view = createView(viewName, locale);
@@ -161,8 +161,11 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 							view = UNRESOLVED_VIEW;
 						}
 						if (view != null) {
-							this.viewAccessCache.put(cacheKey, view);
-							this.viewCreationCache.put(cacheKey, view);
+							int cacheLimit = getCacheLimit();
+							if (cacheLimit > 0 && cacheLimit != this.viewCache.sizeLimit()) {
+								this.viewCache.setSizeLimit(cacheLimit);
+							}
+							this.viewCache.put(cacheKey, view);
 						}
 					}
 				}
@@ -207,9 +210,8 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		else {
 			Object cacheKey = getCacheKey(viewName, locale);
 			Object cachedView;
-			synchronized (this.viewCreationCache) {
-				this.viewAccessCache.remove(cacheKey);
-				cachedView = this.viewCreationCache.remove(cacheKey);
+			synchronized (this.viewCreationMonitor) {
+				cachedView = this.viewCache.remove(cacheKey);
 			}
 			if (logger.isDebugEnabled()) {
 				// Some debug output might be useful...
@@ -225,9 +227,8 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	 */
 	public void clearCache() {
 		logger.debug("Clearing all views from the cache");
-		synchronized (this.viewCreationCache) {
-			this.viewAccessCache.clear();
-			this.viewCreationCache.clear();
+		synchronized (this.viewCreationMonitor) {
+			this.viewCache.clear();
 		}
 	}
 
@@ -41,6 +41,7 @@ import org.springframework.web.util.UrlPathHelper;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 
 /**
@@ -106,6 +107,69 @@ public class HandlerMethodMappingTests {
 		this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo"));
 	}
 
+	@Test
+	public void patternMatchWithPathPatternIndex() throws Exception {
+		this.mapping = new PatternIndexedHandlerMethodMapping();
+		this.mapping.setUsePathPatternIndex(true);
+		this.mapping.registerMapping("/foo/*", this.handler, this.method1);
+		this.mapping.registerMapping("/bar/*", this.handler, this.method2);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bar/baz");
+		HandlerMethod result = this.mapping.getHandlerInternal(request);
+		assertEquals(method2, result.getMethod());
+		assertNull(this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/baz/bar")));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void ambiguousMatchWithPathPatternIndex() throws Exception {
+		this.mapping = new PatternIndexedHandlerMethodMapping();
+		this.mapping.setUsePathPatternIndex(true);
+		this.mapping.registerMapping("/f?o", this.handler, this.method1);
+		this.mapping.registerMapping("/fo?", this.handler, this.method2);
+
+		this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo"));
+	}
+
+	@Test
+	public void enablePathPatternIndexAfterRegistration() throws Exception {
+		this.mapping = new PatternIndexedHandlerMethodMapping();
+		this.mapping.registerMapping("/foo/**", this.handler, this.method1);
+		this.mapping.registerMapping("/foo/bar/*", this.handler, this.method2);
+		this.mapping.setUsePathPatternIndex(true);
+		assertTrue(this.mapping.usePathPatternIndex());
+
+		HandlerMethod result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo/bar/baz"));
+		assertEquals(method2, result.getMethod());
+
+		this.mapping.unregisterMapping("/foo/bar/*");
+		result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo/bar/baz"));
+		assertEquals(method1, result.getMethod());
+	}
+
+	@Test
+	public void lookupInRegistrySnapshot() throws Exception {
+		this.mapping = new PatternIndexedHandlerMethodMapping();
+		this.mapping.setUsePathPatternIndex(true);
+		this.mapping.setUseRegistrySnapshot(true);
+		assertTrue(this.mapping.useRegistrySnapshot());
+		this.mapping.registerMapping("/foo", this.handler, this.method1);
+		this.mapping.registerMapping("/bar/*", this.handler, this.method2);
+
+		HandlerMethod result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo"));
+		assertEquals(method1, result.getMethod());
+		result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/bar/baz"));
+		assertEquals(method2, result.getMethod());
+
+		this.mapping.unregisterMapping("/foo");
+		assertNull(this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo")));
+		assertNull(this.mapping.getMappingRegistry().getMappingsByUrl("/foo"));
+
+		this.mapping.registerMapping("/foo/*", this.handler, this.method1);
+		result = this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo/bar"));
+		assertEquals(method1, result.getMethod());
+		assertEquals(2, this.mapping.getHandlerMethods().size());
+	}
+
 	@Test
 	public void detectHandlerMethodsInAncestorContexts() {
 		StaticApplicationContext cxt = new StaticApplicationContext();
@@ -294,6 +358,14 @@ public class HandlerMethodMappingTests {
 
 	}
 
+	private static class PatternIndexedHandlerMethodMapping extends MyHandlerMethodMapping {
+
+		@Override
+		protected Set<String> getMappingPathPatterns(String key) {
+			return Collections.singleton(key);
+		}
+	}
+
 	private static class SimpleMappingNamingStrategy implements HandlerMethodMappingNamingStrategy<String> {
 
 		@Override
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link MappingPathIndex}.
+ */
+public class MappingPathIndexTests {
+
+	private final MappingPathIndex<String> index = new MappingPathIndex<>();
+
+
+	@Test
+	public void literalPrefix() {
+		this.index.add("orders", Collections.singleton("/api/orders/{id}"));
+		this.index.add("users", Collections.singleton("/api/users/{id}"));
+		this.index.add("items", Collections.singleton("/api/orders/{id}/items"));
+
+		assertEquals(Arrays.asList("orders", "items"), this.index.getCandidates("/api/orders/42"));
+		assertEquals(Collections.singletonList("users"), this.index.getCandidates("/api/users/42"));
+		assertTrue(this.index.getCandidates("/api/products/42").isEmpty());
+		assertTrue(this.index.getCandidates("/api").isEmpty());
+	}
+
+	@Test
+	public void nonLiteralLeadingSegmentAlwaysCandidate() {
+		this.index.add("catchAll", Collections.singleton("/**"));
+		this.index.add("variable", Collections.singleton("/{tenant}/orders"));
+		this.index.add("wildcard", Collections.singleton("/ord?rs"));
+		this.index.add("noPatterns", Collections.emptySet());
+		this.index.add("orders", Collections.singleton("/orders"));
+
+		assertEquals(Arrays.asList("catchAll", "variable", "wildcard", "noPatterns", "orders"),
+				this.index.getCandidates("/orders"));
+		assertEquals(Arrays.asList("catchAll", "variable", "wildcard", "noPatterns"),
+				this.index.getCandidates("/users"));
+	}
+
+	@Test
+	public void registrationOrderAcrossNodes() {
+		this.index.add("deep", Collections.singleton("/a/b/c/*"));
+		this.index.add("root", Collections.singleton("/*"));
+		this.index.add("middle", Collections.singleton("/a/*"));
+
+		assertEquals(Arrays.asList("deep", "root", "middle"), this.index.getCandidates("/a/b/c/d"));
+	}
+
+	@Test
+	public void multiplePatternsWithoutDuplicates() {
+		this.index.add("multi", Arrays.asList("/a/*", "/a/b/*", "/c/*"));
+
+		assertEquals(Collections.singletonList("multi"), this.index.getCandidates("/a/b/x"));
+		assertEquals(Collections.singletonList("multi"), this.index.getCandidates("/c/x"));
+	}
+
+	@Test
+	public void fileExtension() {
+		this.index.add("users", Collections.singleton("/users"));
+		this.index.add("file", Collections.singleton("/file.txt"));
+
+		assertEquals(Collections.singletonList("users"), this.index.getCandidates("/users.json"));
+		assertEquals(Collections.singletonList("file"), this.index.getCandidates("/file.txt.json"));
+		assertEquals(Collections.singletonList("users"), this.index.getCandidates("/users/"));
+	}
+
+	@Test
+	public void reAddKeepsOrder() {
+		this.index.add("first", Collections.singleton("/a/*"));
+		this.index.add("second", Collections.singleton("/a/*"));
+		this.index.add("first", Collections.singleton("/a/*"));
+
+		assertEquals(Arrays.asList("first", "second"), this.index.getCandidates("/a/b"));
+		assertEquals(2, this.index.size());
+	}
+
+	@Test
+	public void remove() {
+		this.index.add("orders", Arrays.asList("/orders/*", "/api/orders/*"));
+		this.index.add("users", Collections.singleton("/users/*"));
+		this.index.remove("orders");
+
+		assertTrue(this.index.getCandidates("/orders/1").isEmpty());
+		assertTrue(this.index.getCandidates("/api/orders/1").isEmpty());
+		assertEquals(Collections.singletonList("users"), this.index.getCandidates("/users/1"));
+		assertEquals(1, this.index.size());
+	}
+
+}
@@ -527,6 +527,47 @@ public class ViewResolverTests {
 		assertEquals(3, count.intValue());
 	}
 
+	@Test
+	public void testCacheLimit() throws Exception {
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) {
+				return new TestView();
+			}
+		};
+		viewResolver.setCacheLimit(2);
+
+		viewResolver.resolveViewName("view1", Locale.getDefault());
+		viewResolver.resolveViewName("view2", Locale.getDefault());
+		viewResolver.resolveViewName("view3", Locale.getDefault());
+		viewResolver.resolveViewName("view3", Locale.getDefault());
+
+		assertEquals(2, viewResolver.getViewCache().sizeLimit());
+		assertEquals(2, viewResolver.getViewCache().size());
+		assertEquals(1, viewResolver.getViewCache().evictionCount());
+		assertEquals(1, viewResolver.getViewCache().hitCount());
+	}
+
+	@Test
+	public void testCacheLimitFromSubclass() throws Exception {
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			public int getCacheLimit() {
+				return 1;
+			}
+			@Override
+			protected View loadView(String viewName, Locale locale) {
+				return new TestView();
+			}
+		};
+
+		viewResolver.resolveViewName("view1", Locale.getDefault());
+		viewResolver.resolveViewName("view2", Locale.getDefault());
+
+		assertEquals(1, viewResolver.getViewCache().sizeLimit());
+		assertEquals(1, viewResolver.getViewCache().size());
+	}
+
 
 	public static class TestView extends InternalResourceView {
 